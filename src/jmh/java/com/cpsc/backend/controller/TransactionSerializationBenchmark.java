@@ -0,0 +1,58 @@
+package com.cpsc.backend.controller;
+
+import com.cpsc.backend.model.TransactionResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JSON serialization of GET /api/institutions/{id}/transactions payloads, using the same
+ * ObjectMapper defaults Spring MVC applies.
+ */
+@State(Scope.Benchmark)
+public class TransactionSerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private ObjectWriter writer;
+    private List<TransactionResponse> transactions;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory()
+            .constructCollectionType(List.class, TransactionResponse.class));
+
+        UUID institutionId = UUID.randomUUID();
+        long now = Instant.now().getEpochSecond();
+        transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            TransactionResponse response = new TransactionResponse();
+            response.setTransactionId(UUID.randomUUID());
+            response.setInstitutionId(institutionId);
+            response.setType(i % 3 == 0 ? TransactionResponse.TypeEnum.WITHDRAWAL : TransactionResponse.TypeEnum.DEPOSIT);
+            response.setAmount(10.0 + i);
+            response.setTags(List.of("groceries", "weekly"));
+            response.setDescription("Transaction " + i);
+            response.setTransactionDate(now - i * 60L);
+            response.setCreatedAt(now - i * 60L);
+            transactions.add(response);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeTransactionList() throws Exception {
+        return writer.writeValueAsBytes(transactions);
+    }
+}
@@ -0,0 +1,57 @@
+package com.cpsc.backend.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * SECRET_HASH for one sign-in: a Mac looked up and keyed per call (as CognitoService used to)
+ * against the pooled, pre-keyed engine, alone and with 8 threads hashing at once as in a login
+ * storm. Run with -PjmhInclude=CognitoSecretHash and -prof gc to see allocation per call.
+ */
+@State(Scope.Benchmark)
+public class CognitoSecretHashBenchmark {
+
+    private static final String CLIENT_ID = "4p1ccrn2c5ub8pfj1qqclu2cne";
+    private static final String CLIENT_SECRET = "1s7o4a6f0e3ckuf8rq2c2m2l0tbcd29nmfb3vh9kdg0vq3l7oe5e";
+    private static final String USERNAME = "bench.user@example.com";
+
+    private CognitoSecretHash secretHash;
+
+    @Setup
+    public void setUp() {
+        secretHash = new CognitoSecretHash(CLIENT_ID, CLIENT_SECRET);
+    }
+
+    @Benchmark
+    public String perCallMac() throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(CLIENT_SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        mac.update(USERNAME.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(mac.doFinal(CLIENT_ID.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Benchmark
+    public String pooledEngine() {
+        return secretHash.compute(USERNAME);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String perCallMacContended() throws Exception {
+        return perCallMac();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String pooledEngineContended() {
+        return secretHash.compute(USERNAME);
+    }
+}
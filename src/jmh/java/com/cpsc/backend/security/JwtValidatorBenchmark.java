@@ -0,0 +1,95 @@
+package com.cpsc.backend.security;
+
+import com.auth0.jwk.Jwk;
+import com.auth0.jwk.JwkProvider;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cost of verifying a Cognito-style RS256 token once the signing key is cached locally.
+ */
+@State(Scope.Benchmark)
+public class JwtValidatorBenchmark {
+
+    private static final String USER_POOL_ID = "us-east-1_bench";
+    private static final String REGION = "us-east-1";
+    private static final String KEY_ID = "bench-key";
+
+    private JwtValidator jwtValidator;
+    private String validToken;
+    private String tamperedToken;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+
+        Jwk jwk = Jwk.fromValues(jwkValues(publicKey));
+        JwkProvider jwkProvider = keyId -> jwk;
+        jwtValidator = new JwtValidator(jwkProvider, USER_POOL_ID, REGION);
+
+        Algorithm algorithm = Algorithm.RSA256(publicKey, (RSAPrivateKey) keyPair.getPrivate());
+        validToken = JWT.create()
+            .withKeyId(KEY_ID)
+            .withIssuer(String.format("https://cognito-idp.%s.amazonaws.com/%s", REGION, USER_POOL_ID))
+            .withSubject("3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28")
+            .withClaim("email", "bench@example.com")
+            .withClaim("preferred_username", "bench")
+            .withClaim("token_use", "id")
+            .withExpiresAt(Date.from(Instant.now().plusSeconds(24 * 3600)))
+            .sign(algorithm);
+        tamperedToken = validToken.substring(0, validToken.length() - 4) + "AAAA";
+
+        if (jwtValidator.validateToken(validToken) == null) {
+            throw new IllegalStateException("Benchmark token failed validation");
+        }
+    }
+
+    @Benchmark
+    public DecodedJWT validateToken_Valid() {
+        return jwtValidator.validateToken(validToken);
+    }
+
+    @Benchmark
+    public DecodedJWT validateToken_BadSignature() {
+        return jwtValidator.validateToken(tamperedToken);
+    }
+
+    private static Map<String, Object> jwkValues(RSAPublicKey publicKey) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("kid", KEY_ID);
+        values.put("kty", "RSA");
+        values.put("alg", "RS256");
+        values.put("use", "sig");
+        values.put("n", base64Url(publicKey.getModulus()));
+        values.put("e", base64Url(publicKey.getPublicExponent()));
+        return values;
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
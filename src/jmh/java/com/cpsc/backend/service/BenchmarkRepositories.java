@@ -0,0 +1,127 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.entity.Goal;
+import com.cpsc.backend.entity.Institution;
+import com.cpsc.backend.repository.EntityWrite;
+import com.cpsc.backend.repository.EntityWriteRepository;
+import com.cpsc.backend.repository.GoalRepository;
+import com.cpsc.backend.repository.InstitutionRepository;
+import software.amazon.awssdk.auth.credentials.AnonymousCredentialsProvider;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * HashMap-backed repositories so service benchmarks measure service logic rather than the network.
+ * The enhanced client is only used to satisfy the repository constructors and is never called.
+ */
+final class BenchmarkRepositories {
+
+    private static final DynamoDbEnhancedClient UNUSED_CLIENT = DynamoDbEnhancedClient.builder()
+        .dynamoDbClient(DynamoDbClient.builder()
+            .region(Region.US_EAST_1)
+            .credentialsProvider(AnonymousCredentialsProvider.create())
+            .build())
+        .build();
+
+    private BenchmarkRepositories() {
+    }
+
+    static final class InMemoryGoalRepository extends GoalRepository {
+
+        private final Map<String, Goal> goals = new ConcurrentHashMap<>();
+
+        InMemoryGoalRepository() {
+            super(UNUSED_CLIENT, "Goals-bench");
+        }
+
+        @Override
+        public void save(Goal goal) {
+            goals.put(goal.getUserId() + "#" + goal.getGoalId(), goal);
+        }
+
+        @Override
+        public Goal findByUserIdAndGoalId(String userId, String goalId) {
+            return goals.get(userId + "#" + goalId);
+        }
+
+        @Override
+        public List<Goal> findAllByUserId(String userId) {
+            List<Goal> result = new ArrayList<>();
+            goals.values().forEach(goal -> {
+                if (goal.getUserId().equals(userId)) {
+                    result.add(goal);
+                }
+            });
+            return result;
+        }
+
+        @Override
+        public void delete(String userId, String goalId) {
+            goals.remove(userId + "#" + goalId);
+        }
+    }
+
+    static final class InMemoryInstitutionRepository extends InstitutionRepository {
+
+        private final Map<String, Institution> institutions = new ConcurrentHashMap<>();
+
+        InMemoryInstitutionRepository() {
+            super(UNUSED_CLIENT, "Institutions-bench");
+        }
+
+        @Override
+        public void save(Institution institution) {
+            institutions.put(institution.getUserId() + "#" + institution.getInstitutionId(), institution);
+        }
+
+        @Override
+        public Institution findByUserIdAndInstitutionId(String userId, String institutionId) {
+            return institutions.get(userId + "#" + institutionId);
+        }
+
+        @Override
+        public List<Institution> findAllByUserId(String userId) {
+            List<Institution> result = new ArrayList<>();
+            institutions.values().forEach(institution -> {
+                if (institution.getUserId().equals(userId)) {
+                    result.add(institution);
+                }
+            });
+            return result;
+        }
+
+        @Override
+        public void delete(String userId, String institutionId) {
+            institutions.remove(userId + "#" + institutionId);
+        }
+    }
+
+    /** Applies puts and deletes to the in-memory repositories and drops change log entries */
+    static final class InMemoryEntityWriteRepository extends EntityWriteRepository {
+
+        private final InMemoryInstitutionRepository institutionRepository;
+        private final InMemoryGoalRepository goalRepository;
+
+        InMemoryEntityWriteRepository(InMemoryInstitutionRepository institutionRepository,
+                                      InMemoryGoalRepository goalRepository) {
+            super(UNUSED_CLIENT, institutionRepository, goalRepository, null, null);
+            this.institutionRepository = institutionRepository;
+            this.goalRepository = goalRepository;
+        }
+
+        @Override
+        public void write(EntityWrite write) {
+            write.getInstitutions().forEach(institutionRepository::save);
+            write.getDeletedInstitutions().forEach(institution ->
+                institutionRepository.delete(institution.getUserId(), institution.getInstitutionId()));
+            write.getGoals().forEach(goalRepository::save);
+            write.getDeletedGoals().forEach(goal -> goalRepository.delete(goal.getUserId(), goal.getGoalId()));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.entity.Goal;
+import com.cpsc.backend.entity.Institution;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Goal completion recalculation triggered by every balance change, against in-memory repositories.
+ * Alternates the balance across the completion threshold so each invocation also persists goals.
+ */
+@State(Scope.Benchmark)
+public class GoalCompletionBenchmark {
+
+    @Param({"1", "10"})
+    public int goalsPerInstitution;
+
+    @Param({"1", "5"})
+    public int institutionsPerGoal;
+
+    private GoalService goalService;
+    private String userId;
+    private Institution institution;
+    private boolean highBalance;
+
+    @Setup
+    public void setUp() {
+        BenchmarkRepositories.InMemoryGoalRepository goalRepository = new BenchmarkRepositories.InMemoryGoalRepository();
+        BenchmarkRepositories.InMemoryInstitutionRepository institutionRepository =
+            new BenchmarkRepositories.InMemoryInstitutionRepository();
+        ChangeLogService changeLogService = new ChangeLogService(null, Duration.ofDays(30));
+        // No streams are open, so completions cost the hub a map lookup
+        EventStreamService eventStreamService = new EventStreamService(
+            Duration.ofMinutes(30), Duration.ofSeconds(20), new SimpleMeterRegistry());
+        goalService = new GoalService(goalRepository, institutionRepository,
+            new BenchmarkRepositories.InMemoryEntityWriteRepository(institutionRepository, goalRepository), null,
+            changeLogService, eventStreamService);
+        userId = UUID.randomUUID().toString();
+        long now = Instant.now().getEpochSecond();
+
+        institution = createInstitution(now);
+        institutionRepository.save(institution);
+
+        List<Institution> others = new ArrayList<>();
+        for (int i = 1; i < institutionsPerGoal; i++) {
+            Institution other = createInstitution(now);
+            institutionRepository.save(other);
+            others.add(other);
+        }
+
+        List<String> linkedGoals = new ArrayList<>();
+        for (int i = 0; i < goalsPerInstitution; i++) {
+            Map<String, Integer> linkedInstitutions = new HashMap<>();
+            linkedInstitutions.put(institution.getInstitutionId(), 100 / goalsPerInstitution);
+            others.forEach(other -> linkedInstitutions.put(other.getInstitutionId(), 100 / goalsPerInstitution));
+
+            Goal goal = new Goal();
+            goal.setUserId(userId);
+            goal.setGoalId(UUID.randomUUID().toString());
+            goal.setName("Goal " + i);
+            goal.setTargetAmount(1000.0);
+            goal.setLinkedInstitutions(linkedInstitutions);
+            goal.setIsCompleted(false);
+            goal.setCreatedAt(now);
+            goalRepository.save(goal);
+            linkedGoals.add(goal.getGoalId());
+        }
+        institution.setLinkedGoals(linkedGoals);
+    }
+
+    @Benchmark
+    public Institution updateGoalCompletionForInstitution() {
+        highBalance = !highBalance;
+        institution.setCurrentBalance(highBalance ? 1_000_000.0 : 0.0);
+        goalService.updateGoalCompletionForInstitution(userId, institution.getInstitutionId(), institution);
+        return institution;
+    }
+
+    private Institution createInstitution(long now) {
+        Institution created = new Institution();
+        created.setUserId(userId);
+        created.setInstitutionId(UUID.randomUUID().toString());
+        created.setInstitutionName("Account");
+        created.setStartingBalance(0.0);
+        created.setCurrentBalance(0.0);
+        created.setAllocatedPercent(100);
+        created.setCreatedAt(now);
+        return created;
+    }
+}
@@ -0,0 +1,99 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.entity.Goal;
+import com.cpsc.backend.entity.Institution;
+import com.cpsc.backend.entity.Transaction;
+import com.cpsc.backend.model.GoalResponse;
+import com.cpsc.backend.model.InstitutionResponse;
+import com.cpsc.backend.model.TransactionResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Entity-to-API model mapping in the three services; runs once per item on every list endpoint.
+ */
+@State(Scope.Benchmark)
+public class MapToResponseBenchmark {
+
+    private GoalService goalService;
+    private InstitutionService institutionService;
+    private TransactionService transactionService;
+
+    private Goal goal;
+    private Institution institution;
+    private Transaction transaction;
+
+    @Setup
+    public void setUp() {
+        // mapToResponse does not touch the repositories
+        goalService = new GoalService(null, null, null, null, null, null);
+        institutionService = new InstitutionService(null, null, null, goalService, null, null, null);
+        transactionService = new TransactionService(null, null, null, goalService, null, null, null);
+
+        String userId = UUID.randomUUID().toString();
+        long now = Instant.now().getEpochSecond();
+
+        Map<String, Integer> linkedInstitutions = new HashMap<>();
+        for (int i = 0; i < 5; i++) {
+            linkedInstitutions.put(UUID.randomUUID().toString(), 10);
+        }
+        goal = new Goal();
+        goal.setUserId(userId);
+        goal.setGoalId(UUID.randomUUID().toString());
+        goal.setName("Emergency Fund");
+        goal.setDescription("Save 6 months of expenses");
+        goal.setTargetAmount(10000.0);
+        goal.setLinkedInstitutions(linkedInstitutions);
+        goal.setIsCompleted(false);
+        goal.setCreatedAt(now);
+
+        List<String> linkedGoals = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            linkedGoals.add(UUID.randomUUID().toString());
+        }
+        institution = new Institution();
+        institution.setUserId(userId);
+        institution.setInstitutionId(UUID.randomUUID().toString());
+        institution.setInstitutionName("Checking");
+        institution.setStartingBalance(1000.0);
+        institution.setCurrentBalance(2500.0);
+        institution.setAllocatedPercent(50);
+        institution.setLinkedGoals(linkedGoals);
+        institution.setCreatedAt(now);
+
+        transaction = new Transaction();
+        transaction.setUserId(userId);
+        transaction.setInstitutionId(institution.getInstitutionId());
+        transaction.setTransactionId(UUID.randomUUID().toString());
+        transaction.setType("DEPOSIT");
+        transaction.setAmount(125.50);
+        transaction.setTags(List.of("salary", "monthly"));
+        transaction.setDescription("January salary deposit");
+        transaction.setTransactionDate(now);
+        transaction.setCreatedAt(now);
+    }
+
+    @Benchmark
+    public GoalResponse goalMapToResponse() {
+        return goalService.mapToResponse(goal);
+    }
+
+    @Benchmark
+    public InstitutionResponse institutionMapToResponse() {
+        return institutionService.mapToResponse(institution);
+    }
+
+    @Benchmark
+    public TransactionResponse transactionMapToResponse() {
+        return transactionService.mapToResponse(transaction);
+    }
+}
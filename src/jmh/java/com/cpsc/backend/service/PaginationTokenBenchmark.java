@@ -0,0 +1,42 @@
+package com.cpsc.backend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Round-tripping DynamoDB lastEvaluatedKey values through the opaque nextToken used by GET /api/institutions.
+ */
+@State(Scope.Benchmark)
+public class PaginationTokenBenchmark {
+
+    private InstitutionService institutionService;
+    private Map<String, AttributeValue> lastEvaluatedKey;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        institutionService = new InstitutionService(null, null, null, null, null, null, null);
+
+        lastEvaluatedKey = new HashMap<>();
+        lastEvaluatedKey.put("userId", AttributeValue.builder().s(UUID.randomUUID().toString()).build());
+        lastEvaluatedKey.put("institutionId", AttributeValue.builder().s(UUID.randomUUID().toString()).build());
+        token = institutionService.encodeToken(lastEvaluatedKey);
+    }
+
+    @Benchmark
+    public String encodeToken() {
+        return institutionService.encodeToken(lastEvaluatedKey);
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> decodeToken() {
+        return institutionService.decodeToken(token);
+    }
+}
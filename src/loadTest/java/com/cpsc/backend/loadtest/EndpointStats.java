@@ -0,0 +1,76 @@
+package com.cpsc.backend.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies and outcomes recorded for one Postman request name. Latencies are kept exactly
+ * (one long per request) so the percentiles in the report are not approximations.
+ */
+final class EndpointStats {
+
+    private final String name;
+    private final Map<Integer, Long> statusCounts = new TreeMap<>();
+    private long[] latenciesNanos = new long[1024];
+    private int count;
+    private long errors;
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    synchronized void record(long latencyNanos, int status) {
+        if (count == latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, count * 2);
+        }
+        latenciesNanos[count++] = latencyNanos;
+        statusCounts.merge(status, 1L, Long::sum);
+        if (status < 200 || status >= 300) {
+            errors++;
+        }
+    }
+
+    synchronized Summary summarize(double elapsedSeconds) {
+        long[] sorted = Arrays.copyOf(latenciesNanos, count);
+        Arrays.sort(sorted);
+        return new Summary(name, count, errors, count / elapsedSeconds,
+            percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.90),
+            percentileMillis(sorted, 0.99), count == 0 ? 0.0 : sorted[count - 1] / 1_000_000.0,
+            new TreeMap<>(statusCounts));
+    }
+
+    static Summary merge(String name, double elapsedSeconds, Iterable<EndpointStats> all) {
+        EndpointStats merged = new EndpointStats(name);
+        for (EndpointStats stats : all) {
+            synchronized (stats) {
+                for (int i = 0; i < stats.count; i++) {
+                    merged.latenciesNanos = merged.count == merged.latenciesNanos.length
+                        ? Arrays.copyOf(merged.latenciesNanos, merged.count * 2) : merged.latenciesNanos;
+                    merged.latenciesNanos[merged.count++] = stats.latenciesNanos[i];
+                }
+                merged.errors += stats.errors;
+                stats.statusCounts.forEach((status, n) -> merged.statusCounts.merge(status, n, Long::sum));
+            }
+        }
+        return merged.summarize(elapsedSeconds);
+    }
+
+    // Nearest-rank percentile
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1_000_000.0;
+    }
+
+    record Summary(String endpoint, long requests, long errors, double throughputPerSecond,
+                   double p50Millis, double p90Millis, double p99Millis, double maxMillis,
+                   Map<Integer, Long> statusCounts) {
+
+        double errorRate() {
+            return requests == 0 ? 0.0 : (double) errors / requests;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.cpsc.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+/**
+ * Shared HTTP client that times every call and records it under the Postman request name.
+ * Recording starts only after {@link #startMeasuring()} so set-up and warm-up traffic is excluded.
+ */
+final class LoadTestClient {
+
+    /** Status recorded for calls that failed without an HTTP response (timeouts, resets). */
+    static final int NO_RESPONSE = 0;
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private volatile Map<String, EndpointStats> stats;
+
+    LoadTestClient(String baseUrl, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        // HTTP/1.1 avoids an h2c upgrade attempt on every plain-text request
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    }
+
+    void startMeasuring() {
+        stats = new ConcurrentHashMap<>();
+    }
+
+    Map<String, EndpointStats> stopMeasuring() {
+        Map<String, EndpointStats> measured = stats;
+        stats = null;
+        return measured;
+    }
+
+    Response send(PostmanCollection.RequestTemplate template, String path, JsonNode body, String bearerToken) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Accept", "application/json");
+        if (bearerToken != null) {
+            request.header("Authorization", "Bearer " + bearerToken);
+        }
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+            request.method(template.method(), HttpRequest.BodyPublishers.ofString(body.toString()));
+        } else {
+            request.method(template.method(), HttpRequest.BodyPublishers.noBody());
+        }
+
+        long start = System.nanoTime();
+        int status = NO_RESPONSE;
+        JsonNode json = MissingNode.getInstance();
+        try {
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            status = response.statusCode();
+            if (!response.body().isEmpty()) {
+                json = objectMapper.readTree(response.body());
+            }
+        } catch (IOException e) {
+            // counted as an error below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            record(template.name(), System.nanoTime() - start, status);
+        }
+        return new Response(status, json);
+    }
+
+    private void record(String endpoint, long latencyNanos, int status) {
+        Map<String, EndpointStats> current = stats;
+        if (current != null) {
+            current.computeIfAbsent(endpoint, EndpointStats::new).record(latencyNanos, status);
+        }
+    }
+
+    record Response(int status, JsonNode body) {
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+
+        String text(String field) {
+            return body.path(field).asText(null);
+        }
+    }
+}
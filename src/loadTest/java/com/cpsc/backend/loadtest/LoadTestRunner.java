@@ -0,0 +1,153 @@
+package com.cpsc.backend.loadtest;
+
+import com.cpsc.backend.CpscBackendApiApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Replays the Postman request mix against a locally started application backed by the in-process
+ * Cognito and DynamoDB stand-ins (the {@code loadtest} profile group), then prints throughput,
+ * latency percentiles and error rates per endpoint and writes them as JSON.
+ *
+ * <p>Configured through system properties (see the {@code loadTest} Gradle task):
+ * {@code loadtest.users}, {@code loadtest.duration}, {@code loadtest.warmup},
+ * {@code loadtest.think-time}, {@code loadtest.base-url} (skip the in-process app and target a
+ * running server) and {@code loadtest.report}.
+ */
+public final class LoadTestRunner {
+
+    static final Path COLLECTION = Path.of("CPSC_Backend_API.postman_collection.json");
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = Integer.getInteger("loadtest.users", 50);
+        Duration duration = duration("loadtest.duration", "60s");
+        Duration warmup = duration("loadtest.warmup", "10s");
+        Duration thinkTime = duration("loadtest.think-time", "0ms");
+        String baseUrl = System.getProperty("loadtest.base-url", "");
+        Path report = Path.of(System.getProperty("loadtest.report", "build/reports/loadtest/results.json"));
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        PostmanCollection collection = PostmanCollection.load(COLLECTION, objectMapper);
+
+        ConfigurableApplicationContext application = null;
+        if (baseUrl.isBlank()) {
+            application = new SpringApplicationBuilder(CpscBackendApiApplication.class)
+                .profiles("loadtest")
+                .run("--server.port=0");
+            int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+            baseUrl = "http://localhost:" + port;
+        }
+
+        try {
+            System.out.printf("Target: %s%n", baseUrl);
+            List<EndpointStats.Summary> results = run(new LoadTestClient(baseUrl, objectMapper), collection,
+                users, duration, warmup, thinkTime);
+            print(results, users, duration);
+            writeReport(report, objectMapper, results, users, duration);
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+    }
+
+    static List<EndpointStats.Summary> run(LoadTestClient client, PostmanCollection collection, int users,
+                                           Duration duration, Duration warmup, Duration thinkTime)
+            throws Exception {
+        List<VirtualUser> virtualUsers = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            virtualUsers.add(new VirtualUser(client, collection, thinkTime, i));
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            System.out.printf("Setting up %d users%n", users);
+            awaitAll(virtualUsers.stream().map(user -> executor.submit(user::setUp)).toList());
+
+            System.out.printf("Warming up for %s%n", warmup);
+            long warmupEnd = System.nanoTime() + warmup.toNanos();
+            awaitAll(virtualUsers.stream().map(user -> executor.submit(() -> user.runUntil(warmupEnd))).toList());
+
+            System.out.printf("Measuring for %s%n", duration);
+            client.startMeasuring();
+            long start = System.nanoTime();
+            long end = start + duration.toNanos();
+            awaitAll(virtualUsers.stream().map(user -> executor.submit(() -> user.runUntil(end))).toList());
+            double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            Map<String, EndpointStats> measured = client.stopMeasuring();
+
+            List<EndpointStats.Summary> results = new ArrayList<>(measured.values().stream()
+                .map(stats -> stats.summarize(elapsedSeconds))
+                .sorted(Comparator.comparing(EndpointStats.Summary::endpoint))
+                .toList());
+            results.add(EndpointStats.merge("TOTAL", elapsedSeconds, measured.values()));
+            return results;
+        }
+    }
+
+    private static void awaitAll(List<? extends Future<?>> futures) throws Exception {
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private static void print(List<EndpointStats.Summary> results, int users, Duration duration) {
+        System.out.printf("%nLoad test: %d users, %s measured%n", users, duration);
+        System.out.printf("%-30s %9s %9s %8s %9s %9s %9s %9s %s%n",
+            "Endpoint", "Requests", "Req/s", "Errors", "p50 ms", "p90 ms", "p99 ms", "max ms", "Statuses");
+        for (EndpointStats.Summary summary : results) {
+            System.out.printf("%-30s %9d %9.1f %7.2f%% %9.2f %9.2f %9.2f %9.2f %s%n",
+                summary.endpoint(), summary.requests(), summary.throughputPerSecond(), summary.errorRate() * 100,
+                summary.p50Millis(), summary.p90Millis(), summary.p99Millis(), summary.maxMillis(),
+                summary.statusCounts());
+        }
+    }
+
+    private static void writeReport(Path report, ObjectMapper objectMapper, List<EndpointStats.Summary> results,
+                                    int users, Duration duration) throws Exception {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("users", users);
+        document.put("durationSeconds", duration.toSeconds());
+        document.put("endpoints", results.stream().map(summary -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", summary.endpoint());
+            row.put("requests", summary.requests());
+            row.put("errors", summary.errors());
+            row.put("errorRate", summary.errorRate());
+            row.put("throughputPerSecond", summary.throughputPerSecond());
+            row.put("p50Millis", summary.p50Millis());
+            row.put("p90Millis", summary.p90Millis());
+            row.put("p99Millis", summary.p99Millis());
+            row.put("maxMillis", summary.maxMillis());
+            row.put("statusCounts", summary.statusCounts());
+            return row;
+        }).toList());
+        if (report.getParent() != null) {
+            Files.createDirectories(report.getParent());
+        }
+        objectMapper.writeValue(report.toFile(), document);
+        System.out.printf("%nReport written to %s%n", report.toAbsolutePath());
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+}
@@ -0,0 +1,111 @@
+package com.cpsc.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Request templates read from CPSC_Backend_API.postman_collection.json, so the load mix replays the
+ * documented methods, paths and sample bodies. Path IDs in the collection (sample UUIDs or
+ * {@code :param} segments) become positional placeholders.
+ */
+final class PostmanCollection {
+
+    private static final Pattern UUID_SEGMENT = Pattern.compile(
+        "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final String PLACEHOLDER = "{}";
+
+    private final Map<String, RequestTemplate> requests;
+
+    private PostmanCollection(Map<String, RequestTemplate> requests) {
+        this.requests = requests;
+    }
+
+    static PostmanCollection load(Path file, ObjectMapper objectMapper) throws IOException {
+        Map<String, RequestTemplate> requests = new HashMap<>();
+        collect(objectMapper.readTree(file.toFile()).path("item"), objectMapper, requests);
+        return new PostmanCollection(requests);
+    }
+
+    RequestTemplate request(String name) {
+        RequestTemplate template = requests.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Postman collection has no request named '" + name + "'");
+        }
+        return template;
+    }
+
+    private static void collect(JsonNode items, ObjectMapper objectMapper, Map<String, RequestTemplate> requests)
+            throws IOException {
+        for (JsonNode item : items) {
+            if (item.has("item")) {
+                collect(item.get("item"), objectMapper, requests);
+                continue;
+            }
+            JsonNode request = item.get("request");
+            JsonNode url = request.get("url");
+            String raw = url.isTextual() ? url.asText() : url.path("raw").asText();
+            String rawBody = request.path("body").path("raw").asText("");
+            JsonNode body = rawBody.isBlank() ? null : objectMapper.readTree(rawBody);
+            requests.put(item.get("name").asText(),
+                new RequestTemplate(item.get("name").asText(), request.get("method").asText(), pathTemplate(raw), body));
+        }
+    }
+
+    private static String pathTemplate(String rawUrl) {
+        String path = rawUrl.replace("{{baseUrl}}", "");
+        String query = "";
+        int queryStart = path.indexOf('?');
+        if (queryStart >= 0) {
+            query = path.substring(queryStart);
+            path = path.substring(0, queryStart);
+        }
+        String[] segments = path.split("/");
+        for (int i = 0; i < segments.length; i++) {
+            if (UUID_SEGMENT.matcher(segments[i]).matches() || segments[i].startsWith(":")) {
+                segments[i] = PLACEHOLDER;
+            }
+        }
+        return String.join("/", segments) + query;
+    }
+
+    record RequestTemplate(String name, String method, String pathTemplate, JsonNode sampleBody) {
+
+        /**
+         * Fill the path placeholders in order
+         */
+        String path(String... ids) {
+            StringBuilder path = new StringBuilder();
+            int from = 0;
+            for (String id : ids) {
+                int at = pathTemplate.indexOf(PLACEHOLDER, from);
+                if (at < 0) {
+                    throw new IllegalArgumentException("Too many path IDs for " + name);
+                }
+                path.append(pathTemplate, from, at).append(id);
+                from = at + PLACEHOLDER.length();
+            }
+            path.append(pathTemplate.substring(from));
+            if (path.indexOf(PLACEHOLDER) >= 0) {
+                throw new IllegalArgumentException("Missing path IDs for " + name);
+            }
+            return path.toString();
+        }
+
+        /**
+         * A mutable copy of the collection's sample body
+         */
+        ObjectNode body() {
+            if (sampleBody == null) {
+                throw new IllegalStateException(name + " has no body in the Postman collection");
+            }
+            return sampleBody.deepCopy();
+        }
+    }
+}
@@ -0,0 +1,433 @@
+package com.cpsc.backend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+
+/**
+ * Measures cold start of the packaged application: starts it repeatedly, each time in a fresh
+ * process, and records how long the process takes until Spring reports the context started and
+ * until {@code /api/hello} first answers {@code 200}, i.e. until a load balancer would route to it,
+ * and its resident set size at that point.
+ *
+ * <p>Each start is measured in several modes: the fat jar as the image used to run it, the
+ * unpacked jar, and the unpacked jar with a class data cache from a training run (the JDK's AOT
+ * cache on JDK 24 and later, a dynamic CDS archive before that). When the boot jar was built with
+ * {@code -Paot}, the unpacked modes are repeated with Spring AOT, and when a native executable is
+ * given ({@code -Pnative}) it is measured too. The app runs on the profiles in
+ * {@code startup.profiles} (the offline {@code loadtest} group by default), which for the Spring
+ * AOT and native modes must be the ones the build was processed for ({@code -PaotProfiles}).
+ *
+ * <p>The last start of each mode then takes the load test's request mix straight away, without a
+ * warm-up, as a new instance does when it joins a burst: this reports p99 latency and RSS under
+ * load, and doubles as a smoke test, which fails the run if the app answered with a 5xx or not at
+ * all (such as a native image missing reflection metadata).
+ *
+ * <p>Configured through system properties (see the {@code startupBenchmark} Gradle task):
+ * {@code startup.jar}, {@code startup.native-image}, {@code startup.runs}, {@code startup.profiles},
+ * {@code startup.timeout}, {@code startup.load-users}, {@code startup.load-duration} (0 skips the
+ * load), {@code startup.work-dir} and {@code startup.report}.
+ */
+public final class StartupBenchmark {
+
+    /** Generated by Spring AOT processing, so present only in jars built with -Paot */
+    private static final String AOT_INITIALIZER =
+        "BOOT-INF/classes/com/cpsc/backend/CpscBackendApiApplication__ApplicationContextInitializer.class";
+
+    private static final Pattern STARTED = Pattern.compile(
+        "Started CpscBackendApiApplication in ([\\d.]+) seconds \\(process running for ([\\d.]+)\\)");
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    /** How the app is started; {@code artifact} is the jar, or the executable of a native image */
+    private record Mode(String name, Path artifact, boolean classCache, boolean springAot, boolean nativeImage) {
+    }
+
+    /**
+     * One start: time until the context started (from the process's own uptime) and until ready,
+     * RSS when ready (-1 = not reached or not known), and the load it then took, if any
+     */
+    private record Run(long startedMillis, long readyMillis, long readyRssKb, Load load) {
+    }
+
+    /** The load test's totals and the RSS at the end of it */
+    private record Load(EndpointStats.Summary total, long rssKb) {
+
+        /** Every request answered, none with a server error */
+        boolean healthy() {
+            return total.requests() > 0 && total.statusCounts().keySet().stream()
+                .noneMatch(status -> status == LoadTestClient.NO_RESPONSE || status >= 500);
+        }
+    }
+
+    private record Result(String mode, List<Run> runs) {
+
+        Load load() {
+            return runs.stream().map(Run::load).filter(Objects::nonNull).findFirst().orElse(null);
+        }
+
+        boolean smokePassed() {
+            return runs.stream().allMatch(run -> run.readyMillis() >= 0) && (load() == null || load().healthy());
+        }
+
+        long medianReadyRssKb() {
+            return median(runs.stream().map(Run::readyRssKb).toList());
+        }
+
+        long medianReady() {
+            return median(runs.stream().map(Run::readyMillis).toList());
+        }
+
+        long medianStarted() {
+            return median(runs.stream().map(Run::startedMillis).toList());
+        }
+
+        long minReady() {
+            return runs.stream().mapToLong(Run::readyMillis).min().orElse(-1);
+        }
+
+        long maxReady() {
+            return runs.stream().mapToLong(Run::readyMillis).max().orElse(-1);
+        }
+
+        private static long median(List<Long> values) {
+            List<Long> sorted = values.stream().sorted().toList();
+            return sorted.isEmpty() ? -1 : sorted.get(sorted.size() / 2);
+        }
+    }
+
+    private final Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+    private final boolean aotCache = Runtime.version().feature() >= 24;
+    private final String profiles;
+    private final Duration timeout;
+    private final int loadUsers;
+    private final Duration loadDuration;
+    private final Path workDir;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private StartupBenchmark(String profiles, Duration timeout, int loadUsers, Duration loadDuration, Path workDir) {
+        this.profiles = profiles;
+        this.timeout = timeout;
+        this.loadUsers = loadUsers;
+        this.loadDuration = loadDuration;
+        this.workDir = workDir;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(required("startup.jar"));
+        String nativeImage = System.getProperty("startup.native-image", "");
+        int runs = Integer.getInteger("startup.runs", 5);
+        String profiles = System.getProperty("startup.profiles", "loadtest");
+        Duration timeout = DurationStyle.detectAndParse(System.getProperty("startup.timeout", "60s"));
+        int loadUsers = Integer.getInteger("startup.load-users", 20);
+        Duration loadDuration = DurationStyle.detectAndParse(System.getProperty("startup.load-duration", "20s"));
+        Path workDir = Path.of(System.getProperty("startup.work-dir", "build/startup-benchmark"));
+        Path report = Path.of(System.getProperty("startup.report", "build/reports/startup/results.json"));
+
+        StartupBenchmark benchmark = new StartupBenchmark(profiles, timeout, loadUsers, loadDuration, workDir);
+        List<Result> results = benchmark.run(jar, nativeImage.isBlank() ? null : Path.of(nativeImage), runs);
+        print(results, runs, profiles);
+        writeReport(report, results, runs, profiles);
+
+        List<String> failed = results.stream().filter(result -> !result.smokePassed()).map(Result::mode).toList();
+        if (!failed.isEmpty()) {
+            throw new IllegalStateException("Smoke test failed for " + String.join(", ", failed)
+                + ", see the logs in " + workDir.toAbsolutePath());
+        }
+    }
+
+    private List<Result> run(Path fatJar, Path nativeImage, int runs) throws Exception {
+        Path unpacked = unpack(fatJar);
+        boolean springAot;
+        try (ZipFile zip = new ZipFile(fatJar.toFile())) {
+            springAot = zip.getEntry(AOT_INITIALIZER) != null;
+        }
+        boolean hasNativeImage = nativeImage != null && Files.isExecutable(nativeImage);
+        System.out.printf("Java %s (%s), Spring AOT %s, native image %s%n", Runtime.version(),
+            aotCache ? "AOT cache" : "dynamic CDS archive", springAot ? "built in" : "not built (use -Paot)",
+            hasNativeImage ? nativeImage : "not built (use -Pnative)");
+
+        List<Mode> modes = new ArrayList<>(List.of(
+            new Mode("fat-jar", fatJar, false, false, false),
+            new Mode("unpacked", unpacked, false, false, false),
+            new Mode("unpacked+cds", unpacked, true, false, false)));
+        if (springAot) {
+            modes.add(new Mode("spring-aot", unpacked, false, true, false));
+            modes.add(new Mode("spring-aot+cds", unpacked, true, true, false));
+        }
+        if (hasNativeImage) {
+            modes.add(new Mode("native", nativeImage, false, true, true));
+        }
+        PostmanCollection collection = loadEnabled()
+            ? PostmanCollection.load(LoadTestRunner.COLLECTION, objectMapper) : null;
+
+        List<Result> results = new ArrayList<>();
+        for (Mode mode : modes) {
+            if (mode.classCache()) {
+                System.out.printf("Training class cache for %s%n", mode.name());
+                train(mode);
+            }
+            List<Run> measured = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                Run run = start(mode, i, i == runs - 1 ? collection : null);
+                System.out.printf("  %-16s run %d: started %5d ms, ready %5d ms, RSS %4d MB%n", mode.name(), i + 1,
+                    run.startedMillis(), run.readyMillis(), megabytes(run.readyRssKb()));
+                if (run.load() != null) {
+                    System.out.printf("  %-16s load: p99 %.1f ms, %.0f req/s, RSS %d MB, statuses %s%n", mode.name(),
+                        run.load().total().p99Millis(), run.load().total().throughputPerSecond(),
+                        megabytes(run.load().rssKb()), run.load().total().statusCounts());
+                }
+                measured.add(run);
+            }
+            results.add(new Result(mode.name(), measured));
+        }
+        return results;
+    }
+
+    /** Unpack the boot jar into plain jars, which unlike nested ones can be archived */
+    private Path unpack(Path fatJar) throws Exception {
+        Path destination = workDir.resolve("app");
+        deleteRecursively(destination);
+        exec(workDir.resolve("unpack.log"), List.of(java.toString(), "-Djarmode=tools", "-jar", fatJar.toString(),
+            "extract", "--destination", destination.toString()));
+        try (Stream<Path> files = Files.list(destination)) {
+            return files.filter(file -> file.toString().endsWith(".jar")).findFirst()
+                .orElseThrow(() -> new IllegalStateException("No application jar in " + destination));
+        }
+    }
+
+    /**
+     * Start the context once, exiting after refresh, and keep the classes it loaded and linked
+     */
+    private void train(Mode mode) throws Exception {
+        List<String> training = new ArrayList<>(List.of(java.toString()));
+        if (aotCache) {
+            training.add("-XX:AOTMode=record");
+            training.add("-XX:AOTConfiguration=" + cacheFile(mode, ".aotconf"));
+        } else {
+            training.add("-XX:ArchiveClassesAtExit=" + cacheFile(mode, ".jsa"));
+        }
+        training.add("-Dspring.context.exit=onRefresh");
+        training.addAll(appArguments(mode, 0));
+        exec(cacheFile(mode, "-training.log"), training);
+
+        if (aotCache) {
+            exec(cacheFile(mode, "-create.log"), List.of(java.toString(), "-XX:AOTMode=create",
+                "-XX:AOTConfiguration=" + cacheFile(mode, ".aotconf"), "-XX:AOTCache=" + cacheFile(mode, ".aot"),
+                "-cp", mode.artifact().toString()));
+        }
+    }
+
+    /** Start the app, wait until it is ready and, given the request mix, put it under load */
+    private Run start(Mode mode, int index, PostmanCollection collection) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        if (mode.nativeImage()) {
+            command.add(mode.artifact().toString());
+            command.addAll(applicationArguments(port));
+        } else {
+            command.add(java.toString());
+            if (mode.classCache()) {
+                command.add(aotCache ? "-XX:AOTCache=" + cacheFile(mode, ".aot")
+                    : "-XX:SharedArchiveFile=" + cacheFile(mode, ".jsa"));
+            }
+            command.addAll(appArguments(mode, port));
+        }
+
+        Path log = workDir.resolve(mode.name() + "-run" + (index + 1) + ".log");
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            long ready = awaitReady(process, port, launched);
+            long readyRssKb = ready >= 0 ? rssKb(process) : -1;
+            Load load = null;
+            if (ready >= 0 && collection != null) {
+                LoadTestClient client = new LoadTestClient("http://localhost:" + port, objectMapper);
+                List<EndpointStats.Summary> summaries = LoadTestRunner.run(client, collection, loadUsers,
+                    loadDuration, Duration.ZERO, Duration.ZERO);
+                load = new Load(summaries.get(summaries.size() - 1), rssKb(process));
+            }
+            return new Run(startedMillis(log), ready, readyRssKb, load);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private List<String> appArguments(Mode mode, int port) {
+        List<String> arguments = new ArrayList<>();
+        if (mode.springAot()) {
+            arguments.add("-Dspring.aot.enabled=true");
+        }
+        arguments.addAll(List.of("-jar", mode.artifact().toString()));
+        arguments.addAll(applicationArguments(port));
+        return arguments;
+    }
+
+    private List<String> applicationArguments(int port) {
+        return List.of(
+            "--spring.profiles.active=" + profiles,
+            "--server.port=" + port,
+            // The loadtest profile quiets the app's loggers, including the "Started ..." line
+            "--logging.level.com.cpsc.backend.CpscBackendApiApplication=INFO");
+    }
+
+    private boolean loadEnabled() {
+        return loadUsers > 0 && loadDuration.isPositive();
+    }
+
+    /** Poll the health check route until it answers 200 */
+    private long awaitReady(Process process, int port, long launched) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/hello"))
+            .timeout(Duration.ofSeconds(1))
+            .build();
+        long deadline = launched + timeout.toNanos();
+        while (System.nanoTime() < deadline && process.isAlive()) {
+            try {
+                if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launched);
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(POLL_INTERVAL.toMillis());
+        }
+        return -1;
+    }
+
+    private static long startedMillis(Path log) throws IOException {
+        Matcher matcher = STARTED.matcher(Files.readString(log));
+        return matcher.find() ? Math.round(Double.parseDouble(matcher.group(2)) * 1000) : -1;
+    }
+
+    /** Resident set size in kB from /proc, or -1 where there is none */
+    private static long rssKb(Process process) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(process.pid()), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not Linux, or the process has exited
+        }
+        return -1;
+    }
+
+    private static long megabytes(long kb) {
+        return kb < 0 ? -1 : Math.round(kb / 1024.0);
+    }
+
+    private Path cacheFile(Mode mode, String suffix) {
+        return workDir.resolve(mode.name() + suffix).toAbsolutePath();
+    }
+
+    private void exec(Path log, List<String> command) throws Exception {
+        Files.createDirectories(workDir);
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        if (!process.waitFor(timeout.toMillis() * 2, TimeUnit.MILLISECONDS)) {
+            process.destroyForcibly();
+            throw new IllegalStateException("Timed out: " + String.join(" ", command) + ", see " + log);
+        }
+        if (process.exitValue() != 0) {
+            throw new IllegalStateException("Exit code " + process.exitValue() + ": " + String.join(" ", command)
+                + ", see " + log);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            for (Path file : files.sorted((a, b) -> b.compareTo(a)).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static String required(String property) {
+        String value = System.getProperty(property);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("System property " + property + " is required");
+        }
+        return value;
+    }
+
+    private static void print(List<Result> results, int runs, String profiles) {
+        System.out.printf("%nStartup benchmark: %d runs per mode, profiles %s (-1 = not reached or not measured)%n",
+            runs, profiles);
+        System.out.printf("%-16s %14s %14s %10s %10s %12s %13s %11s %9s %6s%n", "Mode", "Started p50 ms",
+            "Ready p50 ms", "Ready min", "Ready max", "RSS ready MB", "RSS loaded MB", "Load p99 ms", "Req/s", "Smoke");
+        for (Result result : results) {
+            Load load = result.load();
+            System.out.printf("%-16s %14d %14d %10d %10d %12d %13d %11.1f %9.0f %6s%n", result.mode(),
+                result.medianStarted(), result.medianReady(), result.minReady(), result.maxReady(),
+                megabytes(result.medianReadyRssKb()), load == null ? -1 : megabytes(load.rssKb()),
+                load == null ? -1.0 : load.total().p99Millis(), load == null ? -1.0 : load.total().throughputPerSecond(),
+                result.smokePassed() ? "ok" : "FAILED");
+        }
+    }
+
+    private static void writeReport(Path report, List<Result> results, int runs, String profiles) throws Exception {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("java", Runtime.version().toString());
+        document.put("runs", runs);
+        document.put("profiles", profiles);
+        document.put("modes", results.stream().map(result -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("mode", result.mode());
+            row.put("startedMillisP50", result.medianStarted());
+            row.put("readyMillisP50", result.medianReady());
+            row.put("readyMillisMin", result.minReady());
+            row.put("readyMillisMax", result.maxReady());
+            row.put("readyMillis", result.runs().stream().map(Run::readyMillis).toList());
+            row.put("readyRssMbP50", megabytes(result.medianReadyRssKb()));
+            Load load = result.load();
+            if (load != null) {
+                row.put("loadRequests", load.total().requests());
+                row.put("loadThroughputPerSecond", load.total().throughputPerSecond());
+                row.put("loadP50Millis", load.total().p50Millis());
+                row.put("loadP99Millis", load.total().p99Millis());
+                row.put("loadStatusCounts", load.total().statusCounts());
+                row.put("loadedRssMb", megabytes(load.rssKb()));
+            }
+            row.put("smokePassed", result.smokePassed());
+            return row;
+        }).toList());
+        if (report.getParent() != null) {
+            Files.createDirectories(report.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), document);
+        System.out.printf("%nReport written to %s%n", report.toAbsolutePath());
+    }
+}
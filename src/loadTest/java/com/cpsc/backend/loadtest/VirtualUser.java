@@ -0,0 +1,357 @@
+package com.cpsc.backend.loadtest;
+
+import com.cpsc.backend.loadtest.LoadTestClient.Response;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One simulated account. {@link #setUp()} registers, confirms and logs in, then {@link #runUntil(long)}
+ * replays a weighted mix of the Postman requests against the user's own institutions, transactions
+ * and goals until the deadline.
+ */
+final class VirtualUser {
+
+    /** Must match {@code cognito.inmemory.confirmation-code}. */
+    static final String CONFIRMATION_CODE = "000000";
+
+    private static final int BASE_INSTITUTIONS = 2;
+    private static final int MAX_EXTRA_INSTITUTIONS = 2;
+    private static final int MAX_TRANSACTIONS_TRACKED = 50;
+    private static final int MAX_GOALS = 6;
+    private static final int GOAL_ALLOCATION_PERCENT = 5;
+
+    private final LoadTestClient client;
+    private final PostmanCollection collection;
+    private final Duration thinkTime;
+    private final String email;
+    private final String password;
+
+    private String idToken;
+    private String accessToken;
+    private final List<String> baseInstitutions = new ArrayList<>();
+    private final List<String> extraInstitutions = new ArrayList<>();
+    private final Map<String, List<String>> transactions = new HashMap<>();
+    private final List<String> goals = new ArrayList<>();
+    private String syncCursor;
+
+    private final List<WeightedAction> mix = List.of(
+        new WeightedAction(15, this::getInstitutions),
+        new WeightedAction(10, this::getGoals),
+        new WeightedAction(8, this::getDashboard),
+        new WeightedAction(15, this::getTransactions),
+        new WeightedAction(6, this::getTransactionFeed),
+        new WeightedAction(8, this::syncChanges),
+        new WeightedAction(20, this::transactionBurst),
+        new WeightedAction(6, this::updateTransaction),
+        new WeightedAction(4, this::deleteTransaction),
+        new WeightedAction(3, this::createOrDeleteInstitution),
+        new WeightedAction(4, this::editInstitution),
+        new WeightedAction(4, this::createGoal),
+        new WeightedAction(6, this::editGoal),
+        new WeightedAction(2, this::deleteGoal),
+        new WeightedAction(3, this::login),
+        new WeightedAction(4, this::getProfile),
+        new WeightedAction(2, this::updateScreenName),
+        new WeightedAction(2, this::hello));
+    private final int totalWeight = mix.stream().mapToInt(WeightedAction::weight).sum();
+
+    VirtualUser(LoadTestClient client, PostmanCollection collection, Duration thinkTime, int index) {
+        this.client = client;
+        this.collection = collection;
+        this.thinkTime = thinkTime;
+        this.email = "loadtest-" + index + "-" + UUID.randomUUID().toString().substring(0, 8) + "@example.com";
+        this.password = "LoadTest@1234";
+    }
+
+    void setUp() {
+        ObjectNode signUp = template("Sign Up").body();
+        signUp.put("email", email);
+        signUp.put("password", password);
+        signUp.put("screenName", "load" + Math.abs(email.hashCode()));
+        require(send("Sign Up", signUp), "Sign Up");
+
+        ObjectNode confirm = template("Confirm Sign Up").body();
+        confirm.put("email", email);
+        confirm.put("confirmationCode", CONFIRMATION_CODE);
+        require(send("Confirm Sign Up", confirm), "Confirm Sign Up");
+
+        require(login(), "Login");
+        for (int i = 0; i < BASE_INSTITUTIONS; i++) {
+            String institutionId = createInstitution();
+            if (institutionId == null) {
+                throw new IllegalStateException("Create Institution failed during set-up for " + email);
+            }
+            baseInstitutions.add(institutionId);
+        }
+    }
+
+    void runUntil(long deadlineNanos) {
+        while (System.nanoTime() < deadlineNanos && !Thread.currentThread().isInterrupted()) {
+            pick().run();
+            if (!thinkTime.isZero()) {
+                try {
+                    Thread.sleep(thinkTime);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private Runnable pick() {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (WeightedAction action : mix) {
+            roll -= action.weight();
+            if (roll < 0) {
+                return action.action();
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    // --- auth ---
+
+    private Response login() {
+        ObjectNode body = template("Login").body();
+        body.put("email", email);
+        body.put("password", password);
+        Response response = send("Login", body);
+        if (response.ok()) {
+            idToken = response.text("idToken");
+            accessToken = response.text("accessToken");
+        }
+        return response;
+    }
+
+    private void getProfile() {
+        client.send(template("Get Profile"), template("Get Profile").path(), null, accessToken);
+    }
+
+    private void updateScreenName() {
+        ObjectNode body = template("Update Screen Name").body();
+        body.put("screenName", "load" + ThreadLocalRandom.current().nextInt(1_000_000));
+        client.send(template("Update Screen Name"), template("Update Screen Name").path(), body, accessToken);
+    }
+
+    private void hello() {
+        client.send(template("Hello"), template("Hello").path(), null, null);
+    }
+
+    // --- institutions ---
+
+    private void getInstitutions() {
+        sendWithId("Get Institutions", null);
+    }
+
+    private String createInstitution() {
+        ObjectNode body = template("Create Institution").body();
+        body.put("institutionName", "Load Bank " + ThreadLocalRandom.current().nextInt(10_000));
+        body.put("startingBalance", amount(100, 5_000));
+        Response response = sendWithId("Create Institution", body);
+        return response.ok() ? response.text("institutionId") : null;
+    }
+
+    private void createOrDeleteInstitution() {
+        if (extraInstitutions.size() < MAX_EXTRA_INSTITUTIONS && ThreadLocalRandom.current().nextBoolean()) {
+            String institutionId = createInstitution();
+            if (institutionId != null) {
+                extraInstitutions.add(institutionId);
+            }
+        } else if (!extraInstitutions.isEmpty()) {
+            // Extra institutions never back a goal, so deleting them leaves goal allocations intact
+            String institutionId = extraInstitutions.remove(extraInstitutions.size() - 1);
+            transactions.remove(institutionId);
+            sendWithId("Delete Institution", null, institutionId);
+        }
+    }
+
+    private void editInstitution() {
+        ObjectNode body = template("Edit Institution").body();
+        // The sample body overwrites allocatedPercent, which would desynchronize goal allocations
+        body.remove("allocatedPercent");
+        body.put("institutionName", "Renamed Bank " + ThreadLocalRandom.current().nextInt(10_000));
+        body.put("startingBalance", amount(100, 5_000));
+        sendWithId("Edit Institution", body, anyInstitution());
+    }
+
+    // --- transactions ---
+
+    private void getTransactions() {
+        sendWithId("Get Institution Transactions", null, anyInstitution());
+    }
+
+    private void getTransactionFeed() {
+        PostmanCollection.RequestTemplate feed = template("Get All Transactions");
+        Response firstPage = client.send(feed, feed.path(), null, idToken);
+        String nextToken = firstPage.ok() ? firstPage.text("nextToken") : null;
+        if (nextToken != null) {
+            client.send(feed, feed.path() + "&nextToken=" + URLEncoder.encode(nextToken, StandardCharsets.UTF_8),
+                null, idToken);
+        }
+    }
+
+    private void transactionBurst() {
+        String institutionId = anyInstitution();
+        int burst = ThreadLocalRandom.current().nextInt(3, 9);
+        for (int i = 0; i < burst; i++) {
+            ObjectNode body = template("Create Transaction").body();
+            body.put("type", ThreadLocalRandom.current().nextInt(3) == 0 ? "WITHDRAWAL" : "DEPOSIT");
+            body.put("amount", amount(1, 500));
+            body.put("description", "Load test transaction " + i);
+            Response response = sendWithId("Create Transaction", body, institutionId);
+            String transactionId = response.ok() ? response.text("transactionId") : null;
+            if (transactionId != null) {
+                List<String> tracked = transactions.computeIfAbsent(institutionId, id -> new ArrayList<>());
+                tracked.add(transactionId);
+                if (tracked.size() > MAX_TRANSACTIONS_TRACKED) {
+                    tracked.remove(0);
+                }
+            }
+        }
+    }
+
+    private void updateTransaction() {
+        String institutionId = institutionWithTransactions();
+        if (institutionId == null) {
+            transactionBurst();
+            return;
+        }
+        List<String> tracked = transactions.get(institutionId);
+        String transactionId = tracked.get(ThreadLocalRandom.current().nextInt(tracked.size()));
+        ObjectNode body = template("Update Transaction").body();
+        body.put("amount", amount(1, 500));
+        body.put("transactionDate", System.currentTimeMillis() / 1000);
+        sendWithId("Update Transaction", body, institutionId, transactionId);
+    }
+
+    private void deleteTransaction() {
+        String institutionId = institutionWithTransactions();
+        if (institutionId == null) {
+            transactionBurst();
+            return;
+        }
+        List<String> tracked = transactions.get(institutionId);
+        String transactionId = tracked.remove(ThreadLocalRandom.current().nextInt(tracked.size()));
+        sendWithId("Delete Transaction", null, institutionId, transactionId);
+    }
+
+    // --- dashboard ---
+
+    private void getDashboard() {
+        sendWithId("Get Dashboard", null);
+    }
+
+    // --- sync ---
+
+    // Like a mobile client: keep the cursor between syncs and start over when told to resync
+    private void syncChanges() {
+        PostmanCollection.RequestTemplate sync = template("Sync Changes");
+        String path = syncCursor == null ? sync.path() : sync.path() + "&since=" + syncCursor;
+        Response response = client.send(sync, path, null, idToken);
+        if (response.ok()) {
+            syncCursor = response.text("cursor");
+        }
+    }
+
+    // --- goals ---
+
+    private void getGoals() {
+        sendWithId("Get Goals", null);
+    }
+
+    private void createGoal() {
+        if (goals.size() >= MAX_GOALS) {
+            deleteGoal();
+            return;
+        }
+        ObjectNode body = template("Create Goal").body();
+        body.put("name", "Load Goal " + ThreadLocalRandom.current().nextInt(10_000));
+        body.put("targetAmount", amount(1_000, 20_000));
+        body.set("linkedInstitutions", allocations());
+        Response response = sendWithId("Create Goal", body);
+        String goalId = response.ok() ? response.text("goalId") : null;
+        if (goalId != null) {
+            goals.add(goalId);
+        }
+    }
+
+    private void editGoal() {
+        if (goals.isEmpty()) {
+            createGoal();
+            return;
+        }
+        ObjectNode body = template("Edit Goal").body();
+        body.put("name", "Edited Goal " + ThreadLocalRandom.current().nextInt(10_000));
+        body.put("targetAmount", amount(1_000, 20_000));
+        body.set("linkedInstitutions", allocations());
+        sendWithId("Edit Goal", body, goals.get(ThreadLocalRandom.current().nextInt(goals.size())));
+    }
+
+    private void deleteGoal() {
+        if (goals.isEmpty()) {
+            return;
+        }
+        String goalId = goals.remove(ThreadLocalRandom.current().nextInt(goals.size()));
+        sendWithId("Delete Goal", null, goalId);
+    }
+
+    // Goals only link base institutions with small shares, so MAX_GOALS can never exceed 100%
+    private ObjectNode allocations() {
+        ObjectNode allocations = template("Create Goal").body().objectNode();
+        allocations.put(baseInstitutions.get(ThreadLocalRandom.current().nextInt(baseInstitutions.size())),
+            GOAL_ALLOCATION_PERCENT);
+        return allocations;
+    }
+
+    // --- helpers ---
+
+    private String anyInstitution() {
+        List<String> all = new ArrayList<>(baseInstitutions);
+        all.addAll(extraInstitutions);
+        return all.get(ThreadLocalRandom.current().nextInt(all.size()));
+    }
+
+    private String institutionWithTransactions() {
+        List<String> candidates = transactions.entrySet().stream()
+            .filter(entry -> !entry.getValue().isEmpty())
+            .map(Map.Entry::getKey)
+            .toList();
+        return candidates.isEmpty() ? null : candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+    }
+
+    private Response send(String name, JsonNode body) {
+        return client.send(template(name), template(name).path(), body, null);
+    }
+
+    private Response sendWithId(String name, JsonNode body, String... ids) {
+        return client.send(template(name), template(name).path(ids), body, idToken);
+    }
+
+    private PostmanCollection.RequestTemplate template(String name) {
+        return collection.request(name);
+    }
+
+    private static double amount(int min, int max) {
+        return Math.round(ThreadLocalRandom.current().nextDouble(min, max) * 100) / 100.0;
+    }
+
+    private void require(Response response, String step) {
+        if (!response.ok()) {
+            throw new IllegalStateException(step + " failed during set-up for " + email
+                + " with status " + response.status() + ": " + response.body());
+        }
+    }
+
+    private record WeightedAction(int weight, Runnable action) {
+    }
+}
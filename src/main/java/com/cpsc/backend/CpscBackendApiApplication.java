@@ -1,12 +1,21 @@
 package com.cpsc.backend;
 
+import com.cpsc.backend.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class CpscBackendApiApplication {
 
+    /** Startup steps kept for StartupTimingReport (and the actuator startup endpoint, if exposed) */
+    private static final int STARTUP_STEPS = 10_000;
+
     public static void main(String[] args) {
-        SpringApplication.run(CpscBackendApiApplication.class, args);
+        SpringApplication application = new SpringApplication(CpscBackendApiApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+        application.run(args);
     }
 }
@@ -1,11 +1,19 @@
 package com.cpsc.backend.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
 
+import java.time.Duration;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
 @Configuration
 public class CognitoConfig {
 
@@ -16,11 +24,17 @@ public class CognitoConfig {
     }
 
     @Bean
-    public CognitoIdentityProviderClient cognitoClient() {
+    @Lazy
+    @Profile("!" + InMemoryCognitoConfig.PROFILE)
+    public CognitoIdentityProviderClient cognitoClient(@Value("${cognito.timeout.max:5s}") Duration maxTimeout) {
         String region = secretsManagerConfig.getCognitoRegion();
+        // CognitoCallGuard stops waiting after its adaptive timeout; this ends calls it gave up on
         return CognitoIdentityProviderClient.builder()
                 .region(Region.of(region))
                 .credentialsProvider(DefaultCredentialsProvider.create())
+                .overrideConfiguration(ClientOverrideConfiguration.builder()
+                        .apiCallTimeout(maxTimeout)
+                        .build())
                 .build();
     }
     
@@ -31,4 +45,14 @@ public class CognitoConfig {
     public String getRegion() {
         return secretsManagerConfig.getCognitoRegion();
     }
+
+    /**
+     * A value built from the user pool's region and ID, rebuilt if the secrets change them
+     */
+    public <T> Supplier<T> fromUserPool(BiFunction<String, String, T> factory) {
+        return secretsManagerConfig.derived(
+            secrets -> factory.apply(secrets.get(SecretsManagerConfig.COGNITO_REGION),
+                secrets.get(SecretsManagerConfig.COGNITO_USER_POOL_ID)),
+            SecretsManagerConfig.COGNITO_REGION, SecretsManagerConfig.COGNITO_USER_POOL_ID);
+    }
 }
@@ -1,13 +1,21 @@
 package com.cpsc.backend.config;
 
+import com.cpsc.backend.metrics.DynamoDbMetricsInterceptor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 
+/**
+ * The DynamoDB client is created on first use (StartupWarmup uses it right after startup, in
+ * parallel with the other AWS clients) rather than while the context starts.
+ */
 @Configuration
 public class DynamoDBConfig {
 
@@ -15,15 +23,20 @@ public class DynamoDBConfig {
     private String region;
 
     @Bean
-    public DynamoDbClient dynamoDbClient() {
+    @Lazy
+    @Profile("!" + InMemoryDynamoDBConfig.PROFILE)
+    public DynamoDbClient dynamoDbClient(DynamoDbMetricsInterceptor metricsInterceptor) {
         return DynamoDbClient.builder()
                 .region(Region.of(region))
                 .credentialsProvider(DefaultCredentialsProvider.create())
+                .overrideConfiguration(ClientOverrideConfiguration.builder()
+                        .addExecutionInterceptor(metricsInterceptor)
+                        .build())
                 .build();
     }
 
     @Bean
-    public DynamoDbEnhancedClient dynamoDbEnhancedClient(DynamoDbClient dynamoDbClient) {
+    public DynamoDbEnhancedClient dynamoDbEnhancedClient(@Lazy DynamoDbClient dynamoDbClient) {
         return DynamoDbEnhancedClient.builder()
                 .dynamoDbClient(dynamoDbClient)
                 .build();
@@ -0,0 +1,79 @@
+package com.cpsc.backend.config;
+
+import com.auth0.jwk.JwkProvider;
+import com.cpsc.backend.local.InMemoryCognitoIdentityProviderClient;
+import com.cpsc.backend.local.LocalJwtSigner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Replaces Secrets Manager and the Cognito user pool with in-process stand-ins when the
+ * {@code inmemory-cognito} profile is active. Tokens are signed with a key pair generated at
+ * startup, or read from {@code jwt.local.key-file} when it is set (the {@code local-jwt} profile),
+ * and JwtValidator verifies them through the {@link JwkProvider} bean defined here.
+ */
+@Configuration
+@Profile(InMemoryCognitoConfig.PROFILE)
+public class InMemoryCognitoConfig {
+
+    public static final String PROFILE = "inmemory-cognito";
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryCognitoConfig.class);
+
+    @Bean
+    public SecretsManagerConfig secretsManagerConfig(
+            @Value("${cognito.inmemory.user-pool-id}") String userPoolId,
+            @Value("${cognito.inmemory.client-id}") String clientId,
+            @Value("${cognito.inmemory.client-secret}") String clientSecret,
+            @Value("${cognito.inmemory.region}") String region) {
+        return new SecretsManagerConfig(Map.of(
+            "COGNITO_USER_POOL_ID", userPoolId,
+            "COGNITO_CLIENT_ID", clientId,
+            "COGNITO_CLIENT_SECRET", clientSecret,
+            "COGNITO_REGION", region));
+    }
+
+    // Lazy, like the AWS clients they replace: generating the key pair takes a while
+    @Bean
+    @Lazy
+    public LocalJwtSigner localJwtSigner(SecretsManagerConfig secretsManagerConfig,
+                                         @Value("${jwt.local.key-file:}") String keyFile) {
+        if (keyFile.isBlank()) {
+            return new LocalJwtSigner(secretsManagerConfig.getCognitoRegion(), secretsManagerConfig.getCognitoUserPoolId());
+        }
+        // A key shared with LocalTokenMinter, so test harnesses can mint tokens without logging in
+        logger.warn("Trusting tokens signed with the local key in {}", Path.of(keyFile).toAbsolutePath());
+        return new LocalJwtSigner(secretsManagerConfig.getCognitoRegion(), secretsManagerConfig.getCognitoUserPoolId(),
+            LocalJwtSigner.loadOrGenerateKeyPair(Path.of(keyFile)));
+    }
+
+    @Bean
+    @Lazy
+    public JwkProvider localJwkProvider(LocalJwtSigner localJwtSigner) {
+        return localJwtSigner.jwkProvider();
+    }
+
+    @Bean
+    @Lazy
+    public CognitoIdentityProviderClient cognitoClient(LocalJwtSigner localJwtSigner,
+                                                       SecretsManagerConfig secretsManagerConfig,
+                                                       @Value("${cognito.inmemory.confirmation-code}") String confirmationCode,
+                                                       @Value("${cognito.inmemory.latency:0ms}") Duration latency,
+                                                       @Value("${cognito.inmemory.failure-rate:0.0}") double failureRate) {
+        logger.warn("Using in-memory Cognito user pool (latency={}, failureRate={}); every confirmation code is {}",
+            latency, failureRate, confirmationCode);
+        return new InMemoryCognitoIdentityProviderClient(localJwtSigner,
+            secretsManagerConfig.getCognitoClientId(), secretsManagerConfig.getCognitoClientSecret(), confirmationCode,
+            latency, failureRate);
+    }
+}
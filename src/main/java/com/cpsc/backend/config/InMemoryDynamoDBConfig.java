@@ -0,0 +1,61 @@
+package com.cpsc.backend.config;
+
+import com.cpsc.backend.entity.ChangeRecord;
+import com.cpsc.backend.entity.Goal;
+import com.cpsc.backend.entity.IdempotencyRecord;
+import com.cpsc.backend.entity.Institution;
+import com.cpsc.backend.entity.Transaction;
+import com.cpsc.backend.entity.UserSummary;
+import com.cpsc.backend.local.InMemoryDynamoDbClient;
+import com.cpsc.backend.repository.EntityTableSchemas;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.time.Duration;
+
+/**
+ * Replaces the AWS DynamoDB client with {@link InMemoryDynamoDbClient} when the
+ * {@code inmemory-dynamodb} profile is active, creating the tables from the entity schemas.
+ */
+@Configuration
+@Profile(InMemoryDynamoDBConfig.PROFILE)
+public class InMemoryDynamoDBConfig {
+
+    public static final String PROFILE = "inmemory-dynamodb";
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryDynamoDBConfig.class);
+
+    @Bean
+    @Lazy
+    public DynamoDbClient dynamoDbClient(
+            @Value("${dynamodb.inmemory.latency:0ms}") Duration latency,
+            @Value("${dynamodb.inmemory.latency-jitter:0ms}") Duration latencyJitter,
+            @Value("${dynamodb.inmemory.throttle-rate:0.0}") double throttleRate,
+            @Value("${dynamodb.table.name}") String institutionsTable,
+            @Value("${dynamodb.transaction.table.name}") String transactionsTable,
+            @Value("${dynamodb.goals.table.name}") String goalsTable,
+            @Value("${dynamodb.summary.table.name}") String summariesTable,
+            @Value("${dynamodb.changes.table.name}") String changesTable,
+            @Value("${dynamodb.idempotency.table.name}") String idempotencyTable) {
+        InMemoryDynamoDbClient client = new InMemoryDynamoDbClient(latency, latencyJitter, throttleRate);
+
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder().dynamoDbClient(client).build();
+        enhancedClient.table(institutionsTable, EntityTableSchemas.of(Institution.class)).createTable();
+        enhancedClient.table(transactionsTable, EntityTableSchemas.of(Transaction.class)).createTable();
+        enhancedClient.table(goalsTable, EntityTableSchemas.of(Goal.class)).createTable();
+        enhancedClient.table(summariesTable, EntityTableSchemas.of(UserSummary.class)).createTable();
+        enhancedClient.table(changesTable, EntityTableSchemas.of(ChangeRecord.class)).createTable();
+        enhancedClient.table(idempotencyTable, EntityTableSchemas.of(IdempotencyRecord.class)).createTable();
+
+        logger.warn("Using in-memory DynamoDB (latency={}, jitter={}, throttleRate={}); data is not persisted",
+            latency, latencyJitter, throttleRate);
+        return client;
+    }
+}
@@ -0,0 +1,90 @@
+package com.cpsc.backend.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.util.ClassUtils;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reflection a native image of the app needs that Spring cannot find on its own. Registered with
+ * {@code @ImportRuntimeHints} on the application class and read by {@code processAot}; it does
+ * nothing on the JVM.
+ *
+ * <ul>
+ *   <li>The DynamoDB entities, including nested beans such as the UserSummary entries: their
+ *       getters and setters are called by {@code EntityTableSchemas}, and Jackson writes and reads
+ *       them for the change log and sync.</li>
+ *   <li>The OpenAPI-generated models, which Jackson binds for requests, responses, batch
+ *       operations and stored idempotent responses.</li>
+ *   <li>java-jwt's internal payload and header classes, which its ObjectMapper introspects.</li>
+ * </ul>
+ *
+ * The AWS SDK clients need nothing here: sdk-core, aws-core and the HTTP client jars ship their
+ * own native-image configuration, and the interceptors we add are built in code.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final String ENTITY_PACKAGE = "com.cpsc.backend.entity";
+    static final String MODEL_PACKAGE = "com.cpsc.backend.model";
+
+    static final List<String> JWT_CLASSES = List.of(
+        "com.auth0.jwt.impl.BasicHeader",
+        "com.auth0.jwt.impl.PayloadImpl",
+        "com.auth0.jwt.impl.JsonNodeClaim",
+        "com.auth0.jwt.impl.ClaimsHolder",
+        "com.auth0.jwt.impl.HeaderClaimsHolder",
+        "com.auth0.jwt.impl.PayloadClaimsHolder",
+        "com.auth0.jwt.impl.ClaimsSerializer",
+        "com.auth0.jwt.impl.HeaderSerializer",
+        "com.auth0.jwt.impl.PayloadSerializer",
+        "com.auth0.jwt.impl.HeaderDeserializer",
+        "com.auth0.jwt.impl.PayloadDeserializer");
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        forEachClass(ENTITY_PACKAGE, new AnnotationTypeFilter(DynamoDbBean.class), classLoader, entity -> {
+            hints.reflection().registerType(entity,
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            bindingRegistrar.registerReflectionHints(hints.reflection(), entity);
+        });
+
+        forEachClass(MODEL_PACKAGE, (reader, factory) -> true, classLoader,
+            model -> bindingRegistrar.registerReflectionHints(hints.reflection(), model));
+
+        for (String jwtClass : JWT_CLASSES) {
+            hints.reflection().registerType(TypeReference.of(jwtClass),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS,
+                MemberCategory.DECLARED_FIELDS);
+        }
+    }
+
+    /** Classes under {@code basePackage} matching {@code filter}, nested ones included */
+    private static void forEachClass(String basePackage, TypeFilter filter, ClassLoader classLoader,
+                                     Consumer<Class<?>> action) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return beanDefinition.getMetadata().isIndependent();
+            }
+        };
+        scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+        scanner.addIncludeFilter(filter);
+        for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+            action.accept(ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader));
+        }
+    }
+}
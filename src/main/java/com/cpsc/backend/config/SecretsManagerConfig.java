@@ -2,8 +2,11 @@ package com.cpsc.backend.config;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
@@ -11,73 +14,324 @@ import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueReques
 import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueResponse;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+/**
+ * The app's secret values. They are fetched from Secrets Manager on a background thread as soon
+ * as this bean is created, so the rest of the context starts while the call is in flight; the
+ * getters wait for it to finish.
+ *
+ * The secret is then re-read every {@code aws.secretsmanager.refresh-interval}, and when its
+ * version has changed the values are replaced as a whole by swapping in a new immutable
+ * {@link Snapshot}. Reads never lock: they see either the old values or the new ones, never a mix.
+ * Objects built from secrets, such as the Cognito secret hash, come from {@link #derived}, which
+ * rebuilds them on the refresh thread when the secrets they use change, so a rotated secret takes
+ * effect without a restart and without requests paying for it.
+ */
 @Configuration
+@Profile("!" + InMemoryCognitoConfig.PROFILE)
 public class SecretsManagerConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(SecretsManagerConfig.class);
+
+    public static final String COGNITO_USER_POOL_ID = "COGNITO_USER_POOL_ID";
+    public static final String COGNITO_CLIENT_ID = "COGNITO_CLIENT_ID";
+    public static final String COGNITO_CLIENT_SECRET = "COGNITO_CLIENT_SECRET";
+    public static final String COGNITO_REGION = "COGNITO_REGION";
+
+    /** Least time between refreshes that callers ask for, so a burst of rejections makes one call */
+    private static final Duration MIN_REQUESTED_REFRESH_GAP = Duration.ofSeconds(30);
+
     @Value("${aws.secretsmanager.secret-name}")
     private String secretName;
 
     @Value("${aws.secretsmanager.region}")
     private String region;
 
-    private final Map<String, String> secretsCache = new HashMap<>();
+    @Value("${aws.secretsmanager.refresh-interval:5m}")
+    private Duration refreshInterval = Duration.ZERO;
+
+    private final SecretSource source;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CompletableFuture<Void> loaded = new CompletableFuture<>();
+    private final List<Derived<?>> derivedValues = new CopyOnWriteArrayList<>();
+    private final AtomicLong lastRequestedRefresh = new AtomicLong(System.nanoTime() - MIN_REQUESTED_REFRESH_GAP.toNanos());
+    private volatile Snapshot snapshot;
+    private ScheduledExecutorService refresher;
+    private SecretsManagerClient client;
+
+    /**
+     * One version of the secret's values
+     * @param versionId the Secrets Manager version, or null for values not read from it
+     */
+    public record Snapshot(Map<String, String> values, String versionId, Instant loadedAt) {
+
+        public Snapshot {
+            values = Map.copyOf(values);
+        }
+
+        public String get(String key) {
+            String value = values.get(key);
+            if (value == null) {
+                throw new IllegalArgumentException("Secret key '" + key + "' not found in Secrets Manager");
+            }
+            return value;
+        }
+    }
+
+    /** Reads the current version of the secret */
+    @FunctionalInterface
+    interface SecretSource {
+        Snapshot fetch();
+    }
+
+    public SecretsManagerConfig() {
+        this.source = this::fetchFromSecretsManager;
+    }
+
+    /**
+     * Use the given secret values instead of reading them from Secrets Manager (offline profiles)
+     */
+    public SecretsManagerConfig(Map<String, String> secrets) {
+        this.source = null;
+        this.snapshot = new Snapshot(secrets, null, Instant.now());
+        loaded.complete(null);
+    }
+
+    SecretsManagerConfig(SecretSource source, Duration refreshInterval) {
+        this.source = source;
+        this.refreshInterval = refreshInterval;
+        this.secretName = "test";
+    }
 
     @PostConstruct
     public void init() {
-        loadSecrets();
+        if (loaded.isDone()) {
+            return;
+        }
+        refresher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofVirtual().name("secrets-refresh").factory());
+        refresher.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                snapshot = source.fetch();
+                logger.info("Loaded {} secrets from {} in {} ms", snapshot.values().size(), secretName,
+                    (System.nanoTime() - start) / 1_000_000);
+                loaded.complete(null);
+            } catch (RuntimeException e) {
+                loaded.completeExceptionally(e);
+                return;
+            }
+            if (refreshInterval != null && refreshInterval.isPositive()) {
+                refresher.scheduleWithFixedDelay(this::refresh, refreshInterval.toMillis(), refreshInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+        synchronized (this) {
+            if (client != null) {
+                client.close();
+            }
+        }
     }
 
-    private void loadSecrets() {
-        try (SecretsManagerClient client = SecretsManagerClient.builder()
-                .region(Region.of(region))
-                .credentialsProvider(DefaultCredentialsProvider.create())
-                .build()) {
+    /**
+     * Wait for the secrets to be loaded
+     * @throws RuntimeException if they could not be
+     */
+    public void awaitLoaded() {
+        if (snapshot != null) {
+            return;
+        }
+        try {
+            loaded.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
 
+    /**
+     * The current values, waiting for the first load if needed
+     */
+    public Snapshot snapshot() {
+        awaitLoaded();
+        return snapshot;
+    }
+
+    /**
+     * A value built from the secrets in {@code keys}. It is built on first use and rebuilt on the
+     * refresh thread when one of those secrets changes; reading it is a volatile read.
+     */
+    public <T> Supplier<T> derived(Function<Snapshot, T> factory, String... keys) {
+        Derived<T> derived = new Derived<>(factory, List.of(keys));
+        derivedValues.add(derived);
+        return derived;
+    }
+
+    /**
+     * Re-read the secret soon, e.g. after Cognito rejected a secret hash. Requests closer together
+     * than {@link #MIN_REQUESTED_REFRESH_GAP} are ignored.
+     */
+    public void requestRefresh() {
+        long now = System.nanoTime();
+        long last = lastRequestedRefresh.get();
+        if (refresher == null || now - last < MIN_REQUESTED_REFRESH_GAP.toNanos()
+                || !lastRequestedRefresh.compareAndSet(last, now)) {
+            return;
+        }
+        logger.info("Refreshing secrets from {} on request", secretName);
+        refresher.execute(this::refresh);
+    }
+
+    /**
+     * Read the secret and swap in its values if they have changed
+     * @return whether they had
+     */
+    boolean refresh() {
+        Snapshot current = snapshot;
+        Snapshot fetched;
+        try {
+            fetched = source.fetch();
+        } catch (RuntimeException e) {
+            // Keep serving the values we have; the next refresh tries again
+            logger.warn("Failed to refresh secrets from {}: {}", secretName, e.getMessage());
+            return false;
+        }
+        if (current != null && (fetched.versionId() != null
+                ? fetched.versionId().equals(current.versionId())
+                : fetched.values().equals(current.values()))) {
+            return false;
+        }
+
+        snapshot = fetched;
+        logger.info("Secrets in {} changed (version {}), now using the new values", secretName, fetched.versionId());
+        for (Derived<?> derived : derivedValues) {
+            try {
+                derived.rebuild();
+            } catch (RuntimeException e) {
+                // Rebuilt again when next used; the error surfaces there
+                logger.warn("Failed to rebuild a value from the new secrets: {}", e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private Snapshot fetchFromSecretsManager() {
+        try {
             GetSecretValueRequest request = GetSecretValueRequest.builder()
                     .secretId(secretName)
                     .build();
 
-            GetSecretValueResponse response = client.getSecretValue(request);
+            GetSecretValueResponse response = client().getSecretValue(request);
             String secretString = response.secretString();
 
             // Parse JSON secret
             JsonNode secretJson = objectMapper.readTree(secretString);
-            
-            // Cache all secret values
-            secretJson.fields().forEachRemaining(entry -> 
-                secretsCache.put(entry.getKey(), entry.getValue().asText())
+
+            Map<String, String> values = new HashMap<>();
+            secretJson.fields().forEachRemaining(entry ->
+                values.put(entry.getKey(), entry.getValue().asText())
             );
+            return new Snapshot(values, response.versionId(), Instant.now());
 
         } catch (Exception e) {
             throw new RuntimeException("Failed to load secrets from AWS Secrets Manager: " + e.getMessage(), e);
         }
     }
 
-    public String getSecret(String key) {
-        String value = secretsCache.get(key);
-        if (value == null) {
-            throw new IllegalArgumentException("Secret key '" + key + "' not found in Secrets Manager");
+    /** Kept open for the refreshes rather than built for each read */
+    private synchronized SecretsManagerClient client() {
+        if (client == null) {
+            client = SecretsManagerClient.builder()
+                    .region(Region.of(region))
+                    .credentialsProvider(DefaultCredentialsProvider.create())
+                    .build();
         }
-        return value;
+        return client;
+    }
+
+    public String getSecret(String key) {
+        return snapshot().get(key);
     }
 
     public String getCognitoUserPoolId() {
-        return getSecret("COGNITO_USER_POOL_ID");
+        return getSecret(COGNITO_USER_POOL_ID);
     }
 
     public String getCognitoClientId() {
-        return getSecret("COGNITO_CLIENT_ID");
+        return getSecret(COGNITO_CLIENT_ID);
     }
 
     public String getCognitoClientSecret() {
-        return getSecret("COGNITO_CLIENT_SECRET");
+        return getSecret(COGNITO_CLIENT_SECRET);
     }
 
     public String getCognitoRegion() {
-        return getSecret("COGNITO_REGION");
+        return getSecret(COGNITO_REGION);
+    }
+
+    /**
+     * A value and the secrets it was built from
+     */
+    private final class Derived<T> implements Supplier<T> {
+
+        private record Built<T>(Snapshot source, List<String> inputs, T value) {
+        }
+
+        private final Function<Snapshot, T> factory;
+        private final List<String> keys;
+        private volatile Built<T> built;
+
+        private Derived(Function<Snapshot, T> factory, List<String> keys) {
+            this.factory = factory;
+            this.keys = keys;
+        }
+
+        @Override
+        public T get() {
+            Built<T> current = built;
+            Snapshot latest = snapshot();
+            if (current != null && current.source() == latest) {
+                return current.value();
+            }
+
+            List<String> inputs = keys.stream().map(key -> latest.values().get(key)).toList();
+            if (current != null && Objects.equals(current.inputs(), inputs)) {
+                // A new version that does not touch these secrets: keep the value
+                built = new Built<>(latest, inputs, current.value());
+                return current.value();
+            }
+            T value = factory.apply(latest);
+            built = new Built<>(latest, inputs, value);
+            return value;
+        }
+
+        /** Bring a value in use up to date; one nothing has asked for yet stays unbuilt */
+        private void rebuild() {
+            if (built != null) {
+                get();
+            }
+        }
     }
 }
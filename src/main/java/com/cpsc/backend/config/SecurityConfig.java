@@ -1,6 +1,10 @@
 package com.cpsc.backend.config;
 
 import com.cpsc.backend.security.JwtAuthenticationFilter;
+import com.cpsc.backend.security.RateLimitFilter;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -8,6 +12,8 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -19,10 +25,38 @@ import java.util.List;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * Endpoints anyone may call; {@link JwtAuthenticationFilter} does not look at tokens sent to them
+     */
+    public static final String[] PUBLIC_PATHS = {
+        "/api/hello",
+        "/api/auth/signup",
+        "/api/auth/login",
+        "/api/auth/confirm",
+        "/api/auth/resend-code",
+        "/api/auth/forgot-password",
+        "/api/auth/confirm-forgot-password",
+        "/swagger-ui/**",
+        "/api-docs/**",
+        "/v3/api-docs/**",
+        "/actuator/health"
+    };
+
+    /**
+     * Prometheus scrape endpoint; open only on the internal management port, never on the API port
+     */
+    static final String SCRAPE_PATH = "/actuator/prometheus";
+
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final RequestMatcher scrapeRequests;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter, RateLimitFilter rateLimitFilter,
+                          @Value("${server.port:8080}") int serverPort,
+                          @Value("${management.server.port:-1}") int managementPort) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.rateLimitFilter = rateLimitFilter;
+        this.scrapeRequests = scrapeRequests(serverPort, managementPort);
     }
 
     @Bean
@@ -32,25 +66,53 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers(
-                    "/api/hello",
-                    "/api/auth/signup",
-                    "/api/auth/login",
-                    "/api/auth/confirm",
-                    "/api/auth/resend-code",
-                    "/api/auth/forgot-password",
-                    "/api/auth/confirm-forgot-password",
-                    "/swagger-ui/**",
-                    "/api-docs/**",
-                    "/v3/api-docs/**"
-                ).permitAll()
+                // The async dispatch that ends an event stream belongs to a request that was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                .requestMatchers(PUBLIC_PATHS).permitAll()
+                .requestMatchers(scrapeRequests).permitAll()
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // After authentication, so authenticated requests are limited per user rather than per IP
+            .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
+    /**
+     * Scrapes of {@link #SCRAPE_PATH} that arrive on the management port. Matches nothing when
+     * actuator shares the API port, so the meters are never public on the internet-facing port.
+     */
+    static RequestMatcher scrapeRequests(int serverPort, int managementPort) {
+        if (managementPort <= 0 || managementPort == serverPort) {
+            return request -> false;
+        }
+        RequestMatcher path = AntPathRequestMatcher.antMatcher(SCRAPE_PATH);
+        return request -> request.getLocalPort() == managementPort && path.matches(request);
+    }
+
+    /**
+     * The JWT filter runs inside the security filter chain only, where it also sees error dispatches;
+     * registered as a plain servlet filter as well, it would be invoked twice per request
+     */
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration(JwtAuthenticationFilter filter) {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    /**
+     * The rate limiter runs inside the security filter chain only; registered as a plain servlet
+     * filter as well, it would run first, before the user is known, and limit everyone by IP
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter filter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -81,7 +143,7 @@ public class SecurityConfig {
         configuration.setAllowCredentials(true);
         
         // Expose Authorization header to frontend
-        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type", "Idempotent-Replayed", "Retry-After"));
         
         // Cache preflight response for 1 hour
         configuration.setMaxAge(3600L);
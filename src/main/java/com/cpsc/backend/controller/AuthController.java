@@ -1,6 +1,7 @@
 package com.cpsc.backend.controller;
 
 import com.cpsc.backend.api.AuthenticationApi;
+import com.cpsc.backend.exception.CognitoUnavailableException;
 import com.cpsc.backend.model.ConfirmForgotPasswordRequest;
 import com.cpsc.backend.model.ConfirmForgotPasswordResponse;
 import com.cpsc.backend.model.ConfirmSignUpRequest;
@@ -59,6 +60,8 @@ public class AuthController implements AuthenticationApi {
             response.setConfirmed(result.get("confirmed"));
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (CognitoUnavailableException e) {
+            throw e; // 503 with Retry-After from GlobalExceptionHandler, not a client error
         } catch (RuntimeException e) {
             ErrorResponse error = new ErrorResponse();
             error.setError(e.getMessage());
@@ -78,6 +81,8 @@ public class AuthController implements AuthenticationApi {
             response.setMessage(result.get("message"));
             
             return ResponseEntity.ok(response);
+        } catch (CognitoUnavailableException e) {
+            throw e;
         } catch (RuntimeException e) {
             ErrorResponse error = new ErrorResponse();
             error.setError(e.getMessage());
@@ -96,6 +101,8 @@ public class AuthController implements AuthenticationApi {
             response.setMessage(result.get("message"));
             
             return ResponseEntity.ok(response);
+        } catch (CognitoUnavailableException e) {
+            throw e;
         } catch (RuntimeException e) {
             ErrorResponse error = new ErrorResponse();
             error.setError(e.getMessage());
@@ -116,6 +123,8 @@ public class AuthController implements AuthenticationApi {
             
             logger.info("Password reset code sent for email: {}", request.getEmail());
             return ResponseEntity.ok(response);
+        } catch (CognitoUnavailableException e) {
+            throw e;
         } catch (RuntimeException e) {
             logger.error("Forgot password failed for email: {}, error: {}", request.getEmail(), e.getMessage());
             ErrorResponse error = new ErrorResponse();
@@ -139,6 +148,8 @@ public class AuthController implements AuthenticationApi {
             
             logger.info("Password reset successful for email: {}", request.getEmail());
             return ResponseEntity.ok(response);
+        } catch (CognitoUnavailableException e) {
+            throw e;
         } catch (RuntimeException e) {
             logger.error("Confirm forgot password failed for email: {}, error: {}", request.getEmail(), e.getMessage());
             ErrorResponse error = new ErrorResponse();
@@ -167,6 +178,8 @@ public class AuthController implements AuthenticationApi {
             
             logger.info("Login successful for email: {}", request.getEmail());
             return ResponseEntity.ok(response);
+        } catch (CognitoUnavailableException e) {
+            throw e;
         } catch (RuntimeException e) {
             logger.error("Login failed for email: {}, error: {}", request.getEmail(), e.getMessage());
             ErrorResponse error = new ErrorResponse();
@@ -180,10 +193,11 @@ public class AuthController implements AuthenticationApi {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         
         // The access token is stored as credentials in the authentication
+        String userId = authentication.getName();
         String accessToken = (String) authentication.getCredentials();
         
-        // Use Cognito GetUser API to fetch user attributes (including preferred_username)
-        Map<String, String> profile = cognitoService.getUserProfile(accessToken);
+        // Cached profile, or Cognito GetUser API to fetch user attributes (including preferred_username)
+        Map<String, String> profile = cognitoService.getUserProfile(userId, accessToken);
         
         GetProfile200Response response = new GetProfile200Response();
         response.setMessage("Welcome to your profile!");
@@ -199,9 +213,10 @@ public class AuthController implements AuthenticationApi {
         logger.info("Update screen name request received");
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            String userId = authentication.getName();
             String accessToken = (String) authentication.getCredentials();
             
-            Map<String, String> result = cognitoService.updateScreenName(accessToken, request.getScreenName());
+            Map<String, String> result = cognitoService.updateScreenName(userId, accessToken, request.getScreenName());
             
             UpdateScreenNameResponse response = new UpdateScreenNameResponse();
             response.setMessage(result.get("message"));
@@ -209,6 +224,8 @@ public class AuthController implements AuthenticationApi {
             
             logger.info("Screen name updated successfully to: {}", request.getScreenName());
             return ResponseEntity.ok(response);
+        } catch (CognitoUnavailableException e) {
+            throw e;
         } catch (RuntimeException e) {
             logger.error("Update screen name failed: {}", e.getMessage());
             ErrorResponse error = new ErrorResponse();
@@ -237,11 +254,13 @@ public class AuthController implements AuthenticationApi {
             logger.info("Deleted all institutions and transactions for user: {}", userId);
             
             // 3. Finally delete the Cognito user account
-            cognitoService.deleteUser(accessToken);
+            cognitoService.deleteUser(userId, accessToken);
             logger.info("Deleted Cognito account for user: {}", userId);
             
             logger.info("Successfully deleted account and all data for user: {}", userId);
             return ResponseEntity.noContent().build();
+        } catch (CognitoUnavailableException e) {
+            throw e;
         } catch (RuntimeException e) {
             logger.error("Delete account failed: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
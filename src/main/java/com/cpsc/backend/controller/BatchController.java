@@ -0,0 +1,51 @@
+package com.cpsc.backend.controller;
+
+import com.cpsc.backend.api.BatchApi;
+import com.cpsc.backend.model.BatchRequest;
+import com.cpsc.backend.model.BatchResponse;
+import com.cpsc.backend.service.BatchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class BatchController implements BatchApi {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchController.class);
+
+    private final BatchService batchService;
+
+    public BatchController(BatchService batchService) {
+        this.batchService = batchService;
+    }
+
+    @Override
+    public ResponseEntity<BatchResponse> executeBatch(BatchRequest batchRequest) {
+        String userId = getAuthenticatedUserId();
+
+        logger.info("Request to execute batch for user {}", userId);
+
+        return ResponseEntity.ok(batchService.execute(userId, batchRequest));
+    }
+
+    private String getAuthenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null) {
+            logger.error("No authentication found in SecurityContext");
+            throw new IllegalStateException("User not authenticated");
+        }
+
+        String userId = authentication.getName();
+
+        if (userId == null || userId.trim().isEmpty()) {
+            logger.error("Authentication present but user ID is null or empty");
+            throw new IllegalStateException("Invalid authentication state");
+        }
+
+        return userId;
+    }
+}
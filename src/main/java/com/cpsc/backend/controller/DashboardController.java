@@ -0,0 +1,50 @@
+package com.cpsc.backend.controller;
+
+import com.cpsc.backend.api.DashboardApi;
+import com.cpsc.backend.model.DashboardResponse;
+import com.cpsc.backend.service.DashboardService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class DashboardController implements DashboardApi {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardController.class);
+
+    private final DashboardService dashboardService;
+
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    @Override
+    public ResponseEntity<DashboardResponse> getDashboard() {
+        String userId = getAuthenticatedUserId();
+
+        logger.debug("Request to get dashboard for user {}", userId);
+
+        return ResponseEntity.ok(dashboardService.getDashboard(userId));
+    }
+
+    private String getAuthenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        
+        if (authentication == null) {
+            logger.error("No authentication found in SecurityContext");
+            throw new IllegalStateException("User not authenticated");
+        }
+        
+        String userId = authentication.getName();
+        
+        if (userId == null || userId.trim().isEmpty()) {
+            logger.error("Authentication present but user ID is null or empty");
+            throw new IllegalStateException("Invalid authentication state");
+        }
+        
+        return userId;
+    }
+}
@@ -0,0 +1,54 @@
+package com.cpsc.backend.controller;
+
+import com.cpsc.backend.api.EventsApi;
+import com.cpsc.backend.service.EventStreamService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+public class EventController implements EventsApi {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventController.class);
+
+    private final EventStreamService eventStreamService;
+
+    public EventController(EventStreamService eventStreamService) {
+        this.eventStreamService = eventStreamService;
+    }
+
+    @Override
+    public ResponseEntity<SseEmitter> streamEvents() {
+        String userId = getAuthenticatedUserId();
+
+        logger.debug("Request to open event stream for user {}", userId);
+
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noStore())
+            .header("X-Accel-Buffering", "no") // keep reverse proxies from buffering the stream
+            .body(eventStreamService.subscribe(userId));
+    }
+
+    private String getAuthenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null) {
+            logger.error("No authentication found in SecurityContext");
+            throw new IllegalStateException("User not authenticated");
+        }
+
+        String userId = authentication.getName();
+
+        if (userId == null || userId.trim().isEmpty()) {
+            logger.error("Authentication present but user ID is null or empty");
+            throw new IllegalStateException("Invalid authentication state");
+        }
+
+        return userId;
+    }
+}
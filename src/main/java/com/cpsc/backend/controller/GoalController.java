@@ -5,6 +5,7 @@ import com.cpsc.backend.model.CreateGoalRequest;
 import com.cpsc.backend.model.EditGoalRequest;
 import com.cpsc.backend.model.GetGoals200Response;
 import com.cpsc.backend.model.GoalResponse;
+import com.cpsc.backend.service.EntityTagService;
 import com.cpsc.backend.service.GoalService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,9 +24,11 @@ public class GoalController implements GoalsApi {
     private static final Logger logger = LoggerFactory.getLogger(GoalController.class);
     
     private final GoalService goalService;
+    private final EntityTagService entityTagService;
 
-    public GoalController(GoalService goalService) {
+    public GoalController(GoalService goalService, EntityTagService entityTagService) {
         this.goalService = goalService;
+        this.entityTagService = entityTagService;
     }
 
     @Override
@@ -39,17 +42,22 @@ public class GoalController implements GoalsApi {
     }
 
     @Override
-    public ResponseEntity<GetGoals200Response> getGoals() {
+    public ResponseEntity<GetGoals200Response> getGoals(String ifNoneMatch) {
         String userId = getAuthenticatedUserId();
         
         logger.debug("Request to get goals for user {}", userId);
         
+        String etag = entityTagService.listTag(userId, "goals");
+        if (entityTagService.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        
         List<GoalResponse> goals = goalService.getUserGoals(userId);
         
         GetGoals200Response response = new GetGoals200Response();
         response.setGoals(goals);
         
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(etag).body(response);
     }
 
     @Override
@@ -4,6 +4,7 @@ import com.cpsc.backend.api.InstitutionsApi;
 import com.cpsc.backend.model.CreateInstitutionRequest;
 import com.cpsc.backend.model.GetInstitutions200Response;
 import com.cpsc.backend.model.InstitutionResponse;
+import com.cpsc.backend.service.EntityTagService;
 import com.cpsc.backend.service.InstitutionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,9 +23,11 @@ public class InstitutionController implements InstitutionsApi {
     private static final Logger logger = LoggerFactory.getLogger(InstitutionController.class);
     
     private final InstitutionService institutionService;
+    private final EntityTagService entityTagService;
 
-    public InstitutionController(InstitutionService institutionService) {
+    public InstitutionController(InstitutionService institutionService, EntityTagService entityTagService) {
         this.institutionService = institutionService;
+        this.entityTagService = entityTagService;
     }
 
     @Override
@@ -38,14 +41,20 @@ public class InstitutionController implements InstitutionsApi {
     }
 
     @Override
-    public ResponseEntity<GetInstitutions200Response> getInstitutions(Integer limit, String lastEvaluatedKey) {
+    public ResponseEntity<GetInstitutions200Response> getInstitutions(Integer limit, String lastEvaluatedKey,
+                                                                      String ifNoneMatch) {
         String userId = getAuthenticatedUserId();
         
         logger.debug("Request to get institutions for user {} with limit={}", userId, limit);
         
+        String etag = entityTagService.listTag(userId, "institutions", limit, lastEvaluatedKey);
+        if (entityTagService.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        
         GetInstitutions200Response response = institutionService.getUserInstitutionsPaginated(userId, limit, lastEvaluatedKey);
         
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(etag).body(response);
     }
 
     @Override
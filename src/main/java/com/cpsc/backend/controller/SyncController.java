@@ -0,0 +1,50 @@
+package com.cpsc.backend.controller;
+
+import com.cpsc.backend.api.SyncApi;
+import com.cpsc.backend.model.SyncResponse;
+import com.cpsc.backend.service.SyncService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class SyncController implements SyncApi {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncController.class);
+
+    private final SyncService syncService;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    @Override
+    public ResponseEntity<SyncResponse> getChanges(String since, Integer limit) {
+        String userId = getAuthenticatedUserId();
+
+        logger.debug("Request to sync changes since {} for user {}", since, userId);
+
+        return ResponseEntity.ok(syncService.getChanges(userId, since, limit));
+    }
+
+    private String getAuthenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null) {
+            logger.error("No authentication found in SecurityContext");
+            throw new IllegalStateException("User not authenticated");
+        }
+
+        String userId = authentication.getName();
+
+        if (userId == null || userId.trim().isEmpty()) {
+            logger.error("Authentication present but user ID is null or empty");
+            throw new IllegalStateException("Invalid authentication state");
+        }
+
+        return userId;
+    }
+}
@@ -2,14 +2,30 @@ package com.cpsc.backend.controller;
 
 import com.cpsc.backend.api.TestApi;
 import com.cpsc.backend.model.Hello200Response;
+import com.cpsc.backend.startup.StartupWarmup;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 public class TestController implements TestApi {
 
+    private final StartupWarmup startupWarmup;
+
+    public TestController(StartupWarmup startupWarmup) {
+        this.startupWarmup = startupWarmup;
+    }
+
     @Override
     public ResponseEntity<Hello200Response> hello() {
+        // The load balancer health check: only route here once the AWS dependencies are warm
+        if (!startupWarmup.isReady()) {
+            Hello200Response response = new Hello200Response();
+            response.setMessage("CPSC Backend API is starting");
+            response.setStatus("starting");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+
         Hello200Response response = new Hello200Response();
         response.setMessage("Hello from CPSC Backend API!");
         response.setStatus("success");
@@ -2,8 +2,12 @@ package com.cpsc.backend.controller;
 
 import com.cpsc.backend.api.TransactionsApi;
 import com.cpsc.backend.model.CreateTransactionRequest;
+import com.cpsc.backend.model.GetTransactions200Response;
 import com.cpsc.backend.model.TransactionResponse;
 import com.cpsc.backend.model.UpdateTransactionRequest;
+import com.cpsc.backend.service.EntityTagService;
+import com.cpsc.backend.service.IdempotencyService;
+import com.cpsc.backend.service.TransactionFeedService;
 import com.cpsc.backend.service.TransactionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,31 +25,77 @@ public class TransactionController implements TransactionsApi {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionController.class);
     
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    
     private final TransactionService transactionService;
+    private final TransactionFeedService transactionFeedService;
+    private final EntityTagService entityTagService;
+    private final IdempotencyService idempotencyService;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, TransactionFeedService transactionFeedService,
+                                 EntityTagService entityTagService, IdempotencyService idempotencyService) {
         this.transactionService = transactionService;
+        this.transactionFeedService = transactionFeedService;
+        this.entityTagService = entityTagService;
+        this.idempotencyService = idempotencyService;
     }
 
     @Override
-    public ResponseEntity<TransactionResponse> createTransaction(UUID institutionId, CreateTransactionRequest createTransactionRequest) {
+    public ResponseEntity<TransactionResponse> createTransaction(UUID institutionId, CreateTransactionRequest createTransactionRequest,
+                                                                 String idempotencyKey) {
         String userId = getAuthenticatedUserId();
         
         logger.info("Request to create transaction for institution {} from user {}", institutionId, userId);
         
-        TransactionResponse response = transactionService.createTransaction(userId, institutionId.toString(), createTransactionRequest);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        if (idempotencyKey == null) {
+            TransactionResponse response = transactionService.createTransaction(userId, institutionId.toString(), createTransactionRequest);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        }
+        
+        IdempotencyService.Result<TransactionResponse> result = idempotencyService.execute(userId, idempotencyKey,
+            "createTransaction " + institutionId, createTransactionRequest, HttpStatus.CREATED.value(),
+            TransactionResponse.class,
+            () -> transactionService.createTransaction(userId, institutionId.toString(), createTransactionRequest));
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(result.status());
+        if (result.replayed()) {
+            response.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return response.body(result.body());
     }
 
     @Override
-    public ResponseEntity<List<TransactionResponse>> getInstitutionTransactions(UUID institutionId) {
+    public ResponseEntity<List<TransactionResponse>> getInstitutionTransactions(UUID institutionId, String ifNoneMatch) {
         String userId = getAuthenticatedUserId();
         
         logger.debug("Request to get transactions for institution {} from user {}", institutionId, userId);
         
+        // The tag only covers the user's data, so the institution must be theirs before a 304 is sent
+        transactionService.requireInstitution(userId, institutionId.toString());
+        String etag = entityTagService.listTag(userId, "institution-transactions", institutionId);
+        if (entityTagService.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        
         List<TransactionResponse> response = transactionService.getInstitutionTransactions(userId, institutionId.toString());
         
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(etag).body(response);
+    }
+
+    @Override
+    public ResponseEntity<GetTransactions200Response> getTransactions(Integer limit, String nextToken,
+                                                                      String ifNoneMatch) {
+        String userId = getAuthenticatedUserId();
+        
+        logger.debug("Request to get transaction feed for user {} with limit={}", userId, limit);
+        
+        String etag = entityTagService.listTag(userId, "transactions", limit, nextToken);
+        if (entityTagService.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        
+        GetTransactions200Response response = transactionFeedService.getTransactions(userId, limit, nextToken);
+        
+        return ResponseEntity.ok().eTag(etag).body(response);
     }
 
     @Override
@@ -0,0 +1,139 @@
+package com.cpsc.backend.entity;
+
+import software.amazon.awssdk.enhanced.dynamodb.extensions.annotations.DynamoDbVersionAttribute;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
+
+/**
+ * One entry in a user's change log, which delta sync reads forward from a client's cursor.
+ *
+ * Entries are numbered per user 1, 2, 3, ... with no gaps. Sequence 0 is the log's head row: it
+ * carries only {@code lastSequence}, the highest number handed out, and is written in the same
+ * transaction as the entries it allocates.
+ */
+@DynamoDbBean
+public class ChangeRecord {
+
+    /** Sort key of the head row */
+    public static final long HEAD_SEQUENCE = 0L;
+
+    public static final String INSTITUTION = "INSTITUTION";
+    public static final String GOAL = "GOAL";
+    public static final String TRANSACTION = "TRANSACTION";
+
+    public static final String UPSERT = "UPSERT";
+    public static final String DELETE = "DELETE";
+
+    private String userId;
+    private Long sequence;
+    private String entityType; // INSTITUTION, GOAL or TRANSACTION
+    private String entityId;
+    private String institutionId; // owning institution of a transaction
+    private String operation; // UPSERT or DELETE
+    private String payload; // JSON of the entity as written; absent for DELETE
+    private Long changedAt;
+    private Long expiresAt; // DynamoDB TTL attribute
+    private Long lastSequence; // head row only
+    private Long version;
+
+    public ChangeRecord() {
+    }
+
+    @DynamoDbPartitionKey
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    @DynamoDbSortKey
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public String getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(String entityId) {
+        this.entityId = entityId;
+    }
+
+    public String getInstitutionId() {
+        return institutionId;
+    }
+
+    public void setInstitutionId(String institutionId) {
+        this.institutionId = institutionId;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Long getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(Long changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    /** UNIX timestamp (seconds) after which DynamoDB TTL may remove the entry */
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getLastSequence() {
+        return lastSequence;
+    }
+
+    public void setLastSequence(Long lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+
+    /**
+     * Optimistic-locking counter; see {@link Institution#getVersion()}. On the head row it makes
+     * concurrent appends conflict instead of handing out the same sequence twice, and on entries
+     * (always written new) it makes the put conditional on the key not existing yet.
+     */
+    @DynamoDbVersionAttribute
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
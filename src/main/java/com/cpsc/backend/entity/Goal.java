@@ -1,5 +1,6 @@
 package com.cpsc.backend.entity;
 
+import software.amazon.awssdk.enhanced.dynamodb.extensions.annotations.DynamoDbVersionAttribute;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
@@ -17,6 +18,7 @@ public class Goal {
     private Double targetAmount;
     private Boolean isCompleted;
     private Long createdAt;
+    private Long version;
 
     public Goal() {
     }
@@ -86,4 +88,14 @@ public class Goal {
     public void setCreatedAt(Long createdAt) {
         this.createdAt = createdAt;
     }
+
+    /** Optimistic-locking counter; see {@link Institution#getVersion()}. */
+    @DynamoDbVersionAttribute
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,127 @@
+package com.cpsc.backend.entity;
+
+import software.amazon.awssdk.enhanced.dynamodb.extensions.annotations.DynamoDbVersionAttribute;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
+
+/**
+ * A client's Idempotency-Key and what became of the request that first used it.
+ *
+ * The record is created as {@link #IN_PROGRESS} before the request does any work. That claim is
+ * what stops a duplicate: whoever creates the record runs the request, and everyone else finds
+ * it. Once the request succeeds the record becomes {@link #COMPLETED} and holds the response, which
+ * duplicates get back instead of running the request again. If it fails in a way that may still
+ * have been applied, the record becomes {@link #FAILED} and the request is not run again under
+ * the key.
+ */
+@DynamoDbBean
+public class IdempotencyRecord {
+
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private String userId;
+    private String idempotencyKey;
+    private String requestHash; // SHA-256 of the operation and its parameters
+    private String status; // IN_PROGRESS, COMPLETED or FAILED
+    private Integer responseStatus;
+    private String responseBody; // JSON; COMPLETED only
+    private Long createdAt;
+    private Long lockedUntil; // epoch millis, renewed while running; an IN_PROGRESS claim older than this may be taken over
+    private Long expiresAt; // DynamoDB TTL attribute
+    private Long version;
+
+    public IdempotencyRecord() {
+    }
+
+    @DynamoDbPartitionKey
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    @DynamoDbSortKey
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getResponseStatus() {
+        return responseStatus;
+    }
+
+    public void setResponseStatus(Integer responseStatus) {
+        this.responseStatus = responseStatus;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    public Long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public void setLockedUntil(Long lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+
+    /** UNIX timestamp (seconds) after which DynamoDB TTL may remove the record */
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Optimistic-locking counter; see {@link Institution#getVersion()}. A new record is only
+     * written if the key does not exist yet, and completing or taking over a claim only succeeds
+     * against the version that was read.
+     */
+    @DynamoDbVersionAttribute
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
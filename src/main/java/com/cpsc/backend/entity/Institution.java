@@ -1,5 +1,6 @@
 package com.cpsc.backend.entity;
 
+import software.amazon.awssdk.enhanced.dynamodb.extensions.annotations.DynamoDbVersionAttribute;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
@@ -17,6 +18,7 @@ public class Institution {
     private Long createdAt;
     private Integer allocatedPercent;
     private List<String> linkedGoals;
+    private Long version;
 
     public Institution() {
     }
@@ -86,4 +88,18 @@ public class Institution {
     public void setLinkedGoals(List<String> linkedGoals) {
         this.linkedGoals = linkedGoals;
     }
+
+    /**
+     * Optimistic-locking counter. The enhanced client's VersionedRecordExtension makes every put
+     * conditional on the stored value still matching this one and increments it; items written
+     * before versioning existed have none and are accepted on their first versioned write.
+     */
+    @DynamoDbVersionAttribute
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,277 @@
+package com.cpsc.backend.entity;
+
+import software.amazon.awssdk.enhanced.dynamodb.extensions.annotations.DynamoDbVersionAttribute;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Denormalized per-user copy of everything the dashboard shows, kept up to date by the
+ * institution, goal and transaction write paths so the dashboard is a single getItem.
+ */
+@DynamoDbBean
+public class UserSummary {
+
+    private String userId;
+    private Double totalBalance;
+    private List<InstitutionEntry> institutions = new ArrayList<>();
+    private List<GoalEntry> goals = new ArrayList<>();
+    private List<TransactionEntry> recentTransactions = new ArrayList<>();
+    private Long updatedAt;
+    private Long version;
+
+    public UserSummary() {
+    }
+
+    @DynamoDbPartitionKey
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public Double getTotalBalance() {
+        return totalBalance;
+    }
+
+    public void setTotalBalance(Double totalBalance) {
+        this.totalBalance = totalBalance;
+    }
+
+    public List<InstitutionEntry> getInstitutions() {
+        return institutions;
+    }
+
+    public void setInstitutions(List<InstitutionEntry> institutions) {
+        this.institutions = institutions;
+    }
+
+    public List<GoalEntry> getGoals() {
+        return goals;
+    }
+
+    public void setGoals(List<GoalEntry> goals) {
+        this.goals = goals;
+    }
+
+    /** Newest first by createdAt */
+    public List<TransactionEntry> getRecentTransactions() {
+        return recentTransactions;
+    }
+
+    public void setRecentTransactions(List<TransactionEntry> recentTransactions) {
+        this.recentTransactions = recentTransactions;
+    }
+
+    public Long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /** Optimistic-locking counter; see {@link Institution#getVersion()}. */
+    @DynamoDbVersionAttribute
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @DynamoDbBean
+    public static class InstitutionEntry {
+
+        private String institutionId;
+        private String institutionName;
+        private Double currentBalance;
+        private Integer allocatedPercent;
+        private Long sourceVersion;
+
+        public InstitutionEntry() {
+        }
+
+        public String getInstitutionId() {
+            return institutionId;
+        }
+
+        public void setInstitutionId(String institutionId) {
+            this.institutionId = institutionId;
+        }
+
+        public String getInstitutionName() {
+            return institutionName;
+        }
+
+        public void setInstitutionName(String institutionName) {
+            this.institutionName = institutionName;
+        }
+
+        public Double getCurrentBalance() {
+            return currentBalance;
+        }
+
+        public void setCurrentBalance(Double currentBalance) {
+            this.currentBalance = currentBalance;
+        }
+
+        public Integer getAllocatedPercent() {
+            return allocatedPercent;
+        }
+
+        public void setAllocatedPercent(Integer allocatedPercent) {
+            this.allocatedPercent = allocatedPercent;
+        }
+
+        /** Version of the institution this entry was copied from; older copies are not applied over it */
+        public Long getSourceVersion() {
+            return sourceVersion;
+        }
+
+        public void setSourceVersion(Long sourceVersion) {
+            this.sourceVersion = sourceVersion;
+        }
+    }
+
+    @DynamoDbBean
+    public static class GoalEntry {
+
+        private String goalId;
+        private String name;
+        private Double targetAmount;
+        private Map<String, Integer> linkedInstitutions = new HashMap<>();
+        private Long sourceVersion;
+
+        public GoalEntry() {
+        }
+
+        public String getGoalId() {
+            return goalId;
+        }
+
+        public void setGoalId(String goalId) {
+            this.goalId = goalId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Double getTargetAmount() {
+            return targetAmount;
+        }
+
+        public void setTargetAmount(Double targetAmount) {
+            this.targetAmount = targetAmount;
+        }
+
+        public Map<String, Integer> getLinkedInstitutions() {
+            return linkedInstitutions;
+        }
+
+        public void setLinkedInstitutions(Map<String, Integer> linkedInstitutions) {
+            this.linkedInstitutions = linkedInstitutions;
+        }
+
+        /** Version of the goal this entry was copied from; older copies are not applied over it */
+        public Long getSourceVersion() {
+            return sourceVersion;
+        }
+
+        public void setSourceVersion(Long sourceVersion) {
+            this.sourceVersion = sourceVersion;
+        }
+    }
+
+    @DynamoDbBean
+    public static class TransactionEntry {
+
+        private String transactionId;
+        private String institutionId;
+        private String type;
+        private Double amount;
+        private List<String> tags;
+        private String description;
+        private Long transactionDate;
+        private Long createdAt;
+
+        public TransactionEntry() {
+        }
+
+        public String getTransactionId() {
+            return transactionId;
+        }
+
+        public void setTransactionId(String transactionId) {
+            this.transactionId = transactionId;
+        }
+
+        public String getInstitutionId() {
+            return institutionId;
+        }
+
+        public void setInstitutionId(String institutionId) {
+            this.institutionId = institutionId;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public Double getAmount() {
+            return amount;
+        }
+
+        public void setAmount(Double amount) {
+            this.amount = amount;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+        }
+
+        public Long getTransactionDate() {
+            return transactionDate;
+        }
+
+        public void setTransactionDate(Long transactionDate) {
+            this.transactionDate = transactionDate;
+        }
+
+        public Long getCreatedAt() {
+            return createdAt;
+        }
+
+        public void setCreatedAt(Long createdAt) {
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.cpsc.backend.exception;
+
+/**
+ * Thrown instead of calling Cognito when the call would have to wait on a Cognito slowdown or
+ * outage: the operation's concurrency limit is reached, its circuit breaker is open, or the call
+ * did not complete within its timeout.
+ */
+public class CognitoUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public CognitoUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /** Seconds the client should wait before retrying */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
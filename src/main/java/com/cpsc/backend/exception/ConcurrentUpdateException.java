@@ -0,0 +1,7 @@
+package com.cpsc.backend.exception;
+
+public class ConcurrentUpdateException extends RuntimeException {
+    public ConcurrentUpdateException(String message) {
+        super(message);
+    }
+}
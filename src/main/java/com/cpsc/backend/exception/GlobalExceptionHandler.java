@@ -1,8 +1,11 @@
 package com.cpsc.backend.exception;
 
 import com.cpsc.backend.model.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -16,11 +19,20 @@ public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    public static final String ERROR_METRIC = "api.errors";
+
+    private final MeterRegistry meterRegistry;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @ExceptionHandler(InstitutionNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleInstitutionNotFound(InstitutionNotFoundException ex) {
         logger.warn("Institution not found: {}", ex.getMessage());
         ErrorResponse error = new ErrorResponse();
         error.setError(ex.getMessage());
+        countError(ex, HttpStatus.NOT_FOUND);
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
@@ -29,6 +41,7 @@ public class GlobalExceptionHandler {
         logger.warn("Invalid institution data: {}", ex.getMessage());
         ErrorResponse error = new ErrorResponse();
         error.setError(ex.getMessage());
+        countError(ex, HttpStatus.BAD_REQUEST);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
@@ -37,9 +50,48 @@ public class GlobalExceptionHandler {
         logger.warn("Invalid transaction data: {}", ex.getMessage());
         ErrorResponse error = new ErrorResponse();
         error.setError(ex.getMessage());
+        countError(ex, HttpStatus.BAD_REQUEST);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrentUpdate(ConcurrentUpdateException ex) {
+        logger.warn("Concurrent update conflict: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse();
+        error.setError(ex.getMessage());
+        countError(ex, HttpStatus.CONFLICT);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        logger.warn("Idempotency key reused: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse();
+        error.setError(ex.getMessage());
+        countError(ex, HttpStatus.UNPROCESSABLE_ENTITY);
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(error);
+    }
+
+    @ExceptionHandler(ReadTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleReadTimeout(ReadTimeoutException ex) {
+        logger.warn("Read timed out: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse();
+        error.setError(ex.getMessage());
+        countError(ex, HttpStatus.SERVICE_UNAVAILABLE);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
+    @ExceptionHandler(CognitoUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleCognitoUnavailable(CognitoUnavailableException ex) {
+        logger.warn("Cognito call not made: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse();
+        error.setError(ex.getMessage());
+        countError(ex, HttpStatus.SERVICE_UNAVAILABLE);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(error);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationErrors(MethodArgumentNotValidException ex) {
         String message = ex.getBindingResult().getFieldErrors().stream()
@@ -50,6 +102,7 @@ public class GlobalExceptionHandler {
         logger.warn("Validation error: {}", message);
         ErrorResponse error = new ErrorResponse();
         error.setError(message);
+        countError(ex, HttpStatus.BAD_REQUEST);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
@@ -58,6 +111,7 @@ public class GlobalExceptionHandler {
         logger.error("DynamoDB error: {}", ex.getMessage(), ex);
         ErrorResponse error = new ErrorResponse();
         error.setError("Database error occurred. Please try again later.");
+        countError(ex, HttpStatus.INTERNAL_SERVER_ERROR);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
 
@@ -66,6 +120,7 @@ public class GlobalExceptionHandler {
         logger.warn("Invalid argument: {}", ex.getMessage());
         ErrorResponse error = new ErrorResponse();
         error.setError(ex.getMessage());
+        countError(ex, HttpStatus.BAD_REQUEST);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
@@ -74,6 +129,7 @@ public class GlobalExceptionHandler {
         logger.warn("Access denied: {}", ex.getMessage());
         ErrorResponse error = new ErrorResponse();
         error.setError("Access denied");
+        countError(ex, HttpStatus.FORBIDDEN);
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
     }
 
@@ -82,6 +138,57 @@ public class GlobalExceptionHandler {
         logger.error("Unexpected error: {}", ex.getMessage(), ex);
         ErrorResponse error = new ErrorResponse();
         error.setError("An unexpected error occurred. Please try again later.");
+        countError(ex, HttpStatus.INTERNAL_SERVER_ERROR);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
+
+    /**
+     * Map an exception to the response the handlers above would produce, for callers that report
+     * failures in their response body instead of throwing (batch sub-operations)
+     */
+    public ResponseEntity<ErrorResponse> toResponse(Exception ex) {
+        if (ex instanceof InstitutionNotFoundException e) {
+            return handleInstitutionNotFound(e);
+        }
+        if (ex instanceof InvalidInstitutionDataException e) {
+            return handleInvalidInstitutionData(e);
+        }
+        if (ex instanceof InvalidTransactionDataException e) {
+            return handleInvalidTransactionData(e);
+        }
+        if (ex instanceof ConcurrentUpdateException e) {
+            return handleConcurrentUpdate(e);
+        }
+        if (ex instanceof IdempotencyKeyReusedException e) {
+            return handleIdempotencyKeyReused(e);
+        }
+        if (ex instanceof ReadTimeoutException e) {
+            return handleReadTimeout(e);
+        }
+        if (ex instanceof CognitoUnavailableException e) {
+            return handleCognitoUnavailable(e);
+        }
+        if (ex instanceof DynamoDbException e) {
+            return handleDynamoDbException(e);
+        }
+        if (ex instanceof IllegalArgumentException e) {
+            return handleIllegalArgument(e);
+        }
+        if (ex instanceof AccessDeniedException e) {
+            return handleAccessDenied(e);
+        }
+        return handleGenericException(ex);
+    }
+
+    /**
+     * Count handled errors by exception type and resulting status for the metrics endpoint
+     */
+    private void countError(Exception ex, HttpStatus status) {
+        Counter.builder(ERROR_METRIC)
+            .description("Errors mapped to HTTP responses by GlobalExceptionHandler")
+            .tag("exception", ex.getClass().getSimpleName())
+            .tag("status", String.valueOf(status.value()))
+            .register(meterRegistry)
+            .increment();
+    }
 }
@@ -0,0 +1,7 @@
+package com.cpsc.backend.exception;
+
+public class ReadTimeoutException extends RuntimeException {
+    public ReadTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,748 @@
+package com.cpsc.backend.local;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parser and evaluator for the subset of DynamoDB expression syntax used by the enhanced client:
+ * condition, key-condition and filter expressions plus SET/REMOVE/ADD/DELETE update expressions.
+ * Only top-level attribute paths are supported.
+ */
+final class DynamoDbExpressions {
+
+    private DynamoDbExpressions() {
+    }
+
+    interface Condition {
+        boolean test(Map<String, AttributeValue> item);
+    }
+
+    interface Operand {
+        /** Returns the operand value for the item, or null when it refers to a missing attribute. */
+        AttributeValue evaluate(Map<String, AttributeValue> item);
+    }
+
+    record PathOperand(String attribute) implements Operand {
+        @Override
+        public AttributeValue evaluate(Map<String, AttributeValue> item) {
+            return item.get(attribute);
+        }
+    }
+
+    record ValueOperand(AttributeValue value) implements Operand {
+        @Override
+        public AttributeValue evaluate(Map<String, AttributeValue> item) {
+            return value;
+        }
+    }
+
+    record SizeOperand(String attribute) implements Operand {
+        @Override
+        public AttributeValue evaluate(Map<String, AttributeValue> item) {
+            AttributeValue value = item.get(attribute);
+            if (value == null) {
+                return null;
+            }
+            long size = switch (value.type()) {
+                case S -> utf8Length(value.s());
+                case B -> value.b().asByteArray().length;
+                case SS -> value.ss().size();
+                case NS -> value.ns().size();
+                case BS -> value.bs().size();
+                case L -> value.l().size();
+                case M -> value.m().size();
+                default -> -1;
+            };
+            return size < 0 ? null : number(BigDecimal.valueOf(size));
+        }
+    }
+
+    record Comparison(Operand left, String operator, Operand right) implements Condition {
+        @Override
+        public boolean test(Map<String, AttributeValue> item) {
+            AttributeValue l = left.evaluate(item);
+            AttributeValue r = right.evaluate(item);
+            if (l == null || r == null) {
+                return false;
+            }
+            return switch (operator) {
+                case "=" -> valuesEqual(l, r);
+                case "<>" -> !valuesEqual(l, r);
+                default -> {
+                    Integer cmp = compareScalars(l, r);
+                    if (cmp == null) {
+                        yield false;
+                    }
+                    yield switch (operator) {
+                        case "<" -> cmp < 0;
+                        case "<=" -> cmp <= 0;
+                        case ">" -> cmp > 0;
+                        default -> cmp >= 0;
+                    };
+                }
+            };
+        }
+    }
+
+    record Between(Operand value, Operand low, Operand high) implements Condition {
+        @Override
+        public boolean test(Map<String, AttributeValue> item) {
+            AttributeValue v = value.evaluate(item);
+            AttributeValue lo = low.evaluate(item);
+            AttributeValue hi = high.evaluate(item);
+            if (v == null || lo == null || hi == null) {
+                return false;
+            }
+            Integer lower = compareScalars(v, lo);
+            Integer upper = compareScalars(v, hi);
+            return lower != null && upper != null && lower >= 0 && upper <= 0;
+        }
+    }
+
+    record In(Operand value, List<Operand> candidates) implements Condition {
+        @Override
+        public boolean test(Map<String, AttributeValue> item) {
+            AttributeValue v = value.evaluate(item);
+            if (v == null) {
+                return false;
+            }
+            for (Operand candidate : candidates) {
+                AttributeValue c = candidate.evaluate(item);
+                if (c != null && valuesEqual(v, c)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    record FunctionCondition(String function, List<Operand> arguments) implements Condition {
+        @Override
+        public boolean test(Map<String, AttributeValue> item) {
+            AttributeValue target = arguments.get(0).evaluate(item);
+            return switch (function) {
+                case "attribute_exists" -> target != null;
+                case "attribute_not_exists" -> target == null;
+                case "attribute_type" -> target != null
+                    && target.type().name().equals(arguments.get(1).evaluate(item).s());
+                case "begins_with" -> beginsWith(target, arguments.get(1).evaluate(item));
+                case "contains" -> contains(target, arguments.get(1).evaluate(item));
+                default -> throw InMemoryDynamoDbClient.validation("Invalid function name: " + function);
+            };
+        }
+    }
+
+    record And(Condition left, Condition right) implements Condition {
+        @Override
+        public boolean test(Map<String, AttributeValue> item) {
+            return left.test(item) && right.test(item);
+        }
+    }
+
+    record Or(Condition left, Condition right) implements Condition {
+        @Override
+        public boolean test(Map<String, AttributeValue> item) {
+            return left.test(item) || right.test(item);
+        }
+    }
+
+    record Not(Condition condition) implements Condition {
+        @Override
+        public boolean test(Map<String, AttributeValue> item) {
+            return !condition.test(item);
+        }
+    }
+
+    enum UpdateClause { SET, REMOVE, ADD, DELETE }
+
+    record UpdateAction(UpdateClause clause, String attribute, Operand value) {
+    }
+
+    record Arithmetic(Operand left, boolean add, Operand right) implements Operand {
+        @Override
+        public AttributeValue evaluate(Map<String, AttributeValue> item) {
+            AttributeValue l = left.evaluate(item);
+            AttributeValue r = right.evaluate(item);
+            if (l == null || r == null) {
+                return null;
+            }
+            if (l.n() == null || r.n() == null) {
+                throw InMemoryDynamoDbClient.validation("An operand in the update expression has an incorrect data type");
+            }
+            BigDecimal a = new BigDecimal(l.n());
+            BigDecimal b = new BigDecimal(r.n());
+            return number(add ? a.add(b) : a.subtract(b));
+        }
+    }
+
+    record IfNotExists(String attribute, Operand fallback) implements Operand {
+        @Override
+        public AttributeValue evaluate(Map<String, AttributeValue> item) {
+            AttributeValue existing = item.get(attribute);
+            return existing != null ? existing : fallback.evaluate(item);
+        }
+    }
+
+    record ListAppend(Operand first, Operand second) implements Operand {
+        @Override
+        public AttributeValue evaluate(Map<String, AttributeValue> item) {
+            AttributeValue a = first.evaluate(item);
+            AttributeValue b = second.evaluate(item);
+            if (a == null || b == null) {
+                return null;
+            }
+            if (a.type() != AttributeValue.Type.L || b.type() != AttributeValue.Type.L) {
+                throw InMemoryDynamoDbClient.validation("An operand in the update expression has an incorrect data type");
+            }
+            List<AttributeValue> combined = new ArrayList<>(a.l());
+            combined.addAll(b.l());
+            return AttributeValue.builder().l(combined).build();
+        }
+    }
+
+    static Condition parseCondition(String expression, Map<String, String> names,
+                                    Map<String, AttributeValue> values) {
+        Parser parser = new Parser(expression, names, values);
+        Condition condition = parser.parseOr();
+        parser.expectEnd();
+        return condition;
+    }
+
+    static List<UpdateAction> parseUpdate(String expression, Map<String, String> names,
+                                          Map<String, AttributeValue> values) {
+        Parser parser = new Parser(expression, names, values);
+        List<UpdateAction> actions = parser.parseUpdate();
+        parser.expectEnd();
+        return actions;
+    }
+
+    static List<String> parseProjection(String expression, Map<String, String> names) {
+        Parser parser = new Parser(expression, names, Map.of());
+        List<String> attributes = new ArrayList<>();
+        do {
+            attributes.add(parser.parsePath());
+        } while (parser.accept(","));
+        parser.expectEnd();
+        return attributes;
+    }
+
+    /**
+     * Applies update actions; as in DynamoDB, every right-hand side is evaluated against the item
+     * as it was before the update.
+     */
+    static Map<String, AttributeValue> applyUpdate(Map<String, AttributeValue> item, List<UpdateAction> actions) {
+        Map<String, AttributeValue> result = new HashMap<>(item);
+        for (UpdateAction action : actions) {
+            switch (action.clause()) {
+                case SET -> {
+                    AttributeValue value = action.value().evaluate(item);
+                    if (value == null) {
+                        throw InMemoryDynamoDbClient.validation(
+                            "The provided expression refers to an attribute that does not exist in the item");
+                    }
+                    result.put(action.attribute(), value);
+                }
+                case REMOVE -> result.remove(action.attribute());
+                case ADD -> result.put(action.attribute(), add(item.get(action.attribute()), action.value().evaluate(item)));
+                case DELETE -> {
+                    AttributeValue remaining = deleteFromSet(item.get(action.attribute()), action.value().evaluate(item));
+                    if (remaining == null) {
+                        result.remove(action.attribute());
+                    } else {
+                        result.put(action.attribute(), remaining);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Orders key values the way DynamoDB does: numerically, by UTF-8 bytes, or by unsigned bytes. */
+    static int compareKeys(AttributeValue a, AttributeValue b) {
+        Integer cmp = compareScalars(a, b);
+        if (cmp == null) {
+            throw InMemoryDynamoDbClient.validation("Key attribute types do not match");
+        }
+        return cmp;
+    }
+
+    static boolean valuesEqual(AttributeValue a, AttributeValue b) {
+        if (a.type() != b.type()) {
+            return false;
+        }
+        return switch (a.type()) {
+            case N -> new BigDecimal(a.n()).compareTo(new BigDecimal(b.n())) == 0;
+            case SS -> Set.copyOf(a.ss()).equals(Set.copyOf(b.ss()));
+            case NS -> numberSet(a.ns()).equals(numberSet(b.ns()));
+            case BS -> Set.copyOf(a.bs()).equals(Set.copyOf(b.bs()));
+            default -> a.equals(b);
+        };
+    }
+
+    /** Approximate stored size in bytes, following the DynamoDB item size rules. */
+    static long itemSize(Map<String, AttributeValue> item) {
+        long size = 0;
+        for (Map.Entry<String, AttributeValue> entry : item.entrySet()) {
+            size += utf8Length(entry.getKey()) + valueSize(entry.getValue());
+        }
+        return size;
+    }
+
+    static AttributeValue number(BigDecimal value) {
+        BigDecimal normalized = value.signum() == 0 ? BigDecimal.ZERO : value.stripTrailingZeros();
+        return AttributeValue.builder().n(normalized.toPlainString()).build();
+    }
+
+    private static long valueSize(AttributeValue value) {
+        return switch (value.type()) {
+            case S -> utf8Length(value.s());
+            case N -> value.n().length() / 2 + 1;
+            case B -> value.b().asByteArray().length;
+            case BOOL, NUL -> 1;
+            case SS -> value.ss().stream().mapToLong(DynamoDbExpressions::utf8Length).sum();
+            case NS -> value.ns().stream().mapToLong(n -> n.length() / 2 + 1).sum();
+            case BS -> value.bs().stream().mapToLong(b -> b.asByteArray().length).sum();
+            case L -> 3 + value.l().stream().mapToLong(v -> 1 + valueSize(v)).sum();
+            case M -> 3 + value.m().entrySet().stream()
+                .mapToLong(e -> 1 + utf8Length(e.getKey()) + valueSize(e.getValue())).sum();
+            default -> 0;
+        };
+    }
+
+    private static long utf8Length(String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static Integer compareScalars(AttributeValue a, AttributeValue b) {
+        if (a.type() != b.type()) {
+            return null;
+        }
+        return switch (a.type()) {
+            case N -> new BigDecimal(a.n()).compareTo(new BigDecimal(b.n()));
+            case S -> compareCodePoints(a.s(), b.s());
+            case B -> compareBytes(a.b(), b.b());
+            default -> null;
+        };
+    }
+
+    // Code point order is UTF-8 byte order, which differs from String.compareTo for surrogate pairs
+    private static int compareCodePoints(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int ca = a.codePointAt(i);
+            int cb = b.codePointAt(j);
+            if (ca != cb) {
+                return Integer.compare(ca, cb);
+            }
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+
+    private static int compareBytes(SdkBytes a, SdkBytes b) {
+        byte[] x = a.asByteArray();
+        byte[] y = b.asByteArray();
+        return Arrays.compareUnsigned(x, y);
+    }
+
+    private static boolean beginsWith(AttributeValue target, AttributeValue prefix) {
+        if (target == null || prefix == null || target.type() != prefix.type()) {
+            return false;
+        }
+        return switch (target.type()) {
+            case S -> target.s().startsWith(prefix.s());
+            case B -> {
+                byte[] value = target.b().asByteArray();
+                byte[] start = prefix.b().asByteArray();
+                yield value.length >= start.length
+                    && Arrays.equals(value, 0, start.length, start, 0, start.length);
+            }
+            default -> false;
+        };
+    }
+
+    private static boolean contains(AttributeValue target, AttributeValue operand) {
+        if (target == null || operand == null) {
+            return false;
+        }
+        return switch (target.type()) {
+            case S -> operand.s() != null && target.s().contains(operand.s());
+            case SS -> operand.s() != null && target.ss().contains(operand.s());
+            case NS -> operand.n() != null && numberSet(target.ns()).contains(new BigDecimal(operand.n()).stripTrailingZeros());
+            case BS -> operand.b() != null && target.bs().contains(operand.b());
+            case L -> target.l().stream().anyMatch(element -> valuesEqual(element, operand));
+            default -> false;
+        };
+    }
+
+    private static Set<BigDecimal> numberSet(Collection<String> numbers) {
+        Set<BigDecimal> set = new LinkedHashSet<>();
+        numbers.forEach(n -> set.add(new BigDecimal(n).stripTrailingZeros()));
+        return set;
+    }
+
+    private static AttributeValue add(AttributeValue existing, AttributeValue operand) {
+        if (operand == null) {
+            throw InMemoryDynamoDbClient.validation("ADD requires a value operand");
+        }
+        if (existing == null) {
+            return operand;
+        }
+        if (existing.type() != operand.type()) {
+            throw InMemoryDynamoDbClient.validation("An operand in the update expression has an incorrect data type");
+        }
+        return switch (existing.type()) {
+            case N -> number(new BigDecimal(existing.n()).add(new BigDecimal(operand.n())));
+            case SS -> {
+                Set<String> union = new LinkedHashSet<>(existing.ss());
+                union.addAll(operand.ss());
+                yield AttributeValue.builder().ss(union).build();
+            }
+            case NS -> {
+                Set<String> union = new LinkedHashSet<>(existing.ns());
+                union.addAll(operand.ns());
+                yield AttributeValue.builder().ns(union).build();
+            }
+            case BS -> {
+                Set<SdkBytes> union = new LinkedHashSet<>(existing.bs());
+                union.addAll(operand.bs());
+                yield AttributeValue.builder().bs(union).build();
+            }
+            default -> throw InMemoryDynamoDbClient.validation("ADD only supports numbers and sets");
+        };
+    }
+
+    private static AttributeValue deleteFromSet(AttributeValue existing, AttributeValue operand) {
+        if (existing == null) {
+            return null;
+        }
+        if (operand == null || existing.type() != operand.type()) {
+            throw InMemoryDynamoDbClient.validation("An operand in the update expression has an incorrect data type");
+        }
+        return switch (existing.type()) {
+            case SS -> {
+                Set<String> remaining = new LinkedHashSet<>(existing.ss());
+                remaining.removeAll(operand.ss());
+                yield remaining.isEmpty() ? null : AttributeValue.builder().ss(remaining).build();
+            }
+            case NS -> {
+                Set<String> remaining = new LinkedHashSet<>(existing.ns());
+                remaining.removeAll(operand.ns());
+                yield remaining.isEmpty() ? null : AttributeValue.builder().ns(remaining).build();
+            }
+            case BS -> {
+                Set<SdkBytes> remaining = new LinkedHashSet<>(existing.bs());
+                remaining.removeAll(operand.bs());
+                yield remaining.isEmpty() ? null : AttributeValue.builder().bs(remaining).build();
+            }
+            default -> throw InMemoryDynamoDbClient.validation("DELETE only supports sets");
+        };
+    }
+
+    private static final class Parser {
+
+        private static final Set<String> COMPARATORS = Set.of("=", "<>", "<", "<=", ">", ">=");
+        private static final Set<String> FUNCTIONS = Set.of(
+            "attribute_exists", "attribute_not_exists", "attribute_type", "begins_with", "contains");
+
+        private final String expression;
+        private final List<String> tokens;
+        private final Map<String, String> names;
+        private final Map<String, AttributeValue> values;
+        private int position;
+
+        Parser(String expression, Map<String, String> names, Map<String, AttributeValue> values) {
+            if (expression == null || expression.isBlank()) {
+                throw InMemoryDynamoDbClient.validation("Expression cannot be empty");
+            }
+            this.expression = expression;
+            this.tokens = tokenize(expression);
+            this.names = names != null ? names : Map.of();
+            this.values = values != null ? values : Map.of();
+        }
+
+        Condition parseOr() {
+            Condition condition = parseAnd();
+            while (acceptKeyword("OR")) {
+                condition = new Or(condition, parseAnd());
+            }
+            return condition;
+        }
+
+        private Condition parseAnd() {
+            Condition condition = parseNot();
+            while (acceptKeyword("AND")) {
+                condition = new And(condition, parseNot());
+            }
+            return condition;
+        }
+
+        private Condition parseNot() {
+            if (acceptKeyword("NOT")) {
+                return new Not(parseNot());
+            }
+            return parsePrimary();
+        }
+
+        private Condition parsePrimary() {
+            if (accept("(")) {
+                Condition condition = parseOr();
+                expect(")");
+                return condition;
+            }
+            if (FUNCTIONS.contains(peek()) && "(".equals(peek(1))) {
+                String function = next();
+                expect("(");
+                List<Operand> arguments = new ArrayList<>();
+                do {
+                    arguments.add(parseOperand());
+                } while (accept(","));
+                expect(")");
+                int expected = function.startsWith("attribute_") && !function.equals("attribute_type") ? 1 : 2;
+                if (arguments.size() != expected || !(arguments.get(0) instanceof PathOperand)) {
+                    throw syntaxError("Incorrect arguments for function " + function);
+                }
+                return new FunctionCondition(function, arguments);
+            }
+            Operand left = parseOperand();
+            if (acceptKeyword("BETWEEN")) {
+                Operand low = parseOperand();
+                if (!acceptKeyword("AND")) {
+                    throw syntaxError("BETWEEN requires AND");
+                }
+                return new Between(left, low, parseOperand());
+            }
+            if (acceptKeyword("IN")) {
+                expect("(");
+                List<Operand> candidates = new ArrayList<>();
+                do {
+                    candidates.add(parseOperand());
+                } while (accept(","));
+                expect(")");
+                return new In(left, candidates);
+            }
+            String operator = next();
+            if (!COMPARATORS.contains(operator)) {
+                throw syntaxError("Expected comparator but found " + operator);
+            }
+            return new Comparison(left, operator, parseOperand());
+        }
+
+        private Operand parseOperand() {
+            String token = peek();
+            if (token != null && token.startsWith(":")) {
+                next();
+                return new ValueOperand(resolveValue(token));
+            }
+            if ("size".equals(token) && "(".equals(peek(1))) {
+                next();
+                expect("(");
+                String attribute = parsePath();
+                expect(")");
+                return new SizeOperand(attribute);
+            }
+            return new PathOperand(parsePath());
+        }
+
+        List<UpdateAction> parseUpdate() {
+            List<UpdateAction> actions = new ArrayList<>();
+            while (peek() != null) {
+                UpdateClause clause;
+                try {
+                    clause = UpdateClause.valueOf(next().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw syntaxError("Expected SET, REMOVE, ADD or DELETE");
+                }
+                do {
+                    String attribute = parsePath();
+                    Operand value = switch (clause) {
+                        case SET -> {
+                            expect("=");
+                            yield parseSetValue();
+                        }
+                        case REMOVE -> null;
+                        case ADD, DELETE -> {
+                            Operand operand = parseOperand();
+                            if (!(operand instanceof ValueOperand)) {
+                                throw syntaxError(clause + " requires a value operand");
+                            }
+                            yield operand;
+                        }
+                    };
+                    actions.add(new UpdateAction(clause, attribute, value));
+                } while (accept(","));
+            }
+            if (actions.isEmpty()) {
+                throw syntaxError("Update expression has no actions");
+            }
+            return actions;
+        }
+
+        private Operand parseSetValue() {
+            Operand left = parseSetOperand();
+            if (accept("+")) {
+                return new Arithmetic(left, true, parseSetOperand());
+            }
+            if (accept("-")) {
+                return new Arithmetic(left, false, parseSetOperand());
+            }
+            return left;
+        }
+
+        private Operand parseSetOperand() {
+            if ("if_not_exists".equals(peek()) && "(".equals(peek(1))) {
+                next();
+                expect("(");
+                String attribute = parsePath();
+                expect(",");
+                Operand fallback = parseSetOperand();
+                expect(")");
+                return new IfNotExists(attribute, fallback);
+            }
+            if ("list_append".equals(peek()) && "(".equals(peek(1))) {
+                next();
+                expect("(");
+                Operand first = parseSetOperand();
+                expect(",");
+                Operand second = parseSetOperand();
+                expect(")");
+                return new ListAppend(first, second);
+            }
+            return parseOperand();
+        }
+
+        String parsePath() {
+            String token = next();
+            if (token == null || token.startsWith(":") || !isNameToken(token)) {
+                throw syntaxError("Expected attribute name but found " + token);
+            }
+            if (".".equals(peek()) || "[".equals(peek())) {
+                throw syntaxError("Nested attribute paths are not supported by the in-memory backend");
+            }
+            if (token.startsWith("#")) {
+                String name = names.get(token);
+                if (name == null) {
+                    throw InMemoryDynamoDbClient.validation(
+                        "An expression attribute name used in the document path is not defined; attribute name: " + token);
+                }
+                return name;
+            }
+            return token;
+        }
+
+        private AttributeValue resolveValue(String token) {
+            AttributeValue value = values.get(token);
+            if (value == null) {
+                throw InMemoryDynamoDbClient.validation(
+                    "An expression attribute value used in expression is not defined; attribute value: " + token);
+            }
+            return value;
+        }
+
+        boolean accept(String token) {
+            if (token.equals(peek())) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean acceptKeyword(String keyword) {
+            String token = peek();
+            if (token != null && token.equalsIgnoreCase(keyword)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String token) {
+            if (!accept(token)) {
+                throw syntaxError("Expected " + token + " but found " + peek());
+            }
+        }
+
+        void expectEnd() {
+            if (peek() != null) {
+                throw syntaxError("Unexpected token " + peek());
+            }
+        }
+
+        private String peek() {
+            return peek(0);
+        }
+
+        private String peek(int offset) {
+            int index = position + offset;
+            return index < tokens.size() ? tokens.get(index) : null;
+        }
+
+        private String next() {
+            String token = peek();
+            if (token != null) {
+                position++;
+            }
+            return token;
+        }
+
+        private RuntimeException syntaxError(String detail) {
+            return InMemoryDynamoDbClient.validation("Invalid expression: " + detail + "; expression: " + expression);
+        }
+
+        private static boolean isNameToken(String token) {
+            char first = token.charAt(0);
+            return first == '#' || first == '_' || Character.isLetterOrDigit(first);
+        }
+
+        private static List<String> tokenize(String expression) {
+            List<String> tokens = new ArrayList<>();
+            int i = 0;
+            while (i < expression.length()) {
+                char c = expression.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if ("(),[].+-=".indexOf(c) >= 0) {
+                    tokens.add(String.valueOf(c));
+                    i++;
+                } else if (c == '<' || c == '>') {
+                    char following = i + 1 < expression.length() ? expression.charAt(i + 1) : 0;
+                    if (following == '=' || (c == '<' && following == '>')) {
+                        tokens.add(expression.substring(i, i + 2));
+                        i += 2;
+                    } else {
+                        tokens.add(String.valueOf(c));
+                        i++;
+                    }
+                } else if (c == '#' || c == ':' || c == '_' || Character.isLetterOrDigit(c)) {
+                    int start = i++;
+                    while (i < expression.length()
+                        && (expression.charAt(i) == '_' || Character.isLetterOrDigit(expression.charAt(i)))) {
+                        i++;
+                    }
+                    if (i - start == 1 && (c == '#' || c == ':')) {
+                        throw InMemoryDynamoDbClient.validation("Invalid expression: dangling " + c + "; expression: " + expression);
+                    }
+                    tokens.add(expression.substring(start, i));
+                } else {
+                    throw InMemoryDynamoDbClient.validation(
+                        "Invalid expression: unexpected character '" + c + "'; expression: " + expression);
+                }
+            }
+            return tokens;
+        }
+    }
+}
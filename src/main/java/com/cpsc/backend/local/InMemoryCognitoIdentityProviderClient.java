@@ -0,0 +1,368 @@
+package com.cpsc.backend.local;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.cpsc.backend.security.CognitoSecretHash;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.exception.AbortedException;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AttributeType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AuthFlowType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AuthenticationResultType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.CodeDeliveryDetailsType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.CodeMismatchException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.CognitoIdentityProviderException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ConfirmForgotPasswordRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ConfirmForgotPasswordResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ConfirmSignUpRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ConfirmSignUpResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.DeleteUserRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.DeleteUserResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.DeliveryMediumType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ForgotPasswordRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ForgotPasswordResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.GetUserRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.GetUserResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.InitiateAuthRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.InitiateAuthResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.InternalErrorException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.InvalidParameterException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.InvalidPasswordException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.NotAuthorizedException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ResendConfirmationCodeRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ResendConfirmationCodeResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.SignUpRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.SignUpResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UpdateUserAttributesRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UpdateUserAttributesResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UserNotConfirmedException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UserNotFoundException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UsernameExistsException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cognito user pool stand-in for the {@code inmemory-cognito} profile. Supports the calls
+ * {@code CognitoService} makes (sign-up and confirmation, USER_PASSWORD_AUTH and REFRESH_TOKEN_AUTH
+ * login, password reset, profile reads and updates, account deletion), verifies SECRET_HASH, and
+ * issues ID and access tokens signed by a {@link LocalJwtSigner}.
+ *
+ * <p>No email is sent: every confirmation and reset code is the configured fixed code.
+ * Latency and service errors can be injected per call, to exercise the resilience around
+ * {@code CognitoService} without a real user pool.
+ */
+public class InMemoryCognitoIdentityProviderClient implements CognitoIdentityProviderClient {
+
+    private static final Duration TOKEN_TTL = Duration.ofHours(1);
+    private static final int MIN_PASSWORD_LENGTH = 8;
+
+    private final LocalJwtSigner signer;
+    private final String clientId;
+    private final CognitoSecretHash expectedSecretHash;
+    private final String confirmationCode;
+    private final Map<String, User> usersByUsername = new ConcurrentHashMap<>();
+    private final Map<String, String> usernamesByRefreshToken = new ConcurrentHashMap<>();
+    private final Duration latency;
+    private final double failureRate;
+
+    public InMemoryCognitoIdentityProviderClient(LocalJwtSigner signer, String clientId, String clientSecret,
+                                                 String confirmationCode) {
+        this(signer, clientId, clientSecret, confirmationCode, Duration.ZERO, 0.0);
+    }
+
+    /**
+     * @param latency delay added to every call
+     * @param failureRate probability (0-1) that a call fails with a 500 InternalErrorException
+     */
+    public InMemoryCognitoIdentityProviderClient(LocalJwtSigner signer, String clientId, String clientSecret,
+                                                 String confirmationCode, Duration latency, double failureRate) {
+        if (latency == null || latency.isNegative()) {
+            throw new IllegalArgumentException("Latency must be zero or positive");
+        }
+        if (failureRate < 0.0 || failureRate > 1.0) {
+            throw new IllegalArgumentException("Failure rate must be between 0 and 1");
+        }
+        this.signer = signer;
+        this.clientId = clientId;
+        this.expectedSecretHash = new CognitoSecretHash(clientId, clientSecret);
+        this.confirmationCode = confirmationCode;
+        this.latency = latency;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public SignUpResponse signUp(SignUpRequest request) {
+        simulateCall();
+        verifyClient(request.clientId(), request.username(), request.secretHash());
+        validatePassword(request.password());
+
+        Map<String, String> attributes = new ConcurrentHashMap<>();
+        request.userAttributes().forEach(attribute -> attributes.put(attribute.name(), attribute.value()));
+        User user = new User(UUID.randomUUID().toString(), request.username(), request.password(), attributes);
+        if (usersByUsername.putIfAbsent(request.username(), user) != null) {
+            throw error(UsernameExistsException.builder(), "UsernameExistsException",
+                "An account with the given email already exists.");
+        }
+        return SignUpResponse.builder()
+            .userSub(user.sub)
+            .userConfirmed(false)
+            .codeDeliveryDetails(delivery(user))
+            .build();
+    }
+
+    @Override
+    public ConfirmSignUpResponse confirmSignUp(ConfirmSignUpRequest request) {
+        simulateCall();
+        verifyClient(request.clientId(), request.username(), request.secretHash());
+        User user = existingUser(request.username());
+        checkCode(request.confirmationCode());
+        user.confirmed = true;
+        return ConfirmSignUpResponse.builder().build();
+    }
+
+    @Override
+    public ResendConfirmationCodeResponse resendConfirmationCode(ResendConfirmationCodeRequest request) {
+        simulateCall();
+        verifyClient(request.clientId(), request.username(), request.secretHash());
+        return ResendConfirmationCodeResponse.builder()
+            .codeDeliveryDetails(delivery(existingUser(request.username())))
+            .build();
+    }
+
+    @Override
+    public ForgotPasswordResponse forgotPassword(ForgotPasswordRequest request) {
+        simulateCall();
+        verifyClient(request.clientId(), request.username(), request.secretHash());
+        return ForgotPasswordResponse.builder()
+            .codeDeliveryDetails(delivery(existingUser(request.username())))
+            .build();
+    }
+
+    @Override
+    public ConfirmForgotPasswordResponse confirmForgotPassword(ConfirmForgotPasswordRequest request) {
+        simulateCall();
+        verifyClient(request.clientId(), request.username(), request.secretHash());
+        User user = existingUser(request.username());
+        checkCode(request.confirmationCode());
+        validatePassword(request.password());
+        user.password = request.password();
+        return ConfirmForgotPasswordResponse.builder().build();
+    }
+
+    @Override
+    public InitiateAuthResponse initiateAuth(InitiateAuthRequest request) {
+        simulateCall();
+        Map<String, String> parameters = request.authParameters();
+        User user;
+        String refreshToken;
+        if (request.authFlow() == AuthFlowType.USER_PASSWORD_AUTH) {
+            String username = parameters.get("USERNAME");
+            verifyClient(request.clientId(), username, parameters.get("SECRET_HASH"));
+            user = usersByUsername.get(username);
+            if (user == null || !user.password.equals(parameters.get("PASSWORD"))) {
+                throw error(NotAuthorizedException.builder(), "NotAuthorizedException", "Incorrect username or password.");
+            }
+            if (!user.confirmed) {
+                throw error(UserNotConfirmedException.builder(), "UserNotConfirmedException", "User is not confirmed.");
+            }
+            refreshToken = UUID.randomUUID().toString();
+            usernamesByRefreshToken.put(refreshToken, username);
+        } else if (request.authFlow() == AuthFlowType.REFRESH_TOKEN_AUTH
+                || request.authFlow() == AuthFlowType.REFRESH_TOKEN) {
+            String username = usernamesByRefreshToken.get(parameters.get("REFRESH_TOKEN"));
+            user = username == null ? null : usersByUsername.get(username);
+            if (user == null) {
+                throw error(NotAuthorizedException.builder(), "NotAuthorizedException", "Invalid Refresh Token");
+            }
+            verifyClient(request.clientId(), username, parameters.get("SECRET_HASH"));
+            refreshToken = null;
+        } else {
+            throw error(InvalidParameterException.builder(), "InvalidParameterException",
+                "Auth flow not supported by the in-memory user pool: " + request.authFlowAsString());
+        }
+
+        Instant now = Instant.now();
+        return InitiateAuthResponse.builder()
+            .authenticationResult(AuthenticationResultType.builder()
+                .idToken(idToken(user, now))
+                .accessToken(accessToken(user, now))
+                .refreshToken(refreshToken)
+                .expiresIn((int) TOKEN_TTL.toSeconds())
+                .tokenType("Bearer")
+                .build())
+            .build();
+    }
+
+    @Override
+    public GetUserResponse getUser(GetUserRequest request) {
+        simulateCall();
+        User user = userForAccessToken(request.accessToken());
+        List<AttributeType> attributes = new ArrayList<>();
+        attributes.add(AttributeType.builder().name("sub").value(user.sub).build());
+        user.attributes.forEach((name, value) -> attributes.add(AttributeType.builder().name(name).value(value).build()));
+        return GetUserResponse.builder()
+            .username(user.username)
+            .userAttributes(attributes)
+            .build();
+    }
+
+    @Override
+    public UpdateUserAttributesResponse updateUserAttributes(UpdateUserAttributesRequest request) {
+        simulateCall();
+        User user = userForAccessToken(request.accessToken());
+        for (AttributeType attribute : request.userAttributes()) {
+            if (attribute.value() == null || attribute.value().isBlank()) {
+                throw error(InvalidParameterException.builder(), "InvalidParameterException",
+                    "Invalid value for attribute " + attribute.name());
+            }
+            user.attributes.put(attribute.name(), attribute.value());
+        }
+        return UpdateUserAttributesResponse.builder().build();
+    }
+
+    @Override
+    public DeleteUserResponse deleteUser(DeleteUserRequest request) {
+        simulateCall();
+        User user = userForAccessToken(request.accessToken());
+        usersByUsername.remove(user.username, user);
+        usernamesByRefreshToken.values().removeIf(user.username::equals);
+        return DeleteUserResponse.builder().build();
+    }
+
+    private String idToken(User user, Instant now) {
+        return signer.idToken(user.sub, user.username, user.attributes.get("email"),
+            user.attributes.get("preferred_username"), clientId, now, TOKEN_TTL);
+    }
+
+    private String accessToken(User user, Instant now) {
+        return signer.accessToken(user.sub, user.username, clientId, now, TOKEN_TTL);
+    }
+
+    private void simulateCall() {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw AbortedException.builder().message("Thread interrupted during simulated latency").cause(e).build();
+            }
+        }
+        if (failureRate > 0.0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw (CognitoIdentityProviderException) InternalErrorException.builder()
+                .message("Simulated internal error")
+                .statusCode(500)
+                .awsErrorDetails(AwsErrorDetails.builder()
+                    .errorCode("InternalErrorException")
+                    .errorMessage("Simulated internal error")
+                    .serviceName(SERVICE_NAME)
+                    .build())
+                .build();
+        }
+    }
+
+    private User userForAccessToken(String accessToken) {
+        DecodedJWT token;
+        try {
+            token = signer.verify(accessToken);
+        } catch (JWTVerificationException e) {
+            throw error(NotAuthorizedException.builder(), "NotAuthorizedException", "Invalid Access Token");
+        }
+        if (!"access".equals(token.getClaim("token_use").asString())) {
+            throw error(NotAuthorizedException.builder(), "NotAuthorizedException", "Invalid Access Token");
+        }
+        User user = usersByUsername.get(token.getClaim("username").asString());
+        if (user == null || !user.sub.equals(token.getSubject())) {
+            throw error(NotAuthorizedException.builder(), "NotAuthorizedException", "User does not exist.");
+        }
+        return user;
+    }
+
+    private User existingUser(String username) {
+        User user = username == null ? null : usersByUsername.get(username);
+        if (user == null) {
+            throw error(UserNotFoundException.builder(), "UserNotFoundException", "Username/client id combination not found.");
+        }
+        return user;
+    }
+
+    private void verifyClient(String requestClientId, String username, String secretHash) {
+        if (!clientId.equals(requestClientId)) {
+            throw error(NotAuthorizedException.builder(), "NotAuthorizedException", "Client does not exist.");
+        }
+        byte[] expected = expectedSecretHash.compute(String.valueOf(username)).getBytes(StandardCharsets.UTF_8);
+        byte[] actual = secretHash == null ? new byte[0] : secretHash.getBytes(StandardCharsets.UTF_8);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            throw error(NotAuthorizedException.builder(), "NotAuthorizedException",
+                "Client " + clientId + " is configured with secret but SECRET_HASH was not received or is invalid");
+        }
+    }
+
+    private void checkCode(String code) {
+        if (!confirmationCode.equals(code)) {
+            throw error(CodeMismatchException.builder(), "CodeMismatchException", "Invalid verification code provided, please try again.");
+        }
+    }
+
+    private static void validatePassword(String password) {
+        if (password == null || password.length() < MIN_PASSWORD_LENGTH) {
+            throw error(InvalidPasswordException.builder(), "InvalidPasswordException",
+                "Password did not conform with policy: Password not long enough");
+        }
+    }
+
+    private static CodeDeliveryDetailsType delivery(User user) {
+        String email = user.attributes.getOrDefault("email", user.username);
+        return CodeDeliveryDetailsType.builder()
+            .deliveryMedium(DeliveryMediumType.EMAIL)
+            .attributeName("email")
+            .destination(email.charAt(0) + "***@" + email.substring(email.indexOf('@') + 1))
+            .build();
+    }
+
+    private static CognitoIdentityProviderException error(CognitoIdentityProviderException.Builder builder,
+                                                          String code, String message) {
+        return (CognitoIdentityProviderException) builder
+            .message(message)
+            .statusCode(400)
+            .awsErrorDetails(AwsErrorDetails.builder()
+                .errorCode(code)
+                .errorMessage(message)
+                .serviceName(SERVICE_NAME)
+                .build())
+            .build();
+    }
+
+    private static final class User {
+
+        final String sub;
+        final String username;
+        final Map<String, String> attributes;
+        volatile String password;
+        volatile boolean confirmed;
+
+        User(String sub, String username, String password, Map<String, String> attributes) {
+            this.sub = sub;
+            this.username = username;
+            this.password = password;
+            this.attributes = attributes;
+        }
+    }
+}
@@ -0,0 +1,1109 @@
+package com.cpsc.backend.local;
+
+import com.cpsc.backend.local.DynamoDbExpressions.Comparison;
+import com.cpsc.backend.local.DynamoDbExpressions.Condition;
+import com.cpsc.backend.local.DynamoDbExpressions.PathOperand;
+import com.cpsc.backend.local.DynamoDbExpressions.UpdateAction;
+import com.cpsc.backend.local.DynamoDbExpressions.ValueOperand;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.exception.AbortedException;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeDefinition;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.CreateTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.CreateTableResponse;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.DeleteTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteTableResponse;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableResponse;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.IdempotentParameterMismatchException;
+import software.amazon.awssdk.services.dynamodb.model.ItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeySchemaElement;
+import software.amazon.awssdk.services.dynamodb.model.KeyType;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.ListTablesRequest;
+import software.amazon.awssdk.services.dynamodb.model.ListTablesResponse;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ResourceInUseException;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.Select;
+import software.amazon.awssdk.services.dynamodb.model.TableDescription;
+import software.amazon.awssdk.services.dynamodb.model.TableStatus;
+import software.amazon.awssdk.services.dynamodb.model.TransactGetItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactGetItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactGetItemsResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * DynamoDB stand-in that keeps tables in memory, selected with the {@code inmemory-dynamodb} profile
+ * for load tests and offline runs.
+ *
+ * <p>Implements the operations the repositories issue through the enhanced client with DynamoDB's
+ * observable semantics: items ordered by sort key, {@code Limit}/{@code ExclusiveStartKey} paging
+ * (including the 1 MB page cap and a LastEvaluatedKey whenever the limit is reached), batch size
+ * limits and unprocessed items, conditional writes, all-or-nothing transactions with idempotency
+ * tokens, and consumed capacity estimates. Latency and throttling can be injected per call.
+ */
+public class InMemoryDynamoDbClient implements DynamoDbClient {
+
+    static final int MAX_BATCH_WRITE_ITEMS = 25;
+    static final int MAX_BATCH_GET_KEYS = 100;
+    static final int MAX_TRANSACTION_ITEMS = 100;
+    static final long MAX_PAGE_BYTES = 1024 * 1024;
+    static final long MAX_BATCH_GET_BYTES = 16 * 1024 * 1024;
+    private static final Duration TRANSACTION_TOKEN_TTL = Duration.ofMinutes(10);
+
+    private final Map<String, Table> tables = new ConcurrentHashMap<>();
+    private final Map<String, TransactionToken> transactionTokens = new ConcurrentHashMap<>();
+    // Single lock so transactions spanning tables stay atomic; calls are microseconds long
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Duration latency;
+    private final Duration latencyJitter;
+    private final double throttleRate;
+
+    public InMemoryDynamoDbClient() {
+        this(Duration.ZERO, Duration.ZERO, 0.0);
+    }
+
+    /**
+     * @param latency fixed delay added to every data-plane call
+     * @param latencyJitter upper bound of a uniformly distributed extra delay
+     * @param throttleRate probability (0-1) that a call, or an item within a batch, is throttled
+     */
+    public InMemoryDynamoDbClient(Duration latency, Duration latencyJitter, double throttleRate) {
+        if (latency == null || latency.isNegative() || latencyJitter == null || latencyJitter.isNegative()) {
+            throw new IllegalArgumentException("Latency and jitter must be zero or positive");
+        }
+        if (throttleRate < 0.0 || throttleRate > 1.0) {
+            throw new IllegalArgumentException("Throttle rate must be between 0 and 1");
+        }
+        this.latency = latency;
+        this.latencyJitter = latencyJitter;
+        this.throttleRate = throttleRate;
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public CreateTableResponse createTable(CreateTableRequest request) {
+        String hashKey = null;
+        String rangeKey = null;
+        for (KeySchemaElement element : request.keySchema()) {
+            if (element.keyType() == KeyType.HASH) {
+                hashKey = element.attributeName();
+            } else if (element.keyType() == KeyType.RANGE) {
+                rangeKey = element.attributeName();
+            }
+        }
+        if (hashKey == null) {
+            throw validation("Key schema must contain a HASH key");
+        }
+        Map<String, String> keyTypes = new HashMap<>();
+        for (AttributeDefinition definition : request.attributeDefinitions()) {
+            keyTypes.put(definition.attributeName(), definition.attributeTypeAsString());
+        }
+        if (!keyTypes.containsKey(hashKey) || (rangeKey != null && !keyTypes.containsKey(rangeKey))) {
+            throw validation("Key schema attributes must have attribute definitions");
+        }
+
+        Table table = new Table(request.tableName(), hashKey, rangeKey, keyTypes,
+            request.keySchema(), request.attributeDefinitions());
+        if (tables.putIfAbsent(request.tableName(), table) != null) {
+            throw ResourceInUseException.builder()
+                .message("Table already exists: " + request.tableName())
+                .statusCode(400)
+                .awsErrorDetails(errorDetails("ResourceInUseException", "Table already exists: " + request.tableName()))
+                .build();
+        }
+        return CreateTableResponse.builder().tableDescription(describe(table)).build();
+    }
+
+    @Override
+    public DescribeTableResponse describeTable(DescribeTableRequest request) {
+        lock.readLock().lock();
+        try {
+            return DescribeTableResponse.builder().table(describe(table(request.tableName()))).build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public DeleteTableResponse deleteTable(DeleteTableRequest request) {
+        lock.writeLock().lock();
+        try {
+            Table table = table(request.tableName());
+            tables.remove(request.tableName());
+            return DeleteTableResponse.builder().tableDescription(describe(table)).build();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public ListTablesResponse listTables(ListTablesRequest request) {
+        return ListTablesResponse.builder().tableNames(new TreeMap<>(tables).keySet()).build();
+    }
+
+    @Override
+    public GetItemResponse getItem(GetItemRequest request) {
+        simulateLatency();
+        throttleRequest();
+        lock.readLock().lock();
+        try {
+            Table table = table(request.tableName());
+            Map<String, AttributeValue> item = table.get(request.key());
+            GetItemResponse.Builder response = GetItemResponse.builder();
+            if (item != null) {
+                response.item(project(item, request.projectionExpression(), request.expressionAttributeNames()));
+            }
+            if (wantsCapacity(request.returnConsumedCapacity())) {
+                response.consumedCapacity(readCapacity(table.name, item == null ? 0 : DynamoDbExpressions.itemSize(item),
+                    Boolean.TRUE.equals(request.consistentRead())));
+            }
+            return response.build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public PutItemResponse putItem(PutItemRequest request) {
+        simulateLatency();
+        throttleRequest();
+        lock.writeLock().lock();
+        try {
+            Table table = table(request.tableName());
+            table.validateKey(request.item(), false);
+            Map<String, AttributeValue> existing = table.get(table.keyOf(request.item()));
+            checkCondition(request.conditionExpression(), request.expressionAttributeNames(),
+                request.expressionAttributeValues(), existing);
+            table.put(request.item());
+
+            PutItemResponse.Builder response = PutItemResponse.builder();
+            if (request.returnValues() == ReturnValue.ALL_OLD && existing != null) {
+                response.attributes(existing);
+            }
+            if (wantsCapacity(request.returnConsumedCapacity())) {
+                response.consumedCapacity(writeCapacity(table.name, Math.max(size(existing), size(request.item()))));
+            }
+            return response.build();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public UpdateItemResponse updateItem(UpdateItemRequest request) {
+        simulateLatency();
+        throttleRequest();
+        lock.writeLock().lock();
+        try {
+            Table table = table(request.tableName());
+            Map<String, AttributeValue> existing = table.get(request.key());
+            checkCondition(request.conditionExpression(), request.expressionAttributeNames(),
+                request.expressionAttributeValues(), existing);
+            List<UpdateAction> actions = parseUpdate(table, request.updateExpression(),
+                request.expressionAttributeNames(), request.expressionAttributeValues());
+            Map<String, AttributeValue> updated = DynamoDbExpressions.applyUpdate(
+                existing != null ? existing : table.keyOf(request.key()), actions);
+            table.put(updated);
+
+            UpdateItemResponse.Builder response = UpdateItemResponse.builder();
+            Map<String, AttributeValue> returned = returnedAttributes(request.returnValues(), actions, existing, updated);
+            if (returned != null) {
+                response.attributes(returned);
+            }
+            if (wantsCapacity(request.returnConsumedCapacity())) {
+                response.consumedCapacity(writeCapacity(table.name, Math.max(size(existing), size(updated))));
+            }
+            return response.build();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public DeleteItemResponse deleteItem(DeleteItemRequest request) {
+        simulateLatency();
+        throttleRequest();
+        lock.writeLock().lock();
+        try {
+            Table table = table(request.tableName());
+            Map<String, AttributeValue> existing = table.get(request.key());
+            checkCondition(request.conditionExpression(), request.expressionAttributeNames(),
+                request.expressionAttributeValues(), existing);
+            table.remove(request.key());
+
+            DeleteItemResponse.Builder response = DeleteItemResponse.builder();
+            if (request.returnValues() == ReturnValue.ALL_OLD && existing != null) {
+                response.attributes(existing);
+            }
+            if (wantsCapacity(request.returnConsumedCapacity())) {
+                response.consumedCapacity(writeCapacity(table.name, size(existing)));
+            }
+            return response.build();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public QueryResponse query(QueryRequest request) {
+        simulateLatency();
+        throttleRequest();
+        lock.readLock().lock();
+        try {
+            Table table = table(request.tableName());
+            if (request.indexName() != null) {
+                throw validation("The in-memory backend does not support secondary indexes: " + request.indexName());
+            }
+            if (request.keyConditionExpression() == null) {
+                throw validation("Query requires a KeyConditionExpression");
+            }
+
+            AttributeValue partitionValue = null;
+            Condition rangeCondition = null;
+            for (Condition condition : conjuncts(DynamoDbExpressions.parseCondition(request.keyConditionExpression(),
+                    request.expressionAttributeNames(), request.expressionAttributeValues()))) {
+                if (partitionValue == null && condition instanceof Comparison comparison
+                        && comparison.operator().equals("=")
+                        && comparison.left() instanceof PathOperand path && path.attribute().equals(table.hashKey)
+                        && comparison.right() instanceof ValueOperand value) {
+                    partitionValue = value.value();
+                } else if (rangeCondition == null && table.rangeKey != null) {
+                    rangeCondition = condition;
+                } else {
+                    throw validation("Query key condition not supported");
+                }
+            }
+            if (partitionValue == null) {
+                throw validation("Query condition missed key schema element: " + table.hashKey);
+            }
+
+            NavigableMap<AttributeValue, Map<String, AttributeValue>> partition = table.partition(partitionValue);
+            if (Boolean.FALSE.equals(request.scanIndexForward())) {
+                partition = partition.descendingMap();
+            }
+            if (request.hasExclusiveStartKey()) {
+                table.validateKey(request.exclusiveStartKey(), true);
+                if (DynamoDbExpressions.compareKeys(request.exclusiveStartKey().get(table.hashKey), partitionValue) != 0) {
+                    throw validation("The provided starting key is outside query boundaries based on provided conditions");
+                }
+                partition = partition.tailMap(table.sortValue(request.exclusiveStartKey()), false);
+            }
+
+            Condition filter = request.filterExpression() == null ? null : DynamoDbExpressions.parseCondition(
+                request.filterExpression(), request.expressionAttributeNames(), request.expressionAttributeValues());
+            PageResult page = page(table, partition.values().iterator(), rangeCondition, filter, request.limit());
+
+            QueryResponse.Builder response = QueryResponse.builder()
+                .count(page.items.size())
+                .scannedCount(page.scannedCount);
+            if (request.select() != Select.COUNT) {
+                response.items(project(page.items, request.projectionExpression(), request.expressionAttributeNames()));
+            }
+            if (page.lastEvaluatedKey != null) {
+                response.lastEvaluatedKey(page.lastEvaluatedKey);
+            }
+            if (wantsCapacity(request.returnConsumedCapacity())) {
+                response.consumedCapacity(readCapacity(table.name, page.bytes, Boolean.TRUE.equals(request.consistentRead())));
+            }
+            return response.build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public ScanResponse scan(ScanRequest request) {
+        simulateLatency();
+        throttleRequest();
+        lock.readLock().lock();
+        try {
+            Table table = table(request.tableName());
+            if (request.indexName() != null) {
+                throw validation("The in-memory backend does not support secondary indexes: " + request.indexName());
+            }
+            if ((request.totalSegments() == null) != (request.segment() == null)) {
+                throw validation("Segment and TotalSegments must be provided together");
+            }
+            NavigableMap<AttributeValue, NavigableMap<AttributeValue, Map<String, AttributeValue>>> partitions = table.partitions;
+            AttributeValue startPartition = null;
+            AttributeValue startSort = null;
+            if (request.hasExclusiveStartKey()) {
+                table.validateKey(request.exclusiveStartKey(), true);
+                startPartition = request.exclusiveStartKey().get(table.hashKey);
+                startSort = table.sortValue(request.exclusiveStartKey());
+                partitions = partitions.tailMap(startPartition, true);
+            }
+
+            final AttributeValue resumePartition = startPartition;
+            final AttributeValue resumeSort = startSort;
+            Stream<Map<String, AttributeValue>> candidates = partitions.entrySet().stream()
+                .filter(entry -> request.totalSegments() == null
+                    || Math.floorMod(entry.getKey().hashCode(), request.totalSegments()) == request.segment())
+                .flatMap(entry -> {
+                    boolean resuming = resumePartition != null
+                        && DynamoDbExpressions.compareKeys(entry.getKey(), resumePartition) == 0;
+                    return (resuming ? entry.getValue().tailMap(resumeSort, false) : entry.getValue()).values().stream();
+                });
+
+            Condition filter = request.filterExpression() == null ? null : DynamoDbExpressions.parseCondition(
+                request.filterExpression(), request.expressionAttributeNames(), request.expressionAttributeValues());
+            PageResult page = page(table, candidates.iterator(), null, filter, request.limit());
+
+            ScanResponse.Builder response = ScanResponse.builder()
+                .count(page.items.size())
+                .scannedCount(page.scannedCount);
+            if (request.select() != Select.COUNT) {
+                response.items(project(page.items, request.projectionExpression(), request.expressionAttributeNames()));
+            }
+            if (page.lastEvaluatedKey != null) {
+                response.lastEvaluatedKey(page.lastEvaluatedKey);
+            }
+            if (wantsCapacity(request.returnConsumedCapacity())) {
+                response.consumedCapacity(readCapacity(table.name, page.bytes, Boolean.TRUE.equals(request.consistentRead())));
+            }
+            return response.build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public BatchGetItemResponse batchGetItem(BatchGetItemRequest request) {
+        simulateLatency();
+        int requested = request.requestItems().values().stream().mapToInt(keys -> keys.keys().size()).sum();
+        if (requested == 0) {
+            throw validation("BatchGetItem requires at least one key");
+        }
+        if (requested > MAX_BATCH_GET_KEYS) {
+            throw validation("Too many items requested for the BatchGetItem call");
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<String, List<Map<String, AttributeValue>>> responses = new HashMap<>();
+            Map<String, KeysAndAttributes> unprocessed = new HashMap<>();
+            List<ConsumedCapacity> capacity = new ArrayList<>();
+            long responseBytes = 0;
+            int throttled = 0;
+
+            for (Map.Entry<String, KeysAndAttributes> entry : request.requestItems().entrySet()) {
+                Table table = table(entry.getKey());
+                KeysAndAttributes keysAndAttributes = entry.getValue();
+                Set<Map<String, AttributeValue>> seen = new HashSet<>();
+                for (Map<String, AttributeValue> key : keysAndAttributes.keys()) {
+                    table.validateKey(key, true);
+                    if (!seen.add(table.keyOf(key))) {
+                        throw validation("Provided list of item keys contains duplicates");
+                    }
+                }
+
+                List<Map<String, AttributeValue>> found = new ArrayList<>();
+                List<Map<String, AttributeValue>> skipped = new ArrayList<>();
+                long tableBytes = 0;
+                for (Map<String, AttributeValue> key : keysAndAttributes.keys()) {
+                    if (shouldThrottle()) {
+                        throttled++;
+                        skipped.add(key);
+                        continue;
+                    }
+                    if (responseBytes >= MAX_BATCH_GET_BYTES) {
+                        skipped.add(key);
+                        continue;
+                    }
+                    Map<String, AttributeValue> item = table.get(key);
+                    if (item != null) {
+                        long itemBytes = DynamoDbExpressions.itemSize(item);
+                        responseBytes += itemBytes;
+                        tableBytes += itemBytes;
+                        found.add(project(item, keysAndAttributes.projectionExpression(),
+                            keysAndAttributes.expressionAttributeNames()));
+                    }
+                }
+                responses.put(table.name, found);
+                if (!skipped.isEmpty()) {
+                    unprocessed.put(table.name, keysAndAttributes.toBuilder().keys(skipped).build());
+                }
+                capacity.add(readCapacity(table.name, tableBytes, Boolean.TRUE.equals(keysAndAttributes.consistentRead())));
+            }
+            if (throttled == requested) {
+                throw throttlingException();
+            }
+
+            BatchGetItemResponse.Builder response = BatchGetItemResponse.builder()
+                .responses(responses)
+                .unprocessedKeys(unprocessed);
+            if (wantsCapacity(request.returnConsumedCapacity())) {
+                response.consumedCapacity(capacity);
+            }
+            return response.build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public BatchWriteItemResponse batchWriteItem(BatchWriteItemRequest request) {
+        simulateLatency();
+        int requested = request.requestItems().values().stream().mapToInt(List::size).sum();
+        if (requested == 0) {
+            throw validation("BatchWriteItem requires at least one write request");
+        }
+        if (requested > MAX_BATCH_WRITE_ITEMS) {
+            throw validation("Too many items requested for the BatchWriteItem call");
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Validate the whole batch before applying any of it, as DynamoDB does
+            for (Map.Entry<String, List<WriteRequest>> entry : request.requestItems().entrySet()) {
+                Table table = table(entry.getKey());
+                Set<Map<String, AttributeValue>> seen = new HashSet<>();
+                for (WriteRequest write : entry.getValue()) {
+                    Map<String, AttributeValue> target = writeTarget(write);
+                    table.validateKey(target, write.putRequest() == null);
+                    if (!seen.add(table.keyOf(target))) {
+                        throw validation("Provided list of item keys contains duplicates");
+                    }
+                }
+            }
+
+            Map<String, List<WriteRequest>> unprocessed = new HashMap<>();
+            List<ConsumedCapacity> capacity = new ArrayList<>();
+            int throttled = 0;
+            for (Map.Entry<String, List<WriteRequest>> entry : request.requestItems().entrySet()) {
+                Table table = table(entry.getKey());
+                List<WriteRequest> skipped = new ArrayList<>();
+                double units = 0;
+                for (WriteRequest write : entry.getValue()) {
+                    if (shouldThrottle()) {
+                        throttled++;
+                        skipped.add(write);
+                        continue;
+                    }
+                    Map<String, AttributeValue> previous;
+                    if (write.putRequest() != null) {
+                        previous = table.put(write.putRequest().item());
+                        units += writeUnits(Math.max(size(previous), size(write.putRequest().item())));
+                    } else {
+                        previous = table.remove(write.deleteRequest().key());
+                        units += writeUnits(size(previous));
+                    }
+                }
+                if (!skipped.isEmpty()) {
+                    unprocessed.put(table.name, skipped);
+                }
+                capacity.add(ConsumedCapacity.builder().tableName(table.name)
+                    .capacityUnits(units).writeCapacityUnits(units).build());
+            }
+            if (throttled == requested) {
+                throw throttlingException();
+            }
+
+            BatchWriteItemResponse.Builder response = BatchWriteItemResponse.builder().unprocessedItems(unprocessed);
+            if (wantsCapacity(request.returnConsumedCapacity())) {
+                response.consumedCapacity(capacity);
+            }
+            return response.build();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public TransactWriteItemsResponse transactWriteItems(TransactWriteItemsRequest request) {
+        simulateLatency();
+        throttleRequest();
+        List<TransactWriteItem> items = request.transactItems();
+        if (items.isEmpty() || items.size() > MAX_TRANSACTION_ITEMS) {
+            throw validation("Member must have length less than or equal to " + MAX_TRANSACTION_ITEMS);
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (isReplay(request)) {
+                return TransactWriteItemsResponse.builder().build();
+            }
+
+            List<Table> targets = new ArrayList<>(items.size());
+            List<Map<String, AttributeValue>> keys = new ArrayList<>(items.size());
+            Set<String> seen = new HashSet<>();
+            for (TransactWriteItem item : items) {
+                Table table = table(transactTableName(item));
+                Map<String, AttributeValue> target = transactTarget(item);
+                table.validateKey(target, item.put() == null);
+                Map<String, AttributeValue> key = table.keyOf(target);
+                if (!seen.add(table.name + key)) {
+                    throw validation("Transaction request cannot include multiple operations on one item");
+                }
+                targets.add(table);
+                keys.add(key);
+            }
+
+            // Evaluate every condition and compute every new image before writing anything
+            List<CancellationReason> reasons = new ArrayList<>(items.size());
+            List<Map<String, AttributeValue>> newImages = new ArrayList<>(items.size());
+            boolean cancelled = false;
+            for (int i = 0; i < items.size(); i++) {
+                TransactWriteItem item = items.get(i);
+                Table table = targets.get(i);
+                Map<String, AttributeValue> existing = table.get(keys.get(i));
+                boolean passed = conditionHolds(transactCondition(item), transactNames(item), transactValues(item), existing);
+                reasons.add(CancellationReason.builder().code(passed ? "None" : "ConditionalCheckFailed")
+                    .message(passed ? null : "The conditional request failed").build());
+                cancelled |= !passed;
+
+                if (item.put() != null) {
+                    newImages.add(item.put().item());
+                } else if (item.update() != null) {
+                    List<UpdateAction> actions = parseUpdate(table, item.update().updateExpression(),
+                        item.update().expressionAttributeNames(), item.update().expressionAttributeValues());
+                    newImages.add(DynamoDbExpressions.applyUpdate(existing != null ? existing : keys.get(i), actions));
+                } else {
+                    newImages.add(null);
+                }
+            }
+            if (cancelled) {
+                String codes = reasons.stream().map(CancellationReason::code).collect(Collectors.joining(", "));
+                String message = "Transaction cancelled, please refer cancellation reasons for specific reasons [" + codes + "]";
+                throw TransactionCanceledException.builder()
+                    .message(message)
+                    .cancellationReasons(reasons)
+                    .statusCode(400)
+                    .awsErrorDetails(errorDetails("TransactionCanceledException", message))
+                    .build();
+            }
+
+            Map<String, Double> units = new LinkedHashMap<>();
+            for (int i = 0; i < items.size(); i++) {
+                TransactWriteItem item = items.get(i);
+                Table table = targets.get(i);
+                Map<String, AttributeValue> previous = table.get(keys.get(i));
+                if (item.put() != null || item.update() != null) {
+                    table.put(newImages.get(i));
+                } else if (item.delete() != null) {
+                    table.remove(keys.get(i));
+                }
+                long bytes = Math.max(size(previous), size(newImages.get(i)));
+                units.merge(table.name, 2 * writeUnits(bytes), Double::sum);
+            }
+            if (request.clientRequestToken() != null) {
+                transactionTokens.put(request.clientRequestToken(), new TransactionToken(
+                    request.transactItems().hashCode(), Instant.now().plus(TRANSACTION_TOKEN_TTL)));
+            }
+
+            TransactWriteItemsResponse.Builder response = TransactWriteItemsResponse.builder();
+            if (wantsCapacity(request.returnConsumedCapacity())) {
+                response.consumedCapacity(units.entrySet().stream()
+                    .map(e -> ConsumedCapacity.builder().tableName(e.getKey())
+                        .capacityUnits(e.getValue()).writeCapacityUnits(e.getValue()).build())
+                    .toList());
+            }
+            return response.build();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public TransactGetItemsResponse transactGetItems(TransactGetItemsRequest request) {
+        simulateLatency();
+        throttleRequest();
+        if (request.transactItems().isEmpty() || request.transactItems().size() > MAX_TRANSACTION_ITEMS) {
+            throw validation("Member must have length less than or equal to " + MAX_TRANSACTION_ITEMS);
+        }
+        lock.readLock().lock();
+        try {
+            List<ItemResponse> responses = new ArrayList<>();
+            Map<String, Double> units = new LinkedHashMap<>();
+            for (TransactGetItem get : request.transactItems()) {
+                Table table = table(get.get().tableName());
+                Map<String, AttributeValue> item = table.get(get.get().key());
+                responses.add(item == null ? ItemResponse.builder().build() : ItemResponse.builder()
+                    .item(project(item, get.get().projectionExpression(), get.get().expressionAttributeNames()))
+                    .build());
+                units.merge(table.name, 2 * readUnits(size(item)), Double::sum);
+            }
+
+            TransactGetItemsResponse.Builder response = TransactGetItemsResponse.builder().responses(responses);
+            if (wantsCapacity(request.returnConsumedCapacity())) {
+                response.consumedCapacity(units.entrySet().stream()
+                    .map(e -> ConsumedCapacity.builder().tableName(e.getKey())
+                        .capacityUnits(e.getValue()).readCapacityUnits(e.getValue()).build())
+                    .toList());
+            }
+            return response.build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static DynamoDbException validation(String message) {
+        return (DynamoDbException) DynamoDbException.builder()
+            .message(message)
+            .statusCode(400)
+            .awsErrorDetails(errorDetails("ValidationException", message))
+            .build();
+    }
+
+    private static AwsErrorDetails errorDetails(String code, String message) {
+        return AwsErrorDetails.builder()
+            .errorCode(code)
+            .errorMessage(message)
+            .serviceName(SERVICE_NAME)
+            .build();
+    }
+
+    private static ProvisionedThroughputExceededException throttlingException() {
+        String message = "The level of configured provisioned throughput for the table was exceeded";
+        return ProvisionedThroughputExceededException.builder()
+            .message(message)
+            .statusCode(400)
+            .awsErrorDetails(errorDetails("ProvisionedThroughputExceededException", message))
+            .build();
+    }
+
+    private void simulateLatency() {
+        long nanos = latency.toNanos();
+        if (!latencyJitter.isZero()) {
+            nanos += ThreadLocalRandom.current().nextLong(latencyJitter.toNanos() + 1);
+        }
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(Duration.ofNanos(nanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw AbortedException.builder().message("Thread interrupted during simulated latency").cause(e).build();
+        }
+    }
+
+    private boolean shouldThrottle() {
+        return throttleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < throttleRate;
+    }
+
+    private void throttleRequest() {
+        if (shouldThrottle()) {
+            throw throttlingException();
+        }
+    }
+
+    private Table table(String tableName) {
+        Table table = tables.get(tableName);
+        if (table == null) {
+            String message = "Requested resource not found: Table: " + tableName + " not found";
+            throw ResourceNotFoundException.builder()
+                .message(message)
+                .statusCode(400)
+                .awsErrorDetails(errorDetails("ResourceNotFoundException", message))
+                .build();
+        }
+        return table;
+    }
+
+    private TableDescription describe(Table table) {
+        return TableDescription.builder()
+            .tableName(table.name)
+            .keySchema(table.keySchema)
+            .attributeDefinitions(table.attributeDefinitions)
+            .tableStatus(TableStatus.ACTIVE)
+            .creationDateTime(table.createdAt)
+            .itemCount((long) table.itemCount)
+            .build();
+    }
+
+    /**
+     * A successful transaction repeated with the same client token within the TTL is acknowledged
+     * without being applied again.
+     */
+    private boolean isReplay(TransactWriteItemsRequest request) {
+        String token = request.clientRequestToken();
+        if (token == null) {
+            return false;
+        }
+        Instant now = Instant.now();
+        transactionTokens.values().removeIf(entry -> entry.expiresAt.isBefore(now));
+        TransactionToken previous = transactionTokens.get(token);
+        if (previous == null) {
+            return false;
+        }
+        if (previous.requestHash != request.transactItems().hashCode()) {
+            String message = "Request with the same client token was already used with different parameters";
+            throw IdempotentParameterMismatchException.builder()
+                .message(message)
+                .statusCode(400)
+                .awsErrorDetails(errorDetails("IdempotentParameterMismatchException", message))
+                .build();
+        }
+        return true;
+    }
+
+    private static void checkCondition(String expression, Map<String, String> names,
+                                       Map<String, AttributeValue> values, Map<String, AttributeValue> existing) {
+        if (!conditionHolds(expression, names, values, existing)) {
+            throw ConditionalCheckFailedException.builder()
+                .message("The conditional request failed")
+                .statusCode(400)
+                .awsErrorDetails(errorDetails("ConditionalCheckFailedException", "The conditional request failed"))
+                .build();
+        }
+    }
+
+    private static boolean conditionHolds(String expression, Map<String, String> names,
+                                          Map<String, AttributeValue> values, Map<String, AttributeValue> existing) {
+        if (expression == null) {
+            return true;
+        }
+        return DynamoDbExpressions.parseCondition(expression, names, values)
+            .test(existing != null ? existing : Map.of());
+    }
+
+    private static List<UpdateAction> parseUpdate(Table table, String expression, Map<String, String> names,
+                                                  Map<String, AttributeValue> values) {
+        if (expression == null) {
+            return List.of();
+        }
+        List<UpdateAction> actions = DynamoDbExpressions.parseUpdate(expression, names, values);
+        for (UpdateAction action : actions) {
+            if (action.attribute().equals(table.hashKey) || action.attribute().equals(table.rangeKey)) {
+                throw validation("Cannot update attribute " + action.attribute() + ". This attribute is part of the key");
+            }
+        }
+        return actions;
+    }
+
+    private static Map<String, AttributeValue> returnedAttributes(ReturnValue returnValue, List<UpdateAction> actions,
+                                                                  Map<String, AttributeValue> existing,
+                                                                  Map<String, AttributeValue> updated) {
+        if (returnValue == null || returnValue == ReturnValue.NONE) {
+            return null;
+        }
+        Map<String, AttributeValue> source = switch (returnValue) {
+            case ALL_OLD, UPDATED_OLD -> existing;
+            default -> updated;
+        };
+        if (source == null) {
+            return null;
+        }
+        if (returnValue == ReturnValue.ALL_OLD || returnValue == ReturnValue.ALL_NEW) {
+            return source;
+        }
+        Map<String, AttributeValue> changed = new HashMap<>();
+        for (UpdateAction action : actions) {
+            AttributeValue value = source.get(action.attribute());
+            if (value != null) {
+                changed.put(action.attribute(), value);
+            }
+        }
+        return changed;
+    }
+
+    private static List<Condition> conjuncts(Condition condition) {
+        if (condition instanceof DynamoDbExpressions.And and) {
+            List<Condition> result = new ArrayList<>(conjuncts(and.left()));
+            result.addAll(conjuncts(and.right()));
+            return result;
+        }
+        return List.of(condition);
+    }
+
+    private static PageResult page(Table table, Iterator<Map<String, AttributeValue>> candidates,
+                                   Condition keyCondition, Condition filter, Integer limit) {
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        int scanned = 0;
+        long bytes = 0;
+        Map<String, AttributeValue> lastEvaluatedKey = null;
+        while (candidates.hasNext()) {
+            Map<String, AttributeValue> item = candidates.next();
+            if (keyCondition != null && !keyCondition.test(item)) {
+                continue;
+            }
+            scanned++;
+            bytes += DynamoDbExpressions.itemSize(item);
+            if (filter == null || filter.test(item)) {
+                items.add(item);
+            }
+            // DynamoDB returns a LastEvaluatedKey whenever the limit or page size is reached,
+            // even when no further items exist
+            if ((limit != null && scanned >= limit) || bytes >= MAX_PAGE_BYTES) {
+                lastEvaluatedKey = table.keyOf(item);
+                break;
+            }
+        }
+        return new PageResult(items, scanned, bytes, lastEvaluatedKey);
+    }
+
+    private static Map<String, AttributeValue> project(Map<String, AttributeValue> item, String projection,
+                                                       Map<String, String> names) {
+        if (projection == null) {
+            return item;
+        }
+        Map<String, AttributeValue> projected = new HashMap<>();
+        for (String attribute : DynamoDbExpressions.parseProjection(projection, names)) {
+            AttributeValue value = item.get(attribute);
+            if (value != null) {
+                projected.put(attribute, value);
+            }
+        }
+        return projected;
+    }
+
+    private static List<Map<String, AttributeValue>> project(List<Map<String, AttributeValue>> items, String projection,
+                                                             Map<String, String> names) {
+        if (projection == null) {
+            return items;
+        }
+        return items.stream().map(item -> project(item, projection, names)).toList();
+    }
+
+    private static Map<String, AttributeValue> writeTarget(WriteRequest write) {
+        if (write.putRequest() != null) {
+            return write.putRequest().item();
+        }
+        if (write.deleteRequest() != null) {
+            return write.deleteRequest().key();
+        }
+        throw validation("WriteRequest must contain a PutRequest or a DeleteRequest");
+    }
+
+    private static String transactTableName(TransactWriteItem item) {
+        if (item.put() != null) {
+            return item.put().tableName();
+        } else if (item.update() != null) {
+            return item.update().tableName();
+        } else if (item.delete() != null) {
+            return item.delete().tableName();
+        } else if (item.conditionCheck() != null) {
+            return item.conditionCheck().tableName();
+        }
+        throw validation("TransactWriteItem must contain exactly one operation");
+    }
+
+    private static Map<String, AttributeValue> transactTarget(TransactWriteItem item) {
+        if (item.put() != null) {
+            return item.put().item();
+        } else if (item.update() != null) {
+            return item.update().key();
+        } else if (item.delete() != null) {
+            return item.delete().key();
+        }
+        return item.conditionCheck().key();
+    }
+
+    private static String transactCondition(TransactWriteItem item) {
+        if (item.put() != null) {
+            return item.put().conditionExpression();
+        } else if (item.update() != null) {
+            return item.update().conditionExpression();
+        } else if (item.delete() != null) {
+            return item.delete().conditionExpression();
+        }
+        return item.conditionCheck().conditionExpression();
+    }
+
+    private static Map<String, String> transactNames(TransactWriteItem item) {
+        if (item.put() != null) {
+            return item.put().expressionAttributeNames();
+        } else if (item.update() != null) {
+            return item.update().expressionAttributeNames();
+        } else if (item.delete() != null) {
+            return item.delete().expressionAttributeNames();
+        }
+        return item.conditionCheck().expressionAttributeNames();
+    }
+
+    private static Map<String, AttributeValue> transactValues(TransactWriteItem item) {
+        if (item.put() != null) {
+            return item.put().expressionAttributeValues();
+        } else if (item.update() != null) {
+            return item.update().expressionAttributeValues();
+        } else if (item.delete() != null) {
+            return item.delete().expressionAttributeValues();
+        }
+        return item.conditionCheck().expressionAttributeValues();
+    }
+
+    private static boolean wantsCapacity(ReturnConsumedCapacity returnConsumedCapacity) {
+        return returnConsumedCapacity == ReturnConsumedCapacity.TOTAL
+            || returnConsumedCapacity == ReturnConsumedCapacity.INDEXES;
+    }
+
+    private static long size(Map<String, AttributeValue> item) {
+        return item == null ? 0 : DynamoDbExpressions.itemSize(item);
+    }
+
+    private static double readUnits(long bytes) {
+        return Math.max(1, Math.ceil(bytes / 4096.0));
+    }
+
+    private static double writeUnits(long bytes) {
+        return Math.max(1, Math.ceil(bytes / 1024.0));
+    }
+
+    private static ConsumedCapacity readCapacity(String tableName, long bytes, boolean consistentRead) {
+        double units = consistentRead ? readUnits(bytes) : readUnits(bytes) / 2;
+        return ConsumedCapacity.builder().tableName(tableName).capacityUnits(units).readCapacityUnits(units).build();
+    }
+
+    private static ConsumedCapacity writeCapacity(String tableName, long bytes) {
+        double units = writeUnits(bytes);
+        return ConsumedCapacity.builder().tableName(tableName).capacityUnits(units).writeCapacityUnits(units).build();
+    }
+
+    private record PageResult(List<Map<String, AttributeValue>> items, int scannedCount, long bytes,
+                              Map<String, AttributeValue> lastEvaluatedKey) {
+    }
+
+    private record TransactionToken(int requestHash, Instant expiresAt) {
+    }
+
+    /**
+     * Items of one table, partitioned by hash key and ordered by range key within a partition.
+     * Hash-only tables use the hash key as the (single) range position.
+     */
+    private static final class Table {
+
+        final String name;
+        final String hashKey;
+        final String rangeKey;
+        final Map<String, String> keyTypes;
+        final List<KeySchemaElement> keySchema;
+        final List<AttributeDefinition> attributeDefinitions;
+        final Instant createdAt = Instant.now();
+        final NavigableMap<AttributeValue, NavigableMap<AttributeValue, Map<String, AttributeValue>>> partitions =
+            new TreeMap<>(DynamoDbExpressions::compareKeys);
+        int itemCount;
+
+        Table(String name, String hashKey, String rangeKey, Map<String, String> keyTypes,
+              List<KeySchemaElement> keySchema, List<AttributeDefinition> attributeDefinitions) {
+            this.name = name;
+            this.hashKey = hashKey;
+            this.rangeKey = rangeKey;
+            this.keyTypes = keyTypes;
+            this.keySchema = keySchema;
+            this.attributeDefinitions = attributeDefinitions;
+        }
+
+        void validateKey(Map<String, AttributeValue> attributes, boolean exact) {
+            int keyCount = rangeKey == null ? 1 : 2;
+            if ((exact && attributes.size() != keyCount)
+                    || !hasKeyAttribute(attributes, hashKey)
+                    || (rangeKey != null && !hasKeyAttribute(attributes, rangeKey))) {
+                throw validation("The provided key element does not match the schema");
+            }
+        }
+
+        private boolean hasKeyAttribute(Map<String, AttributeValue> attributes, String attribute) {
+            AttributeValue value = attributes.get(attribute);
+            return value != null && value.type().name().equals(keyTypes.get(attribute));
+        }
+
+        Map<String, AttributeValue> keyOf(Map<String, AttributeValue> attributes) {
+            Map<String, AttributeValue> key = new LinkedHashMap<>();
+            key.put(hashKey, attributes.get(hashKey));
+            if (rangeKey != null) {
+                key.put(rangeKey, attributes.get(rangeKey));
+            }
+            return key;
+        }
+
+        AttributeValue sortValue(Map<String, AttributeValue> attributes) {
+            return attributes.get(rangeKey != null ? rangeKey : hashKey);
+        }
+
+        NavigableMap<AttributeValue, Map<String, AttributeValue>> partition(AttributeValue partitionValue) {
+            NavigableMap<AttributeValue, Map<String, AttributeValue>> partition = partitions.get(partitionValue);
+            return partition != null ? Collections.unmodifiableNavigableMap(partition) : Collections.emptyNavigableMap();
+        }
+
+        Map<String, AttributeValue> get(Map<String, AttributeValue> key) {
+            validateKey(key, true);
+            NavigableMap<AttributeValue, Map<String, AttributeValue>> partition = partitions.get(key.get(hashKey));
+            return partition == null ? null : partition.get(sortValue(key));
+        }
+
+        Map<String, AttributeValue> put(Map<String, AttributeValue> item) {
+            validateKey(item, false);
+            Map<String, AttributeValue> previous = partitions
+                .computeIfAbsent(item.get(hashKey), k -> new TreeMap<>(DynamoDbExpressions::compareKeys))
+                .put(sortValue(item), Map.copyOf(item));
+            if (previous == null) {
+                itemCount++;
+            }
+            return previous;
+        }
+
+        Map<String, AttributeValue> remove(Map<String, AttributeValue> key) {
+            validateKey(key, true);
+            NavigableMap<AttributeValue, Map<String, AttributeValue>> partition = partitions.get(key.get(hashKey));
+            if (partition == null) {
+                return null;
+            }
+            Map<String, AttributeValue> previous = partition.remove(sortValue(key));
+            if (previous != null) {
+                itemCount--;
+                if (partition.isEmpty()) {
+                    partitions.remove(key.get(hashKey));
+                }
+            }
+            return previous;
+        }
+    }
+}
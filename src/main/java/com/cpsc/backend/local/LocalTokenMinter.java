@@ -0,0 +1,91 @@
+package com.cpsc.backend.local;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mints ID and access tokens that an app running the {@code local-jwt} profile accepts, for load
+ * generators and other test harnesses that should not log in (or reach AWS) to get them. It signs
+ * with the same key file as the app, so both must use the same {@code jwt.local.key-file}.
+ *
+ * <p>Writes {@code sub,idToken,accessToken} CSV lines, one per synthetic user, to stdout or
+ * {@code jwt.mint.output}. Configured through system properties (see the {@code mintLocalJwt}
+ * Gradle task): {@code jwt.mint.key-file}, {@code jwt.mint.users}, {@code jwt.mint.sub-prefix},
+ * {@code jwt.mint.ttl}, {@code jwt.mint.region}, {@code jwt.mint.user-pool-id} and
+ * {@code jwt.mint.client-id}; the defaults match application-inmemory-cognito.properties.
+ *
+ * <p>The synthetic users exist only in their tokens: endpoints keyed by the ID token's sub work
+ * as for any new user, but profile endpoints, which look the user up in the user pool, do not.
+ */
+public final class LocalTokenMinter {
+
+    /** One synthetic user's tokens */
+    public record Tokens(String sub, String idToken, String accessToken) {
+    }
+
+    private LocalTokenMinter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path keyFile = Path.of(System.getProperty("jwt.mint.key-file", "build/local-jwt/signing-key.pem"));
+        int users = Integer.getInteger("jwt.mint.users", 1);
+        String subPrefix = System.getProperty("jwt.mint.sub-prefix", "local-user");
+        Duration ttl = DurationStyle.detectAndParse(System.getProperty("jwt.mint.ttl", "1h"));
+        String region = System.getProperty("jwt.mint.region", "us-east-1");
+        String userPoolId = System.getProperty("jwt.mint.user-pool-id", "us-east-1_local");
+        String clientId = System.getProperty("jwt.mint.client-id", "local-client");
+        String output = System.getProperty("jwt.mint.output", "");
+
+        LocalJwtSigner signer = new LocalJwtSigner(region, userPoolId, LocalJwtSigner.loadOrGenerateKeyPair(keyFile));
+        List<Tokens> tokens = mint(signer, clientId, subPrefix, users, Instant.now(), ttl);
+
+        if (output.isBlank()) {
+            write(tokens, System.out);
+        } else {
+            Path path = Path.of(output);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (PrintStream out = new PrintStream(Files.newOutputStream(path), false, StandardCharsets.UTF_8)) {
+                write(tokens, out);
+            }
+            System.err.printf("Wrote tokens for %d users to %s%n", users, path.toAbsolutePath());
+        }
+    }
+
+    /**
+     * Tokens for {@code users} synthetic users named {@code <subPrefix>-<n>}, issued at {@code now}
+     */
+    public static List<Tokens> mint(LocalJwtSigner signer, String clientId, String subPrefix, int users,
+                                    Instant now, Duration ttl) {
+        if (users < 1) {
+            throw new IllegalArgumentException("User count must be positive");
+        }
+        List<Tokens> tokens = new ArrayList<>(users);
+        for (int i = 1; i <= users; i++) {
+            String sub = subPrefix + "-" + i;
+            String email = sub + "@example.com";
+            tokens.add(new Tokens(sub,
+                signer.idToken(sub, email, email, sub, clientId, now, ttl),
+                signer.accessToken(sub, email, clientId, now, ttl)));
+        }
+        return tokens;
+    }
+
+    private static void write(List<Tokens> tokens, PrintStream out) {
+        out.println("sub,idToken,accessToken");
+        for (Tokens token : tokens) {
+            out.println(token.sub() + "," + token.idToken() + "," + token.accessToken());
+        }
+        out.flush();
+    }
+}
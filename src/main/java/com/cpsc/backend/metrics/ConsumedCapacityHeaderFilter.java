@@ -0,0 +1,54 @@
+package com.cpsc.backend.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * Adds an {@code X-DynamoDB-Consumed-Capacity} header summarising the DynamoDB work done for the request.
+ * Disabled by default; the response body is buffered so the header can be set after the handler runs.
+ * The event stream is never buffered: it would not reach the client until the stream ends.
+ */
+@Component
+public class ConsumedCapacityHeaderFilter extends OncePerRequestFilter {
+
+    public static final String HEADER_NAME = "X-DynamoDB-Consumed-Capacity";
+
+    private static final String EVENT_STREAM_PATH = "/api/events";
+
+    private final boolean enabled;
+
+    public ConsumedCapacityHeaderFilter(@Value("${metrics.dynamodb.capacity-header.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || EVENT_STREAM_PATH.equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        ConsumedCapacitySummary summary = new ConsumedCapacitySummary();
+        request.setAttribute(ConsumedCapacitySummary.REQUEST_ATTRIBUTE, summary);
+
+        ContentCachingResponseWrapper wrappedResponse = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrappedResponse);
+        } finally {
+            if (summary.getCalls() > 0) {
+                wrappedResponse.setHeader(HEADER_NAME, summary.toHeaderValue());
+            }
+            wrappedResponse.copyBodyToResponse();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.cpsc.backend.metrics;
+
+import java.util.Locale;
+
+/**
+ * Running totals of DynamoDB work performed on behalf of a single HTTP request.
+ * Stored as a request attribute and rendered into a response header when enabled.
+ */
+public class ConsumedCapacitySummary {
+
+    public static final String REQUEST_ATTRIBUTE = ConsumedCapacitySummary.class.getName();
+
+    private double readCapacityUnits;
+    private double writeCapacityUnits;
+    private int calls;
+    private long totalNanos;
+
+    public synchronized void record(double readUnits, double writeUnits, long durationNanos) {
+        this.readCapacityUnits += readUnits;
+        this.writeCapacityUnits += writeUnits;
+        this.calls++;
+        this.totalNanos += durationNanos;
+    }
+
+    public synchronized double getReadCapacityUnits() {
+        return readCapacityUnits;
+    }
+
+    public synchronized double getWriteCapacityUnits() {
+        return writeCapacityUnits;
+    }
+
+    public synchronized int getCalls() {
+        return calls;
+    }
+
+    public synchronized long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Format as a compact header value, e.g. {@code calls=3;rcu=1.5;wcu=2.0;time-ms=12.4}
+     */
+    public synchronized String toHeaderValue() {
+        return String.format(Locale.ROOT, "calls=%d;rcu=%.1f;wcu=%.1f;time-ms=%.1f",
+            calls, readCapacityUnits, writeCapacityUnits, totalNanos / 1_000_000.0);
+    }
+}
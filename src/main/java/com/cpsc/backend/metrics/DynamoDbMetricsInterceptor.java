@@ -0,0 +1,290 @@
+package com.cpsc.backend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.SdkResponse;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactGetItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactGetItemsResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SDK execution interceptor attached to the DynamoDB client.
+ * Asks DynamoDB to return consumed capacity for every call made by the repositories and
+ * records latency plus RCU/WCU per table, operation and API endpoint as Micrometer meters.
+ */
+@Component
+public class DynamoDbMetricsInterceptor implements ExecutionInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(DynamoDbMetricsInterceptor.class);
+
+    public static final String LATENCY_METRIC = "dynamodb.request";
+    public static final String CAPACITY_METRIC = "dynamodb.consumed.capacity";
+
+    static final String NO_ENDPOINT = "none";
+    static final String UNKNOWN_TABLE = "unknown";
+
+    private static final ExecutionAttribute<Long> START_NANOS = new ExecutionAttribute<>("CpscDynamoDbStartNanos");
+
+    private static final Set<String> READ_OPERATIONS = Set.of(
+        "GetItem", "Query", "Scan", "BatchGetItem", "TransactGetItems");
+
+    private final MeterRegistry meterRegistry;
+
+    public DynamoDbMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public SdkRequest modifyRequest(Context.ModifyRequest context, ExecutionAttributes executionAttributes) {
+        SdkRequest request = context.request();
+        ReturnConsumedCapacity total = ReturnConsumedCapacity.TOTAL;
+
+        if (request instanceof GetItemRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(total).build();
+        } else if (request instanceof PutItemRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(total).build();
+        } else if (request instanceof DeleteItemRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(total).build();
+        } else if (request instanceof UpdateItemRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(total).build();
+        } else if (request instanceof QueryRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(total).build();
+        } else if (request instanceof ScanRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(total).build();
+        } else if (request instanceof BatchGetItemRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(total).build();
+        } else if (request instanceof BatchWriteItemRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(total).build();
+        } else if (request instanceof TransactWriteItemsRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(total).build();
+        } else if (request instanceof TransactGetItemsRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(total).build();
+        }
+
+        return request;
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        String operation = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+        List<ConsumedCapacity> capacities = consumedCapacity(context.response());
+        String table = capacities.isEmpty() || capacities.get(0).tableName() == null
+            ? tableName(context.request())
+            : capacities.get(0).tableName();
+
+        record(operation, table, "success", capacities, executionAttributes);
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        String operation = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+        String outcome = context.exception().getClass().getSimpleName();
+
+        record(operation, tableName(context.request()), outcome, Collections.emptyList(), executionAttributes);
+    }
+
+    private void record(String operation, String table, String outcome,
+                        List<ConsumedCapacity> capacities, ExecutionAttributes executionAttributes) {
+        try {
+            Long start = executionAttributes.getAttribute(START_NANOS);
+            long durationNanos = start != null ? System.nanoTime() - start : 0L;
+            String op = operation != null ? operation : "unknown";
+            String endpoint = currentEndpoint();
+
+            Timer.builder(LATENCY_METRIC)
+                .description("Latency of DynamoDB calls made by the repositories")
+                .tag("table", table)
+                .tag("operation", op)
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+
+            double readUnits = 0.0;
+            double writeUnits = 0.0;
+            boolean readOperation = READ_OPERATIONS.contains(op);
+            for (ConsumedCapacity capacity : capacities) {
+                String capacityTable = capacity.tableName() != null ? capacity.tableName() : table;
+                double read = readUnits(capacity, readOperation);
+                double write = writeUnits(capacity, readOperation);
+                recordCapacity(capacityTable, op, endpoint, "read", read);
+                recordCapacity(capacityTable, op, endpoint, "write", write);
+                readUnits += read;
+                writeUnits += write;
+            }
+
+            ConsumedCapacitySummary summary = currentSummary();
+            if (summary != null) {
+                summary.record(readUnits, writeUnits, durationNanos);
+            }
+        } catch (Exception e) {
+            // Metrics must never break a database call
+            logger.debug("Failed to record DynamoDB metrics: {}", e.getMessage());
+        }
+    }
+
+    private void recordCapacity(String table, String operation, String endpoint, String type, double units) {
+        if (units <= 0.0) {
+            return;
+        }
+        DistributionSummary.builder(CAPACITY_METRIC)
+            .description("DynamoDB capacity units consumed by repository calls")
+            .baseUnit("capacity_units")
+            .tag("table", table)
+            .tag("operation", operation)
+            .tag("endpoint", endpoint)
+            .tag("type", type)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(units);
+    }
+
+    /**
+     * TOTAL mode reports a single CapacityUnits figure for most operations,
+     * so fall back to it using the operation kind when the split is absent.
+     */
+    private double readUnits(ConsumedCapacity capacity, boolean readOperation) {
+        if (capacity.readCapacityUnits() != null) {
+            return capacity.readCapacityUnits();
+        }
+        if (readOperation && capacity.capacityUnits() != null && capacity.writeCapacityUnits() == null) {
+            return capacity.capacityUnits();
+        }
+        return 0.0;
+    }
+
+    private double writeUnits(ConsumedCapacity capacity, boolean readOperation) {
+        if (capacity.writeCapacityUnits() != null) {
+            return capacity.writeCapacityUnits();
+        }
+        if (!readOperation && capacity.capacityUnits() != null && capacity.readCapacityUnits() == null) {
+            return capacity.capacityUnits();
+        }
+        return 0.0;
+    }
+
+    private List<ConsumedCapacity> consumedCapacity(SdkResponse response) {
+        ConsumedCapacity single = null;
+        if (response instanceof GetItemResponse r) {
+            single = r.consumedCapacity();
+        } else if (response instanceof PutItemResponse r) {
+            single = r.consumedCapacity();
+        } else if (response instanceof DeleteItemResponse r) {
+            single = r.consumedCapacity();
+        } else if (response instanceof UpdateItemResponse r) {
+            single = r.consumedCapacity();
+        } else if (response instanceof QueryResponse r) {
+            single = r.consumedCapacity();
+        } else if (response instanceof ScanResponse r) {
+            single = r.consumedCapacity();
+        } else if (response instanceof BatchGetItemResponse r && r.hasConsumedCapacity()) {
+            return r.consumedCapacity();
+        } else if (response instanceof BatchWriteItemResponse r && r.hasConsumedCapacity()) {
+            return r.consumedCapacity();
+        } else if (response instanceof TransactWriteItemsResponse r && r.hasConsumedCapacity()) {
+            return r.consumedCapacity();
+        } else if (response instanceof TransactGetItemsResponse r && r.hasConsumedCapacity()) {
+            return r.consumedCapacity();
+        }
+        return single != null ? List.of(single) : Collections.emptyList();
+    }
+
+    private String tableName(SdkRequest request) {
+        if (request instanceof GetItemRequest r) {
+            return r.tableName();
+        } else if (request instanceof PutItemRequest r) {
+            return r.tableName();
+        } else if (request instanceof DeleteItemRequest r) {
+            return r.tableName();
+        } else if (request instanceof UpdateItemRequest r) {
+            return r.tableName();
+        } else if (request instanceof QueryRequest r) {
+            return r.tableName();
+        } else if (request instanceof ScanRequest r) {
+            return r.tableName();
+        } else if (request instanceof BatchWriteItemRequest r && r.hasRequestItems() && r.requestItems().size() == 1) {
+            return r.requestItems().keySet().iterator().next();
+        } else if (request instanceof BatchGetItemRequest r && r.hasRequestItems() && r.requestItems().size() == 1) {
+            return r.requestItems().keySet().iterator().next();
+        }
+        return UNKNOWN_TABLE;
+    }
+
+    /**
+     * Resolve the API route that triggered the call, e.g. {@code POST /api/goals/{goalId}}.
+     * Uses the route pattern rather than the raw URI to keep tag cardinality bounded.
+     */
+    static String currentEndpoint() {
+        HttpServletRequest request = currentRequest();
+        if (request == null) {
+            return NO_ENDPOINT;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return NO_ENDPOINT;
+        }
+        return request.getMethod() + " " + pattern;
+    }
+
+    private static ConsumedCapacitySummary currentSummary() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        return (ConsumedCapacitySummary) attributes.getAttribute(
+            ConsumedCapacitySummary.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return servletAttributes.getRequest();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,206 @@
+package com.cpsc.backend.repository;
+
+import com.cpsc.backend.entity.ChangeRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.TransactWriteItemsEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user change log: entries keyed by userId and sequence, plus the head row at
+ * {@link ChangeRecord#HEAD_SEQUENCE} that hands out sequence numbers. Entries are only written
+ * by {@link EntityWriteRepository}, in the transaction of the change they record.
+ */
+@Repository
+public class ChangeLogRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeLogRepository.class);
+
+    private static final int BATCH_SIZE = 25;
+    private static final int MAX_BATCH_ATTEMPTS = 5;
+    private static final long BATCH_RETRY_BASE_DELAY_MS = 50;
+
+    private final DynamoDbEnhancedClient enhancedClient;
+    private final DynamoDbTable<ChangeRecord> changeTable;
+
+    public ChangeLogRepository(DynamoDbEnhancedClient enhancedClient,
+                               @Value("${dynamodb.changes.table.name}") String tableName) {
+        if (enhancedClient == null) {
+            throw new IllegalArgumentException("DynamoDbEnhancedClient cannot be null");
+        }
+        if (tableName == null || tableName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Table name cannot be null or empty");
+        }
+
+        this.enhancedClient = enhancedClient;
+        this.changeTable = enhancedClient.table(tableName, EntityTableSchemas.of(ChangeRecord.class));
+        logger.info("ChangeLogRepository initialized with table: {}", tableName);
+    }
+
+    /**
+     * Highest sequence handed out for the user, 0 if nothing was ever logged. Read strongly
+     * consistent: callers compare it against a value a client saw earlier.
+     */
+    public long findLastSequence(String userId) {
+        ChangeRecord head = findHead(userId);
+        return head != null && head.getLastSequence() != null ? head.getLastSequence() : 0L;
+    }
+
+    /**
+     * Number the entries with the next free sequences and add them, together with the advanced
+     * head row, to a transaction that also carries the writes they describe. The head put is
+     * conditional on the version that was read, so two concurrent writes cannot both claim the
+     * same range, and the log is ordered the way the writes were committed: the loser's whole
+     * transaction is cancelled and nothing of it is written. Sequences are assigned again on
+     * every call, so a retry can hand the same entries back in.
+     */
+    void appendTo(TransactWriteItemsEnhancedRequest.Builder request, String userId, List<ChangeRecord> entries) {
+        if (entries == null || entries.isEmpty()) {
+            throw new IllegalArgumentException("Entries cannot be null or empty");
+        }
+
+        ChangeRecord head = findHead(userId);
+        if (head == null) {
+            head = new ChangeRecord();
+            head.setUserId(userId);
+            head.setSequence(ChangeRecord.HEAD_SEQUENCE);
+            head.setLastSequence(0L);
+        }
+
+        long next = head.getLastSequence() != null ? head.getLastSequence() : 0L;
+        for (ChangeRecord entry : entries) {
+            entry.setUserId(userId);
+            entry.setSequence(++next);
+            entry.setVersion(null); // entries are never overwritten
+            request.addPutItem(changeTable, entry);
+        }
+        head.setLastSequence(next);
+        request.addPutItem(changeTable, head);
+
+        logger.debug("Appending {} changes for userId={} up to sequence {}", entries.size(), userId, next);
+    }
+
+    /**
+     * Read one page of entries, oldest first
+     * @param afterSequence only return entries with a sequence strictly greater than this
+     * @param limit Maximum number of items to read
+     */
+    public InstitutionRepository.PaginatedResult<ChangeRecord> findPageAfter(String userId, long afterSequence,
+                                                                              int limit) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+
+        logger.debug("Finding {} changes for userId={} after sequence {}", limit, userId, afterSequence);
+
+        QueryEnhancedRequest queryRequest = QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.sortGreaterThan(sequenceKey(userId,
+                        Math.max(afterSequence, ChangeRecord.HEAD_SEQUENCE))))
+                .scanIndexForward(true)
+                .limit(limit)
+                .build();
+
+        Page<ChangeRecord> page = changeTable.query(queryRequest)
+                .stream()
+                .findFirst()
+                .orElse(Page.builder(ChangeRecord.class).items(List.of()).build());
+
+        return new InstitutionRepository.PaginatedResult<>(page.items(), page.lastEvaluatedKey());
+    }
+
+    /**
+     * Delete the user's whole log, head row included (account deletion)
+     */
+    public void deleteAllByUserId(String userId) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+
+        QueryEnhancedRequest queryRequest = QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.keyEqualTo(Key.builder().partitionValue(userId).build()))
+                .attributesToProject("userId", "sequence")
+                .build();
+        List<Key> keys = changeTable.query(queryRequest)
+                .items()
+                .stream()
+                .map(entry -> sequenceKey(userId, entry.getSequence()))
+                .collect(Collectors.toList());
+
+        if (keys.isEmpty()) {
+            logger.debug("No changes to delete for userId={}", userId);
+            return;
+        }
+
+        logger.info("Bulk deleting {} change log items for userId={}", keys.size(), userId);
+
+        for (int i = 0; i < keys.size(); i += BATCH_SIZE) {
+            deleteBatch(keys.subList(i, Math.min(i + BATCH_SIZE, keys.size())));
+        }
+    }
+
+    private ChangeRecord findHead(String userId) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+        return changeTable.getItem(GetItemEnhancedRequest.builder()
+                .key(sequenceKey(userId, ChangeRecord.HEAD_SEQUENCE))
+                .consistentRead(true)
+                .build());
+    }
+
+    private static Key sequenceKey(String userId, long sequence) {
+        return Key.builder()
+                .partitionValue(userId)
+                .sortValue(AttributeValue.builder().n(Long.toString(sequence)).build())
+                .build();
+    }
+
+    /**
+     * Writes one batch, resubmitting any items DynamoDB returns as unprocessed (throttled)
+     * with exponential backoff.
+     */
+    private void deleteBatch(List<Key> keys) {
+        List<Key> pending = keys;
+        for (int attempt = 1; ; attempt++) {
+            WriteBatch.Builder<ChangeRecord> batchBuilder = WriteBatch.builder(ChangeRecord.class)
+                    .mappedTableResource(changeTable);
+            pending.forEach(batchBuilder::addDeleteItem);
+
+            BatchWriteResult result = enhancedClient.batchWriteItem(r -> r.addWriteBatch(batchBuilder.build()));
+            pending = new ArrayList<>(result.unprocessedDeleteItemsForTable(changeTable));
+            if (pending.isEmpty()) {
+                return;
+            }
+            if (attempt >= MAX_BATCH_ATTEMPTS) {
+                throw new IllegalStateException(
+                    "Failed to delete " + pending.size() + " change log items after " + attempt + " attempts");
+            }
+
+            logger.debug("Retrying {} unprocessed change log deletes (attempt {})", pending.size(), attempt + 1);
+            try {
+                Thread.sleep(BATCH_RETRY_BASE_DELAY_MS << (attempt - 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while retrying change log deletes", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.cpsc.backend.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read-through cache of single items for a unit of work that runs several service calls on one
+ * thread (a batch request), so the institution and goal items each call looks up are read from
+ * DynamoDB once rather than once per call.
+ *
+ * <pre>
+ * try (EntityCache cache = EntityCache.open()) {
+ *     ...service calls...
+ * }
+ * </pre>
+ *
+ * While a cache is open on the current thread, the repositories answer key lookups from it and
+ * record every item they write. Items are stored as attribute maps and every lookup gets a fresh
+ * object, so a caller that modifies an item and then fails validation does not leave the change
+ * behind for the next call. A failed write evicts the item: on a version conflict the retry
+ * must read what is actually stored. With no cache open the repositories behave as before.
+ */
+public final class EntityCache implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityCache.class);
+
+    private static final ThreadLocal<EntityCache> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Map<String, AttributeValue>> items = new HashMap<>();
+    private int lookups;
+    private int hits;
+
+    private EntityCache() {
+    }
+
+    /**
+     * Open a cache on the current thread
+     * @throws IllegalStateException if one is already open
+     */
+    public static EntityCache open() {
+        if (CURRENT.get() != null) {
+            throw new IllegalStateException("An entity cache is already open on this thread");
+        }
+        EntityCache cache = new EntityCache();
+        CURRENT.set(cache);
+        return cache;
+    }
+
+    /** Lookups answered from the cache so far */
+    public int getHits() {
+        return hits;
+    }
+
+    /** Lookups made while the cache was open */
+    public int getLookups() {
+        return lookups;
+    }
+
+    @Override
+    public void close() {
+        CURRENT.remove();
+        logger.debug("Entity cache answered {} of {} lookups", hits, lookups);
+        items.clear();
+    }
+
+    /** A copy of the cached item, or null if no cache is open or the item is not cached */
+    static <T> T lookup(DynamoDbTable<T> table, Key key) {
+        EntityCache cache = CURRENT.get();
+        if (cache == null) {
+            return null;
+        }
+        cache.lookups++;
+        Map<String, AttributeValue> item = cache.items.get(cacheKey(table, key));
+        if (item == null) {
+            return null;
+        }
+        cache.hits++;
+        return table.tableSchema().mapToItem(item);
+    }
+
+    /** Record the item as currently stored, if a cache is open */
+    static <T> void remember(DynamoDbTable<T> table, T item) {
+        EntityCache cache = CURRENT.get();
+        if (cache != null && item != null) {
+            cache.items.put(cacheKey(table, table.keyFrom(item)), table.tableSchema().itemToMap(item, true));
+        }
+    }
+
+    /** Drop the item, if a cache is open */
+    static void forget(DynamoDbTable<?> table, Key key) {
+        EntityCache cache = CURRENT.get();
+        if (cache != null) {
+            cache.items.remove(cacheKey(table, key));
+        }
+    }
+
+    /** Drop the item stored under the given item's key, if a cache is open */
+    static <T> void forgetItem(DynamoDbTable<T> table, T item) {
+        if (CURRENT.get() != null && item != null) {
+            forget(table, table.keyFrom(item));
+        }
+    }
+
+    private static String cacheKey(DynamoDbTable<?> table, Key key) {
+        return table.tableName() + "|" + key.partitionKeyValue() + "|"
+            + key.sortKeyValue().map(AttributeValue::toString).orElse("");
+    }
+}
@@ -0,0 +1,175 @@
+package com.cpsc.backend.repository;
+
+import org.springframework.core.NativeDetector;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.extensions.VersionedRecordExtension;
+import software.amazon.awssdk.enhanced.dynamodb.extensions.annotations.DynamoDbVersionAttribute;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTag;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbIgnore;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
+
+import java.beans.Introspector;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Table schemas for the {@code @DynamoDbBean} entities.
+ *
+ * On the JVM this is {@link TableSchema#fromBean}. That schema reaches the getters and setters
+ * through lambdas it generates at runtime, which a GraalVM native image cannot do, so in a native
+ * image the same mapping is built as a {@link StaticTableSchema} that calls them reflectively
+ * (the reflection is registered in {@code NativeRuntimeHints}). Only the mapping annotations the
+ * entities use are supported there; any other fails when the schema is built.
+ */
+public final class EntityTableSchemas {
+
+    private static final String MAPPER_ANNOTATIONS = DynamoDbBean.class.getPackageName();
+
+    private EntityTableSchemas() {
+    }
+
+    public static <T> TableSchema<T> of(Class<T> beanClass) {
+        return NativeDetector.inNativeImage() ? reflective(beanClass) : TableSchema.fromBean(beanClass);
+    }
+
+    /**
+     * The {@code @DynamoDbBean} mapping of a class without generated lambdas
+     */
+    static <T> StaticTableSchema<T> reflective(Class<T> beanClass) {
+        if (!beanClass.isAnnotationPresent(DynamoDbBean.class)) {
+            throw new IllegalArgumentException(beanClass.getName() + " is not annotated with @DynamoDbBean");
+        }
+        Constructor<T> constructor;
+        try {
+            constructor = beanClass.getConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(beanClass.getName() + " has no public no-argument constructor", e);
+        }
+
+        StaticTableSchema.Builder<T> schema = StaticTableSchema.builder(beanClass)
+            .newItemSupplier(() -> invoke(constructor));
+        for (Method getter : beanClass.getMethods()) {
+            Method setter = setterFor(beanClass, getter);
+            if (setter != null && !getter.isAnnotationPresent(DynamoDbIgnore.class)) {
+                addAttribute(schema, getter, setter, enhancedType(getter.getGenericReturnType()));
+            }
+        }
+        return schema.build();
+    }
+
+    private static <T, R> void addAttribute(StaticTableSchema.Builder<T> schema, Method getter, Method setter,
+                                            EnhancedType<R> type) {
+        DynamoDbAttribute rename = getter.getAnnotation(DynamoDbAttribute.class);
+        String name = rename != null ? rename.value() : Introspector.decapitalize(propertyName(getter));
+        schema.addAttribute(type, attribute -> attribute
+            .name(name)
+            .getter(item -> type.rawClass().cast(invoke(getter, item)))
+            .setter((item, value) -> invoke(setter, item, value))
+            .tags(tags(getter)));
+    }
+
+    private static StaticAttributeTag[] tags(Method getter) {
+        List<StaticAttributeTag> tags = new ArrayList<>();
+        for (Annotation annotation : getter.getAnnotations()) {
+            Class<? extends Annotation> type = annotation.annotationType();
+            if (type == DynamoDbPartitionKey.class) {
+                tags.add(StaticAttributeTags.primaryPartitionKey());
+            } else if (type == DynamoDbSortKey.class) {
+                tags.add(StaticAttributeTags.primarySortKey());
+            } else if (type == DynamoDbVersionAttribute.class) {
+                tags.add(VersionedRecordExtension.AttributeTags.versionAttribute());
+            } else if (type != DynamoDbAttribute.class && type.getPackageName().equals(MAPPER_ANNOTATIONS)) {
+                throw new IllegalArgumentException("@" + type.getSimpleName() + " on " + getter
+                    + " is not supported in a native image");
+            }
+        }
+        return tags.toArray(StaticAttributeTag[]::new);
+    }
+
+    /** Nested beans are mapped as documents with their own schema, like the bean schema does */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static EnhancedType<?> enhancedType(Type type) {
+        if (type instanceof ParameterizedType parameterized && parameterized.getRawType() instanceof Class<?> raw) {
+            Type[] arguments = parameterized.getActualTypeArguments();
+            if (raw == List.class) {
+                return EnhancedType.listOf(enhancedType(arguments[0]));
+            }
+            if (raw == Set.class) {
+                return EnhancedType.setOf(enhancedType(arguments[0]));
+            }
+            if (raw == Map.class) {
+                return EnhancedType.mapOf(enhancedType(arguments[0]), enhancedType(arguments[1]));
+            }
+        }
+        if (type instanceof Class<?> raw) {
+            if (raw.isAnnotationPresent(DynamoDbBean.class)) {
+                return EnhancedType.documentOf((Class) raw, reflective(raw));
+            }
+            return EnhancedType.of(raw);
+        }
+        throw new IllegalArgumentException("Unsupported attribute type " + type);
+    }
+
+    /** The setter for a bean getter, or null if the method is not a property getter or has none */
+    private static Method setterFor(Class<?> beanClass, Method getter) {
+        if (getter.getParameterCount() != 0 || Modifier.isStatic(getter.getModifiers())
+                || getter.getDeclaringClass() == Object.class || propertyName(getter) == null) {
+            return null;
+        }
+        try {
+            Method setter = beanClass.getMethod("set" + propertyName(getter), getter.getReturnType());
+            return setter.getReturnType() == void.class ? setter : null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /** {@code UserId} for {@code getUserId}, {@code Active} for a primitive {@code isActive} */
+    private static String propertyName(Method getter) {
+        String name = getter.getName();
+        if (name.startsWith("get") && name.length() > 3) {
+            return name.substring(3);
+        }
+        if (name.startsWith("is") && name.length() > 2 && getter.getReturnType() == boolean.class) {
+            return name.substring(2);
+        }
+        return null;
+    }
+
+    private static Object invoke(Method method, Object target, Object... arguments) {
+        try {
+            return method.invoke(target, arguments);
+        } catch (InvocationTargetException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause
+                : new IllegalStateException("Error calling " + method, e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot call " + method, e);
+        }
+    }
+
+    private static <T> T invoke(Constructor<T> constructor) {
+        try {
+            return constructor.newInstance();
+        } catch (InvocationTargetException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause
+                : new IllegalStateException("Error creating " + constructor.getDeclaringClass().getName(), e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create " + constructor.getDeclaringClass().getName(), e);
+        }
+    }
+}
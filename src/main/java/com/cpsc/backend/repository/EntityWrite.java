@@ -0,0 +1,99 @@
+package com.cpsc.backend.repository;
+
+import com.cpsc.backend.entity.ChangeRecord;
+import com.cpsc.backend.entity.Goal;
+import com.cpsc.backend.entity.Institution;
+import com.cpsc.backend.entity.Transaction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Puts and deletes that {@link EntityWriteRepository} commits together, so either all of them
+ * are written or none is. Change log entries added with {@link #logChange} are numbered and
+ * written in the same transaction, so a write is never stored without its entries.
+ */
+public class EntityWrite {
+
+    private final List<Institution> institutions = new ArrayList<>();
+    private final List<Institution> deletedInstitutions = new ArrayList<>();
+    private final List<Goal> goals = new ArrayList<>();
+    private final List<Goal> deletedGoals = new ArrayList<>();
+    private final List<Transaction> transactions = new ArrayList<>();
+    private final List<Transaction> deletedTransactions = new ArrayList<>();
+    private final List<ChangeRecord> changes = new ArrayList<>();
+
+    /** Put the institution, conditional on the version it was read at */
+    public EntityWrite putInstitution(Institution institution) {
+        institutions.add(institution);
+        return this;
+    }
+
+    public EntityWrite deleteInstitution(Institution institution) {
+        deletedInstitutions.add(institution);
+        return this;
+    }
+
+    /** Put the goal, conditional on the version it was read at */
+    public EntityWrite putGoal(Goal goal) {
+        goals.add(goal);
+        return this;
+    }
+
+    /** Delete the goal, conditional on the version it was read at */
+    public EntityWrite deleteGoal(Goal goal) {
+        deletedGoals.add(goal);
+        return this;
+    }
+
+    public EntityWrite putTransaction(Transaction transaction) {
+        transactions.add(transaction);
+        return this;
+    }
+
+    public EntityWrite deleteTransaction(Transaction transaction) {
+        deletedTransactions.add(transaction);
+        return this;
+    }
+
+    /** Append an entry to its user's change log; the sequence is assigned when the write is committed */
+    public EntityWrite logChange(ChangeRecord change) {
+        changes.add(change);
+        return this;
+    }
+
+    public List<Institution> getInstitutions() {
+        return Collections.unmodifiableList(institutions);
+    }
+
+    public List<Institution> getDeletedInstitutions() {
+        return Collections.unmodifiableList(deletedInstitutions);
+    }
+
+    public List<Goal> getGoals() {
+        return Collections.unmodifiableList(goals);
+    }
+
+    public List<Goal> getDeletedGoals() {
+        return Collections.unmodifiableList(deletedGoals);
+    }
+
+    public List<Transaction> getTransactions() {
+        return Collections.unmodifiableList(transactions);
+    }
+
+    public List<Transaction> getDeletedTransactions() {
+        return Collections.unmodifiableList(deletedTransactions);
+    }
+
+    public List<ChangeRecord> getChanges() {
+        return Collections.unmodifiableList(changes);
+    }
+
+    /** Number of items the write touches, counting the change log head row if entries are logged */
+    public int size() {
+        return institutions.size() + deletedInstitutions.size() + goals.size() + deletedGoals.size()
+            + transactions.size() + deletedTransactions.size() + changes.size() + (changes.isEmpty() ? 0 : 1);
+    }
+}
@@ -0,0 +1,149 @@
+package com.cpsc.backend.repository;
+
+import com.cpsc.backend.entity.ChangeRecord;
+import com.cpsc.backend.entity.Goal;
+import com.cpsc.backend.entity.Institution;
+import com.cpsc.backend.entity.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.model.TransactDeleteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.TransactWriteItemsEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+
+/**
+ * Commits an {@link EntityWrite} in a single TransactWriteItems call, e.g. a transaction row
+ * together with the institution balance it moves and the change log entries recording both, so
+ * a failed or conflicting write leaves no part of it behind.
+ */
+@Repository
+public class EntityWriteRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityWriteRepository.class);
+
+    /** TransactWriteItems accepts at most 100 items */
+    public static final int MAX_ITEMS_PER_WRITE = 100;
+
+    private final DynamoDbEnhancedClient enhancedClient;
+    private final InstitutionRepository institutionRepository;
+    private final GoalRepository goalRepository;
+    private final TransactionRepository transactionRepository;
+    private final ChangeLogRepository changeLogRepository;
+
+    public EntityWriteRepository(DynamoDbEnhancedClient enhancedClient,
+                                 InstitutionRepository institutionRepository,
+                                 GoalRepository goalRepository,
+                                 TransactionRepository transactionRepository,
+                                 ChangeLogRepository changeLogRepository) {
+        if (enhancedClient == null) {
+            throw new IllegalArgumentException("DynamoDbEnhancedClient cannot be null");
+        }
+        this.enhancedClient = enhancedClient;
+        this.institutionRepository = institutionRepository;
+        this.goalRepository = goalRepository;
+        this.transactionRepository = transactionRepository;
+        this.changeLogRepository = changeLogRepository;
+    }
+
+    /**
+     * Write every item of the write atomically. Institution and goal puts and goal deletes are
+     * conditional on the version that was read, and so is the change log head row, so the whole transaction is
+     * cancelled if any of them changed since. Every write that logs changes for a user therefore
+     * conflicts with any other one committed for that user in between, and is retried by the
+     * caller against fresh state.
+     * @throws software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException if the transaction is rejected
+     */
+    public void write(EntityWrite write) {
+        if (write == null || write.size() == 0) {
+            throw new IllegalArgumentException("Write cannot be null or empty");
+        }
+        if (write.size() > MAX_ITEMS_PER_WRITE) {
+            throw new IllegalArgumentException("Cannot write more than " + MAX_ITEMS_PER_WRITE + " items at once");
+        }
+
+        write.getInstitutions().forEach(institutionRepository::validateForWrite);
+        write.getDeletedInstitutions().forEach(institutionRepository::validateForWrite);
+        write.getGoals().forEach(goalRepository::validateForWrite);
+        write.getDeletedGoals().forEach(goalRepository::validateForWrite);
+        write.getTransactions().forEach(transactionRepository::validateForWrite);
+        write.getDeletedTransactions().forEach(transactionRepository::validateForWrite);
+        String changeUserId = changeUserId(write);
+
+        TransactWriteItemsEnhancedRequest.Builder request = TransactWriteItemsEnhancedRequest.builder();
+        for (Institution institution : write.getInstitutions()) {
+            request.addPutItem(institutionRepository.table(), institution);
+        }
+        for (Institution institution : write.getDeletedInstitutions()) {
+            request.addDeleteItem(institutionRepository.table(), institution);
+        }
+        for (Goal goal : write.getGoals()) {
+            request.addPutItem(goalRepository.table(), goal);
+        }
+        for (Goal goal : write.getDeletedGoals()) {
+            request.addDeleteItem(goalRepository.table(), TransactDeleteItemEnhancedRequest.builder()
+                .key(goalRepository.table().keyFrom(goal))
+                .conditionExpression(versionCondition(goal.getVersion()))
+                .build());
+        }
+        for (Transaction transaction : write.getTransactions()) {
+            request.addPutItem(transactionRepository.table(), transaction);
+        }
+        for (Transaction transaction : write.getDeletedTransactions()) {
+            request.addDeleteItem(transactionRepository.table(), transaction);
+        }
+        if (changeUserId != null) {
+            changeLogRepository.appendTo(request, changeUserId, write.getChanges());
+        }
+
+        logger.debug("Transactionally writing {} items ({} change log entries)", write.size(),
+            write.getChanges().size());
+
+        try {
+            enhancedClient.transactWriteItems(request.build());
+        } catch (RuntimeException e) {
+            write.getInstitutions().forEach(institutionRepository::forget);
+            write.getGoals().forEach(goalRepository::forget);
+            write.getDeletedGoals().forEach(goalRepository::forget);
+            throw e;
+        }
+
+        write.getInstitutions().forEach(institutionRepository::markWritten);
+        write.getGoals().forEach(goalRepository::markWritten);
+        write.getDeletedInstitutions().forEach(institutionRepository::forget);
+        write.getDeletedGoals().forEach(goalRepository::forget);
+    }
+
+    /** The stored item is still at {@code version}; an item written before versioning has none */
+    private static Expression versionCondition(Long version) {
+        if (version == null) {
+            return Expression.builder()
+                .expression("attribute_not_exists(#version)")
+                .expressionNames(Map.of("#version", "version"))
+                .build();
+        }
+        return Expression.builder()
+            .expression("#version = :version")
+            .expressionNames(Map.of("#version", "version"))
+            .expressionValues(Map.of(":version", AttributeValue.builder().n(Long.toString(version)).build()))
+            .build();
+    }
+
+    /** The one user whose log the write appends to, or null if it logs nothing */
+    private static String changeUserId(EntityWrite write) {
+        String userId = null;
+        for (ChangeRecord change : write.getChanges()) {
+            if (change == null || change.getUserId() == null || change.getUserId().trim().isEmpty()) {
+                throw new IllegalArgumentException("Change user ID cannot be null or empty");
+            }
+            if (userId != null && !userId.equals(change.getUserId())) {
+                throw new IllegalArgumentException("Cannot log changes for more than one user in a write");
+            }
+            userId = change.getUserId();
+        }
+        return userId;
+    }
+}
@@ -8,7 +8,6 @@ import org.springframework.stereotype.Repository;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
-import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 
 import java.util.List;
@@ -30,7 +29,7 @@ public class GoalRepository {
             throw new IllegalArgumentException("Table name cannot be null or empty");
         }
         
-        this.goalTable = enhancedClient.table(tableName, TableSchema.fromBean(Goal.class));
+        this.goalTable = enhancedClient.table(tableName, EntityTableSchemas.of(Goal.class));
         logger.info("GoalRepository initialized with table: {}", tableName);
     }
 
@@ -44,7 +43,13 @@ public class GoalRepository {
         logger.debug("Saving goal: userId={}, goalId={}", 
             goal.getUserId(), goal.getGoalId());
         
-        goalTable.putItem(goal);
+        try {
+            goalTable.putItem(goal);
+        } catch (RuntimeException e) {
+            forget(goal);
+            throw e;
+        }
+        markWritten(goal);
     }
 
     public Goal findByUserIdAndGoalId(String userId, String goalId) {
@@ -61,7 +66,13 @@ public class GoalRepository {
                 .partitionValue(userId)
                 .sortValue(goalId)
                 .build();
-        return goalTable.getItem(key);
+        Goal cached = EntityCache.lookup(goalTable, key);
+        if (cached != null) {
+            return cached;
+        }
+        Goal goal = goalTable.getItem(key);
+        EntityCache.remember(goalTable, goal);
+        return goal;
     }
 
     public List<Goal> findAllByUserId(String userId) {
@@ -93,6 +104,7 @@ public class GoalRepository {
             goal.getUserId(), goal.getGoalId());
         
         goalTable.deleteItem(goal);
+        forget(goal);
     }
 
     public void delete(String userId, String goalId) {
@@ -111,6 +123,29 @@ public class GoalRepository {
             .build();
         
         goalTable.deleteItem(key);
+        EntityCache.forget(goalTable, key);
+    }
+
+    DynamoDbTable<Goal> table() {
+        return goalTable;
+    }
+    
+    /** Advance the in-memory version to match the stored item after a successful put */
+    void markWritten(Goal goal) {
+        goal.setVersion(goal.getVersion() == null ? 1L : goal.getVersion() + 1);
+        EntityCache.remember(goalTable, goal);
+    }
+    
+    /** Drop a copy that may no longer match the stored item after a failed write */
+    void forget(Goal goal) {
+        EntityCache.forgetItem(goalTable, goal);
+    }
+    
+    void validateForWrite(Goal goal) {
+        if (goal == null) {
+            throw new IllegalArgumentException("Goal cannot be null");
+        }
+        validateGoal(goal);
     }
 
     private void validateGoal(Goal goal) {
@@ -0,0 +1,103 @@
+package com.cpsc.backend.repository;
+
+import com.cpsc.backend.entity.IdempotencyRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.DeleteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+
+/**
+ * Idempotency keys, keyed by userId and the client's key. Records expire through DynamoDB TTL on
+ * {@code expiresAt}.
+ */
+@Repository
+public class IdempotencyRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyRepository.class);
+
+    private final DynamoDbTable<IdempotencyRecord> idempotencyTable;
+
+    public IdempotencyRepository(DynamoDbEnhancedClient enhancedClient,
+                                 @Value("${dynamodb.idempotency.table.name}") String tableName) {
+        if (enhancedClient == null) {
+            throw new IllegalArgumentException("DynamoDbEnhancedClient cannot be null");
+        }
+        if (tableName == null || tableName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Table name cannot be null or empty");
+        }
+
+        this.idempotencyTable = enhancedClient.table(tableName, EntityTableSchemas.of(IdempotencyRecord.class));
+        logger.info("IdempotencyRepository initialized with table: {}", tableName);
+    }
+
+    /**
+     * Read strongly consistent: a duplicate must see a claim made a moment ago on another node.
+     * TTL removes records lazily, so the result may already be past {@code expiresAt}.
+     */
+    public IdempotencyRecord find(String userId, String idempotencyKey) {
+        logger.debug("Finding idempotency key: userId={}, key={}", userId, idempotencyKey);
+
+        return idempotencyTable.getItem(GetItemEnhancedRequest.builder()
+                .key(key(userId, idempotencyKey))
+                .consistentRead(true)
+                .build());
+    }
+
+    /**
+     * Put the record, conditional on its version: a record without one is only written if the
+     * key does not exist yet
+     * @throws software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException if someone else wrote it since it was read
+     */
+    public void save(IdempotencyRecord record) {
+        if (record == null) {
+            throw new IllegalArgumentException("Idempotency record cannot be null");
+        }
+        if (record.getUserId() == null || record.getUserId().trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+        if (record.getIdempotencyKey() == null || record.getIdempotencyKey().isEmpty()) {
+            throw new IllegalArgumentException("Idempotency key cannot be null or empty");
+        }
+
+        logger.debug("Saving idempotency key: userId={}, key={}, status={}, version={}",
+            record.getUserId(), record.getIdempotencyKey(), record.getStatus(), record.getVersion());
+
+        idempotencyTable.putItem(record);
+        record.setVersion(record.getVersion() == null ? 1L : record.getVersion() + 1);
+    }
+
+    /**
+     * Delete the record if it is still at the version the caller holds, so a claim that was
+     * taken over in the meantime is left alone
+     * @throws software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException if it changed since it was read
+     */
+    public void delete(IdempotencyRecord record) {
+        logger.debug("Deleting idempotency key: userId={}, key={}", record.getUserId(), record.getIdempotencyKey());
+
+        idempotencyTable.deleteItem(DeleteItemEnhancedRequest.builder()
+                .key(key(record.getUserId(), record.getIdempotencyKey()))
+                .conditionExpression(Expression.builder()
+                        .expression("#version = :version")
+                        .expressionNames(Map.of("#version", "version"))
+                        .expressionValues(Map.of(":version",
+                                AttributeValue.builder().n(Long.toString(record.getVersion())).build()))
+                        .build())
+                .build());
+    }
+
+    private static Key key(String userId, String idempotencyKey) {
+        return Key.builder()
+                .partitionValue(userId)
+                .sortValue(idempotencyKey)
+                .build();
+    }
+}
@@ -8,22 +8,30 @@ import org.springframework.stereotype.Repository;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
-import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetItemEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.Page;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ReadBatch;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Repository
 public class InstitutionRepository {
 
     private static final Logger logger = LoggerFactory.getLogger(InstitutionRepository.class);
+    // BatchGetItem accepts at most 100 keys per request
+    private static final int BATCH_GET_SIZE = 100;
     
+    private final DynamoDbEnhancedClient enhancedClient;
     private final DynamoDbTable<Institution> institutionTable;
 
     public InstitutionRepository(DynamoDbEnhancedClient enhancedClient,
@@ -35,7 +43,8 @@ public class InstitutionRepository {
             throw new IllegalArgumentException("Table name cannot be null or empty");
         }
         
-        this.institutionTable = enhancedClient.table(tableName, TableSchema.fromBean(Institution.class));
+        this.enhancedClient = enhancedClient;
+        this.institutionTable = enhancedClient.table(tableName, EntityTableSchemas.of(Institution.class));
         logger.info("InstitutionRepository initialized with table: {}", tableName);
     }
 
@@ -49,7 +58,13 @@ public class InstitutionRepository {
         logger.debug("Saving institution: userId={}, institutionId={}", 
             institution.getUserId(), institution.getInstitutionId());
         
-        institutionTable.putItem(institution);
+        try {
+            institutionTable.putItem(institution);
+        } catch (RuntimeException e) {
+            forget(institution);
+            throw e;
+        }
+        markWritten(institution);
     }
 
     public Institution findByUserIdAndInstitutionId(String userId, String institutionId) {
@@ -66,7 +81,72 @@ public class InstitutionRepository {
                 .partitionValue(userId)
                 .sortValue(institutionId)
                 .build();
-        return institutionTable.getItem(key);
+        Institution cached = EntityCache.lookup(institutionTable, key);
+        if (cached != null) {
+            return cached;
+        }
+        Institution institution = institutionTable.getItem(key);
+        EntityCache.remember(institutionTable, institution);
+        return institution;
+    }
+
+    /**
+     * Fetch several of a user's institutions with BatchGetItem (one round-trip per 100 IDs).
+     * Unprocessed keys are re-requested by the SDK paginator. IDs that don't exist are simply
+     * absent from the returned map.
+     * @return institutions keyed by institutionId
+     */
+    public Map<String, Institution> findAllByUserIdAndInstitutionIds(String userId, Collection<String> institutionIds) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+        if (institutionIds == null) {
+            throw new IllegalArgumentException("Institution IDs cannot be null");
+        }
+        
+        Set<String> requestedIds = new LinkedHashSet<>(institutionIds);
+        List<String> distinctIds = new ArrayList<>(); // not already in the entity cache
+        Map<String, Institution> institutions = new HashMap<>();
+        for (String institutionId : requestedIds) {
+            if (institutionId == null || institutionId.trim().isEmpty()) {
+                throw new IllegalArgumentException("Institution ID cannot be null or empty");
+            }
+            Institution cached = EntityCache.lookup(institutionTable, Key.builder()
+                    .partitionValue(userId)
+                    .sortValue(institutionId)
+                    .build());
+            if (cached != null) {
+                institutions.put(institutionId, cached);
+            } else {
+                distinctIds.add(institutionId);
+            }
+        }
+        
+        logger.debug("Batch fetching {} institutions for userId={}", distinctIds.size(), userId);
+        
+        for (int start = 0; start < distinctIds.size(); start += BATCH_GET_SIZE) {
+            ReadBatch.Builder<Institution> readBatch = ReadBatch.builder(Institution.class)
+                    .mappedTableResource(institutionTable);
+            for (String institutionId : distinctIds.subList(start, Math.min(start + BATCH_GET_SIZE, distinctIds.size()))) {
+                readBatch.addGetItem(Key.builder()
+                        .partitionValue(userId)
+                        .sortValue(institutionId)
+                        .build());
+            }
+            
+            enhancedClient.batchGetItem(BatchGetItemEnhancedRequest.builder()
+                            .readBatches(readBatch.build())
+                            .build())
+                    .resultsForTable(institutionTable)
+                    .forEach(institution -> {
+                        institutions.put(institution.getInstitutionId(), institution);
+                        EntityCache.remember(institutionTable, institution);
+                    });
+        }
+        
+        logger.debug("Found {} of {} institutions for userId={}", institutions.size(), requestedIds.size(), userId);
+        
+        return institutions;
     }
 
     public List<Institution> findAllByUserId(String userId) {
@@ -171,6 +251,32 @@ public class InstitutionRepository {
                 .sortValue(institutionId)
                 .build();
         institutionTable.deleteItem(key);
+        EntityCache.forget(institutionTable, key);
+    }
+    
+    DynamoDbTable<Institution> table() {
+        return institutionTable;
+    }
+    
+    /**
+     * Advance the in-memory version to the value the VersionedRecordExtension just stored,
+     * so the same object can be written again without tripping its own condition
+     */
+    void markWritten(Institution institution) {
+        institution.setVersion(institution.getVersion() == null ? 1L : institution.getVersion() + 1);
+        EntityCache.remember(institutionTable, institution);
+    }
+    
+    /** Drop a copy that may no longer match the stored item after a failed write */
+    void forget(Institution institution) {
+        EntityCache.forgetItem(institutionTable, institution);
+    }
+    
+    void validateForWrite(Institution institution) {
+        if (institution == null) {
+            throw new IllegalArgumentException("Institution cannot be null");
+        }
+        validateInstitution(institution);
     }
     
     private void validateInstitution(Institution institution) {
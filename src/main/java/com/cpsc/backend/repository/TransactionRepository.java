@@ -9,12 +9,14 @@ import org.springframework.stereotype.Repository;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
-import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,6 +24,8 @@ import java.util.stream.Collectors;
 public class TransactionRepository {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionRepository.class);
+    private static final int MAX_BATCH_ATTEMPTS = 5;
+    private static final long BATCH_RETRY_BASE_DELAY_MS = 50;
     
     private final DynamoDbTable<Transaction> transactionTable;
     private final DynamoDbEnhancedClient enhancedClient;
@@ -36,7 +40,7 @@ public class TransactionRepository {
         }
         
         this.enhancedClient = enhancedClient;
-        this.transactionTable = enhancedClient.table(tableName, TableSchema.fromBean(Transaction.class));
+        this.transactionTable = enhancedClient.table(tableName, EntityTableSchemas.of(Transaction.class));
         logger.info("TransactionRepository initialized with table: {}", tableName);
     }
 
@@ -81,6 +85,70 @@ public class TransactionRepository {
         return transactions;
     }
 
+    /**
+     * Find the newest transactions for an institution, reading only the first page of the query
+     */
+    public List<Transaction> findRecentByInstitutionId(String institutionId, int limit) {
+        if (institutionId == null || institutionId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Institution ID cannot be null or empty");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        
+        logger.debug("Finding {} most recent transactions for institutionId={}", limit, institutionId);
+        
+        QueryEnhancedRequest queryRequest = QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.keyEqualTo(Key.builder().partitionValue(institutionId).build()))
+                .scanIndexForward(false)
+                .limit(limit)
+                .build();
+        
+        return transactionTable.query(queryRequest)
+                .stream()
+                .findFirst()
+                .map(page -> page.items())
+                .orElse(List.of());
+    }
+
+    /**
+     * Read one page of an institution's transactions, newest first
+     * @param createdBefore only return transactions created strictly before this (null for the newest)
+     * @param limit Maximum number of items to read
+     */
+    public InstitutionRepository.PaginatedResult<Transaction> findPageByInstitutionId(String institutionId,
+                                                                                      Long createdBefore, int limit) {
+        if (institutionId == null || institutionId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Institution ID cannot be null or empty");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        
+        logger.debug("Finding {} transactions for institutionId={} created before {}", 
+            limit, institutionId, createdBefore);
+        
+        QueryConditional queryConditional = createdBefore == null
+                ? QueryConditional.keyEqualTo(Key.builder().partitionValue(institutionId).build())
+                : QueryConditional.sortLessThan(Key.builder()
+                        .partitionValue(institutionId)
+                        .sortValue(AttributeValue.builder().n(createdBefore.toString()).build())
+                        .build());
+        
+        QueryEnhancedRequest queryRequest = QueryEnhancedRequest.builder()
+                .queryConditional(queryConditional)
+                .scanIndexForward(false)
+                .limit(limit)
+                .build();
+        
+        Page<Transaction> page = transactionTable.query(queryRequest)
+                .stream()
+                .findFirst()
+                .orElse(Page.builder(Transaction.class).items(List.of()).build());
+        
+        return new InstitutionRepository.PaginatedResult<>(page.items(), page.lastEvaluatedKey());
+    }
+
     /**
      * Delete a transaction by institutionId and createdAt
      */
@@ -126,24 +194,63 @@ public class TransactionRepository {
             int endIndex = Math.min(i + BATCH_SIZE, transactions.size());
             List<Transaction> batch = transactions.subList(i, endIndex);
             
-            WriteBatch.Builder<Transaction> batchBuilder = WriteBatch.builder(Transaction.class)
-                    .mappedTableResource(transactionTable);
-            
+            List<Key> keys = new ArrayList<>(batch.size());
             for (Transaction transaction : batch) {
-                Key key = Key.builder()
+                keys.add(Key.builder()
                         .partitionValue(transaction.getInstitutionId())
                         .sortValue(AttributeValue.builder().n(transaction.getCreatedAt().toString()).build())
-                        .build();
-                batchBuilder.addDeleteItem(key);
+                        .build());
             }
             
-            enhancedClient.batchWriteItem(r -> r.addWriteBatch(batchBuilder.build()));
+            deleteBatch(keys);
             logger.debug("Deleted batch of {} transactions (items {}-{})", batch.size(), i + 1, endIndex);
         }
         
         logger.info("Successfully bulk deleted {} transactions for institutionId={}", transactions.size(), institutionId);
     }
 
+    /**
+     * Writes one batch, resubmitting any items DynamoDB returns as unprocessed (throttled)
+     * with exponential backoff.
+     */
+    private void deleteBatch(List<Key> keys) {
+        List<Key> pending = keys;
+        for (int attempt = 1; ; attempt++) {
+            WriteBatch.Builder<Transaction> batchBuilder = WriteBatch.builder(Transaction.class)
+                    .mappedTableResource(transactionTable);
+            pending.forEach(batchBuilder::addDeleteItem);
+            
+            BatchWriteResult result = enhancedClient.batchWriteItem(r -> r.addWriteBatch(batchBuilder.build()));
+            pending = result.unprocessedDeleteItemsForTable(transactionTable);
+            if (pending.isEmpty()) {
+                return;
+            }
+            if (attempt >= MAX_BATCH_ATTEMPTS) {
+                throw new IllegalStateException(
+                    "Failed to delete " + pending.size() + " transactions after " + attempt + " attempts");
+            }
+            
+            logger.debug("Retrying {} unprocessed transaction deletes (attempt {})", pending.size(), attempt + 1);
+            try {
+                Thread.sleep(BATCH_RETRY_BASE_DELAY_MS << (attempt - 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while retrying transaction deletes", e);
+            }
+        }
+    }
+
+    DynamoDbTable<Transaction> table() {
+        return transactionTable;
+    }
+
+    void validateForWrite(Transaction transaction) {
+        if (transaction == null) {
+            throw new IllegalArgumentException("Transaction cannot be null");
+        }
+        validateTransaction(transaction);
+    }
+
     private void validateTransaction(Transaction transaction) {
         if (transaction.getInstitutionId() == null || transaction.getInstitutionId().trim().isEmpty()) {
             throw new InvalidTransactionDataException("Institution ID cannot be null or empty");
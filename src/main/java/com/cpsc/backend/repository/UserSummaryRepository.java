@@ -0,0 +1,69 @@
+package com.cpsc.backend.repository;
+
+import com.cpsc.backend.entity.UserSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+
+@Repository
+public class UserSummaryRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSummaryRepository.class);
+
+    private final DynamoDbTable<UserSummary> summaryTable;
+
+    public UserSummaryRepository(DynamoDbEnhancedClient enhancedClient,
+                                 @Value("${dynamodb.summary.table.name}") String tableName) {
+        if (enhancedClient == null) {
+            throw new IllegalArgumentException("DynamoDbEnhancedClient cannot be null");
+        }
+        if (tableName == null || tableName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Table name cannot be null or empty");
+        }
+
+        this.summaryTable = enhancedClient.table(tableName, EntityTableSchemas.of(UserSummary.class));
+        logger.info("UserSummaryRepository initialized with table: {}", tableName);
+    }
+
+    /**
+     * Put the summary, conditional on its version
+     * @throws software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException if it changed since it was read
+     */
+    public void save(UserSummary summary) {
+        if (summary == null) {
+            throw new IllegalArgumentException("Summary cannot be null");
+        }
+        if (summary.getUserId() == null || summary.getUserId().trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+
+        logger.debug("Saving summary: userId={}, version={}", summary.getUserId(), summary.getVersion());
+
+        summaryTable.putItem(summary);
+        summary.setVersion(summary.getVersion() == null ? 1L : summary.getVersion() + 1);
+    }
+
+    public UserSummary findByUserId(String userId) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+
+        logger.debug("Finding summary: userId={}", userId);
+
+        return summaryTable.getItem(Key.builder().partitionValue(userId).build());
+    }
+
+    public void delete(String userId) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+
+        logger.debug("Deleting summary: userId={}", userId);
+
+        summaryTable.deleteItem(Key.builder().partitionValue(userId).build());
+    }
+}
@@ -0,0 +1,141 @@
+package com.cpsc.backend.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Computes the SECRET_HASH Cognito requires from app clients with a secret:
+ * Base64(HMAC-SHA256(clientSecret, username + clientId)).
+ *
+ * The key is set up once: a prototype {@link Mac} is initialized with the client secret and
+ * cloned for each concurrent caller, and the clones are kept in a small pool rather than per
+ * thread, so request threads (virtual or not) share a handful of them. Each pooled engine carries
+ * its own buffers, so hashing an ASCII username allocates nothing but the resulting string.
+ * Instances are thread-safe.
+ */
+public final class CognitoSecretHash {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int DIGEST_LENGTH = 32;
+    private static final int ENCODED_LENGTH = 44;
+    private static final int DEFAULT_POOL_SIZE = 64;
+
+    private final SecretKeySpec key;
+    private final Mac prototype;
+    private final byte[] clientId;
+    private final BlockingQueue<Engine> pool;
+
+    public CognitoSecretHash(String clientId, String clientSecret) {
+        this(clientId, clientSecret, DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * @param poolSize engines kept for reuse; callers beyond it get a fresh clone
+     */
+    public CognitoSecretHash(String clientId, String clientSecret, int poolSize) {
+        if (clientId == null || clientSecret == null || clientSecret.isEmpty()) {
+            throw new IllegalArgumentException("Client ID and client secret are required");
+        }
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("Pool size must be positive");
+        }
+        key = new SecretKeySpec(clientSecret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        try {
+            prototype = Mac.getInstance(ALGORITHM);
+            prototype.init(key);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+        this.clientId = clientId.getBytes(StandardCharsets.UTF_8);
+        this.pool = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    /**
+     * The SECRET_HASH for a username (the email, for this user pool)
+     */
+    public String compute(String username) {
+        if (username == null) {
+            throw new IllegalArgumentException("Username is required");
+        }
+
+        Engine engine = pool.poll();
+        if (engine == null) {
+            engine = new Engine(newMac());
+        }
+        try {
+            String hash = engine.compute(username, clientId);
+            pool.offer(engine);
+            return hash;
+        } catch (GeneralSecurityException e) {
+            // The engine may be left mid-computation; drop it instead of returning it to the pool
+            throw new IllegalStateException("Error calculating secret hash: " + e.getMessage(), e);
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            // Providers without cloneable MACs: initialize a new one with the same key
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM, prototype.getProvider());
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalStateException(ALGORITHM + " is not available", ex);
+            }
+        }
+    }
+
+    /**
+     * One initialized MAC with the buffers a computation needs
+     */
+    private static final class Engine {
+
+        private final Mac mac;
+        private final byte[] digest = new byte[DIGEST_LENGTH];
+        private final byte[] encoded = new byte[ENCODED_LENGTH];
+        private byte[] input = new byte[64];
+
+        private Engine(Mac mac) {
+            this.mac = mac;
+        }
+
+        String compute(String username, byte[] clientId) throws GeneralSecurityException {
+            int length = ascii(username);
+            if (length >= 0) {
+                mac.update(input, 0, length);
+            } else {
+                mac.update(username.getBytes(StandardCharsets.UTF_8));
+            }
+            mac.update(clientId);
+            mac.doFinal(digest, 0);
+            Base64.getEncoder().encode(digest, encoded);
+            return new String(encoded, StandardCharsets.ISO_8859_1);
+        }
+
+        /**
+         * Copy an ASCII username into the input buffer
+         * @return its length, or -1 if it has non-ASCII characters
+         */
+        private int ascii(String username) {
+            int length = username.length();
+            if (input.length < length) {
+                input = new byte[Math.max(length, input.length * 2)];
+            }
+            for (int i = 0; i < length; i++) {
+                char c = username.charAt(i);
+                if (c >= 0x80) {
+                    return -1;
+                }
+                input[i] = (byte) c;
+            }
+            return length;
+        }
+    }
+}
@@ -1,29 +1,91 @@
 package com.cpsc.backend.security;
 
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.cpsc.backend.config.SecurityConfig;
+import com.cpsc.backend.service.UserProfileCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.server.PathContainer;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
+/**
+ * Authenticates requests that carry a valid Cognito token in the Authorization header.
+ *
+ * Tokens are not looked at on CORS preflights or on {@link SecurityConfig#PUBLIC_PATHS}, which
+ * permit everyone anyway. A token is validated at most once per request: the result is kept as a
+ * request attribute and reused when the request is dispatched again, e.g. to the error page.
+ * Requests are counted in {@code jwt.filter.requests} by outcome, so validations avoided show up
+ * as {@code preflight}, {@code public} and {@code reused}.
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    static final String METRIC = "jwt.filter.requests";
+
+    /** The request's verified authentication, or a marker once its token has been rejected */
+    static final String AUTHENTICATION_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".AUTHENTICATION";
+
+    private static final Object NOT_AUTHENTICATED = new Object();
     
     private final JwtValidator jwtValidator;
+    private final UserProfileCache userProfileCache;
+    private final List<PathPattern> publicPaths;
+
+    private final Counter preflightRequests;
+    private final Counter publicRequests;
+    private final Counter reusedRequests;
+    private final Counter noTokenRequests;
+    private final Counter authenticatedRequests;
+    private final Counter invalidTokenRequests;
 
-    public JwtAuthenticationFilter(JwtValidator jwtValidator) {
+    public JwtAuthenticationFilter(JwtValidator jwtValidator, UserProfileCache userProfileCache, MeterRegistry meterRegistry) {
         this.jwtValidator = jwtValidator;
+        this.userProfileCache = userProfileCache;
+
+        PathPatternParser parser = new PathPatternParser();
+        this.publicPaths = Arrays.stream(SecurityConfig.PUBLIC_PATHS).map(parser::parse).toList();
+
+        this.preflightRequests = counter(meterRegistry, "preflight");
+        this.publicRequests = counter(meterRegistry, "public");
+        this.reusedRequests = counter(meterRegistry, "reused");
+        this.noTokenRequests = counter(meterRegistry, "no_token");
+        this.authenticatedRequests = counter(meterRegistry, "authenticated");
+        this.invalidTokenRequests = counter(meterRegistry, "invalid");
+    }
+
+    /**
+     * Error dispatches lose the security context of the original dispatch; they are filtered so it
+     * can be restored from the request attribute
+     */
+    @Override
+    protected boolean shouldNotFilterErrorDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterNestedErrorDispatch(HttpServletRequest request, HttpServletResponse response,
+                                               FilterChain filterChain) throws ServletException, IOException {
+        doFilterInternal(request, response, filterChain);
     }
 
     @Override
@@ -32,6 +94,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         String requestPath = request.getRequestURI();
         logger.debug("JWT Filter processing: {} {}", request.getMethod(), requestPath);
+
+        if (CorsUtils.isPreFlightRequest(request)) {
+            preflightRequests.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (isPublic(requestPath)) {
+            publicRequests.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Object verified = request.getAttribute(AUTHENTICATION_ATTRIBUTE);
+        if (verified != null) {
+            if (verified instanceof Authentication authentication) {
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+            logger.debug("Reusing token validation result for path: {}", requestPath);
+            reusedRequests.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
         
         String authHeader = request.getHeader("Authorization");
         
@@ -51,19 +135,53 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     UsernamePasswordAuthenticationToken authentication = 
                         new UsernamePasswordAuthenticationToken(userId, token, Collections.emptyList());
                     SecurityContextHolder.getContext().setAuthentication(authentication);
+                    request.setAttribute(AUTHENTICATION_ATTRIBUTE, authentication);
+                    authenticatedRequests.increment();
+                    
+                    // A verified ID token carries the profile attributes, so the profile endpoint
+                    // can be answered without a Cognito GetUser call
+                    if (jwtValidator.isIdToken(decodedJWT) && decodedJWT.getIssuedAt() != null) {
+                        userProfileCache.putFromIdToken(userId, jwtValidator.getEmail(decodedJWT),
+                            jwtValidator.getScreenName(decodedJWT), decodedJWT.getIssuedAt().toInstant());
+                    }
                     
                     logger.debug("Authenticated user: {}", userId);
                 } else {
                     logger.warn("JWT token missing user ID (sub claim)");
+                    rejectToken(request);
                 }
             } else {
                 logger.warn("JWT token validation failed for request: {} {}", 
                     request.getMethod(), request.getRequestURI());
+                rejectToken(request);
             }
         } else {
             logger.debug("No Authorization header found for path: {}", requestPath);
+            noTokenRequests.increment();
         }
         
         filterChain.doFilter(request, response);
     }
+
+    private void rejectToken(HttpServletRequest request) {
+        request.setAttribute(AUTHENTICATION_ATTRIBUTE, NOT_AUTHENTICATED);
+        invalidTokenRequests.increment();
+    }
+
+    private boolean isPublic(String requestPath) {
+        PathContainer path = PathContainer.parsePath(requestPath);
+        for (PathPattern pattern : publicPaths) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(METRIC)
+            .description("Requests seen by the JWT filter, by how their token was handled")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
 }
@@ -1,8 +1,10 @@
 package com.cpsc.backend.security;
 
 import com.auth0.jwk.Jwk;
+import com.auth0.jwk.JwkException;
 import com.auth0.jwk.JwkProvider;
 import com.auth0.jwk.JwkProviderBuilder;
+import com.auth0.jwk.UrlJwkProvider;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
@@ -10,41 +12,96 @@ import com.auth0.jwt.interfaces.JWTVerifier;
 import com.cpsc.backend.config.CognitoConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.net.URL;
 import java.security.interfaces.RSAPublicKey;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
+/**
+ * Verifies Cognito tokens against the user pool's public keys. The key source is resolved on first
+ * use rather than at construction, since the user pool ID comes from Secrets Manager, and is
+ * replaced if a secrets refresh moves the app to another pool; {@link #warmUp()} resolves it and
+ * fetches the keys ahead of the first request.
+ */
 @Component
 public class JwtValidator {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtValidator.class);
     
-    private final JwkProvider jwkProvider;
-    private final String userPoolId;
-    private final String region;
+    private final Supplier<KeySource> keySource;
+
+    /**
+     * Where signing keys come from and the issuer they sign for; {@code jwksUrl} is null for a
+     * locally provided key source
+     */
+    private record KeySource(JwkProvider provider, URL jwksUrl, String issuer) {
+    }
     
     public JwtValidator(CognitoConfig cognitoConfig) {
-        this.userPoolId = cognitoConfig.getUserPoolId();
-        this.region = cognitoConfig.getRegion();
-        
+        this.keySource = cognitoConfig.fromUserPool(JwtValidator::createKeySource);
+    }
+    
+    /**
+     * Uses a JwkProvider bean when one is defined (e.g. the in-memory Cognito profile),
+     * otherwise the user pool's JWKS endpoint
+     */
+    @Autowired
+    public JwtValidator(CognitoConfig cognitoConfig, ObjectProvider<JwkProvider> jwkProvider) {
+        this.keySource = cognitoConfig.fromUserPool((region, userPoolId) -> {
+            JwkProvider local = jwkProvider.getIfAvailable();
+            return local != null ? new KeySource(local, null, issuer(region, userPoolId))
+                : createKeySource(region, userPoolId);
+        });
+    }
+    
+    /**
+     * Create a validator with a caller-supplied key source (used by benchmarks to avoid network calls)
+     */
+    JwtValidator(JwkProvider jwkProvider, String userPoolId, String region) {
+        KeySource fixed = new KeySource(jwkProvider, null, issuer(region, userPoolId));
+        this.keySource = () -> fixed;
+    }
+    
+    private static KeySource createKeySource(String region, String userPoolId) {
         try {
             // Cognito JWKS endpoint: https://cognito-idp.{region}.amazonaws.com/{userPoolId}/.well-known/jwks.json
-            String jwksUrl = String.format("https://cognito-idp.%s.amazonaws.com/%s/.well-known/jwks.json", 
-                region, userPoolId);
+            String issuer = issuer(region, userPoolId);
+            URL jwksUrl = new URL(issuer + "/.well-known/jwks.json");
             
-            this.jwkProvider = new JwkProviderBuilder(new URL(jwksUrl))
+            JwkProvider provider = new JwkProviderBuilder(jwksUrl)
                 .cached(10, 24, TimeUnit.HOURS) // Cache keys for 24 hours, max 10 keys
                 .rateLimited(10, 1, TimeUnit.MINUTES) // Max 10 requests per minute
                 .build();
                 
             logger.info("JWT Validator initialized with JWKS URL: {}", jwksUrl);
+            return new KeySource(provider, jwksUrl, issuer);
         } catch (Exception e) {
             logger.error("Failed to initialize JWT Validator", e);
             throw new RuntimeException("Failed to initialize JWT Validator", e);
         }
     }
+
+    private static String issuer(String region, String userPoolId) {
+        return String.format("https://cognito-idp.%s.amazonaws.com/%s", region, userPoolId);
+    }
+
+    /**
+     * Resolve the key source and load the user pool's signing keys into its cache, so the first
+     * requests do not wait for the JWKS download. A locally provided key source is only resolved.
+     */
+    public void warmUp() throws JwkException {
+        KeySource source = keySource.get();
+        if (source.jwksUrl() == null) {
+            return;
+        }
+        for (Jwk jwk : new UrlJwkProvider(source.jwksUrl()).getAll()) {
+            source.provider().get(jwk.getId());
+        }
+    }
     
     /**
      * Validates and verifies the JWT token signature against Cognito's public keys
@@ -57,13 +114,14 @@ public class JwtValidator {
             DecodedJWT jwt = JWT.decode(token);
             
             // Get the public key from Cognito's JWKS endpoint using the kid
-            Jwk jwk = jwkProvider.get(jwt.getKeyId());
+            KeySource source = keySource.get();
+            Jwk jwk = source.provider().get(jwt.getKeyId());
             RSAPublicKey publicKey = (RSAPublicKey) jwk.getPublicKey();
             
             // Create verifier with the public key
             Algorithm algorithm = Algorithm.RSA256(publicKey, null);
             JWTVerifier verifier = JWT.require(algorithm)
-                .withIssuer(String.format("https://cognito-idp.%s.amazonaws.com/%s", region, userPoolId))
+                .withIssuer(source.issuer())
                 .build();
             
             // Verify the token signature and claims
@@ -122,4 +180,17 @@ public class JwtValidator {
         
         return decodedJWT.getClaim("email").asString();
     }
+
+    /**
+     * Whether a validated token is an ID token (token_use claim "id") rather than an access token
+     * @param decodedJWT The validated JWT token
+     * @return true for an ID token
+     */
+    public boolean isIdToken(DecodedJWT decodedJWT) {
+        if (decodedJWT == null) {
+            return false;
+        }
+        
+        return "id".equals(decodedJWT.getClaim("token_use").asString());
+    }
 }
@@ -0,0 +1,189 @@
+package com.cpsc.backend.security;
+
+import com.cpsc.backend.model.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for {@code /api/**}: each request takes a token from its client's bucket for
+ * the matching budget, and is answered {@code 429} with {@code Retry-After} when the bucket is
+ * empty, before any controller or service runs.
+ *
+ * The client is the authenticated user ({@code sub}) when {@link JwtAuthenticationFilter} has
+ * verified a token, otherwise the client IP. Budgets come from {@code rate-limit.routes}, a comma
+ * separated list of {@code METHOD /path/pattern=requests/period} entries such as
+ * {@code POST /api/institutions/{id}/transactions=60/1m}; the first matching entry applies,
+ * and requests no entry matches share {@code rate-limit.default}. Each budget has its own buckets,
+ * so logging in does not use up a user's transaction budget.
+ *
+ * Work that reaches the services without a request of its own, i.e. the operations of a batch,
+ * is charged through {@link #tryAcquire(String, HttpMethod, String)} against the budget of the
+ * endpoint it stands for, so a batch does not multiply a client's write budget.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    static final String METRIC = "api.rate-limited";
+
+    private static final String API_PREFIX = "/api/";
+
+    private final boolean enabled;
+    private final List<Budget> routes = new ArrayList<>();
+    private final Budget defaultBudget;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private record Budget(String name, HttpMethod method, PathPattern pattern, TokenBucketLimiter limiter) {
+
+        boolean matches(HttpMethod requestMethod, PathContainer path) {
+            return method.equals(requestMethod) && pattern.matches(path);
+        }
+    }
+
+    public RateLimitFilter(@Value("${rate-limit.enabled:true}") boolean enabled,
+                           @Value("${rate-limit.default:300/1m}") String defaultBudget,
+                           @Value("${rate-limit.routes:}") String[] routes,
+                           @Value("${rate-limit.max-clients:100000}") int maxClients,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.meterRegistry = meterRegistry;
+        this.defaultBudget = new Budget("default", null, null, limiter(defaultBudget, maxClients));
+
+        PathPatternParser parser = new PathPatternParser();
+        for (String route : routes) {
+            if (route.isBlank()) {
+                continue;
+            }
+            int equals = route.lastIndexOf('=');
+            String[] target = equals < 0 ? new String[0] : route.substring(0, equals).trim().split("\\s+");
+            if (target.length != 2) {
+                throw new IllegalArgumentException("Rate limit route must look like 'METHOD /path=requests/period': " + route);
+            }
+            this.routes.add(new Budget(target[0] + " " + target[1], HttpMethod.valueOf(target[0].toUpperCase()),
+                parser.parse(target[1]), limiter(route.substring(equals + 1), maxClients)));
+        }
+
+        if (enabled) {
+            logger.info("Rate limiting /api requests: default {} plus {} route budgets", defaultBudget, this.routes.size());
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // CORS preflights carry no credentials and must not use up the client's budget
+        return !enabled || !request.getRequestURI().startsWith(API_PREFIX)
+            || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Budget budget = budgetFor(HttpMethod.valueOf(request.getMethod()), request.getRequestURI());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean user = authentication != null && authentication.isAuthenticated()
+            && !(authentication instanceof AnonymousAuthenticationToken);
+        String client = user ? authentication.getName() : request.getRemoteAddr();
+
+        long waitNanos = budget.limiter().tryAcquire(client);
+        if (waitNanos == 0L) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfter = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        logger.debug("Rate limited {} {} for {} {} (budget {}), retry after {}s",
+            request.getMethod(), request.getRequestURI(), user ? "user" : "IP", client, budget.name(), retryAfter);
+        countRejected(budget, user ? "user" : "ip");
+
+        ErrorResponse error = new ErrorResponse();
+        error.setError("Too many requests. Please try again later.");
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    /**
+     * Take a token for the user's {@code method path} request from the budget that request would
+     * be charged to, for work that does not pass through the filter itself
+     * @return 0 if it may proceed, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String userId, HttpMethod method, String path) {
+        if (!enabled) {
+            return 0L;
+        }
+        Budget budget = budgetFor(method, path);
+        long waitNanos = budget.limiter().tryAcquire(userId);
+        if (waitNanos != 0L) {
+            logger.debug("Rate limited {} {} for user {} (budget {})", method, path, userId, budget.name());
+            countRejected(budget, "user");
+        }
+        return waitNanos;
+    }
+
+    private Budget budgetFor(HttpMethod method, String uri) {
+        if (routes.isEmpty()) {
+            return defaultBudget;
+        }
+        PathContainer path = PathContainer.parsePath(uri);
+        for (Budget route : routes) {
+            if (route.matches(method, path)) {
+                return route;
+            }
+        }
+        return defaultBudget;
+    }
+
+    private void countRejected(Budget budget, String client) {
+        Counter.builder(METRIC)
+            .description("Requests rejected with 429 by the rate limiter")
+            .tag("budget", budget.name())
+            .tag("client", client)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    /** Parse {@code requests/period}, e.g. {@code 60/1m} */
+    private static TokenBucketLimiter limiter(String budget, int maxClients) {
+        String[] parts = budget.trim().split("/");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Rate limit budget must look like 'requests/period': " + budget);
+        }
+        try {
+            Duration period = DurationStyle.detectAndParse(parts[1].trim());
+            return new TokenBucketLimiter(Integer.parseInt(parts[0].trim()), period, maxClients);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Rate limit budget must look like 'requests/period': " + budget, e);
+        }
+    }
+}
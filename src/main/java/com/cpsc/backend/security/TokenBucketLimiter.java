@@ -0,0 +1,121 @@
+package com.cpsc.backend.security;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets for one rate limit budget, one bucket per client key. A bucket holds up to
+ * {@code capacity} tokens and refills continuously at {@code capacity} per {@code period}; each
+ * request takes one token.
+ *
+ * Buckets are spread over lock stripes by key hash, so concurrent requests from different
+ * clients rarely contend on the same lock. Checking an existing client allocates nothing; a new
+ * client costs one bucket. A stripe that grows past its share of {@code maxKeys} drops buckets
+ * that have refilled completely, which behave exactly like absent ones.
+ */
+public final class TokenBucketLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final double capacity;
+    private final double tokensPerNano;
+    private final long nanosToFill;
+    private final int maxKeysPerStripe;
+    private final LongSupplier nanoClock;
+
+    public TokenBucketLimiter(int capacity, Duration period, int maxKeys) {
+        this(capacity, period, maxKeys, System::nanoTime);
+    }
+
+    TokenBucketLimiter(int capacity, Duration period, int maxKeys, LongSupplier nanoClock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Rate limit capacity must be positive");
+        }
+        if (period == null || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Rate limit period must be positive");
+        }
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("Rate limit key count must be positive");
+        }
+
+        this.capacity = capacity;
+        this.tokensPerNano = capacity / (double) period.toNanos();
+        this.nanosToFill = period.toNanos();
+        this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+        this.nanoClock = nanoClock;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Take a token from the key's bucket
+     * @return 0 if the request may proceed, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        int hash = key.hashCode();
+        Stripe stripe = stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+        long now = nanoClock.getAsLong();
+
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                if (stripe.buckets.size() >= maxKeysPerStripe) {
+                    stripe.evict(now);
+                }
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+            }
+
+            double tokens = Math.min(capacity, bucket.tokens + (now - bucket.refilledAt) * tokensPerNano);
+            bucket.refilledAt = now;
+            if (tokens >= 1.0) {
+                bucket.tokens = tokens - 1.0;
+                return 0L;
+            }
+            bucket.tokens = tokens;
+            return Math.max(1L, (long) Math.ceil((1.0 - tokens) / tokensPerNano));
+        }
+    }
+
+    /** Clients currently tracked */
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.buckets.size();
+            }
+        }
+        return size;
+    }
+
+    private final class Stripe {
+
+        private final Map<String, Bucket> buckets = new HashMap<>();
+
+        /** Drop full buckets, then arbitrary ones if the stripe is still at its limit */
+        private void evict(long now) {
+            buckets.values().removeIf(bucket -> now - bucket.refilledAt >= nanosToFill);
+            Iterator<Bucket> iterator = buckets.values().iterator();
+            while (buckets.size() >= maxKeysPerStripe && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+        private long refilledAt;
+
+        private Bucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+    }
+}
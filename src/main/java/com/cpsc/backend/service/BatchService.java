@@ -0,0 +1,237 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.exception.GlobalExceptionHandler;
+import com.cpsc.backend.model.BatchOperation;
+import com.cpsc.backend.model.BatchOperationResult;
+import com.cpsc.backend.model.BatchRequest;
+import com.cpsc.backend.model.BatchResponse;
+import com.cpsc.backend.model.CreateGoalRequest;
+import com.cpsc.backend.model.CreateInstitutionRequest;
+import com.cpsc.backend.model.CreateTransactionRequest;
+import com.cpsc.backend.model.EditGoalRequest;
+import com.cpsc.backend.model.EditInstitutionRequest;
+import com.cpsc.backend.model.ErrorResponse;
+import com.cpsc.backend.model.UpdateTransactionRequest;
+import com.cpsc.backend.repository.EntityCache;
+import com.cpsc.backend.security.RateLimitFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Runs the operations of a {@code POST /api/batch} request in order through the same service
+ * methods the individual endpoints use. The caller authenticates once for the whole batch, and
+ * an {@link EntityCache} is open while the operations run, so an institution or goal that
+ * several operations touch is read once instead of once per operation.
+ *
+ * Operation bodies are bound with the application's ObjectMapper and checked against the same
+ * bean validation constraints as the endpoint's request body; a violation fails the operation
+ * with 400 like it fails the endpoint.
+ *
+ * Every operation is charged to the caller's rate limit budget of the endpoint it stands for
+ * before it runs, exactly as if it had been sent on its own; one over budget fails with 429.
+ *
+ * Each operation commits on its own; a failure is reported in that operation's result (status
+ * and message as {@link GlobalExceptionHandler} would have produced them) and does not undo the
+ * operations before it.
+ */
+@Service
+public class BatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchService.class);
+
+    public static final int MAX_OPERATIONS = 25;
+
+    private final InstitutionService institutionService;
+    private final TransactionService transactionService;
+    private final GoalService goalService;
+    private final GlobalExceptionHandler exceptionHandler;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final RateLimitFilter rateLimitFilter;
+
+    /** The individual request an operation stands for */
+    private record Endpoint(HttpMethod method, String path) {
+    }
+
+    public BatchService(InstitutionService institutionService,
+                        TransactionService transactionService,
+                        GoalService goalService,
+                        GlobalExceptionHandler exceptionHandler,
+                        ObjectMapper objectMapper,
+                        Validator validator,
+                        RateLimitFilter rateLimitFilter) {
+        this.institutionService = institutionService;
+        this.transactionService = transactionService;
+        this.goalService = goalService;
+        this.exceptionHandler = exceptionHandler;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.rateLimitFilter = rateLimitFilter;
+    }
+
+    public BatchResponse execute(String userId, BatchRequest request) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+        if (request == null || request.getOperations() == null || request.getOperations().isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one operation");
+        }
+        if (request.getOperations().size() > MAX_OPERATIONS) {
+            throw new IllegalArgumentException("Batch cannot contain more than " + MAX_OPERATIONS + " operations");
+        }
+
+        boolean stopOnError = Boolean.TRUE.equals(request.getStopOnError());
+        List<BatchOperationResult> results = new ArrayList<>();
+        boolean failed = false;
+
+        logger.info("Executing batch of {} operations for user {}", request.getOperations().size(), userId);
+
+        try (EntityCache cache = EntityCache.open()) {
+            for (int index = 0; index < request.getOperations().size(); index++) {
+                BatchOperation operation = request.getOperations().get(index);
+                BatchOperationResult result;
+                if (failed && stopOnError) {
+                    result = new BatchOperationResult();
+                    result.setStatus(HttpStatus.FAILED_DEPENDENCY.value());
+                    result.setError("Skipped after an earlier operation failed");
+                } else {
+                    result = executeOperation(userId, operation);
+                    failed |= result.getStatus() >= 400;
+                }
+                result.setIndex(index);
+                results.add(result);
+            }
+
+            logger.debug("Batch for user {} read {} of {} institution/goal lookups from cache",
+                userId, cache.getHits(), cache.getLookups());
+        }
+
+        BatchResponse response = new BatchResponse();
+        response.setResults(results);
+        return response;
+    }
+
+    private BatchOperationResult executeOperation(String userId, BatchOperation operation) {
+        BatchOperationResult result = new BatchOperationResult();
+        Endpoint endpoint = endpoint(operation);
+        if (endpoint != null && rateLimitFilter.tryAcquire(userId, endpoint.method(), endpoint.path()) != 0L) {
+            // Same message the filter sends for the endpoint
+            result.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            result.setError("Too many requests. Please try again later.");
+            return result;
+        }
+        try {
+            ResponseEntity<?> response = dispatch(userId, operation);
+            result.setStatus(response.getStatusCode().value());
+            result.setBody(response.getBody());
+        } catch (Exception e) {
+            ResponseEntity<ErrorResponse> error = exceptionHandler.toResponse(e);
+            result.setStatus(error.getStatusCode().value());
+            result.setError(error.getBody() != null ? error.getBody().getError() : null);
+        }
+        return result;
+    }
+
+    /** Call the service method behind the operation's endpoint and build that endpoint's response */
+    private ResponseEntity<?> dispatch(String userId, BatchOperation operation) {
+        if (operation == null || operation.getOperation() == null) {
+            throw new IllegalArgumentException("Operation is required");
+        }
+
+        return switch (operation.getOperation()) {
+            case CREATE_INSTITUTION -> ResponseEntity.status(HttpStatus.CREATED).body(
+                institutionService.createInstitution(userId, body(operation, CreateInstitutionRequest.class)));
+            case EDIT_INSTITUTION -> ResponseEntity.ok(institutionService.editInstitution(userId,
+                required(operation.getInstitutionId(), "Institution ID").toString(),
+                body(operation, EditInstitutionRequest.class)));
+            case DELETE_INSTITUTION -> {
+                institutionService.deleteInstitution(userId,
+                    required(operation.getInstitutionId(), "Institution ID").toString());
+                yield ResponseEntity.noContent().build();
+            }
+            case CREATE_TRANSACTION -> ResponseEntity.status(HttpStatus.CREATED).body(
+                transactionService.createTransaction(userId,
+                    required(operation.getInstitutionId(), "Institution ID").toString(),
+                    body(operation, CreateTransactionRequest.class)));
+            case UPDATE_TRANSACTION -> ResponseEntity.ok(transactionService.updateTransaction(userId,
+                required(operation.getInstitutionId(), "Institution ID"),
+                required(operation.getTransactionId(), "Transaction ID"),
+                body(operation, UpdateTransactionRequest.class)));
+            case DELETE_TRANSACTION -> {
+                transactionService.deleteTransaction(userId,
+                    required(operation.getInstitutionId(), "Institution ID"),
+                    required(operation.getTransactionId(), "Transaction ID"));
+                yield ResponseEntity.noContent().build();
+            }
+            case CREATE_GOAL -> ResponseEntity.status(HttpStatus.CREATED).body(
+                goalService.createGoal(userId, body(operation, CreateGoalRequest.class)));
+            case EDIT_GOAL -> ResponseEntity.ok(goalService.editGoal(userId,
+                required(operation.getGoalId(), "Goal ID").toString(),
+                body(operation, EditGoalRequest.class)));
+            case DELETE_GOAL -> {
+                goalService.deleteGoal(userId, required(operation.getGoalId(), "Goal ID").toString());
+                yield ResponseEntity.noContent().build();
+            }
+        };
+    }
+
+    /** Method and path of the operation's endpoint, or null if it names no operation */
+    private static Endpoint endpoint(BatchOperation operation) {
+        if (operation == null || operation.getOperation() == null) {
+            return null;
+        }
+        String institution = "/api/institutions/" + operation.getInstitutionId();
+        String transaction = institution + "/transactions/" + operation.getTransactionId();
+        String goal = "/api/goals/" + operation.getGoalId();
+        return switch (operation.getOperation()) {
+            case CREATE_INSTITUTION -> new Endpoint(HttpMethod.POST, "/api/institutions");
+            case EDIT_INSTITUTION -> new Endpoint(HttpMethod.PATCH, institution);
+            case DELETE_INSTITUTION -> new Endpoint(HttpMethod.DELETE, institution);
+            case CREATE_TRANSACTION -> new Endpoint(HttpMethod.POST, institution + "/transactions");
+            case UPDATE_TRANSACTION -> new Endpoint(HttpMethod.PUT, transaction);
+            case DELETE_TRANSACTION -> new Endpoint(HttpMethod.DELETE, transaction);
+            case CREATE_GOAL -> new Endpoint(HttpMethod.POST, "/api/goals");
+            case EDIT_GOAL -> new Endpoint(HttpMethod.PATCH, goal);
+            case DELETE_GOAL -> new Endpoint(HttpMethod.DELETE, goal);
+        };
+    }
+
+    private <T> T body(BatchOperation operation, Class<T> type) {
+        if (operation.getBody() == null) {
+            throw new IllegalArgumentException("Request body is required for " + operation.getOperation());
+        }
+        T body;
+        try {
+            body = objectMapper.convertValue(operation.getBody(), type);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid request body for " + operation.getOperation(), e);
+        }
+
+        // Same message as GlobalExceptionHandler.handleValidationErrors gives the endpoint
+        validator.validate(body).stream()
+            .min(Comparator.comparing((ConstraintViolation<T> violation) -> violation.getPropertyPath().toString()))
+            .ifPresent(violation -> {
+                throw new IllegalArgumentException(violation.getPropertyPath() + ": " + violation.getMessage());
+            });
+        return body;
+    }
+
+    private static UUID required(UUID id, String name) {
+        if (id == null) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        return id;
+    }
+}
@@ -0,0 +1,129 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.entity.ChangeRecord;
+import com.cpsc.backend.entity.Goal;
+import com.cpsc.backend.entity.Institution;
+import com.cpsc.backend.entity.Transaction;
+import com.cpsc.backend.repository.ChangeLogRepository;
+import com.cpsc.backend.repository.EntityWrite;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Records every institution, goal and transaction write in the user's change log so mobile
+ * clients can sync deltas (see {@link SyncService}).
+ *
+ * The entries are added to the {@link EntityWrite} that carries the change itself, and are
+ * numbered and written in the same transaction, so a write is stored with its entries or not at
+ * all. Sequences are therefore contiguous and follow the order the writes were committed in, and
+ * a reader never sees part of a write.
+ */
+@Service
+public class ChangeLogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeLogService.class);
+
+    private final ChangeLogRepository changeLogRepository;
+    private final Duration retention;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public ChangeLogService(ChangeLogRepository changeLogRepository,
+                            @Value("${sync.change-retention:30d}") Duration retention) {
+        this.changeLogRepository = changeLogRepository;
+        this.retention = retention;
+    }
+
+    /**
+     * Institutions were created or their balance, name or allocation changed
+     */
+    public void recordInstitutions(EntityWrite write, Collection<Institution> institutions) {
+        institutions.forEach(institution -> write.logChange(upsert(institution)));
+    }
+
+    /**
+     * An institution was deleted. Its tombstone also stands for all of its transactions, which
+     * are deleted with it and get no tombstones of their own.
+     */
+    public void removeInstitution(EntityWrite write, String userId, String institutionId) {
+        write.logChange(entry(userId, ChangeRecord.INSTITUTION, institutionId, institutionId, ChangeRecord.DELETE,
+            null));
+    }
+
+    /**
+     * A goal was created or edited, together with the institutions whose allocation it changed
+     */
+    public void recordGoal(EntityWrite write, Goal goal, Collection<Institution> institutions) {
+        write.logChange(entry(goal.getUserId(), ChangeRecord.GOAL, goal.getGoalId(), null, ChangeRecord.UPSERT, goal));
+        recordInstitutions(write, institutions);
+    }
+
+    /**
+     * A goal was deleted
+     */
+    public void removeGoal(EntityWrite write, String userId, String goalId) {
+        write.logChange(entry(userId, ChangeRecord.GOAL, goalId, null, ChangeRecord.DELETE, null));
+    }
+
+    /**
+     * A transaction was created or updated, moving its institution's balance
+     */
+    public void recordTransaction(EntityWrite write, Institution institution, Transaction transaction) {
+        write.logChange(upsert(institution));
+        write.logChange(entry(institution.getUserId(), ChangeRecord.TRANSACTION, transaction.getTransactionId(),
+            transaction.getInstitutionId(), ChangeRecord.UPSERT, transaction));
+    }
+
+    /**
+     * A transaction was deleted, moving its institution's balance back
+     */
+    public void removeTransaction(EntityWrite write, Institution institution, String transactionId) {
+        write.logChange(upsert(institution));
+        write.logChange(entry(institution.getUserId(), ChangeRecord.TRANSACTION, transactionId,
+            institution.getInstitutionId(), ChangeRecord.DELETE, null));
+    }
+
+    /**
+     * Drop the log entirely (account deletion)
+     */
+    public void deleteLog(String userId) {
+        try {
+            changeLogRepository.deleteAllByUserId(userId);
+        } catch (Exception e) {
+            logger.error("Error deleting change log for user {}: {}", userId, e.getMessage(), e);
+        }
+    }
+
+    private ChangeRecord upsert(Institution institution) {
+        return entry(institution.getUserId(), ChangeRecord.INSTITUTION, institution.getInstitutionId(),
+            institution.getInstitutionId(), ChangeRecord.UPSERT, institution);
+    }
+
+    private ChangeRecord entry(String userId, String entityType, String entityId, String institutionId,
+                               String operation, Object entity) {
+        long now = Instant.now().getEpochSecond();
+        ChangeRecord entry = new ChangeRecord();
+        entry.setUserId(userId);
+        entry.setEntityType(entityType);
+        entry.setEntityId(entityId);
+        entry.setInstitutionId(institutionId);
+        entry.setOperation(operation);
+        entry.setChangedAt(now);
+        entry.setExpiresAt(now + retention.toSeconds());
+        if (entity != null) {
+            try {
+                entry.setPayload(objectMapper.writeValueAsString(entity));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to serialize " + entityType + " " + entityId, e);
+            }
+        }
+        return entry;
+    }
+}
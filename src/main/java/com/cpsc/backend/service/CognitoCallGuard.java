@@ -0,0 +1,354 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.exception.CognitoUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Isolates the Cognito calls {@link CognitoService} makes, so a Cognito slowdown or outage fails
+ * the authentication endpoints fast with {@code 503} and {@code Retry-After} instead of holding
+ * every request thread and taking the DynamoDB-backed endpoints down with it.
+ *
+ * Each operation (signUp, initiateAuth, getUser, ...) gets its own:
+ * <ul>
+ *   <li>bulkhead: at most {@code cognito.bulkhead.max-concurrent} calls in flight. A caller waits
+ *   up to {@code cognito.bulkhead.max-wait} for a slot. A call that timed out keeps its slot until
+ *   it actually ends, so a hanging Cognito cannot pile up abandoned calls.</li>
+ *   <li>circuit breaker over the outcomes of its last {@code window-size} calls. Once at least
+ *   {@code failure-rate-threshold} percent of them failed, calls are refused for
+ *   {@code open-duration}; then {@code half-open-probes} calls are let through, and the breaker
+ *   closes if all of them succeed or opens again on the first failure.</li>
+ *   <li>timeout adapted to recent latency: the smoothed latency plus four times its mean
+ *   deviation (the estimate TCP uses for retransmission timers), between {@code cognito.timeout.min}
+ *   and {@code cognito.timeout.max}. A timed-out call counts as taking its whole timeout, so the
+ *   timeout grows while Cognito is slow.</li>
+ * </ul>
+ *
+ * Server errors, throttling, network errors and timeouts count as failures. Client errors (wrong
+ * password, existing username, invalid code) are Cognito working normally and count as successes.
+ */
+@Component
+public class CognitoCallGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(CognitoCallGuard.class);
+
+    static final String CALL_METRIC = "cognito.calls";
+
+    enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("cognito-call-", 0).factory());
+    private final int maxConcurrent;
+    private final Duration maxWait;
+    private final int failureRateThreshold;
+    private final int windowSize;
+    private final Duration openDuration;
+    private final int halfOpenProbes;
+    private final Duration minTimeout;
+    private final Duration maxTimeout;
+    private final MeterRegistry meterRegistry;
+
+    public CognitoCallGuard(@Value("${cognito.bulkhead.max-concurrent:20}") int maxConcurrent,
+                            @Value("${cognito.bulkhead.max-wait:100ms}") Duration maxWait,
+                            @Value("${cognito.circuit-breaker.failure-rate-threshold:50}") int failureRateThreshold,
+                            @Value("${cognito.circuit-breaker.window-size:20}") int windowSize,
+                            @Value("${cognito.circuit-breaker.open-duration:30s}") Duration openDuration,
+                            @Value("${cognito.circuit-breaker.half-open-probes:3}") int halfOpenProbes,
+                            @Value("${cognito.timeout.min:1s}") Duration minTimeout,
+                            @Value("${cognito.timeout.max:5s}") Duration maxTimeout,
+                            MeterRegistry meterRegistry) {
+        if (maxConcurrent < 1 || windowSize < 1 || halfOpenProbes < 1) {
+            throw new IllegalArgumentException("Bulkhead size, breaker window and half-open probes must be positive");
+        }
+        if (failureRateThreshold < 1 || failureRateThreshold > 100) {
+            throw new IllegalArgumentException("Failure rate threshold must be between 1 and 100");
+        }
+        if (maxWait.isNegative() || openDuration.isNegative() || minTimeout.isNegative() || minTimeout.isZero()
+                || maxTimeout.compareTo(minTimeout) < 0) {
+            throw new IllegalArgumentException("Cognito call durations must be positive, with min timeout <= max timeout");
+        }
+
+        this.maxConcurrent = maxConcurrent;
+        this.maxWait = maxWait;
+        this.failureRateThreshold = failureRateThreshold;
+        this.windowSize = windowSize;
+        this.openDuration = openDuration;
+        this.halfOpenProbes = halfOpenProbes;
+        this.minTimeout = minTimeout;
+        this.maxTimeout = maxTimeout;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Make a Cognito call through the operation's bulkhead, circuit breaker and timeout
+     * @throws CognitoUnavailableException if the call was refused or timed out
+     * @throws RuntimeException whatever the call threw, unchanged
+     */
+    public <T> T call(String operation, Supplier<T> call) {
+        Operation op = operations.computeIfAbsent(operation, this::register);
+
+        if (!op.tryAcquirePermission()) {
+            count(operation, "short_circuited");
+            throw new CognitoUnavailableException(
+                "Authentication service is temporarily unavailable. Please try again later.", op.retryAfterSeconds());
+        }
+
+        boolean slot;
+        try {
+            slot = op.bulkhead.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            slot = false;
+        }
+        if (!slot) {
+            op.releasePermission();
+            count(operation, "rejected");
+            throw new CognitoUnavailableException("Too many authentication requests in progress. Please try again.", 1);
+        }
+
+        long timeoutNanos = op.timeoutNanos();
+        long start = System.nanoTime();
+        Future<T> future = executor.submit(() -> {
+            try {
+                return call.get();
+            } finally {
+                op.bulkhead.release();
+            }
+        });
+
+        try {
+            T result = future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            complete(op, operation, "success", System.nanoTime() - start);
+            return result;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            complete(op, operation, isFailure(cause) ? "failure" : "client_error", System.nanoTime() - start);
+            throw unwrap(cause);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            logger.warn("Cognito {} did not complete within {} ms", operation, TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+            op.onOutcome(true, timeoutNanos);
+            count(operation, "timeout");
+            throw new CognitoUnavailableException("Authentication service timed out. Please try again.", 1);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            op.releasePermission();
+            Thread.currentThread().interrupt();
+            throw new CognitoUnavailableException("Interrupted while waiting for the authentication service", 1);
+        }
+    }
+
+    /** Breaker state of an operation, for tests and diagnostics */
+    State state(String operation) {
+        Operation op = operations.get(operation);
+        return op == null ? State.CLOSED : op.state();
+    }
+
+    /** Current timeout of an operation */
+    Duration timeout(String operation) {
+        Operation op = operations.get(operation);
+        return Duration.ofNanos(op == null ? maxTimeout.toNanos() : op.timeoutNanos());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void complete(Operation op, String operation, String outcome, long elapsedNanos) {
+        op.onOutcome("failure".equals(outcome), elapsedNanos);
+        count(operation, outcome);
+        Timer.builder("cognito.call.duration")
+            .description("Time Cognito took to answer, by operation")
+            .tag("operation", operation)
+            .register(meterRegistry)
+            .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Operation register(String operation) {
+        Operation op = new Operation(operation);
+        Gauge.builder("cognito.circuit.state", op, o -> o.state().ordinal())
+            .description("Circuit breaker state per Cognito operation (0 closed, 1 half-open, 2 open)")
+            .tag("operation", operation)
+            .register(meterRegistry);
+        Gauge.builder("cognito.bulkhead.in-flight", op, o -> maxConcurrent - o.bulkhead.availablePermits())
+            .description("Cognito calls in flight per operation")
+            .tag("operation", operation)
+            .register(meterRegistry);
+        Gauge.builder("cognito.timeout", op, o -> o.timeoutNanos() / 1e9)
+            .description("Current adaptive timeout per Cognito operation")
+            .tag("operation", operation)
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        return op;
+    }
+
+    private void count(String operation, String outcome) {
+        Counter.builder(CALL_METRIC)
+            .description("Cognito calls by operation and outcome")
+            .tag("operation", operation)
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    private static boolean isFailure(Throwable cause) {
+        if (cause instanceof SdkServiceException service) {
+            return service.statusCode() >= 500 || service.isThrottlingException();
+        }
+        return cause instanceof SdkClientException;
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new RuntimeException("Cognito call failed", cause);
+    }
+
+    /**
+     * Bulkhead, breaker and latency estimate of one operation. Breaker and estimate are updated
+     * under the operation's lock; a Cognito call takes milliseconds, so it is never contended.
+     */
+    private final class Operation {
+
+        private final String name;
+        private final Semaphore bulkhead = new Semaphore(maxConcurrent);
+        private final boolean[] window = new boolean[windowSize];
+        private int windowCalls;
+        private int windowFailures;
+        private int windowNext;
+        private State state = State.CLOSED;
+        private long openUntilNanos;
+        private int probesStarted;
+        private int probesSucceeded;
+        private double smoothedNanos = -1;
+        private double deviationNanos;
+
+        private Operation(String name) {
+            this.name = name;
+        }
+
+        synchronized State state() {
+            if (state == State.OPEN && System.nanoTime() - openUntilNanos >= 0) {
+                return State.HALF_OPEN;
+            }
+            return state;
+        }
+
+        synchronized boolean tryAcquirePermission() {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openUntilNanos < 0) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probesStarted = 0;
+                probesSucceeded = 0;
+                logger.info("Cognito {} circuit half-open, probing with {} calls", name, halfOpenProbes);
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesStarted >= halfOpenProbes) {
+                    return false;
+                }
+                probesStarted++;
+            }
+            return true;
+        }
+
+        /** Give back a permission whose call was never made */
+        synchronized void releasePermission() {
+            if (state == State.HALF_OPEN && probesStarted > probesSucceeded) {
+                probesStarted--;
+            }
+        }
+
+        synchronized void onOutcome(boolean failed, long elapsedNanos) {
+            sample(elapsedNanos);
+
+            if (state == State.HALF_OPEN) {
+                if (failed) {
+                    logger.warn("Cognito {} probe failed", name);
+                    open();
+                } else if (++probesSucceeded >= halfOpenProbes) {
+                    state = State.CLOSED;
+                    windowCalls = 0;
+                    windowFailures = 0;
+                    windowNext = 0;
+                    logger.info("Cognito {} circuit closed after {} successful probes", name, probesSucceeded);
+                }
+                return;
+            }
+            if (state == State.OPEN) {
+                return; // started before the breaker opened
+            }
+
+            if (windowCalls == windowSize) {
+                windowFailures -= window[windowNext] ? 1 : 0;
+            } else {
+                windowCalls++;
+            }
+            window[windowNext] = failed;
+            windowFailures += failed ? 1 : 0;
+            windowNext = (windowNext + 1) % windowSize;
+
+            if (windowCalls == windowSize && windowFailures * 100 >= failureRateThreshold * windowSize) {
+                logger.warn("Cognito {}: {} of the last {} calls failed", name, windowFailures, windowCalls);
+                open();
+            }
+        }
+
+        synchronized long timeoutNanos() {
+            if (smoothedNanos < 0) {
+                return maxTimeout.toNanos();
+            }
+            long estimate = (long) (smoothedNanos + 4 * deviationNanos);
+            return Math.max(minTimeout.toNanos(), Math.min(maxTimeout.toNanos(), estimate));
+        }
+
+        synchronized long retryAfterSeconds() {
+            long remainingNanos = openUntilNanos - System.nanoTime();
+            return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remainingNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        }
+
+        private void sample(long elapsedNanos) {
+            if (smoothedNanos < 0) {
+                smoothedNanos = elapsedNanos;
+                deviationNanos = elapsedNanos / 2.0;
+            } else {
+                deviationNanos = 0.75 * deviationNanos + 0.25 * Math.abs(smoothedNanos - elapsedNanos);
+                smoothedNanos = 0.875 * smoothedNanos + 0.125 * elapsedNanos;
+            }
+        }
+
+        private void open() {
+            state = State.OPEN;
+            openUntilNanos = System.nanoTime() + openDuration.toNanos();
+            logger.warn("Cognito {} circuit opened for {}", name, openDuration);
+        }
+    }
+}
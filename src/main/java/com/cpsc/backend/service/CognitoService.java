@@ -3,33 +3,61 @@ package com.cpsc.backend.service;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.cpsc.backend.config.SecretsManagerConfig;
+import com.cpsc.backend.security.CognitoSecretHash;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.*;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
-
+import java.util.function.Supplier;
+
+/**
+ * User pool operations for the auth endpoints. The Cognito client and the app client's
+ * credentials are resolved on first use, which {@link #warmUp()} brings forward to startup.
+ * The credentials follow the secret in Secrets Manager: a rotated client secret is picked up by
+ * its next refresh, and a secret hash Cognito rejects asks for that refresh early.
+ */
 @Service
 public class CognitoService {
 
     private final CognitoIdentityProviderClient cognitoClient;
     private final SecretsManagerConfig secretsManagerConfig;
-    private final String userPoolId;
-    private final String clientId;
-    private final String clientSecret;
+    private final UserProfileCache userProfileCache;
+    private final CognitoCallGuard callGuard;
+    private final Supplier<AppClient> appClient;
+
+    /** The app client ID and a secret hash for it, from the same version of the secrets */
+    private record AppClient(String clientId, CognitoSecretHash secretHash) {
+    }
 
-    public CognitoService(CognitoIdentityProviderClient cognitoClient, 
-                         SecretsManagerConfig secretsManagerConfig) {
+    public CognitoService(@Lazy CognitoIdentityProviderClient cognitoClient, 
+                         SecretsManagerConfig secretsManagerConfig,
+                         UserProfileCache userProfileCache,
+                         CognitoCallGuard callGuard) {
         this.cognitoClient = cognitoClient;
         this.secretsManagerConfig = secretsManagerConfig;
-        this.userPoolId = secretsManagerConfig.getCognitoUserPoolId();
-        this.clientId = secretsManagerConfig.getCognitoClientId();
-        this.clientSecret = secretsManagerConfig.getCognitoClientSecret();
+        this.userProfileCache = userProfileCache;
+        this.callGuard = callGuard;
+        this.appClient = secretsManagerConfig.derived(
+            secrets -> new AppClient(secrets.get(SecretsManagerConfig.COGNITO_CLIENT_ID),
+                new CognitoSecretHash(secrets.get(SecretsManagerConfig.COGNITO_CLIENT_ID),
+                    secrets.get(SecretsManagerConfig.COGNITO_CLIENT_SECRET))),
+            SecretsManagerConfig.COGNITO_CLIENT_ID, SecretsManagerConfig.COGNITO_CLIENT_SECRET);
+    }
+
+    /**
+     * Create the Cognito client and open a connection to the user pool ahead of the first request.
+     * The call made for that is expected to be rejected; any answer from Cognito will do.
+     */
+    public void warmUp() {
+        appClient.get();
+        try {
+            cognitoClient.getUser(GetUserRequest.builder().accessToken("warm-up").build());
+        } catch (CognitoIdentityProviderException e) {
+            // Cognito answered, so the connection is up
+        }
     }
 
     /**
@@ -38,10 +66,11 @@ public class CognitoService {
      */
     public Map<String, String> signUp(String email, String password, String screenName) {
         try {
-            String secretHash = calculateSecretHash(email);
+            AppClient app = appClient.get();
+            String secretHash = calculateSecretHash(app, email);
 
             SignUpRequest signUpRequest = SignUpRequest.builder()
-                    .clientId(clientId)
+                    .clientId(app.clientId())
                     .secretHash(secretHash)
                     .username(email)  // Use email as username
                     .password(password)
@@ -57,7 +86,7 @@ public class CognitoService {
                     )
                     .build();
 
-            SignUpResponse signUpResponse = cognitoClient.signUp(signUpRequest);
+            SignUpResponse signUpResponse = callWithSecretHash("signUp", () -> cognitoClient.signUp(signUpRequest));
 
             Map<String, String> response = new HashMap<>();
             response.put("message", "User registered successfully");
@@ -79,16 +108,17 @@ public class CognitoService {
      */
     public Map<String, String> confirmSignUp(String email, String confirmationCode) {
         try {
-            String secretHash = calculateSecretHash(email);
+            AppClient app = appClient.get();
+            String secretHash = calculateSecretHash(app, email);
 
             ConfirmSignUpRequest confirmRequest = ConfirmSignUpRequest.builder()
-                    .clientId(clientId)
+                    .clientId(app.clientId())
                     .secretHash(secretHash)
                     .username(email)
                     .confirmationCode(confirmationCode)
                     .build();
 
-            cognitoClient.confirmSignUp(confirmRequest);
+            callWithSecretHash("confirmSignUp", () -> cognitoClient.confirmSignUp(confirmRequest));
 
             Map<String, String> response = new HashMap<>();
             response.put("message", "User confirmed successfully");
@@ -108,15 +138,16 @@ public class CognitoService {
      */
     public Map<String, String> resendConfirmationCode(String email) {
         try {
-            String secretHash = calculateSecretHash(email);
+            AppClient app = appClient.get();
+            String secretHash = calculateSecretHash(app, email);
 
             ResendConfirmationCodeRequest resendRequest = ResendConfirmationCodeRequest.builder()
-                    .clientId(clientId)
+                    .clientId(app.clientId())
                     .secretHash(secretHash)
                     .username(email)
                     .build();
 
-            cognitoClient.resendConfirmationCode(resendRequest);
+            callWithSecretHash("resendConfirmationCode", () -> cognitoClient.resendConfirmationCode(resendRequest));
 
             Map<String, String> response = new HashMap<>();
             response.put("message", "Verification code resent successfully");
@@ -132,15 +163,17 @@ public class CognitoService {
      */
     public Map<String, String> forgotPassword(String email) {
         try {
-            String secretHash = calculateSecretHash(email);
+            AppClient app = appClient.get();
+            String secretHash = calculateSecretHash(app, email);
 
             ForgotPasswordRequest forgotPasswordRequest = ForgotPasswordRequest.builder()
-                    .clientId(clientId)
+                    .clientId(app.clientId())
                     .secretHash(secretHash)
                     .username(email)
                     .build();
 
-            ForgotPasswordResponse forgotPasswordResponse = cognitoClient.forgotPassword(forgotPasswordRequest);
+            ForgotPasswordResponse forgotPasswordResponse = callWithSecretHash("forgotPassword",
+                    () -> cognitoClient.forgotPassword(forgotPasswordRequest));
 
             Map<String, String> response = new HashMap<>();
             response.put("message", "Password reset code sent to your email");
@@ -168,17 +201,19 @@ public class CognitoService {
      */
     public Map<String, String> confirmForgotPassword(String email, String confirmationCode, String newPassword) {
         try {
-            String secretHash = calculateSecretHash(email);
+            AppClient app = appClient.get();
+            String secretHash = calculateSecretHash(app, email);
 
             ConfirmForgotPasswordRequest confirmForgotPasswordRequest = ConfirmForgotPasswordRequest.builder()
-                    .clientId(clientId)
+                    .clientId(app.clientId())
                     .secretHash(secretHash)
                     .username(email)
                     .confirmationCode(confirmationCode)
                     .password(newPassword)
                     .build();
 
-            cognitoClient.confirmForgotPassword(confirmForgotPasswordRequest);
+            callWithSecretHash("confirmForgotPassword",
+                    () -> cognitoClient.confirmForgotPassword(confirmForgotPasswordRequest));
 
             Map<String, String> response = new HashMap<>();
             response.put("message", "Password reset successfully. You can now login with your new password.");
@@ -205,7 +240,8 @@ public class CognitoService {
      */
     public Map<String, String> login(String email, String password) {
         try {
-            String secretHash = calculateSecretHash(email);
+            AppClient app = appClient.get();
+            String secretHash = calculateSecretHash(app, email);
 
             Map<String, String> authParams = new HashMap<>();
             authParams.put("USERNAME", email);  // Use email as username
@@ -213,12 +249,12 @@ public class CognitoService {
             authParams.put("SECRET_HASH", secretHash);
 
             InitiateAuthRequest authRequest = InitiateAuthRequest.builder()
-                    .clientId(clientId)
+                    .clientId(app.clientId())
                     .authFlow(AuthFlowType.USER_PASSWORD_AUTH)
                     .authParameters(authParams)
                     .build();
 
-            InitiateAuthResponse authResponse = cognitoClient.initiateAuth(authRequest);
+            InitiateAuthResponse authResponse = callWithSecretHash("initiateAuth", () -> cognitoClient.initiateAuth(authRequest));
 
             AuthenticationResultType authResult = authResponse.authenticationResult();
 
@@ -226,6 +262,10 @@ public class CognitoService {
             DecodedJWT decodedIdToken = JWT.decode(authResult.idToken());
             String screenName = decodedIdToken.getClaim("preferred_username").asString();
             String userEmail = decodedIdToken.getClaim("email").asString();
+            if (decodedIdToken.getIssuedAt() != null) {
+                userProfileCache.putFromIdToken(decodedIdToken.getSubject(), userEmail, screenName,
+                        decodedIdToken.getIssuedAt().toInstant());
+            }
 
             Map<String, String> response = new HashMap<>();
             response.put("accessToken", authResult.accessToken());
@@ -248,15 +288,21 @@ public class CognitoService {
 
     /**
      * Get user profile attributes using the access token
-     * Uses Cognito GetUser API which returns user attributes for the authenticated user
+     * Served from the profile cache when it has the user, otherwise uses Cognito GetUser API
+     * which returns user attributes for the authenticated user
      */
-    public Map<String, String> getUserProfile(String accessToken) {
+    public Map<String, String> getUserProfile(String userId, String accessToken) {
+        Map<String, String> cached = userProfileCache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+
         try {
             GetUserRequest request = GetUserRequest.builder()
                     .accessToken(accessToken)
                     .build();
 
-            GetUserResponse response = cognitoClient.getUser(request);
+            GetUserResponse response = callGuard.call("getUser", () -> cognitoClient.getUser(request));
             
             Map<String, String> profile = new HashMap<>();
             profile.put("username", response.username());
@@ -265,7 +311,8 @@ public class CognitoService {
             for (AttributeType attr : response.userAttributes()) {
                 profile.put(attr.name(), attr.value());
             }
-            
+
+            userProfileCache.put(userId, profile);
             return profile;
         } catch (CognitoIdentityProviderException e) {
             throw new RuntimeException("Error getting user profile: " + e.getMessage());
@@ -274,9 +321,9 @@ public class CognitoService {
 
     /**
      * Update user's screen name (preferred_username attribute)
-     * Uses the access token to identify the user
+     * Uses the access token to identify the user, and drops the user's cached profile
      */
-    public Map<String, String> updateScreenName(String accessToken, String newScreenName) {
+    public Map<String, String> updateScreenName(String userId, String accessToken, String newScreenName) {
         try {
             AttributeType screenNameAttribute = AttributeType.builder()
                     .name("preferred_username")
@@ -288,7 +335,8 @@ public class CognitoService {
                     .userAttributes(screenNameAttribute)
                     .build();
 
-            cognitoClient.updateUserAttributes(request);
+            callGuard.call("updateUserAttributes", () -> cognitoClient.updateUserAttributes(request));
+            userProfileCache.invalidate(userId);
 
             Map<String, String> response = new HashMap<>();
             response.put("message", "Screen name updated successfully");
@@ -306,13 +354,14 @@ public class CognitoService {
      * Delete the authenticated user's Cognito account
      * Uses the access token to identify and delete the user
      */
-    public void deleteUser(String accessToken) {
+    public void deleteUser(String userId, String accessToken) {
         try {
             DeleteUserRequest request = DeleteUserRequest.builder()
                     .accessToken(accessToken)
                     .build();
 
-            cognitoClient.deleteUser(request);
+            callGuard.call("deleteUser", () -> cognitoClient.deleteUser(request));
+            userProfileCache.invalidate(userId);
 
         } catch (NotAuthorizedException e) {
             throw new RuntimeException("Not authorized to delete this user");
@@ -322,24 +371,26 @@ public class CognitoService {
     }
 
     /**
-     * Calculate the secret hash required for authentication
+     * Make a call that sends a secret hash. If Cognito cannot verify the hash, the client secret
+     * has probably been rotated, so have the secrets re-read rather than wait for the next refresh.
      */
-    private String calculateSecretHash(String username) {
+    private <T> T callWithSecretHash(String operation, Supplier<T> call) {
         try {
-            final String HMAC_SHA256_ALGORITHM = "HmacSHA256";
-
-            SecretKeySpec signingKey = new SecretKeySpec(
-                    clientSecret.getBytes(StandardCharsets.UTF_8),
-                    HMAC_SHA256_ALGORITHM
-            );
-
-            Mac mac = Mac.getInstance(HMAC_SHA256_ALGORITHM);
-            mac.init(signingKey);
-            mac.update(username.getBytes(StandardCharsets.UTF_8));
-            byte[] rawHmac = mac.doFinal(clientId.getBytes(StandardCharsets.UTF_8));
-
-            return Base64.getEncoder().encodeToString(rawHmac);
+            return callGuard.call(operation, call);
+        } catch (NotAuthorizedException e) {
+            if (e.getMessage() != null && e.getMessage().toLowerCase().contains("secret hash")) {
+                secretsManagerConfig.requestRefresh();
+            }
+            throw e;
+        }
+    }
 
+    /**
+     * Calculate the secret hash required for authentication
+     */
+    private String calculateSecretHash(AppClient app, String username) {
+        try {
+            return app.secretHash().compute(username);
         } catch (Exception e) {
             throw new RuntimeException("Error calculating secret hash: " + e.getMessage());
         }
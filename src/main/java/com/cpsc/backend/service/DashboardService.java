@@ -0,0 +1,432 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.entity.Goal;
+import com.cpsc.backend.entity.Institution;
+import com.cpsc.backend.entity.Transaction;
+import com.cpsc.backend.entity.UserSummary;
+import com.cpsc.backend.entity.UserSummary.GoalEntry;
+import com.cpsc.backend.entity.UserSummary.InstitutionEntry;
+import com.cpsc.backend.entity.UserSummary.TransactionEntry;
+import com.cpsc.backend.exception.ReadTimeoutException;
+import com.cpsc.backend.model.DashboardGoal;
+import com.cpsc.backend.model.DashboardInstitution;
+import com.cpsc.backend.model.DashboardResponse;
+import com.cpsc.backend.model.TransactionResponse;
+import com.cpsc.backend.repository.ChangeLogRepository;
+import com.cpsc.backend.repository.GoalRepository;
+import com.cpsc.backend.repository.InstitutionRepository;
+import com.cpsc.backend.repository.TransactionRepository;
+import com.cpsc.backend.repository.UserSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Serves the dashboard from the per-user {@link UserSummary} item and keeps that item in step with
+ * the institution, goal and transaction write paths.
+ *
+ * The summary is materialized from the source tables on the first dashboard read and then
+ * updated incrementally. Updates are skipped while no summary exists, and any update that cannot
+ * be applied (a conflict that outlasts the retries, or a removal that would leave the recent
+ * transaction list short) deletes the item so the next read rebuilds it. The summary is never
+ * allowed to fail the write that triggered it.
+ *
+ * Updates for concurrent writes can reach the summary in either order, so institution and goal
+ * entries keep the version of the item they were copied from and an older copy never replaces a
+ * newer one. A rebuild brackets its reads with the user's change log head, which every write
+ * advances in its own transaction: if the head moved, a write may have skipped its update while
+ * the summary did not exist yet, so the stored result is dropped and the rebuild runs again.
+ */
+@Service
+public class DashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    /** Number of transactions kept in the summary, newest first across all institutions */
+    static final int RECENT_TRANSACTIONS = 10;
+
+    /** Rebuilds raced by writes before the result is served without being stored */
+    static final int REBUILD_ATTEMPTS = 3;
+
+    private static final Comparator<TransactionEntry> NEWEST_FIRST = Comparator
+        .comparing(TransactionEntry::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+        .thenComparing(TransactionEntry::getTransactionId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final UserSummaryRepository userSummaryRepository;
+    private final InstitutionRepository institutionRepository;
+    private final GoalRepository goalRepository;
+    private final TransactionRepository transactionRepository;
+    private final ChangeLogRepository changeLogRepository;
+    private final Duration readTimeout;
+
+    public DashboardService(UserSummaryRepository userSummaryRepository,
+                            InstitutionRepository institutionRepository,
+                            GoalRepository goalRepository,
+                            TransactionRepository transactionRepository,
+                            ChangeLogRepository changeLogRepository,
+                            @Value("${parallel-reads.timeout:2s}") Duration readTimeout) {
+        this.userSummaryRepository = userSummaryRepository;
+        this.institutionRepository = institutionRepository;
+        this.goalRepository = goalRepository;
+        this.transactionRepository = transactionRepository;
+        this.changeLogRepository = changeLogRepository;
+        this.readTimeout = readTimeout;
+    }
+
+    public DashboardResponse getDashboard(String userId) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+
+        try {
+            UserSummary summary = userSummaryRepository.findByUserId(userId);
+            if (summary == null) {
+                logger.info("No dashboard summary for user {}, building it from source tables", userId);
+                summary = rebuild(userId);
+            }
+            return mapToResponse(summary);
+
+        } catch (ReadTimeoutException e) {
+            throw e;
+        } catch (DynamoDbException e) {
+            logger.error("DynamoDB error while loading dashboard for user {}: {}", userId, e.getMessage(), e);
+            throw e;
+        } catch (Exception e) {
+            logger.error("Unexpected error while loading dashboard for user {}: {}", userId, e.getMessage(), e);
+            throw new RuntimeException("Failed to load dashboard", e);
+        }
+    }
+
+    /**
+     * Institutions were created or their balance, name or allocation changed
+     */
+    public void recordInstitutions(String userId, Collection<Institution> institutions) {
+        apply(userId, "record institutions", summary -> {
+            institutions.forEach(institution -> upsertInstitution(summary, institution));
+            return true;
+        });
+    }
+
+    /**
+     * An institution and all of its transactions were deleted. Goal links to it are dropped by
+     * the goal updates that accompany the deletion.
+     */
+    public void removeInstitution(String userId, String institutionId) {
+        apply(userId, "remove institution", summary -> {
+            summary.getInstitutions().removeIf(entry -> institutionId.equals(entry.getInstitutionId()));
+            summary.getGoals().forEach(goal -> goal.getLinkedInstitutions().remove(institutionId));
+            return removeTransactions(summary, entry -> institutionId.equals(entry.getInstitutionId()));
+        });
+    }
+
+    /**
+     * A goal was created or edited, together with the institutions whose allocation it changed
+     */
+    public void recordGoal(Goal goal, Collection<Institution> institutions) {
+        apply(goal.getUserId(), "record goal", summary -> {
+            upsertGoal(summary, goal);
+            institutions.forEach(institution -> upsertInstitution(summary, institution));
+            return true;
+        });
+    }
+
+    /**
+     * A goal was deleted, releasing its allocation on the given institutions
+     */
+    public void removeGoal(String userId, String goalId, Collection<Institution> institutions) {
+        apply(userId, "remove goal", summary -> {
+            summary.getGoals().removeIf(entry -> goalId.equals(entry.getGoalId()));
+            institutions.forEach(institution -> upsertInstitution(summary, institution));
+            return true;
+        });
+    }
+
+    /**
+     * A transaction was created or updated, moving its institution's balance
+     */
+    public void recordTransaction(Institution institution, Transaction transaction) {
+        apply(institution.getUserId(), "record transaction", summary -> {
+            upsertInstitution(summary, institution);
+            upsertTransaction(summary, transaction);
+            return true;
+        });
+    }
+
+    /**
+     * A transaction was deleted, moving its institution's balance back
+     */
+    public void removeTransaction(Institution institution, String transactionId) {
+        apply(institution.getUserId(), "remove transaction", summary -> {
+            upsertInstitution(summary, institution);
+            return removeTransactions(summary, entry -> transactionId.equals(entry.getTransactionId()));
+        });
+    }
+
+    /**
+     * Drop the summary entirely (account deletion)
+     */
+    public void deleteSummary(String userId) {
+        try {
+            userSummaryRepository.delete(userId);
+        } catch (Exception e) {
+            logger.error("Error deleting dashboard summary for user {}: {}", userId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Materialize the summary from the source tables and store it, unless a write was committed
+     * while it was being built, in which case it is built again. After {@link #REBUILD_ATTEMPTS}
+     * raced attempts the last result is served without being stored.
+     */
+    UserSummary rebuild(String userId) {
+        UserSummary summary = null;
+        for (int attempt = 1; attempt <= REBUILD_ATTEMPTS; attempt++) {
+            long sequence = changeLogRepository.findLastSequence(userId);
+            summary = readSummary(userId);
+
+            try {
+                // A null version makes this conditional on no summary existing yet
+                userSummaryRepository.save(summary);
+            } catch (RuntimeException e) {
+                if (OptimisticLocking.isConflict(e)) {
+                    logger.debug("Dashboard summary for user {} was materialized concurrently", userId);
+                } else {
+                    logger.warn("Could not store rebuilt dashboard summary for user {}: {}", userId, e.getMessage());
+                }
+                return summary;
+            }
+
+            // Checked after the save: a write that saw no summary and skipped its update has
+            // advanced the head by now
+            if (changeLogRepository.findLastSequence(userId) == sequence) {
+                return summary;
+            }
+            logger.debug("Dashboard summary for user {} changed while rebuilding (attempt {}), dropping it",
+                userId, attempt);
+            deleteSummary(userId);
+        }
+        return summary;
+    }
+
+    /**
+     * Build the summary from the source tables. Institutions and goals are read in parallel,
+     * then the recent transactions of every institution in parallel.
+     */
+    private UserSummary readSummary(String userId) {
+        List<Institution> institutions;
+        List<Goal> goals;
+        List<Transaction> transactions = new ArrayList<>();
+        try (ParallelReads reads = ParallelReads.open(readTimeout)) {
+            ParallelReads.Read<List<Institution>> institutionsRead =
+                reads.fork("institutions", () -> institutionRepository.findAllByUserId(userId));
+            ParallelReads.Read<List<Goal>> goalsRead =
+                reads.fork("goals", () -> goalRepository.findAllByUserId(userId));
+            reads.join();
+            institutions = institutionsRead.get();
+            goals = goalsRead.get();
+
+            List<ParallelReads.Read<List<Transaction>>> transactionReads = new ArrayList<>();
+            for (Institution institution : institutions) {
+                transactionReads.add(reads.fork("transactions", () -> transactionRepository
+                    .findRecentByInstitutionId(institution.getInstitutionId(), RECENT_TRANSACTIONS)));
+            }
+            reads.join();
+            transactionReads.forEach(read -> transactions.addAll(read.get()));
+        }
+
+        UserSummary summary = new UserSummary();
+        summary.setUserId(userId);
+        institutions.forEach(institution -> upsertInstitution(summary, institution));
+        goals.forEach(goal -> upsertGoal(summary, goal));
+        transactions.forEach(transaction -> upsertTransaction(summary, transaction));
+        refreshTotals(summary);
+        return summary;
+    }
+
+    /**
+     * Read-modify-write the summary with version-conditional retries. A change that returns
+     * false cannot be applied incrementally and invalidates the summary instead.
+     */
+    private void apply(String userId, String operation, Predicate<UserSummary> change) {
+        try {
+            OptimisticLocking.retryOnConflict("update dashboard summary", () -> {
+                UserSummary summary = userSummaryRepository.findByUserId(userId);
+                if (summary == null) {
+                    return; // materialized from the source tables on the next dashboard read
+                }
+                if (!change.test(summary)) {
+                    logger.debug("Dashboard summary for user {} cannot {} incrementally, invalidating",
+                        userId, operation);
+                    userSummaryRepository.delete(userId);
+                    return;
+                }
+                refreshTotals(summary);
+                userSummaryRepository.save(summary);
+            });
+        } catch (Exception e) {
+            logger.warn("Could not {} in dashboard summary for user {}, invalidating it: {}",
+                operation, userId, e.getMessage());
+            deleteSummary(userId);
+        }
+    }
+
+    private void upsertInstitution(UserSummary summary, Institution institution) {
+        InstitutionEntry entry = summary.getInstitutions().stream()
+            .filter(existing -> institution.getInstitutionId().equals(existing.getInstitutionId()))
+            .findFirst()
+            .orElseGet(() -> {
+                InstitutionEntry created = new InstitutionEntry();
+                created.setInstitutionId(institution.getInstitutionId());
+                summary.getInstitutions().add(created);
+                return created;
+            });
+        if (isOlder(institution.getVersion(), entry.getSourceVersion())) {
+            return;
+        }
+        entry.setSourceVersion(institution.getVersion());
+        entry.setInstitutionName(institution.getInstitutionName());
+        entry.setCurrentBalance(institution.getCurrentBalance() != null
+            ? institution.getCurrentBalance() : institution.getStartingBalance());
+        entry.setAllocatedPercent(institution.getAllocatedPercent() != null ? institution.getAllocatedPercent() : 0);
+    }
+
+    private void upsertGoal(UserSummary summary, Goal goal) {
+        boolean newerStored = summary.getGoals().stream()
+            .anyMatch(entry -> goal.getGoalId().equals(entry.getGoalId())
+                && isOlder(goal.getVersion(), entry.getSourceVersion()));
+        if (newerStored) {
+            return;
+        }
+        summary.getGoals().removeIf(entry -> goal.getGoalId().equals(entry.getGoalId()));
+        GoalEntry entry = new GoalEntry();
+        entry.setGoalId(goal.getGoalId());
+        entry.setSourceVersion(goal.getVersion());
+        entry.setName(goal.getName());
+        entry.setTargetAmount(goal.getTargetAmount());
+        entry.setLinkedInstitutions(goal.getLinkedInstitutions() != null
+            ? new HashMap<>(goal.getLinkedInstitutions()) : new HashMap<>());
+        summary.getGoals().add(entry);
+    }
+
+    /** Whether a copy at {@code version} predates the stored entry; unversioned copies always apply */
+    private static boolean isOlder(Long version, Long storedVersion) {
+        return version != null && storedVersion != null && version < storedVersion;
+    }
+
+    private void upsertTransaction(UserSummary summary, Transaction transaction) {
+        List<TransactionEntry> recent = summary.getRecentTransactions();
+        recent.removeIf(entry -> transaction.getTransactionId().equals(entry.getTransactionId()));
+
+        TransactionEntry entry = new TransactionEntry();
+        entry.setTransactionId(transaction.getTransactionId());
+        entry.setInstitutionId(transaction.getInstitutionId());
+        entry.setType(transaction.getType());
+        entry.setAmount(transaction.getAmount());
+        entry.setTags(transaction.getTags());
+        entry.setDescription(transaction.getDescription());
+        entry.setTransactionDate(transaction.getTransactionDate());
+        entry.setCreatedAt(transaction.getCreatedAt());
+        recent.add(entry);
+
+        recent.sort(NEWEST_FIRST);
+        while (recent.size() > RECENT_TRANSACTIONS) {
+            recent.remove(recent.size() - 1);
+        }
+    }
+
+    /**
+     * The recent list holds either all of a user's transactions or exactly the newest
+     * {@link #RECENT_TRANSACTIONS}. Removing from a full list would leave a gap that only a
+     * rebuild can fill, so that case reports false.
+     */
+    private boolean removeTransactions(UserSummary summary, Predicate<TransactionEntry> match) {
+        List<TransactionEntry> recent = summary.getRecentTransactions();
+        boolean wasFull = recent.size() >= RECENT_TRANSACTIONS;
+        boolean removed = recent.removeIf(match);
+        return !(removed && wasFull);
+    }
+
+    private void refreshTotals(UserSummary summary) {
+        double total = summary.getInstitutions().stream()
+            .mapToDouble(entry -> entry.getCurrentBalance() != null ? entry.getCurrentBalance() : 0.0)
+            .sum();
+        summary.setTotalBalance(total);
+        summary.setUpdatedAt(Instant.now().getEpochSecond());
+    }
+
+    DashboardResponse mapToResponse(UserSummary summary) {
+        Map<String, InstitutionEntry> institutions = summary.getInstitutions().stream()
+            .collect(Collectors.toMap(InstitutionEntry::getInstitutionId, entry -> entry, (a, b) -> a));
+
+        DashboardResponse response = new DashboardResponse();
+        response.setTotalBalance(summary.getTotalBalance() != null ? summary.getTotalBalance() : 0.0);
+        response.setUpdatedAt(summary.getUpdatedAt());
+        response.setInstitutions(summary.getInstitutions().stream()
+            .map(this::mapInstitution)
+            .collect(Collectors.toList()));
+        response.setGoals(summary.getGoals().stream()
+            .map(goal -> mapGoal(goal, institutions))
+            .collect(Collectors.toList()));
+        response.setRecentTransactions(summary.getRecentTransactions().stream()
+            .map(this::mapTransaction)
+            .collect(Collectors.toList()));
+        return response;
+    }
+
+    private DashboardInstitution mapInstitution(InstitutionEntry entry) {
+        DashboardInstitution institution = new DashboardInstitution();
+        institution.setInstitutionId(UUID.fromString(entry.getInstitutionId()));
+        institution.setInstitutionName(entry.getInstitutionName());
+        institution.setCurrentBalance(entry.getCurrentBalance());
+        institution.setAllocatedPercent(entry.getAllocatedPercent());
+        return institution;
+    }
+
+    // Same rule as GoalService: sum of each linked institution's balance times its allocation
+    private DashboardGoal mapGoal(GoalEntry entry, Map<String, InstitutionEntry> institutions) {
+        double allocatedAmount = 0.0;
+        for (Map.Entry<String, Integer> link : entry.getLinkedInstitutions().entrySet()) {
+            InstitutionEntry institution = institutions.get(link.getKey());
+            if (institution != null && institution.getCurrentBalance() != null) {
+                allocatedAmount += (institution.getCurrentBalance() * link.getValue()) / 100.0;
+            }
+        }
+        double targetAmount = entry.getTargetAmount() != null ? entry.getTargetAmount() : 0.0;
+
+        DashboardGoal goal = new DashboardGoal();
+        goal.setGoalId(UUID.fromString(entry.getGoalId()));
+        goal.setName(entry.getName());
+        goal.setTargetAmount(targetAmount);
+        goal.setAllocatedAmount(allocatedAmount);
+        goal.setProgressPercent(targetAmount > 0 ? Math.min(100.0, allocatedAmount / targetAmount * 100.0) : 100.0);
+        goal.setIsCompleted(allocatedAmount >= targetAmount);
+        return goal;
+    }
+
+    private TransactionResponse mapTransaction(TransactionEntry entry) {
+        TransactionResponse response = new TransactionResponse();
+        response.setTransactionId(UUID.fromString(entry.getTransactionId()));
+        response.setInstitutionId(UUID.fromString(entry.getInstitutionId()));
+        response.setType(TransactionResponse.TypeEnum.fromValue(entry.getType()));
+        response.setAmount(entry.getAmount());
+        response.setTags(entry.getTags());
+        response.setDescription(entry.getDescription());
+        response.setTransactionDate(entry.getTransactionDate());
+        response.setCreatedAt(entry.getCreatedAt());
+        return response;
+    }
+}
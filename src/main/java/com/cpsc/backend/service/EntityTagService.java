@@ -0,0 +1,78 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.repository.ChangeLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Strong ETags for the list endpoints, so a polling client that already has the current list
+ * gets {@code 304 Not Modified} for the price of one GetItem instead of a query.
+ *
+ * Every institution, goal and transaction write advances the user's change log head in the
+ * same transaction as the entity itself (see {@link ChangeLogService}), so no write is stored
+ * without moving the head and its sequence works as a per-user version counter covering all
+ * of the user's lists. The tag combines that sequence with the list and its parameters, since
+ * different pages of the same version are different representations. The head is read before
+ * the list, so a tag is never newer than the data sent with it.
+ */
+@Service
+public class EntityTagService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityTagService.class);
+
+    private final ChangeLogRepository changeLogRepository;
+
+    public EntityTagService(ChangeLogRepository changeLogRepository) {
+        this.changeLogRepository = changeLogRepository;
+    }
+
+    /**
+     * Current tag of one of the user's lists
+     * @param list name of the list, e.g. "institutions"
+     * @param parameters everything else that selects the representation (page size, token, ...)
+     * @return the quoted tag, or null if the version could not be read and the list should be
+     *         served without one
+     */
+    public String listTag(String userId, String list, Object... parameters) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+
+        try {
+            long version = changeLogRepository.findLastSequence(userId);
+            int representation = Objects.hash(userId, list, Arrays.hashCode(parameters));
+            return "\"" + version + "-" + Integer.toHexString(representation) + "\"";
+        } catch (Exception e) {
+            logger.warn("Could not read list version for user {}, serving {} without ETag: {}",
+                userId, list, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Whether an If-None-Match header names the tag (weak comparison, as RFC 9110 requires for
+     * If-None-Match)
+     */
+    public boolean matches(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null || tag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*")) {
+                return true;
+            }
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,267 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.entity.Goal;
+import com.cpsc.backend.entity.Institution;
+import com.cpsc.backend.model.BalanceChangedEvent;
+import com.cpsc.backend.model.GoalCompletedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-node fan-out hub for {@code GET /api/events}. Each open stream is an {@link SseEmitter}
+ * registered under its user; the write paths publish committed balance changes and goal
+ * completions here and every stream of that user on this node receives them.
+ *
+ * An idle stream holds no thread: the request is in async mode and only the emitter and a small
+ * queue stay in memory. Delivery happens on virtual threads, one drain at a time per stream, so
+ * events reach a stream in the order they were published and a slow client never blocks the
+ * request that published the event. A stream that falls {@value #MAX_PENDING_EVENTS} events
+ * behind, or whose client has gone away, is closed; the client reconnects and catches up
+ * through {@code /api/sync}.
+ *
+ * Events are only delivered to streams connected to the node that handled the write.
+ */
+@Service
+public class EventStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventStreamService.class);
+
+    public static final String BALANCE_CHANGED = "balance-changed";
+    public static final String GOAL_COMPLETED = "goal-completed";
+
+    static final int MAX_PENDING_EVENTS = 64;
+
+    private final Map<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final ExecutorService deliveries = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("event-delivery-", 0).factory());
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("event-heartbeat").daemon().factory());
+    private final AtomicInteger openStreams = new AtomicInteger();
+    private final Duration streamTimeout;
+    private final MeterRegistry meterRegistry;
+
+    public EventStreamService(@Value("${events.stream-timeout:30m}") Duration streamTimeout,
+                              @Value("${events.heartbeat-interval:20s}") Duration heartbeatInterval,
+                              MeterRegistry meterRegistry) {
+        if (streamTimeout == null || streamTimeout.isNegative() || streamTimeout.isZero()) {
+            throw new IllegalArgumentException("Stream timeout must be positive");
+        }
+        if (heartbeatInterval == null || heartbeatInterval.isNegative() || heartbeatInterval.isZero()) {
+            throw new IllegalArgumentException("Heartbeat interval must be positive");
+        }
+
+        this.streamTimeout = streamTimeout;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("events.streams.open", openStreams, AtomicInteger::get)
+            .description("Event streams currently open on this node")
+            .register(meterRegistry);
+
+        long interval = heartbeatInterval.toMillis();
+        heartbeats.scheduleAtFixedRate(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open a stream for the user. It stays registered until the client disconnects, the stream
+     * times out or it falls too far behind.
+     */
+    public SseEmitter subscribe(String userId) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+
+        SseEmitter emitter = createEmitter(streamTimeout.toMillis());
+        Subscription subscription = new Subscription(userId, emitter);
+        emitter.onCompletion(subscription::close);
+        // Ending the stream ourselves keeps the container from reporting the timeout as an error
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscription.close());
+
+        subscriptions.compute(userId, (id, streams) -> {
+            Set<Subscription> registered = streams != null ? streams : ConcurrentHashMap.newKeySet();
+            registered.add(subscription);
+            return registered;
+        });
+        openStreams.incrementAndGet();
+        logger.debug("Opened event stream for user {}", userId);
+
+        // Gives the client a first line as soon as the stream is open, before any event
+        subscription.enqueue(SseEmitter.event().comment("connected").build());
+        return emitter;
+    }
+
+    /**
+     * An institution's current balance changed (transaction created, updated or deleted, or
+     * starting balance edited). Call after the write is committed.
+     */
+    public void publishBalanceChanged(Institution institution) {
+        if (streamCount(institution.getUserId()) == 0) {
+            return; // the common case: nobody is listening
+        }
+        BalanceChangedEvent event = new BalanceChangedEvent();
+        event.setInstitutionId(UUID.fromString(institution.getInstitutionId()));
+        event.setInstitutionName(institution.getInstitutionName());
+        event.setCurrentBalance(institution.getCurrentBalance());
+        event.setChangedAt(Instant.now().getEpochSecond());
+        publish(institution.getUserId(), BALANCE_CHANGED, event);
+    }
+
+    /**
+     * A goal became completed because a linked balance changed. Call after the goal is saved.
+     */
+    public void publishGoalCompleted(Goal goal) {
+        if (streamCount(goal.getUserId()) == 0) {
+            return;
+        }
+        GoalCompletedEvent event = new GoalCompletedEvent();
+        event.setGoalId(UUID.fromString(goal.getGoalId()));
+        event.setName(goal.getName());
+        event.setTargetAmount(goal.getTargetAmount());
+        event.setCompletedAt(Instant.now().getEpochSecond());
+        publish(goal.getUserId(), GOAL_COMPLETED, event);
+    }
+
+    /** Number of streams currently open for the user on this node */
+    public int streamCount(String userId) {
+        Set<Subscription> streams = subscriptions.get(userId);
+        return streams != null ? streams.size() : 0;
+    }
+
+    private void publish(String userId, String name, Object data) {
+        Set<Subscription> streams = subscriptions.get(userId);
+        if (streams == null || streams.isEmpty()) {
+            return;
+        }
+
+        Counter.builder("events.published")
+            .description("Events handed to open streams")
+            .tag("event", name)
+            .register(meterRegistry)
+            .increment(streams.size());
+
+        Set<DataWithMediaType> event = SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON).build();
+        for (Subscription subscription : streams) {
+            subscription.enqueue(event);
+        }
+    }
+
+    private void sendHeartbeats() {
+        try {
+            Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("keep-alive").build();
+            for (Set<Subscription> streams : subscriptions.values()) {
+                for (Subscription subscription : streams) {
+                    subscription.enqueue(heartbeat);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to send event stream heartbeats: {}", e.getMessage(), e);
+        }
+    }
+
+    /** Separate so tests can observe what a stream is sent */
+    SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        for (Set<Subscription> streams : subscriptions.values()) {
+            for (Subscription subscription : streams) {
+                subscription.emitter.complete();
+                subscription.close();
+            }
+        }
+        deliveries.shutdown();
+    }
+
+    /**
+     * One open stream: a queue of events and at most one delivery task draining it
+     */
+    private final class Subscription {
+
+        private final String userId;
+        private final SseEmitter emitter;
+        private final Queue<Set<DataWithMediaType>> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscription(String userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(Set<DataWithMediaType> event) {
+            if (closed.get()) {
+                return;
+            }
+            if (pendingCount.incrementAndGet() > MAX_PENDING_EVENTS) {
+                logger.info("Event stream for user {} fell {} events behind, closing it", userId, MAX_PENDING_EVENTS);
+                emitter.complete();
+                close();
+                return;
+            }
+            pending.add(event);
+            if (draining.compareAndSet(false, true)) {
+                deliveries.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Set<DataWithMediaType> event;
+                while (!closed.get() && (event = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        // Client went away or the stream already completed; the container cleans up the request
+                        logger.debug("Event stream for user {} closed while sending: {}", userId, e.getMessage());
+                        close();
+                    }
+                }
+                draining.set(false);
+                // An event enqueued after the last poll but before the flag was cleared is picked up here
+            } while (!closed.get() && !pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            pending.clear();
+            subscriptions.computeIfPresent(userId, (id, streams) -> {
+                streams.remove(this);
+                return streams.isEmpty() ? null : streams;
+            });
+            openStreams.decrementAndGet();
+            logger.debug("Closed event stream for user {}", userId);
+        }
+    }
+}
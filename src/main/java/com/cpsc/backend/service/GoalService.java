@@ -2,11 +2,14 @@ package com.cpsc.backend.service;
 
 import com.cpsc.backend.entity.Goal;
 import com.cpsc.backend.entity.Institution;
+import com.cpsc.backend.exception.ConcurrentUpdateException;
 import com.cpsc.backend.exception.InstitutionNotFoundException;
 import com.cpsc.backend.exception.InvalidInstitutionDataException;
 import com.cpsc.backend.model.CreateGoalRequest;
 import com.cpsc.backend.model.EditGoalRequest;
 import com.cpsc.backend.model.GoalResponse;
+import com.cpsc.backend.repository.EntityWrite;
+import com.cpsc.backend.repository.EntityWriteRepository;
 import com.cpsc.backend.repository.GoalRepository;
 import com.cpsc.backend.repository.InstitutionRepository;
 import org.slf4j.Logger;
@@ -16,9 +19,13 @@ import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -29,12 +36,28 @@ public class GoalService {
     private static final int MAX_GOAL_NAME_LENGTH = 100;
     private static final int MAX_GOAL_DESCRIPTION_LENGTH = 500;
     
+    /**
+     * Institutions a goal write can carry: the goal, its change log entry and the log head take
+     * three items of the transaction, and each institution takes two (itself and its entry)
+     */
+    static final int MAX_INSTITUTIONS_PER_WRITE = (EntityWriteRepository.MAX_ITEMS_PER_WRITE - 3) / 2;
+    
     private final GoalRepository goalRepository;
     private final InstitutionRepository institutionRepository;
+    private final EntityWriteRepository entityWriteRepository;
+    private final DashboardService dashboardService;
+    private final ChangeLogService changeLogService;
+    private final EventStreamService eventStreamService;
 
-    public GoalService(GoalRepository goalRepository, InstitutionRepository institutionRepository) {
+    public GoalService(GoalRepository goalRepository, InstitutionRepository institutionRepository,
+                       EntityWriteRepository entityWriteRepository, DashboardService dashboardService,
+                       ChangeLogService changeLogService, EventStreamService eventStreamService) {
         this.goalRepository = goalRepository;
         this.institutionRepository = institutionRepository;
+        this.entityWriteRepository = entityWriteRepository;
+        this.dashboardService = dashboardService;
+        this.changeLogService = changeLogService;
+        this.eventStreamService = eventStreamService;
     }
 
     public GoalResponse createGoal(String userId, CreateGoalRequest request) {
@@ -46,66 +69,10 @@ public class GoalService {
         validateGoalRequest(request);
         
         try {
-            // Validate that all institutions belong to the user and have sufficient allocation
-            Map<String, Integer> linkedInstitutions = request.getLinkedInstitutions();
-            Map<String, Institution> institutionMap = validateAndGetInstitutions(userId, linkedInstitutions);
-            
-            // Create the goal first to get the goalId
-            Goal goal = new Goal();
-            goal.setUserId(userId);
-            goal.setGoalId(UUID.randomUUID().toString());
-            goal.setName(request.getName().trim());
-            goal.setDescription(request.getDescription() != null ? request.getDescription().trim() : null);
-            goal.setTargetAmount(request.getTargetAmount());
-            goal.setLinkedInstitutions(new HashMap<>(linkedInstitutions));
-            goal.setCreatedAt(Instant.now().getEpochSecond());
+            // Re-read and re-validate the institutions if one of them changed while we were working
+            return OptimisticLocking.retryOnConflict("create goal", () -> createGoalAttempt(userId, request));
             
-            // Calculate if goal is completed based on allocated amounts
-            double totalAllocatedAmount = 0.0;
-            for (Map.Entry<String, Integer> entry : linkedInstitutions.entrySet()) {
-                String institutionId = entry.getKey();
-                Integer allocationPercent = entry.getValue();
-                Institution institution = institutionMap.get(institutionId);
-                
-                double institutionCurrentBalance = institution.getCurrentBalance() != null ? institution.getCurrentBalance() : 0.0;
-                double allocatedAmount = (institutionCurrentBalance * allocationPercent) / 100.0;
-                totalAllocatedAmount += allocatedAmount;
-            }
-            goal.setIsCompleted(totalAllocatedAmount >= request.getTargetAmount());
-            
-            // Update all affected institutions with new allocations and add goal to linkedGoals
-            for (Map.Entry<String, Integer> entry : linkedInstitutions.entrySet()) {
-                String institutionId = entry.getKey();
-                Integer allocationPercent = entry.getValue();
-                
-                Institution institution = institutionMap.get(institutionId);
-                Integer currentAllocation = institution.getAllocatedPercent() != null ? institution.getAllocatedPercent() : 0;
-                institution.setAllocatedPercent(currentAllocation + allocationPercent);
-                
-                // Add this goal to the institution's linkedGoals list
-                List<String> linkedGoalsList = institution.getLinkedGoals();
-                if (linkedGoalsList == null) {
-                    linkedGoalsList = new ArrayList<>();
-                }
-                linkedGoalsList.add(goal.getGoalId());
-                institution.setLinkedGoals(linkedGoalsList);
-                
-                institutionRepository.save(institution);
-                
-                logger.debug("Updated institution {} allocation from {} to {}, added goal {}", 
-                    institutionId, currentAllocation, institution.getAllocatedPercent(), goal.getGoalId());
-            }
-
-            logger.info("Creating goal '{}' for user {} with {} linked institutions, target: {}, completed: {}", 
-                goal.getName(), userId, linkedInstitutions.size(), goal.getTargetAmount(), goal.getIsCompleted());
-            
-            goalRepository.save(goal);
-            
-            logger.info("Successfully created goal {} for user {}", goal.getGoalId(), userId);
-
-            return mapToResponse(goal);
-            
-        } catch (InstitutionNotFoundException | InvalidInstitutionDataException e) {
+        } catch (InstitutionNotFoundException | InvalidInstitutionDataException | ConcurrentUpdateException e) {
             // Business logic exceptions - re-throw directly
             throw e;
         } catch (DynamoDbException e) {
@@ -119,6 +86,66 @@ public class GoalService {
         }
     }
 
+    private GoalResponse createGoalAttempt(String userId, CreateGoalRequest request) {
+        // Validate that all institutions belong to the user and have sufficient allocation
+        Map<String, Integer> linkedInstitutions = request.getLinkedInstitutions();
+        Map<String, Institution> institutionMap = validateAndGetInstitutions(userId, linkedInstitutions);
+        
+        // Create the goal first to get the goalId
+        Goal goal = new Goal();
+        goal.setUserId(userId);
+        goal.setGoalId(UUID.randomUUID().toString());
+        goal.setName(request.getName().trim());
+        goal.setDescription(request.getDescription() != null ? request.getDescription().trim() : null);
+        goal.setTargetAmount(request.getTargetAmount());
+        goal.setLinkedInstitutions(new HashMap<>(linkedInstitutions));
+        goal.setCreatedAt(Instant.now().getEpochSecond());
+        
+        // Calculate if goal is completed based on allocated amounts
+        double totalAllocatedAmount = 0.0;
+        for (Map.Entry<String, Integer> entry : linkedInstitutions.entrySet()) {
+            String institutionId = entry.getKey();
+            Integer allocationPercent = entry.getValue();
+            Institution institution = institutionMap.get(institutionId);
+            
+            double institutionCurrentBalance = institution.getCurrentBalance() != null ? institution.getCurrentBalance() : 0.0;
+            double allocatedAmount = (institutionCurrentBalance * allocationPercent) / 100.0;
+            totalAllocatedAmount += allocatedAmount;
+        }
+        goal.setIsCompleted(totalAllocatedAmount >= request.getTargetAmount());
+        
+        // Apply new allocations and add goal to linkedGoals; written together with the goal below
+        for (Map.Entry<String, Integer> entry : linkedInstitutions.entrySet()) {
+            String institutionId = entry.getKey();
+            Integer allocationPercent = entry.getValue();
+            
+            Institution institution = institutionMap.get(institutionId);
+            Integer currentAllocation = institution.getAllocatedPercent() != null ? institution.getAllocatedPercent() : 0;
+            institution.setAllocatedPercent(currentAllocation + allocationPercent);
+            
+            // Add this goal to the institution's linkedGoals list
+            List<String> linkedGoalsList = institution.getLinkedGoals();
+            if (linkedGoalsList == null) {
+                linkedGoalsList = new ArrayList<>();
+            }
+            linkedGoalsList.add(goal.getGoalId());
+            institution.setLinkedGoals(linkedGoalsList);
+            
+            logger.debug("Updated institution {} allocation from {} to {}, added goal {}", 
+                institutionId, currentAllocation, institution.getAllocatedPercent(), goal.getGoalId());
+        }
+
+        logger.info("Creating goal '{}' for user {} with {} linked institutions, target: {}, completed: {}", 
+            goal.getName(), userId, linkedInstitutions.size(), goal.getTargetAmount(), goal.getIsCompleted());
+        
+        writeGoal(goal, institutionMap.values());
+        dashboardService.recordGoal(goal, institutionMap.values());
+        
+        logger.info("Successfully created goal {} for user {}", goal.getGoalId(), userId);
+
+        return mapToResponse(goal);
+    }
+
     public List<GoalResponse> getUserGoals(String userId) {
         if (userId == null || userId.trim().isEmpty()) {
             throw new IllegalArgumentException("User ID cannot be null or empty");
@@ -158,60 +185,15 @@ public class GoalService {
         try {
             logger.info("Deleting goal {} for user {}", goalId, userId);
             
-            // First verify the goal exists and belongs to the user
-            Goal goal = goalRepository.findByUserIdAndGoalId(userId, goalId);
-            
-            if (goal == null) {
-                throw new InstitutionNotFoundException("Goal not found with ID: " + goalId);
-            }
-            
-            // Update all linked institutions to remove allocations and goal references
-            if (goal.getLinkedInstitutions() != null && !goal.getLinkedInstitutions().isEmpty()) {
-                logger.info("Removing goal {} from {} linked institutions", 
-                    goalId, goal.getLinkedInstitutions().size());
-                
-                for (Map.Entry<String, Integer> entry : goal.getLinkedInstitutions().entrySet()) {
-                    String institutionId = entry.getKey();
-                    Integer allocatedPercent = entry.getValue();
-                    
-                    try {
-                        Institution institution = institutionRepository.findByUserIdAndInstitutionId(userId, institutionId);
-                        
-                        if (institution == null) {
-                            logger.warn("Institution {} not found for goal {}, skipping", institutionId, goalId);
-                            continue;
-                        }
-                        
-                        // Reduce allocated percent
-                        Integer currentAllocation = institution.getAllocatedPercent() != null 
-                            ? institution.getAllocatedPercent() : 0;
-                        institution.setAllocatedPercent(currentAllocation - allocatedPercent);
-                        
-                        // Remove goal from linkedGoals list
-                        if (institution.getLinkedGoals() != null) {
-                            institution.getLinkedGoals().remove(goalId);
-                        }
-                        
-                        institutionRepository.save(institution);
-                        
-                        logger.debug("Removed allocation {}% and goal reference from institution {}", 
-                            allocatedPercent, institutionId);
-                        
-                    } catch (Exception e) {
-                        logger.error("Error updating institution {} while deleting goal {}: {}", 
-                            institutionId, goalId, e.getMessage(), e);
-                        // Continue with other institutions
-                    }
-                }
-            }
-            
-            // Delete the goal
-            goalRepository.delete(userId, goalId);
+            // Each attempt re-reads the goal and its institutions, so links a concurrent edit added are released too
+            List<Institution> releasedInstitutions = OptimisticLocking.retryOnConflict("delete goal",
+                () -> deleteGoalAttempt(userId, goalId));
+            dashboardService.removeGoal(userId, goalId, releasedInstitutions);
             
             logger.info("Successfully deleted goal {} and updated all linked institutions for user {}", 
                 goalId, userId);
             
-        } catch (InstitutionNotFoundException e) {
+        } catch (InstitutionNotFoundException | ConcurrentUpdateException e) {
             throw e; // Re-throw not found exceptions
         } catch (DynamoDbException e) {
             logger.error("DynamoDB error while deleting goal {} for user {}: {}", 
@@ -224,6 +206,59 @@ public class GoalService {
         }
     }
 
+    /**
+     * Delete the goal and take its share off every linked institution in one write, conditional
+     * on the goal and institution versions that were read
+     * @return the institutions as written
+     */
+    private List<Institution> deleteGoalAttempt(String userId, String goalId) {
+        // First verify the goal exists and belongs to the user
+        Goal goal = goalRepository.findByUserIdAndGoalId(userId, goalId);
+        
+        if (goal == null) {
+            throw new InstitutionNotFoundException("Goal not found with ID: " + goalId);
+        }
+        
+        // Update all linked institutions to remove allocations and goal references
+        Map<String, Integer> linkedInstitutions = goal.getLinkedInstitutions() != null
+            ? goal.getLinkedInstitutions() : Map.of();
+        List<Institution> releasedInstitutions = new ArrayList<>();
+        if (!linkedInstitutions.isEmpty()) {
+            logger.info("Removing goal {} from {} linked institutions", goalId, linkedInstitutions.size());
+            
+            Map<String, Institution> institutions =
+                institutionRepository.findAllByUserIdAndInstitutionIds(userId, linkedInstitutions.keySet());
+            for (Map.Entry<String, Integer> entry : linkedInstitutions.entrySet()) {
+                Institution institution = institutions.get(entry.getKey());
+                if (institution == null) {
+                    logger.warn("Institution {} not found for goal {}, skipping", entry.getKey(), goalId);
+                    continue;
+                }
+                
+                // Reduce allocated percent
+                Integer currentAllocation = institution.getAllocatedPercent() != null 
+                    ? institution.getAllocatedPercent() : 0;
+                institution.setAllocatedPercent(currentAllocation - entry.getValue());
+                
+                // Remove goal from linkedGoals list
+                if (institution.getLinkedGoals() != null) {
+                    institution.getLinkedGoals().remove(goalId);
+                }
+                releasedInstitutions.add(institution);
+                
+                logger.debug("Removed allocation {}% and goal reference from institution {}", 
+                    entry.getValue(), entry.getKey());
+            }
+        }
+        
+        EntityWrite write = new EntityWrite().deleteGoal(goal);
+        releasedInstitutions.forEach(write::putInstitution);
+        changeLogService.recordInstitutions(write, releasedInstitutions);
+        changeLogService.removeGoal(write, userId, goalId);
+        entityWriteRepository.write(write);
+        return releasedInstitutions;
+    }
+
     public GoalResponse editGoal(String userId, String goalId, EditGoalRequest request) {
         if (userId == null || userId.trim().isEmpty()) {
             throw new IllegalArgumentException("User ID cannot be null or empty");
@@ -236,193 +271,227 @@ public class GoalService {
         try {
             logger.info("Editing goal {} for user {}", goalId, userId);
             
-            // First verify the goal exists and belongs to the user
-            Goal goal = goalRepository.findByUserIdAndGoalId(userId, goalId);
+            // Each attempt re-reads the goal and institutions, so a retry re-applies the edit to fresh state
+            return OptimisticLocking.retryOnConflict("edit goal", () -> editGoalAttempt(userId, goalId, request));
+            
+        } catch (InvalidInstitutionDataException | InstitutionNotFoundException | ConcurrentUpdateException e) {
+            throw e; // Re-throw validation and not found exceptions
+        } catch (DynamoDbException e) {
+            logger.error("DynamoDB error while editing goal {} for user {}: {}", 
+                goalId, userId, e.getMessage(), e);
+            throw e;
+        } catch (Exception e) {
+            logger.error("Unexpected error while editing goal {} for user {}: {}", 
+                goalId, userId, e.getMessage(), e);
+            throw new RuntimeException("Failed to edit goal", e);
+        }
+    }
+
+    private GoalResponse editGoalAttempt(String userId, String goalId, EditGoalRequest request) {
+        // First verify the goal exists and belongs to the user
+        Goal goal = goalRepository.findByUserIdAndGoalId(userId, goalId);
+        
+        if (goal == null) {
+            throw new InstitutionNotFoundException("Goal not found with ID: " + goalId);
+        }
+        
+        boolean updated = false;
+        Collection<Institution> institutionsToWrite = List.of();
+        
+        // Update name if provided
+        if (request.getName() != null) {
+            String newName = request.getName().trim();
+            
+            if (newName.isEmpty()) {
+                throw new InvalidInstitutionDataException("Goal name cannot be empty");
+            }
             
-            if (goal == null) {
-                throw new InstitutionNotFoundException("Goal not found with ID: " + goalId);
+            if (newName.length() > MAX_GOAL_NAME_LENGTH) {
+                throw new InvalidInstitutionDataException(
+                    "Goal name cannot exceed " + MAX_GOAL_NAME_LENGTH + " characters");
             }
             
-            boolean updated = false;
+            logger.debug("Updating goal name from '{}' to '{}'", goal.getName(), newName);
+            goal.setName(newName);
+            updated = true;
+        }
+        
+        // Update description if provided
+        if (request.getDescription() != null) {
+            String newDescription = request.getDescription().trim();
             
-            // Update name if provided
-            if (request.getName() != null) {
-                String newName = request.getName().trim();
-                
-                if (newName.isEmpty()) {
-                    throw new InvalidInstitutionDataException("Goal name cannot be empty");
-                }
-                
-                if (newName.length() > MAX_GOAL_NAME_LENGTH) {
-                    throw new InvalidInstitutionDataException(
-                        "Goal name cannot exceed " + MAX_GOAL_NAME_LENGTH + " characters");
-                }
-                
-                logger.debug("Updating goal name from '{}' to '{}'", goal.getName(), newName);
-                goal.setName(newName);
-                updated = true;
+            if (newDescription.length() > MAX_GOAL_DESCRIPTION_LENGTH) {
+                throw new InvalidInstitutionDataException(
+                    "Goal description cannot exceed " + MAX_GOAL_DESCRIPTION_LENGTH + " characters");
             }
             
-            // Update description if provided
-            if (request.getDescription() != null) {
-                String newDescription = request.getDescription().trim();
-                
-                if (newDescription.length() > MAX_GOAL_DESCRIPTION_LENGTH) {
-                    throw new InvalidInstitutionDataException(
-                        "Goal description cannot exceed " + MAX_GOAL_DESCRIPTION_LENGTH + " characters");
-                }
-                
-                logger.debug("Updating goal description");
-                goal.setDescription(newDescription);
-                updated = true;
+            logger.debug("Updating goal description");
+            goal.setDescription(newDescription);
+            updated = true;
+        }
+        
+        // Update target amount if provided
+        if (request.getTargetAmount() != null) {
+            if (request.getTargetAmount() <= 0) {
+                throw new InvalidInstitutionDataException("Target amount must be greater than 0");
             }
             
-            // Update target amount if provided
-            if (request.getTargetAmount() != null) {
-                if (request.getTargetAmount() <= 0) {
-                    throw new InvalidInstitutionDataException("Target amount must be greater than 0");
+            logger.debug("Updating target amount from {} to {}", 
+                goal.getTargetAmount(), request.getTargetAmount());
+            goal.setTargetAmount(request.getTargetAmount());
+            updated = true;
+        }
+        
+        // Update linked institutions if provided
+        if (request.getLinkedInstitutions() != null) {
+            Map<String, Integer> newLinkedInstitutions = request.getLinkedInstitutions();
+            
+            // Validate percentages
+            for (Map.Entry<String, Integer> entry : newLinkedInstitutions.entrySet()) {
+                Integer percent = entry.getValue();
+                if (percent < 0 || percent > 100) {
+                    throw new InvalidInstitutionDataException(
+                        "Allocation percentage must be between 0 and 100");
                 }
-                
-                logger.debug("Updating target amount from {} to {}", 
-                    goal.getTargetAmount(), request.getTargetAmount());
-                goal.setTargetAmount(request.getTargetAmount());
-                updated = true;
             }
             
-            // Update linked institutions if provided
-            if (request.getLinkedInstitutions() != null) {
-                Map<String, Integer> newLinkedInstitutions = request.getLinkedInstitutions();
-                
-                // Validate percentages
-                for (Map.Entry<String, Integer> entry : newLinkedInstitutions.entrySet()) {
-                    Integer percent = entry.getValue();
-                    if (percent < 0 || percent > 100) {
-                        throw new InvalidInstitutionDataException(
-                            "Allocation percentage must be between 0 and 100");
-                    }
-                }
+            // Get old linked institutions
+            Map<String, Integer> oldLinkedInstitutions = goal.getLinkedInstitutions() != null 
+                ? goal.getLinkedInstitutions() 
+                : new HashMap<>();
+            
+            // Read every institution the edit touches (new links and dropped links) in one batch
+            Set<String> touchedInstitutionIds = new LinkedHashSet<>(newLinkedInstitutions.keySet());
+            touchedInstitutionIds.addAll(oldLinkedInstitutions.keySet());
+            Map<String, Institution> institutions = 
+                institutionRepository.findAllByUserIdAndInstitutionIds(userId, touchedInstitutionIds);
+            
+            // Validate new institutions and calculate available allocations
+            Map<String, Institution> newInstitutionMap = new HashMap<>();
+            for (String institutionId : newLinkedInstitutions.keySet()) {
+                Institution institution = institutions.get(institutionId);
                 
-                // Validate new institutions and calculate available allocations
-                Map<String, Institution> newInstitutionMap = new HashMap<>();
-                for (String institutionId : newLinkedInstitutions.keySet()) {
-                    Institution institution = institutionRepository.findByUserIdAndInstitutionId(userId, institutionId);
-                    
-                    if (institution == null) {
-                        throw new InstitutionNotFoundException("Institution not found with ID: " + institutionId);
-                    }
-                    
-                    newInstitutionMap.put(institutionId, institution);
+                if (institution == null) {
+                    throw new InstitutionNotFoundException("Institution not found with ID: " + institutionId);
                 }
                 
-                // Get old linked institutions
-                Map<String, Integer> oldLinkedInstitutions = goal.getLinkedInstitutions() != null 
-                    ? goal.getLinkedInstitutions() 
-                    : new HashMap<>();
-                
-                // Remove allocations from old institutions that are no longer linked
-                for (Map.Entry<String, Integer> entry : oldLinkedInstitutions.entrySet()) {
-                    String institutionId = entry.getKey();
-                    Integer oldPercent = entry.getValue();
-                    
-                    if (!newLinkedInstitutions.containsKey(institutionId)) {
-                        // This institution is no longer linked, remove allocation and goal reference
-                        Institution institution = institutionRepository.findByUserIdAndInstitutionId(userId, institutionId);
-                        if (institution != null) {
-                            Integer currentAllocation = institution.getAllocatedPercent() != null 
-                                ? institution.getAllocatedPercent() : 0;
-                            institution.setAllocatedPercent(currentAllocation - oldPercent);
-                            
-                            // Remove goal from linkedGoals list
-                            if (institution.getLinkedGoals() != null) {
-                                institution.getLinkedGoals().remove(goalId);
-                            }
-                            
-                            institutionRepository.save(institution);
-                            logger.debug("Removed allocation {} from institution {}", oldPercent, institutionId);
-                        }
-                    }
-                }
+                newInstitutionMap.put(institutionId, institution);
+            }
+            
+            // Institutions whose bookkeeping changes; written together with the goal below
+            Map<String, Institution> changedInstitutions = new LinkedHashMap<>();
+            
+            // Remove allocations from old institutions that are no longer linked
+            for (Map.Entry<String, Integer> entry : oldLinkedInstitutions.entrySet()) {
+                String institutionId = entry.getKey();
+                Integer oldPercent = entry.getValue();
                 
-                // Add/update allocations for new or modified institutions
-                for (Map.Entry<String, Integer> entry : newLinkedInstitutions.entrySet()) {
-                    String institutionId = entry.getKey();
-                    Integer newPercent = entry.getValue();
-                    Integer oldPercent = oldLinkedInstitutions.getOrDefault(institutionId, 0);
-                    
-                    if (!newPercent.equals(oldPercent)) {
-                        Institution institution = newInstitutionMap.get(institutionId);
+                if (!newLinkedInstitutions.containsKey(institutionId)) {
+                    // This institution is no longer linked, remove allocation and goal reference
+                    Institution institution = institutions.get(institutionId);
+                    if (institution != null) {
                         Integer currentAllocation = institution.getAllocatedPercent() != null 
                             ? institution.getAllocatedPercent() : 0;
+                        institution.setAllocatedPercent(currentAllocation - oldPercent);
                         
-                        // Calculate new allocation (remove old, add new)
-                        int netChange = newPercent - oldPercent;
-                        int finalAllocation = currentAllocation + netChange;
-                        
-                        if (finalAllocation < 0 || finalAllocation > 100) {
-                            throw new InvalidInstitutionDataException(
-                                "Institution " + institutionId + " would have allocation " + finalAllocation + 
-                                "% which exceeds the allowed range (0-100%)");
-                        }
-                        
-                        institution.setAllocatedPercent(finalAllocation);
-                        
-                        // Add goal to linkedGoals if not already present
-                        if (institution.getLinkedGoals() == null) {
-                            institution.setLinkedGoals(new ArrayList<>());
-                        }
-                        if (!institution.getLinkedGoals().contains(goalId)) {
-                            institution.getLinkedGoals().add(goalId);
+                        // Remove goal from linkedGoals list
+                        if (institution.getLinkedGoals() != null) {
+                            institution.getLinkedGoals().remove(goalId);
                         }
                         
-                        institutionRepository.save(institution);
-                        logger.debug("Updated institution {} allocation from {} to {}", 
-                            institutionId, currentAllocation, finalAllocation);
+                        changedInstitutions.put(institutionId, institution);
+                        logger.debug("Removed allocation {} from institution {}", oldPercent, institutionId);
                     }
                 }
+            }
+            
+            // Add/update allocations for new or modified institutions
+            for (Map.Entry<String, Integer> entry : newLinkedInstitutions.entrySet()) {
+                String institutionId = entry.getKey();
+                Integer newPercent = entry.getValue();
+                Integer oldPercent = oldLinkedInstitutions.getOrDefault(institutionId, 0);
                 
-                // Update goal's linked institutions
-                goal.setLinkedInstitutions(new HashMap<>(newLinkedInstitutions));
-                updated = true;
-                
-                // Recalculate completion status
-                double totalAllocatedAmount = 0.0;
-                for (Map.Entry<String, Integer> entry : newLinkedInstitutions.entrySet()) {
-                    String institutionId = entry.getKey();
-                    Integer allocationPercent = entry.getValue();
+                if (!newPercent.equals(oldPercent)) {
                     Institution institution = newInstitutionMap.get(institutionId);
+                    Integer currentAllocation = institution.getAllocatedPercent() != null 
+                        ? institution.getAllocatedPercent() : 0;
+                    
+                    // Calculate new allocation (remove old, add new)
+                    int netChange = newPercent - oldPercent;
+                    int finalAllocation = currentAllocation + netChange;
+                    
+                    if (finalAllocation < 0 || finalAllocation > 100) {
+                        throw new InvalidInstitutionDataException(
+                            "Institution " + institutionId + " would have allocation " + finalAllocation + 
+                            "% which exceeds the allowed range (0-100%)");
+                    }
                     
-                    double institutionCurrentBalance = institution.getCurrentBalance() != null 
-                        ? institution.getCurrentBalance() : 0.0;
-                    double allocatedAmount = (institutionCurrentBalance * allocationPercent) / 100.0;
-                    totalAllocatedAmount += allocatedAmount;
+                    institution.setAllocatedPercent(finalAllocation);
+                    
+                    // Add goal to linkedGoals if not already present
+                    if (institution.getLinkedGoals() == null) {
+                        institution.setLinkedGoals(new ArrayList<>());
+                    }
+                    if (!institution.getLinkedGoals().contains(goalId)) {
+                        institution.getLinkedGoals().add(goalId);
+                    }
+                    
+                    changedInstitutions.put(institutionId, institution);
+                    logger.debug("Updated institution {} allocation from {} to {}", 
+                        institutionId, currentAllocation, finalAllocation);
                 }
-                
-                Double targetAmount = goal.getTargetAmount();
-                goal.setIsCompleted(totalAllocatedAmount >= targetAmount);
-                logger.debug("Recalculated completion status: {} (allocated: {}, target: {})", 
-                    goal.getIsCompleted(), totalAllocatedAmount, targetAmount);
             }
             
-            if (!updated) {
-                logger.warn("Edit request for goal {} had no changes", goalId);
-            } else {
-                goalRepository.save(goal);
-                logger.info("Successfully edited goal {} for user {}", goalId, userId);
+            if (changedInstitutions.size() > MAX_INSTITUTIONS_PER_WRITE) {
+                throw new InvalidInstitutionDataException(
+                    "A goal edit cannot change more than " + MAX_INSTITUTIONS_PER_WRITE 
+                    + " institutions at once");
             }
             
-            return mapToResponse(goal);
+            // Update goal's linked institutions
+            goal.setLinkedInstitutions(new HashMap<>(newLinkedInstitutions));
+            institutionsToWrite = changedInstitutions.values();
+            updated = true;
             
-        } catch (InvalidInstitutionDataException | InstitutionNotFoundException e) {
-            throw e; // Re-throw validation and not found exceptions
-        } catch (DynamoDbException e) {
-            logger.error("DynamoDB error while editing goal {} for user {}: {}", 
-                goalId, userId, e.getMessage(), e);
-            throw e;
-        } catch (Exception e) {
-            logger.error("Unexpected error while editing goal {} for user {}: {}", 
-                goalId, userId, e.getMessage(), e);
-            throw new RuntimeException("Failed to edit goal", e);
+            // Recalculate completion status
+            double totalAllocatedAmount = 0.0;
+            for (Map.Entry<String, Integer> entry : newLinkedInstitutions.entrySet()) {
+                String institutionId = entry.getKey();
+                Integer allocationPercent = entry.getValue();
+                Institution institution = newInstitutionMap.get(institutionId);
+                
+                double institutionCurrentBalance = institution.getCurrentBalance() != null 
+                    ? institution.getCurrentBalance() : 0.0;
+                double allocatedAmount = (institutionCurrentBalance * allocationPercent) / 100.0;
+                totalAllocatedAmount += allocatedAmount;
+            }
+            
+            Double targetAmount = goal.getTargetAmount();
+            goal.setIsCompleted(totalAllocatedAmount >= targetAmount);
+            logger.debug("Recalculated completion status: {} (allocated: {}, target: {})", 
+                goal.getIsCompleted(), totalAllocatedAmount, targetAmount);
+        }
+        
+        if (!updated) {
+            logger.warn("Edit request for goal {} had no changes", goalId);
+        } else {
+            writeGoal(goal, institutionsToWrite);
+            dashboardService.recordGoal(goal, institutionsToWrite);
+            logger.info("Successfully edited goal {} for user {}", goalId, userId);
         }
+        
+        return mapToResponse(goal);
+    }
+
+    /**
+     * Put the goal, the institutions whose allocation bookkeeping it changed (allocatedPercent,
+     * linkedGoals) and their change log entries in one transaction
+     */
+    private void writeGoal(Goal goal, Collection<Institution> institutions) {
+        EntityWrite write = new EntityWrite().putGoal(goal);
+        institutions.forEach(write::putInstitution);
+        changeLogService.recordGoal(write, goal, institutions);
+        entityWriteRepository.write(write);
     }
 
     private void validateGoalRequest(CreateGoalRequest request) {
@@ -452,6 +521,11 @@ public class GoalService {
             throw new InvalidInstitutionDataException("At least one linked institution is required");
         }
         
+        if (request.getLinkedInstitutions().size() > MAX_INSTITUTIONS_PER_WRITE) {
+            throw new InvalidInstitutionDataException(
+                "A goal cannot be linked to more than " + MAX_INSTITUTIONS_PER_WRITE + " institutions");
+        }
+        
         // Validate percentages
         for (Map.Entry<String, Integer> entry : request.getLinkedInstitutions().entrySet()) {
             Integer percent = entry.getValue();
@@ -465,12 +539,15 @@ public class GoalService {
     private Map<String, Institution> validateAndGetInstitutions(String userId, Map<String, Integer> linkedInstitutions) {
         Map<String, Institution> institutionMap = new HashMap<>();
         
+        // Fetch all linked institutions in one batch
+        Map<String, Institution> institutions = 
+            institutionRepository.findAllByUserIdAndInstitutionIds(userId, linkedInstitutions.keySet());
+        
         for (Map.Entry<String, Integer> entry : linkedInstitutions.entrySet()) {
             String institutionId = entry.getKey();
             Integer requestedAllocation = entry.getValue();
             
-            // Fetch the institution
-            Institution institution = institutionRepository.findByUserIdAndInstitutionId(userId, institutionId);
+            Institution institution = institutions.get(institutionId);
             
             if (institution == null) {
                 throw new com.cpsc.backend.exception.InstitutionNotFoundException(
@@ -496,7 +573,7 @@ public class GoalService {
         return institutionMap;
     }
 
-    private GoalResponse mapToResponse(Goal goal) {
+    GoalResponse mapToResponse(Goal goal) {
         try {
             GoalResponse response = new GoalResponse();
             response.setGoalId(UUID.fromString(goal.getGoalId()));
@@ -529,47 +606,8 @@ public class GoalService {
         
         for (String goalId : institution.getLinkedGoals()) {
             try {
-                Goal goal = goalRepository.findByUserIdAndGoalId(userId, goalId);
-                if (goal == null) {
-                    logger.warn("Goal {} not found for user {}, skipping completion update", goalId, userId);
-                    continue;
-                }
-                
-                // Recalculate total allocated amount across all linked institutions
-                double totalAllocatedAmount = 0.0;
-                for (Map.Entry<String, Integer> entry : goal.getLinkedInstitutions().entrySet()) {
-                    String instId = entry.getKey();
-                    Integer allocationPercent = entry.getValue();
-                    
-                    Institution inst;
-                    if (instId.equals(institutionId)) {
-                        // Use the updated institution passed in
-                        inst = institution;
-                    } else {
-                        // Fetch other institutions
-                        inst = institutionRepository.findByUserIdAndInstitutionId(userId, instId);
-                        if (inst == null) {
-                            logger.warn("Institution {} not found for goal {}, skipping", instId, goalId);
-                            continue;
-                        }
-                    }
-                    
-                    double institutionCurrentBalance = inst.getCurrentBalance() != null ? inst.getCurrentBalance() : 0.0;
-                    double allocatedAmount = (institutionCurrentBalance * allocationPercent) / 100.0;
-                    totalAllocatedAmount += allocatedAmount;
-                }
-                
-                // Update completion status
-                boolean wasCompleted = goal.getIsCompleted() != null && goal.getIsCompleted();
-                boolean isNowCompleted = totalAllocatedAmount >= goal.getTargetAmount();
-                
-                if (wasCompleted != isNowCompleted) {
-                    goal.setIsCompleted(isNowCompleted);
-                    goalRepository.save(goal);
-                    logger.info("Updated goal {} completion status from {} to {} (allocated: {}, target: {})", 
-                        goalId, wasCompleted, isNowCompleted, totalAllocatedAmount, goal.getTargetAmount());
-                }
-                
+                OptimisticLocking.retryOnConflict("update goal completion",
+                    () -> refreshGoalCompletion(userId, goalId, institutionId, institution));
             } catch (Exception e) {
                 logger.error("Error updating completion status for goal {}: {}", goalId, e.getMessage(), e);
                 // Continue with other goals
@@ -594,61 +632,116 @@ public class GoalService {
         
         for (String goalId : linkedGoals) {
             try {
-                Goal goal = goalRepository.findByUserIdAndGoalId(userId, goalId);
-                if (goal == null) {
-                    logger.warn("Goal {} not found for user {}, skipping", goalId, userId);
+                OptimisticLocking.retryOnConflict("remove institution from goal",
+                    () -> detachInstitution(userId, goalId, institutionId));
+            } catch (Exception e) {
+                logger.error("Error removing institution {} from goal {}: {}", 
+                    institutionId, goalId, e.getMessage(), e);
+                // Continue with other goals
+            }
+        }
+    }
+
+    /**
+     * Recalculate one goal's completion against the changed institution. The goal is re-read on
+     * every attempt so a concurrent edit of it is not overwritten.
+     */
+    private void refreshGoalCompletion(String userId, String goalId, String institutionId, Institution institution) {
+        Goal goal = goalRepository.findByUserIdAndGoalId(userId, goalId);
+        if (goal == null) {
+            logger.warn("Goal {} not found for user {}, skipping completion update", goalId, userId);
+            return;
+        }
+        
+        // Recalculate total allocated amount across all linked institutions
+        double totalAllocatedAmount = 0.0;
+        for (Map.Entry<String, Integer> entry : goal.getLinkedInstitutions().entrySet()) {
+            String instId = entry.getKey();
+            Integer allocationPercent = entry.getValue();
+            
+            Institution inst;
+            if (instId.equals(institutionId)) {
+                // Use the updated institution passed in
+                inst = institution;
+            } else {
+                // Fetch other institutions
+                inst = institutionRepository.findByUserIdAndInstitutionId(userId, instId);
+                if (inst == null) {
+                    logger.warn("Institution {} not found for goal {}, skipping", instId, goalId);
                     continue;
                 }
+            }
+            
+            double institutionCurrentBalance = inst.getCurrentBalance() != null ? inst.getCurrentBalance() : 0.0;
+            double allocatedAmount = (institutionCurrentBalance * allocationPercent) / 100.0;
+            totalAllocatedAmount += allocatedAmount;
+        }
+        
+        // Update completion status
+        boolean wasCompleted = goal.getIsCompleted() != null && goal.getIsCompleted();
+        boolean isNowCompleted = totalAllocatedAmount >= goal.getTargetAmount();
+        
+        if (wasCompleted != isNowCompleted) {
+            goal.setIsCompleted(isNowCompleted);
+            writeGoal(goal, List.of());
+            if (isNowCompleted) {
+                eventStreamService.publishGoalCompleted(goal);
+            }
+            logger.info("Updated goal {} completion status from {} to {} (allocated: {}, target: {})", 
+                goalId, wasCompleted, isNowCompleted, totalAllocatedAmount, goal.getTargetAmount());
+        }
+    }
+
+    /** Drop a deleted institution from one goal, re-reading the goal on every attempt */
+    private void detachInstitution(String userId, String goalId, String institutionId) {
+        Goal goal = goalRepository.findByUserIdAndGoalId(userId, goalId);
+        if (goal == null) {
+            logger.warn("Goal {} not found for user {}, skipping", goalId, userId);
+            return;
+        }
+        
+        // Get current linked institutions
+        Map<String, Integer> linkedInstitutions = goal.getLinkedInstitutions();
+        if (linkedInstitutions == null || !linkedInstitutions.containsKey(institutionId)) {
+            logger.warn("Institution {} not found in goal {}, skipping", institutionId, goalId);
+            return;
+        }
+        
+        // Remove the institution from the goal's linked institutions
+        Integer removedPercent = linkedInstitutions.remove(institutionId);
+        
+        // Update the goal with the new linked institutions map
+        goal.setLinkedInstitutions(linkedInstitutions);
+        
+        // Recalculate completion status if there are still linked institutions
+        if (!linkedInstitutions.isEmpty()) {
+            double totalAllocatedAmount = 0.0;
+            for (Map.Entry<String, Integer> entry : linkedInstitutions.entrySet()) {
+                String instId = entry.getKey();
+                Integer allocationPercent = entry.getValue();
                 
-                // Get current linked institutions
-                Map<String, Integer> linkedInstitutions = goal.getLinkedInstitutions();
-                if (linkedInstitutions == null || !linkedInstitutions.containsKey(institutionId)) {
-                    logger.warn("Institution {} not found in goal {}, skipping", institutionId, goalId);
+                Institution inst = institutionRepository.findByUserIdAndInstitutionId(userId, instId);
+                if (inst == null) {
+                    logger.warn("Institution {} not found for goal {}, skipping", instId, goalId);
                     continue;
                 }
                 
-                // Remove the institution from the goal's linked institutions
-                Integer removedPercent = linkedInstitutions.remove(institutionId);
-                
-                // Update the goal with the new linked institutions map
-                goal.setLinkedInstitutions(linkedInstitutions);
-                
-                // Recalculate completion status if there are still linked institutions
-                if (!linkedInstitutions.isEmpty()) {
-                    double totalAllocatedAmount = 0.0;
-                    for (Map.Entry<String, Integer> entry : linkedInstitutions.entrySet()) {
-                        String instId = entry.getKey();
-                        Integer allocationPercent = entry.getValue();
-                        
-                        Institution inst = institutionRepository.findByUserIdAndInstitutionId(userId, instId);
-                        if (inst == null) {
-                            logger.warn("Institution {} not found for goal {}, skipping", instId, goalId);
-                            continue;
-                        }
-                        
-                        double institutionCurrentBalance = inst.getCurrentBalance() != null 
-                            ? inst.getCurrentBalance() : 0.0;
-                        double allocatedAmount = (institutionCurrentBalance * allocationPercent) / 100.0;
-                        totalAllocatedAmount += allocatedAmount;
-                    }
-                    
-                    goal.setIsCompleted(totalAllocatedAmount >= goal.getTargetAmount());
-                } else {
-                    // No more linked institutions, goal cannot be completed
-                    goal.setIsCompleted(false);
-                }
-                
-                goalRepository.save(goal);
-                
-                logger.info("Removed institution {} ({}%) from goal {}, updated completion status to {}", 
-                    institutionId, removedPercent, goalId, goal.getIsCompleted());
-                
-            } catch (Exception e) {
-                logger.error("Error removing institution {} from goal {}: {}", 
-                    institutionId, goalId, e.getMessage(), e);
-                // Continue with other goals
+                double institutionCurrentBalance = inst.getCurrentBalance() != null 
+                    ? inst.getCurrentBalance() : 0.0;
+                double allocatedAmount = (institutionCurrentBalance * allocationPercent) / 100.0;
+                totalAllocatedAmount += allocatedAmount;
             }
+            
+            goal.setIsCompleted(totalAllocatedAmount >= goal.getTargetAmount());
+        } else {
+            // No more linked institutions, goal cannot be completed
+            goal.setIsCompleted(false);
         }
+        
+        writeGoal(goal, List.of());
+        
+        logger.info("Removed institution {} ({}%) from goal {}, updated completion status to {}", 
+            institutionId, removedPercent, goalId, goal.getIsCompleted());
     }
 
     /**
@@ -0,0 +1,451 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.entity.IdempotencyRecord;
+import com.cpsc.backend.exception.ConcurrentUpdateException;
+import com.cpsc.backend.exception.IdempotencyKeyReusedException;
+import com.cpsc.backend.exception.InstitutionNotFoundException;
+import com.cpsc.backend.exception.InvalidInstitutionDataException;
+import com.cpsc.backend.exception.InvalidTransactionDataException;
+import com.cpsc.backend.repository.IdempotencyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a create at most once per Idempotency-Key, so a client that retries after a lost response
+ * gets the original response back instead of a second write.
+ *
+ * The key is claimed in the idempotency table (a conditional put) before the operation runs;
+ * duplicates on other nodes find the claim and wait for the stored response. Duplicates arriving
+ * on the same node while the first is still running do not touch the table at all: they wait on
+ * the running request and share its result. Completed responses are also kept in a node-local
+ * LRU, so a retry to the same node is answered without a read.
+ *
+ * An operation that fails before writing anything (rejected input, a missing institution, a
+ * cancelled write) releases the key, and a retry runs it again. Any other failure may have been
+ * applied, so the key is marked failed instead and never runs the operation again. While the
+ * operation runs its claim is renewed every third of {@code idempotency.in-progress-timeout},
+ * so only a claim left behind by a node that died mid-request goes stale and can be taken over.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    static final String METRIC = "idempotency.requests";
+
+    private static final long POLL_INTERVAL_MS = 50;
+    private static final int MAX_CLAIM_ATTEMPTS = 3;
+
+    private final IdempotencyRepository idempotencyRepository;
+    private final Duration retention;
+    private final Duration inProgressTimeout;
+    private final Duration waitTimeout;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, StoredResponse> responses;
+    private final Map<String, CompletableFuture<StoredResponse>> running = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService leaseRenewals = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("idempotency-lease").daemon().factory());
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /**
+     * Response of an idempotent operation
+     * @param replayed true if it is the stored response of an earlier request with the same key
+     */
+    public record Result<T>(int status, T body, boolean replayed) {
+    }
+
+    private record StoredResponse(String requestHash, int status, String body, long expiresAtMillis) {
+    }
+
+    public IdempotencyService(IdempotencyRepository idempotencyRepository,
+                              @Value("${idempotency.key-retention:24h}") Duration retention,
+                              @Value("${idempotency.in-progress-timeout:30s}") Duration inProgressTimeout,
+                              @Value("${idempotency.wait-timeout:5s}") Duration waitTimeout,
+                              @Value("${idempotency.cache-size:10000}") int cacheSize,
+                              MeterRegistry meterRegistry) {
+        if (retention == null || retention.isNegative() || retention.isZero()) {
+            throw new IllegalArgumentException("Key retention must be positive");
+        }
+        if (inProgressTimeout == null || inProgressTimeout.isNegative() || inProgressTimeout.isZero()) {
+            throw new IllegalArgumentException("In-progress timeout must be positive");
+        }
+        if (waitTimeout == null || waitTimeout.isNegative()) {
+            throw new IllegalArgumentException("Wait timeout cannot be negative");
+        }
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("Cache size cannot be negative");
+        }
+
+        this.idempotencyRepository = idempotencyRepository;
+        this.retention = retention;
+        this.inProgressTimeout = inProgressTimeout;
+        this.waitTimeout = waitTimeout;
+        this.meterRegistry = meterRegistry;
+        this.responses = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Run the operation unless the key was already used, in which case return what it returned
+     * the first time
+     * @param operation names the operation and the resource it targets; part of the request fingerprint
+     * @param request the request body; part of the request fingerprint
+     * @param status HTTP status of a successful response
+     * @throws IdempotencyKeyReusedException if the key was used for a different operation or request body
+     * @throws ConcurrentUpdateException if a request with the key is still running after the wait timeout
+     */
+    public <T> Result<T> execute(String userId, String idempotencyKey, String operation, Object request,
+                                 int status, Class<T> responseType, Supplier<T> action) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+        if (idempotencyKey == null || idempotencyKey.trim().isEmpty()) {
+            throw new IllegalArgumentException("Idempotency-Key cannot be empty");
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key cannot be longer than " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String requestHash = fingerprint(operation, request);
+        String cacheKey = userId + "\n" + idempotencyKey;
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+
+        while (true) {
+            StoredResponse cached = cachedResponse(cacheKey);
+            if (cached != null) {
+                return replay(cached, requestHash, responseType);
+            }
+
+            CompletableFuture<StoredResponse> leader = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> first = running.putIfAbsent(cacheKey, leader);
+            if (first == null) {
+                try {
+                    return claimAndRun(userId, idempotencyKey, cacheKey, requestHash, status, responseType,
+                        action, deadline, leader);
+                } catch (RuntimeException e) {
+                    leader.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    running.remove(cacheKey, leader);
+                }
+            }
+
+            // A duplicate of a request this node is already running: share its result
+            try {
+                StoredResponse stored = first.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                return replay(stored, requestHash, responseType);
+            } catch (ExecutionException e) {
+                // It failed and released the key; run it ourselves
+                logger.debug("Request holding idempotency key failed, retrying it for user {}", userId);
+            } catch (TimeoutException e) {
+                throw stillRunning();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw stillRunning();
+            }
+        }
+    }
+
+    private <T> Result<T> claimAndRun(String userId, String idempotencyKey, String cacheKey, String requestHash,
+                                      int status, Class<T> responseType, Supplier<T> action, long deadline,
+                                      CompletableFuture<StoredResponse> leader) {
+        IdempotencyRecord claim;
+        int conflicts = 0;
+        while (true) {
+            IdempotencyRecord record = idempotencyRepository.find(userId, idempotencyKey);
+            long now = System.currentTimeMillis();
+
+            if (record != null && !isExpired(record, now)) {
+                if (!requestHash.equals(record.getRequestHash())) {
+                    throw reused();
+                }
+                if (IdempotencyRecord.FAILED.equals(record.getStatus())) {
+                    throw failed();
+                }
+                if (IdempotencyRecord.COMPLETED.equals(record.getStatus())) {
+                    StoredResponse stored = remember(cacheKey, record);
+                    leader.complete(stored);
+                    return replay(stored, requestHash, responseType);
+                }
+                if (record.getLockedUntil() != null && record.getLockedUntil() > now) {
+                    // Another node is running it
+                    if (System.nanoTime() >= deadline) {
+                        throw stillRunning();
+                    }
+                    sleep();
+                    continue;
+                }
+                logger.warn("Taking over abandoned idempotency key for user {}", userId);
+            }
+
+            // New key, expired record or abandoned claim; the put only succeeds against what was read
+            claim = record != null ? record : new IdempotencyRecord();
+            claim.setUserId(userId);
+            claim.setIdempotencyKey(idempotencyKey);
+            claim.setRequestHash(requestHash);
+            claim.setStatus(IdempotencyRecord.IN_PROGRESS);
+            claim.setResponseStatus(null);
+            claim.setResponseBody(null);
+            claim.setCreatedAt(Instant.ofEpochMilli(now).getEpochSecond());
+            claim.setLockedUntil(now + inProgressTimeout.toMillis());
+            claim.setExpiresAt(Instant.ofEpochMilli(now).plus(retention).getEpochSecond());
+            try {
+                idempotencyRepository.save(claim);
+                break;
+            } catch (ConditionalCheckFailedException e) {
+                if (++conflicts >= MAX_CLAIM_ATTEMPTS) {
+                    throw stillRunning();
+                }
+                logger.debug("Idempotency key for user {} was claimed concurrently, re-reading", userId);
+            }
+        }
+
+        T body;
+        Lease lease = new Lease(claim);
+        try {
+            body = action.get();
+        } catch (RuntimeException e) {
+            lease.end();
+            if (wroteNothing(e)) {
+                release(claim);
+            } else {
+                markFailed(claim);
+            }
+            throw e;
+        }
+        lease.end();
+
+        String json = write(body);
+        claim.setStatus(IdempotencyRecord.COMPLETED);
+        claim.setResponseStatus(status);
+        claim.setResponseBody(json);
+        claim.setLockedUntil(null);
+        try {
+            idempotencyRepository.save(claim);
+        } catch (RuntimeException e) {
+            // The write is done; a retry to this node is still answered from the cache below
+            logger.error("Could not store response for idempotency key of user {}: {}", userId, e.getMessage(), e);
+        }
+
+        StoredResponse stored = remember(cacheKey, claim);
+        leader.complete(stored);
+        count("executed");
+        return new Result<>(status, body, false);
+    }
+
+    private <T> Result<T> replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw reused();
+        }
+        try {
+            T body = objectMapper.readValue(stored.body(), responseType);
+            count("replayed");
+            logger.info("Replaying stored response for idempotency key");
+            return new Result<>(stored.status(), body, true);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response could not be read", e);
+        }
+    }
+
+    private StoredResponse cachedResponse(String cacheKey) {
+        StoredResponse stored = responses.get(cacheKey);
+        if (stored != null && stored.expiresAtMillis() <= System.currentTimeMillis()) {
+            responses.remove(cacheKey);
+            return null;
+        }
+        return stored;
+    }
+
+    private StoredResponse remember(String cacheKey, IdempotencyRecord record) {
+        StoredResponse stored = new StoredResponse(record.getRequestHash(), record.getResponseStatus(),
+            record.getResponseBody(), TimeUnit.SECONDS.toMillis(record.getExpiresAt()));
+        responses.put(cacheKey, stored);
+        return stored;
+    }
+
+    private void release(IdempotencyRecord claim) {
+        try {
+            idempotencyRepository.delete(claim);
+        } catch (RuntimeException e) {
+            // The claim stays until it is old enough to be taken over
+            logger.warn("Could not release idempotency key of user {}: {}", claim.getUserId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Keep a failed claim so the operation is not run again: it may have been applied even though
+     * no response came back
+     */
+    private void markFailed(IdempotencyRecord claim) {
+        claim.setStatus(IdempotencyRecord.FAILED);
+        claim.setLockedUntil(null);
+        try {
+            idempotencyRepository.save(claim);
+        } catch (RuntimeException e) {
+            logger.error("Could not mark idempotency key of user {} as failed: {}", claim.getUserId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Whether the operation failed before it wrote anything: it was rejected, or its write was
+     * cancelled. Entity writes are a single transaction, so a cancelled one leaves nothing behind.
+     * Anything else, such as a timeout waiting for the write's response, may have been applied.
+     */
+    static boolean wroteNothing(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IllegalArgumentException
+                    || cause instanceof InstitutionNotFoundException
+                    || cause instanceof InvalidInstitutionDataException
+                    || cause instanceof InvalidTransactionDataException
+                    || cause instanceof ConcurrentUpdateException
+                    || OptimisticLocking.isConflict(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isExpired(IdempotencyRecord record, long nowMillis) {
+        return record.getExpiresAt() != null && TimeUnit.SECONDS.toMillis(record.getExpiresAt()) <= nowMillis;
+    }
+
+    /** SHA-256 of the operation and the request body, to tell a retry from a different request reusing the key */
+    String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+
+    private String write(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response could not be stored", e);
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw stillRunning();
+        }
+    }
+
+    private IdempotencyKeyReusedException reused() {
+        count("reused");
+        return new IdempotencyKeyReusedException("Idempotency-Key was already used for a different request");
+    }
+
+    private IdempotencyKeyReusedException failed() {
+        count("failed");
+        return new IdempotencyKeyReusedException(
+            "The request with this Idempotency-Key failed and may have been applied; check before retrying with a new key");
+    }
+
+    private ConcurrentUpdateException stillRunning() {
+        count("in-progress");
+        return new ConcurrentUpdateException("A request with this Idempotency-Key is still being processed");
+    }
+
+    private void count(String outcome) {
+        Counter.builder(METRIC)
+            .description("Requests carrying an Idempotency-Key, by outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        leaseRenewals.shutdownNow();
+    }
+
+    /**
+     * Pushes a claim's {@code lockedUntil} forward while its operation runs, so a slow operation
+     * is not taken over and run a second time by another node. Each renewal is conditional on the
+     * claim's version like every other write of it; losing one means the claim was taken over,
+     * and renewing stops.
+     */
+    private final class Lease {
+
+        private final IdempotencyRecord claim;
+        private final ScheduledFuture<?> renewal;
+        private boolean ended;
+
+        Lease(IdempotencyRecord claim) {
+            this.claim = claim;
+            long interval = Math.max(1, inProgressTimeout.toMillis() / 3);
+            synchronized (this) {
+                this.renewal = leaseRenewals.scheduleAtFixedRate(this::renew, interval, interval, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private synchronized void renew() {
+            if (ended) {
+                return;
+            }
+            Long lockedUntil = claim.getLockedUntil();
+            claim.setLockedUntil(System.currentTimeMillis() + inProgressTimeout.toMillis());
+            try {
+                idempotencyRepository.save(claim);
+            } catch (ConditionalCheckFailedException e) {
+                logger.warn("Idempotency key of user {} was taken over while its request was running", claim.getUserId());
+                ended = true;
+                renewal.cancel(false);
+            } catch (RuntimeException e) {
+                // Tried again at the next interval, well before the current lease runs out
+                claim.setLockedUntil(lockedUntil);
+                logger.warn("Could not renew idempotency key of user {}: {}", claim.getUserId(), e.getMessage());
+            }
+        }
+
+        /** Stop renewing; the claim is only written by the caller from here on */
+        synchronized void end() {
+            ended = true;
+            renewal.cancel(false);
+        }
+    }
+}
@@ -2,10 +2,13 @@ package com.cpsc.backend.service;
 
 import com.cpsc.backend.entity.Institution;
 import com.cpsc.backend.entity.Transaction;
+import com.cpsc.backend.exception.ConcurrentUpdateException;
 import com.cpsc.backend.exception.InvalidInstitutionDataException;
 import com.cpsc.backend.model.CreateInstitutionRequest;
 import com.cpsc.backend.model.GetInstitutions200Response;
 import com.cpsc.backend.model.InstitutionResponse;
+import com.cpsc.backend.repository.EntityWrite;
+import com.cpsc.backend.repository.EntityWriteRepository;
 import com.cpsc.backend.repository.InstitutionRepository;
 import com.cpsc.backend.repository.TransactionRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -34,15 +37,27 @@ public class InstitutionService {
     
     private final InstitutionRepository institutionRepository;
     private final TransactionRepository transactionRepository;
+    private final EntityWriteRepository entityWriteRepository;
     private final GoalService goalService;
+    private final DashboardService dashboardService;
+    private final ChangeLogService changeLogService;
+    private final EventStreamService eventStreamService;
     private final ObjectMapper objectMapper;
 
     public InstitutionService(InstitutionRepository institutionRepository, 
                              TransactionRepository transactionRepository,
-                             GoalService goalService) {
+                             EntityWriteRepository entityWriteRepository,
+                             GoalService goalService,
+                             DashboardService dashboardService,
+                             ChangeLogService changeLogService,
+                             EventStreamService eventStreamService) {
         this.institutionRepository = institutionRepository;
         this.transactionRepository = transactionRepository;
+        this.entityWriteRepository = entityWriteRepository;
         this.goalService = goalService;
+        this.dashboardService = dashboardService;
+        this.changeLogService = changeLogService;
+        this.eventStreamService = eventStreamService;
         this.objectMapper = new ObjectMapper();
     }
 
@@ -67,13 +82,17 @@ public class InstitutionService {
             logger.info("Creating institution '{}' for user {} with starting balance {}", 
                 institution.getInstitutionName(), userId, institution.getStartingBalance());
             
-            institutionRepository.save(institution);
+            // Only the change log head can conflict here; the new institution is written again as is
+            OptimisticLocking.retryOnConflict("create institution", () -> writeInstitution(institution));
+            dashboardService.recordInstitutions(userId, List.of(institution));
             
             logger.info("Successfully created institution {} for user {}", 
                 institution.getInstitutionId(), userId);
 
             return mapToResponse(institution);
             
+        } catch (ConcurrentUpdateException e) {
+            throw e;
         } catch (DynamoDbException e) {
             logger.error("DynamoDB error while creating institution for user {}: {}", 
                 userId, e.getMessage(), e);
@@ -172,116 +191,129 @@ public class InstitutionService {
         try {
             logger.info("Editing institution {} for user {}", institutionId, userId);
             
-            // First verify the institution exists and belongs to the user
-            Institution institution = institutionRepository.findByUserIdAndInstitutionId(userId, institutionId);
+            // A concurrent goal or transaction write bumps the version; re-read and re-apply the edit
+            return OptimisticLocking.retryOnConflict("edit institution",
+                () -> editInstitutionAttempt(userId, institutionId, request));
             
-            if (institution == null) {
-                throw new com.cpsc.backend.exception.InstitutionNotFoundException(
-                    "Institution not found with ID: " + institutionId);
+        } catch (InvalidInstitutionDataException | ConcurrentUpdateException e) {
+            throw e; // Re-throw validation and conflict exceptions
+        } catch (com.cpsc.backend.exception.InstitutionNotFoundException e) {
+            throw e; // Re-throw not found exceptions
+        } catch (DynamoDbException e) {
+            logger.error("DynamoDB error while editing institution {} for user {}: {}", 
+                institutionId, userId, e.getMessage(), e);
+            throw e;
+        } catch (Exception e) {
+            logger.error("Unexpected error while editing institution {} for user {}: {}", 
+                institutionId, userId, e.getMessage(), e);
+            throw new RuntimeException("Failed to edit institution", e);
+        }
+    }
+    
+    private InstitutionResponse editInstitutionAttempt(String userId, String institutionId,
+            com.cpsc.backend.model.EditInstitutionRequest request) {
+        // First verify the institution exists and belongs to the user
+        Institution institution = institutionRepository.findByUserIdAndInstitutionId(userId, institutionId);
+        
+        if (institution == null) {
+            throw new com.cpsc.backend.exception.InstitutionNotFoundException(
+                "Institution not found with ID: " + institutionId);
+        }
+        
+        boolean updated = false;
+        boolean balanceChanged = false;
+        
+        // Update institution name if provided
+        if (request.getInstitutionName() != null) {
+            String newName = request.getInstitutionName().trim();
+            
+            if (newName.isEmpty()) {
+                throw new InvalidInstitutionDataException("Institution name cannot be empty");
             }
             
-            boolean updated = false;
+            if (newName.length() > MAX_INSTITUTION_NAME_LENGTH) {
+                throw new InvalidInstitutionDataException(
+                    "Institution name cannot exceed " + MAX_INSTITUTION_NAME_LENGTH + " characters");
+            }
             
-            // Update institution name if provided
-            if (request.getInstitutionName() != null) {
-                String newName = request.getInstitutionName().trim();
-                
-                if (newName.isEmpty()) {
-                    throw new InvalidInstitutionDataException("Institution name cannot be empty");
-                }
-                
-                if (newName.length() > MAX_INSTITUTION_NAME_LENGTH) {
-                    throw new InvalidInstitutionDataException(
-                        "Institution name cannot exceed " + MAX_INSTITUTION_NAME_LENGTH + " characters");
-                }
-                
-                logger.debug("Updating institution name from '{}' to '{}'", 
-                    institution.getInstitutionName(), newName);
-                institution.setInstitutionName(newName);
-                updated = true;
+            logger.debug("Updating institution name from '{}' to '{}'", 
+                institution.getInstitutionName(), newName);
+            institution.setInstitutionName(newName);
+            updated = true;
+        }
+        
+        // Update starting balance if provided
+        if (request.getStartingBalance() != null) {
+            double newStartingBalance = request.getStartingBalance();
+            
+            // Validate the new starting balance
+            if (newStartingBalance < 0) {
+                throw new InvalidInstitutionDataException("Starting balance cannot be negative");
             }
             
-            // Update starting balance if provided
-            if (request.getStartingBalance() != null) {
-                double newStartingBalance = request.getStartingBalance();
-                
-                // Validate the new starting balance
-                if (newStartingBalance < 0) {
-                    throw new InvalidInstitutionDataException("Starting balance cannot be negative");
-                }
-                
-                if (newStartingBalance > MAX_STARTING_BALANCE) {
-                    throw new InvalidInstitutionDataException(
-                        "Starting balance cannot exceed " + MAX_STARTING_BALANCE);
-                }
-                
-                if (Double.isNaN(newStartingBalance) || Double.isInfinite(newStartingBalance)) {
-                    throw new InvalidInstitutionDataException("Starting balance must be a valid number");
-                }
-                
-                // Calculate the difference and adjust current balance
-                double oldStartingBalance = institution.getStartingBalance();
-                double difference = newStartingBalance - oldStartingBalance;
-                
-                logger.debug("Updating starting balance from {} to {} (difference: {})", 
-                    oldStartingBalance, newStartingBalance, difference);
-                
-                institution.setStartingBalance(newStartingBalance);
-                
-                // Adjust current balance by the same difference
-                Double currentBalance = institution.getCurrentBalance();
-                if (currentBalance == null) {
-                    currentBalance = oldStartingBalance;
-                }
-                double newCurrentBalance = currentBalance + difference;
-                
-                logger.debug("Adjusting current balance from {} to {}", 
-                    currentBalance, newCurrentBalance);
-                
-                institution.setCurrentBalance(newCurrentBalance);
-                updated = true;
+            if (newStartingBalance > MAX_STARTING_BALANCE) {
+                throw new InvalidInstitutionDataException(
+                    "Starting balance cannot exceed " + MAX_STARTING_BALANCE);
             }
             
-            // Update allocated percent if provided
-            if (request.getAllocatedPercent() != null) {
-                int newAllocatedPercent = request.getAllocatedPercent();
-                
-                if (newAllocatedPercent < 0 || newAllocatedPercent > 100) {
-                    throw new InvalidInstitutionDataException("Allocated percent must be between 0 and 100");
-                }
-                
-                logger.debug("Updating allocated percent from {} to {}", 
-                    institution.getAllocatedPercent(), newAllocatedPercent);
-                
-                institution.setAllocatedPercent(newAllocatedPercent);
-                updated = true;
+            if (Double.isNaN(newStartingBalance) || Double.isInfinite(newStartingBalance)) {
+                throw new InvalidInstitutionDataException("Starting balance must be a valid number");
             }
             
-            if (!updated) {
-                logger.warn("Edit request for institution {} had no changes", institutionId);
-            } else {
-                institutionRepository.save(institution);
-                logger.info("Successfully edited institution {} for user {}", institutionId, userId);
-                
-                // Update goal completion status for all linked goals
-                goalService.updateGoalCompletionForInstitution(userId, institutionId, institution);
+            // Calculate the difference and adjust current balance
+            double oldStartingBalance = institution.getStartingBalance();
+            double difference = newStartingBalance - oldStartingBalance;
+            
+            logger.debug("Updating starting balance from {} to {} (difference: {})", 
+                oldStartingBalance, newStartingBalance, difference);
+            
+            institution.setStartingBalance(newStartingBalance);
+            
+            // Adjust current balance by the same difference
+            Double currentBalance = institution.getCurrentBalance();
+            if (currentBalance == null) {
+                currentBalance = oldStartingBalance;
             }
+            double newCurrentBalance = currentBalance + difference;
             
-            return mapToResponse(institution);
+            logger.debug("Adjusting current balance from {} to {}", 
+                currentBalance, newCurrentBalance);
             
-        } catch (InvalidInstitutionDataException e) {
-            throw e; // Re-throw validation exceptions
-        } catch (com.cpsc.backend.exception.InstitutionNotFoundException e) {
-            throw e; // Re-throw not found exceptions
-        } catch (DynamoDbException e) {
-            logger.error("DynamoDB error while editing institution {} for user {}: {}", 
-                institutionId, userId, e.getMessage(), e);
-            throw e;
-        } catch (Exception e) {
-            logger.error("Unexpected error while editing institution {} for user {}: {}", 
-                institutionId, userId, e.getMessage(), e);
-            throw new RuntimeException("Failed to edit institution", e);
+            institution.setCurrentBalance(newCurrentBalance);
+            updated = true;
+            balanceChanged = difference != 0;
+        }
+        
+        // Update allocated percent if provided
+        if (request.getAllocatedPercent() != null) {
+            int newAllocatedPercent = request.getAllocatedPercent();
+            
+            if (newAllocatedPercent < 0 || newAllocatedPercent > 100) {
+                throw new InvalidInstitutionDataException("Allocated percent must be between 0 and 100");
+            }
+            
+            logger.debug("Updating allocated percent from {} to {}", 
+                institution.getAllocatedPercent(), newAllocatedPercent);
+            
+            institution.setAllocatedPercent(newAllocatedPercent);
+            updated = true;
         }
+        
+        if (!updated) {
+            logger.warn("Edit request for institution {} had no changes", institutionId);
+        } else {
+            writeInstitution(institution);
+            dashboardService.recordInstitutions(userId, List.of(institution));
+            if (balanceChanged) {
+                eventStreamService.publishBalanceChanged(institution);
+            }
+            logger.info("Successfully edited institution {} for user {}", institutionId, userId);
+            
+            // Update goal completion status for all linked goals
+            goalService.updateGoalCompletionForInstitution(userId, institutionId, institution);
+        }
+        
+        return mapToResponse(institution);
     }
     
     /**
@@ -319,12 +351,19 @@ public class InstitutionService {
             // Bulk delete all transactions associated with this institution
             transactionRepository.deleteAllByInstitutionId(institutionId);
             
-            // Then delete the institution itself
-            institutionRepository.delete(userId, institutionId);
+            // Then delete the institution itself, logging its tombstone in the same transaction
+            OptimisticLocking.retryOnConflict("delete institution", () -> {
+                EntityWrite write = new EntityWrite().deleteInstitution(institution);
+                changeLogService.removeInstitution(write, userId, institutionId);
+                entityWriteRepository.write(write);
+            });
+            dashboardService.removeInstitution(userId, institutionId);
             
             logger.info("Successfully deleted institution {} and all associated transactions for user {}", 
                 institutionId, userId);
             
+        } catch (ConcurrentUpdateException e) {
+            throw e;
         } catch (DynamoDbException e) {
             logger.error("DynamoDB error while deleting institution {} for user {}: {}", 
                 institutionId, userId, e.getMessage(), e);
@@ -336,6 +375,13 @@ public class InstitutionService {
         }
     }
     
+    /** Put the institution together with its change log entry */
+    private void writeInstitution(Institution institution) {
+        EntityWrite write = new EntityWrite().putInstitution(institution);
+        changeLogService.recordInstitutions(write, List.of(institution));
+        entityWriteRepository.write(write);
+    }
+    
     private void validateInstitutionRequest(CreateInstitutionRequest request) {
         if (request.getInstitutionName() == null || request.getInstitutionName().trim().isEmpty()) {
             throw new InvalidInstitutionDataException("Institution name cannot be empty");
@@ -366,7 +412,7 @@ public class InstitutionService {
         }
     }
 
-    private InstitutionResponse mapToResponse(Institution institution) {
+    InstitutionResponse mapToResponse(Institution institution) {
         try {
             InstitutionResponse response = new InstitutionResponse();
             response.setInstitutionId(UUID.fromString(institution.getInstitutionId()));
@@ -396,7 +442,7 @@ public class InstitutionService {
     /**
      * Encode DynamoDB lastEvaluatedKey to a Base64 token
      */
-    private String encodeToken(Map<String, AttributeValue> lastEvaluatedKey) {
+    String encodeToken(Map<String, AttributeValue> lastEvaluatedKey) {
         if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) {
             return null;
         }
@@ -423,7 +469,7 @@ public class InstitutionService {
     /**
      * Decode Base64 token back to DynamoDB lastEvaluatedKey
      */
-    private Map<String, AttributeValue> decodeToken(String token) {
+    Map<String, AttributeValue> decodeToken(String token) {
         if (token == null || token.trim().isEmpty()) {
             return null;
         }
@@ -479,6 +525,9 @@ public class InstitutionService {
                 institutionRepository.delete(userId, institution.getInstitutionId());
             }
             
+            dashboardService.deleteSummary(userId);
+            changeLogService.deleteLog(userId);
+            
             logger.info("Successfully deleted all {} institutions and their transactions for user {}", 
                 institutions.size(), userId);
             
@@ -0,0 +1,85 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.exception.ConcurrentUpdateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Bounded retry loop for versioned read-modify-write sections. Institution and Goal puts are
+ * conditional on the version that was read, so a concurrent writer makes them fail instead of
+ * being overwritten. The section passed in must re-read everything it modifies, so each retry
+ * re-applies the change on top of the latest stored state.
+ */
+final class OptimisticLocking {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticLocking.class);
+
+    static final int MAX_ATTEMPTS = 5;
+    private static final long BASE_BACKOFF_MILLIS = 10;
+
+    private OptimisticLocking() {
+    }
+
+    /**
+     * Run the section until it completes without a version conflict
+     * @throws ConcurrentUpdateException if every attempt conflicted
+     */
+    static <T> T retryOnConflict(String operation, Supplier<T> section) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return section.get();
+            } catch (RuntimeException e) {
+                if (!isConflict(e)) {
+                    throw e;
+                }
+                if (attempt == MAX_ATTEMPTS) {
+                    logger.warn("Giving up on {} after {} conflicting attempts", operation, attempt);
+                    throw new ConcurrentUpdateException(
+                        "Could not " + operation + " because of concurrent updates. Please try again.");
+                }
+                logger.debug("Version conflict on attempt {} to {}, retrying", attempt, operation);
+                backOff(attempt, operation);
+            }
+        }
+    }
+
+    static void retryOnConflict(String operation, Runnable section) {
+        retryOnConflict(operation, () -> {
+            section.run();
+            return null;
+        });
+    }
+
+    /**
+     * A failed version condition, or a transaction cancelled because one of its conditions
+     * failed or it collided with another in-flight transaction on the same items
+     */
+    static boolean isConflict(Throwable e) {
+        if (e instanceof ConditionalCheckFailedException) {
+            return true;
+        }
+        if (e instanceof TransactionCanceledException canceled && canceled.hasCancellationReasons()) {
+            return canceled.cancellationReasons().stream()
+                .map(CancellationReason::code)
+                .anyMatch(code -> "ConditionalCheckFailed".equals(code) || "TransactionConflict".equals(code));
+        }
+        return false;
+    }
+
+    // Full jitter keeps competing writers from retrying in lockstep
+    private static void backOff(int attempt, String operation) {
+        long ceiling = BASE_BACKOFF_MILLIS << (attempt - 1);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Interrupted while retrying " + operation);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.exception.ReadTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Scope for independent repository reads that one request needs together. Each read forked into
+ * the scope runs on its own virtual thread, so the scope takes about as long as its slowest read
+ * rather than the sum of all of them.
+ *
+ * <pre>
+ * try (ParallelReads reads = ParallelReads.open(timeout)) {
+ *     ParallelReads.Read&lt;List&lt;Goal&gt;&gt; goals = reads.fork("goals", () -> goalRepository.findAllByUserId(userId));
+ *     ...
+ *     reads.join();
+ *     goals.get();
+ * }
+ * </pre>
+ *
+ * Reads are structured: {@link #join()} returns only once every forked read has succeeded. The
+ * first read to fail, or to pass its own timeout, cancels (interrupts) the others and
+ * {@code join} throws. Closing the scope cancels whatever is still running, so no read outlives
+ * the block that started it. A scope may be joined more than once, to fork reads that depend on
+ * an earlier round's results.
+ *
+ * Each read runs with the forking thread's request attributes, so DynamoDB metrics and the
+ * consumed-capacity summary attribute its calls to the request that forked it.
+ */
+final class ParallelReads implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelReads.class);
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("parallel-read-", 0).factory());
+    private final CompletionService<Object> completions = new ExecutorCompletionService<>(executor);
+    private final Duration defaultTimeout;
+    private final List<Read<?>> pending = new ArrayList<>();
+    private final List<Read<?>> forked = new ArrayList<>();
+
+    private ParallelReads(Duration defaultTimeout) {
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    /**
+     * @param defaultTimeout how long each read may take unless forked with its own timeout
+     */
+    static ParallelReads open(Duration defaultTimeout) {
+        if (defaultTimeout == null || defaultTimeout.isNegative() || defaultTimeout.isZero()) {
+            throw new IllegalArgumentException("Read timeout must be positive");
+        }
+        return new ParallelReads(defaultTimeout);
+    }
+
+    <T> Read<T> fork(String name, Supplier<T> read) {
+        return fork(name, defaultTimeout, read);
+    }
+
+    /**
+     * Start a read now; its result is available from {@link Read#get()} after {@link #join()}
+     * @param timeout measured from this call
+     */
+    <T> Read<T> fork(String name, Duration timeout, Supplier<T> read) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        Future<Object> future = completions.submit(() -> {
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            try {
+                return read.get();
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        });
+        Read<T> handle = new Read<>(name, deadline, future);
+        pending.add(handle);
+        forked.add(handle);
+        return handle;
+    }
+
+    /**
+     * Wait for every read forked since the last join
+     * @throws ReadTimeoutException if a read passed its timeout, or the caller was interrupted
+     * @throws RuntimeException the first failure of any read, unwrapped
+     */
+    void join() {
+        try {
+            while (!pending.isEmpty()) {
+                long now = System.nanoTime();
+                Read<?> earliest = pending.get(0);
+                for (Read<?> read : pending) {
+                    if (read.deadline < earliest.deadline) {
+                        earliest = read;
+                    }
+                }
+                if (earliest.deadline - now <= 0) {
+                    throw timedOut(earliest);
+                }
+
+                Future<Object> done = completions.poll(earliest.deadline - now, TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    continue; // re-evaluate: the earliest deadline has now passed
+                }
+                Read<?> read = take(done);
+                try {
+                    read.result = done.get();
+                    read.joined = true;
+                } catch (ExecutionException e) {
+                    cancelAll();
+                    throw unwrap(read.name, e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            cancelAll();
+            Thread.currentThread().interrupt();
+            throw new ReadTimeoutException("Interrupted while waiting for reads to complete");
+        }
+    }
+
+    /**
+     * Cancel anything still running. Does not wait for cancelled reads to unwind, so a read
+     * blocked in I/O cannot hold the request past its timeout.
+     */
+    @Override
+    public void close() {
+        cancelAll();
+        executor.shutdownNow();
+    }
+
+    private Read<?> take(Future<Object> done) {
+        for (int i = 0; i < pending.size(); i++) {
+            if (pending.get(i).future == done) {
+                return pending.remove(i);
+            }
+        }
+        throw new IllegalStateException("Completed read was not forked in this scope");
+    }
+
+    private ReadTimeoutException timedOut(Read<?> read) {
+        logger.warn("Read '{}' did not complete within its timeout, cancelling {} pending reads",
+            read.name, pending.size());
+        cancelAll();
+        return new ReadTimeoutException("Timed out reading " + read.name + ". Please try again.");
+    }
+
+    private void cancelAll() {
+        for (Read<?> read : forked) {
+            read.future.cancel(true);
+        }
+        pending.clear();
+    }
+
+    private static RuntimeException unwrap(String name, Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new RuntimeException("Failed to read " + name, cause);
+    }
+
+    /**
+     * Handle to one forked read
+     */
+    static final class Read<T> {
+
+        private final String name;
+        private final long deadline;
+        private final Future<Object> future;
+        private Object result;
+        private boolean joined;
+
+        private Read(String name, long deadline, Future<Object> future) {
+            this.name = name;
+            this.deadline = deadline;
+            this.future = future;
+        }
+
+        /**
+         * @throws IllegalStateException if the read has not been joined successfully
+         */
+        @SuppressWarnings("unchecked")
+        T get() {
+            if (!joined) {
+                throw new IllegalStateException("Read '" + name + "' has not completed; call join() first");
+            }
+            return (T) result;
+        }
+    }
+}
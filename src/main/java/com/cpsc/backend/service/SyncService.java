@@ -0,0 +1,183 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.entity.ChangeRecord;
+import com.cpsc.backend.entity.Goal;
+import com.cpsc.backend.entity.Institution;
+import com.cpsc.backend.entity.Transaction;
+import com.cpsc.backend.model.SyncChange;
+import com.cpsc.backend.model.SyncResponse;
+import com.cpsc.backend.repository.ChangeLogRepository;
+import com.cpsc.backend.repository.InstitutionRepository;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Delta sync for mobile clients: replays the user's change log (written by
+ * {@link ChangeLogService}) forward from the client's cursor.
+ *
+ * The cursor is the last sequence the client has applied. Sequences are contiguous, so any gap
+ * after it - entries removed by TTL - means changes are no longer available; the response then
+ * asks for a full resync and carries the current head as the new cursor. Reloading after taking
+ * that cursor is safe: changes made in between are replayed on the next sync, and applying an
+ * upsert or tombstone twice is harmless.
+ */
+@Service
+public class SyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncService.class);
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final ChangeLogRepository changeLogRepository;
+    private final InstitutionService institutionService;
+    private final GoalService goalService;
+    private final TransactionService transactionService;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    public SyncService(ChangeLogRepository changeLogRepository,
+                       InstitutionService institutionService,
+                       GoalService goalService,
+                       TransactionService transactionService) {
+        this.changeLogRepository = changeLogRepository;
+        this.institutionService = institutionService;
+        this.goalService = goalService;
+        this.transactionService = transactionService;
+    }
+
+    public SyncResponse getChanges(String userId, String since, Integer limit) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+
+        Long cursor = parseCursor(since);
+        int pageSize = (limit != null && limit > 0) ? Math.min(limit, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+
+        try {
+            long lastSequence = changeLogRepository.findLastSequence(userId);
+            if (cursor == null || cursor > lastSequence) {
+                // No cursor, or one from a log that has since been deleted
+                return fullResync(userId, lastSequence);
+            }
+            if (cursor == lastSequence) {
+                return response(lastSequence, false, false, List.of());
+            }
+
+            InstitutionRepository.PaginatedResult<ChangeRecord> page =
+                changeLogRepository.findPageAfter(userId, cursor, pageSize);
+
+            long expected = cursor + 1;
+            for (ChangeRecord entry : page.getItems()) {
+                if (entry.getSequence() != expected) {
+                    logger.info("Change log for user {} has a gap at sequence {}", userId, expected);
+                    return fullResync(userId, lastSequence);
+                }
+                expected++;
+            }
+            if (page.getItems().isEmpty()) {
+                logger.info("Change log for user {} no longer holds sequence {}", userId, expected);
+                return fullResync(userId, lastSequence);
+            }
+
+            long next = expected - 1;
+            List<SyncChange> changes = compact(page.getItems());
+
+            logger.info("Returning {} changes ({} log entries) after sequence {} for user {}",
+                changes.size(), page.getItems().size(), cursor, userId);
+
+            return response(next, false, next < lastSequence, changes);
+
+        } catch (DynamoDbException e) {
+            logger.error("DynamoDB error while reading changes for user {}: {}", userId, e.getMessage(), e);
+            throw e;
+        } catch (Exception e) {
+            logger.error("Unexpected error while reading changes for user {}: {}", userId, e.getMessage(), e);
+            throw new RuntimeException("Failed to fetch changes", e);
+        }
+    }
+
+    Long parseCursor(String since) {
+        if (since == null || since.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            long cursor = Long.parseLong(since.trim());
+            if (cursor < 0) {
+                throw new NumberFormatException("negative");
+            }
+            return cursor;
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid sync cursor: {}", since);
+            throw new IllegalArgumentException("Invalid sync cursor");
+        }
+    }
+
+    /**
+     * Keep only the latest entry per entity, in the order of those latest entries
+     */
+    private List<SyncChange> compact(List<ChangeRecord> entries) {
+        Map<String, ChangeRecord> latest = new LinkedHashMap<>();
+        for (ChangeRecord entry : entries) {
+            String key = entry.getEntityType() + ":" + entry.getEntityId();
+            latest.remove(key);
+            latest.put(key, entry);
+        }
+        return latest.values().stream()
+            .map(this::mapToChange)
+            .collect(Collectors.toList());
+    }
+
+    private SyncResponse fullResync(String userId, long lastSequence) {
+        logger.info("User {} must resync from sequence {}", userId, lastSequence);
+        return response(lastSequence, true, false, List.of());
+    }
+
+    private static SyncResponse response(long cursor, boolean fullResync, boolean hasMore, List<SyncChange> changes) {
+        SyncResponse response = new SyncResponse();
+        response.setCursor(Long.toString(cursor));
+        response.setFullResync(fullResync);
+        response.setHasMore(hasMore);
+        response.setChanges(changes);
+        return response;
+    }
+
+    private SyncChange mapToChange(ChangeRecord entry) {
+        SyncChange change = new SyncChange();
+        change.setSequence(entry.getSequence());
+        change.setEntityType(SyncChange.EntityTypeEnum.fromValue(entry.getEntityType()));
+        change.setOperation(SyncChange.OperationEnum.fromValue(entry.getOperation()));
+        change.setEntityId(UUID.fromString(entry.getEntityId()));
+        if (entry.getInstitutionId() != null) {
+            change.setInstitutionId(UUID.fromString(entry.getInstitutionId()));
+        }
+        change.setChangedAt(entry.getChangedAt());
+
+        if (ChangeRecord.UPSERT.equals(entry.getOperation()) && entry.getPayload() != null) {
+            try {
+                switch (entry.getEntityType()) {
+                    case ChangeRecord.INSTITUTION -> change.setInstitution(institutionService.mapToResponse(
+                        objectMapper.readValue(entry.getPayload(), Institution.class)));
+                    case ChangeRecord.GOAL -> change.setGoal(goalService.mapToResponse(
+                        objectMapper.readValue(entry.getPayload(), Goal.class)));
+                    case ChangeRecord.TRANSACTION -> change.setTransaction(transactionService.mapToResponse(
+                        objectMapper.readValue(entry.getPayload(), Transaction.class)));
+                    default -> throw new IllegalStateException("Unknown entity type " + entry.getEntityType());
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Unreadable payload at sequence " + entry.getSequence(), e);
+            }
+        }
+        return change;
+    }
+}
@@ -0,0 +1,236 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.entity.Institution;
+import com.cpsc.backend.entity.Transaction;
+import com.cpsc.backend.exception.InvalidTransactionDataException;
+import com.cpsc.backend.exception.ReadTimeoutException;
+import com.cpsc.backend.model.GetTransactions200Response;
+import com.cpsc.backend.model.TransactionResponse;
+import com.cpsc.backend.repository.InstitutionRepository;
+import com.cpsc.backend.repository.TransactionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * "All accounts" transaction feed. Transactions are partitioned by institution, so a page is
+ * produced by a k-way merge over the user's institution partitions, each read lazily in small
+ * pages from its own position.
+ *
+ * Feed order is createdAt descending, ties broken by institutionId ascending (createdAt is
+ * unique within a partition). The nextToken maps each institution that still has transactions
+ * to the createdAt its next read starts below, so a page reads about {@code limit} items no
+ * matter how long the feed is. Institutions created after the first page are not in the token
+ * and only their newer transactions exist, so they belong ahead of the feed and are skipped.
+ */
+@Service
+public class TransactionFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionFeedService.class);
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final Comparator<Partition> FEED_ORDER = Comparator
+        .comparing((Partition partition) -> partition.head().getCreatedAt(), Comparator.reverseOrder())
+        .thenComparing(partition -> partition.institutionId);
+
+    private final TransactionRepository transactionRepository;
+    private final InstitutionRepository institutionRepository;
+    private final TransactionService transactionService;
+    private final Duration readTimeout;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public TransactionFeedService(TransactionRepository transactionRepository,
+                                  InstitutionRepository institutionRepository,
+                                  TransactionService transactionService,
+                                  @Value("${parallel-reads.timeout:2s}") Duration readTimeout) {
+        this.transactionRepository = transactionRepository;
+        this.institutionRepository = institutionRepository;
+        this.transactionService = transactionService;
+        this.readTimeout = readTimeout;
+    }
+
+    public GetTransactions200Response getTransactions(String userId, Integer limit, String nextToken) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+
+        int pageSize = (limit != null && limit > 0) ? Math.min(limit, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+        Map<String, Long> positions = decodeToken(nextToken);
+
+        try {
+            Set<String> owned = institutionRepository.findAllByUserId(userId).stream()
+                .map(Institution::getInstitutionId)
+                .collect(Collectors.toSet());
+
+            // A token can only continue partitions the caller still owns
+            List<Partition> partitions = new ArrayList<>();
+            if (positions == null) {
+                owned.forEach(institutionId -> partitions.add(new Partition(institutionId, null)));
+            } else {
+                positions.forEach((institutionId, createdBefore) -> {
+                    if (owned.contains(institutionId)) {
+                        partitions.add(new Partition(institutionId, createdBefore));
+                    }
+                });
+            }
+
+            List<Transaction> page = merge(partitions, pageSize);
+            String token = page.size() == pageSize ? encodeToken(page.get(page.size() - 1), partitions) : null;
+
+            logger.info("Merged {} transactions from {} institutions for user {}, hasMore={}",
+                page.size(), partitions.size(), userId, token != null);
+
+            GetTransactions200Response response = new GetTransactions200Response();
+            response.setTransactions(page.stream()
+                .map(transactionService::mapToResponse)
+                .collect(Collectors.toList()));
+            response.setNextToken(token);
+            return response;
+
+        } catch (ReadTimeoutException e) {
+            throw e;
+        } catch (DynamoDbException e) {
+            logger.error("DynamoDB error while fetching transaction feed for user {}: {}", userId, e.getMessage(), e);
+            throw e;
+        } catch (Exception e) {
+            logger.error("Unexpected error while fetching transaction feed for user {}: {}", userId, e.getMessage(), e);
+            throw new RuntimeException("Failed to fetch transactions", e);
+        }
+    }
+
+    /**
+     * Take the next {@code pageSize} transactions across all partitions. Every partition's first
+     * chunk is read in parallel; after that a partition is only read again when the merge has
+     * used up what it holds.
+     */
+    private List<Transaction> merge(List<Partition> partitions, int pageSize) {
+        if (partitions.isEmpty()) {
+            return List.of();
+        }
+        int chunkSize = Math.max(1, (pageSize + partitions.size() - 1) / partitions.size());
+
+        try (ParallelReads reads = ParallelReads.open(readTimeout)) {
+            List<ParallelReads.Read<InstitutionRepository.PaginatedResult<Transaction>>> firstChunks = new ArrayList<>();
+            for (Partition partition : partitions) {
+                firstChunks.add(reads.fork("transactions", () -> partition.read(chunkSize)));
+            }
+            reads.join();
+            for (int i = 0; i < partitions.size(); i++) {
+                partitions.get(i).fill(firstChunks.get(i).get());
+            }
+        }
+
+        PriorityQueue<Partition> heap = new PriorityQueue<>(FEED_ORDER);
+        partitions.stream().filter(partition -> !partition.buffer.isEmpty()).forEach(heap::add);
+
+        List<Transaction> page = new ArrayList<>(pageSize);
+        while (page.size() < pageSize && !heap.isEmpty()) {
+            Partition partition = heap.poll();
+            page.add(partition.buffer.poll());
+            if (partition.buffer.isEmpty() && partition.hasMore) {
+                partition.fill(partition.read(chunkSize));
+            }
+            if (!partition.buffer.isEmpty()) {
+                heap.add(partition);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Everything ahead of the last returned transaction in feed order has been returned, so each
+     * partition resumes right after it: below its createdAt for institutions that sort at or
+     * before it, and at its createdAt for those that sort after it.
+     */
+    String encodeToken(Transaction last, List<Partition> partitions) {
+        Map<String, Long> positions = new LinkedHashMap<>();
+        for (Partition partition : partitions) {
+            if (partition.buffer.isEmpty() && !partition.hasMore) {
+                continue;
+            }
+            boolean sortsAfterLast = partition.institutionId.compareTo(last.getInstitutionId()) > 0;
+            positions.put(partition.institutionId, sortsAfterLast ? last.getCreatedAt() + 1 : last.getCreatedAt());
+        }
+        if (positions.isEmpty()) {
+            return null;
+        }
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(positions);
+            return Base64.getUrlEncoder().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to encode pagination token", e);
+            throw new RuntimeException("Failed to encode pagination token", e);
+        }
+    }
+
+    Map<String, Long> decodeToken(String token) {
+        if (token == null || token.trim().isEmpty()) {
+            return null;
+        }
+
+        try {
+            String json = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            Map<String, Long> positions = objectMapper.readValue(json, new TypeReference<Map<String, Long>>() { });
+            if (positions == null || positions.values().stream().anyMatch(position -> position == null)) {
+                throw new IllegalArgumentException("missing position");
+            }
+            return positions;
+        } catch (Exception e) {
+            logger.warn("Failed to decode pagination token: {}", e.getMessage());
+            throw new InvalidTransactionDataException("Invalid pagination token");
+        }
+    }
+
+    /**
+     * Read position and buffered transactions of one institution partition
+     */
+    final class Partition {
+
+        private final String institutionId;
+        private final Deque<Transaction> buffer = new ArrayDeque<>();
+        private Long createdBefore;
+        private boolean hasMore = true;
+
+        Partition(String institutionId, Long createdBefore) {
+            this.institutionId = institutionId;
+            this.createdBefore = createdBefore;
+        }
+
+        Transaction head() {
+            return buffer.peek();
+        }
+
+        InstitutionRepository.PaginatedResult<Transaction> read(int chunkSize) {
+            return transactionRepository.findPageByInstitutionId(institutionId, createdBefore, chunkSize);
+        }
+
+        void fill(InstitutionRepository.PaginatedResult<Transaction> chunk) {
+            buffer.addAll(chunk.getItems());
+            hasMore = chunk.hasMore();
+            if (!chunk.getItems().isEmpty()) {
+                createdBefore = chunk.getItems().get(chunk.getItems().size() - 1).getCreatedAt();
+            }
+        }
+    }
+}
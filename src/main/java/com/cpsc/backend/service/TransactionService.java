@@ -1,11 +1,14 @@
 package com.cpsc.backend.service;
 
 import com.cpsc.backend.entity.Transaction;
+import com.cpsc.backend.exception.ConcurrentUpdateException;
 import com.cpsc.backend.exception.InstitutionNotFoundException;
 import com.cpsc.backend.exception.InvalidTransactionDataException;
 import com.cpsc.backend.model.CreateTransactionRequest;
 import com.cpsc.backend.model.TransactionResponse;
 import com.cpsc.backend.model.UpdateTransactionRequest;
+import com.cpsc.backend.repository.EntityWrite;
+import com.cpsc.backend.repository.EntityWriteRepository;
 import com.cpsc.backend.repository.InstitutionRepository;
 import com.cpsc.backend.repository.TransactionRepository;
 import org.slf4j.Logger;
@@ -16,6 +19,8 @@ import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,14 +31,26 @@ public class TransactionService {
     
     private final TransactionRepository transactionRepository;
     private final InstitutionRepository institutionRepository;
+    private final EntityWriteRepository entityWriteRepository;
     private final GoalService goalService;
+    private final DashboardService dashboardService;
+    private final ChangeLogService changeLogService;
+    private final EventStreamService eventStreamService;
 
     public TransactionService(TransactionRepository transactionRepository, 
                              InstitutionRepository institutionRepository,
-                             GoalService goalService) {
+                             EntityWriteRepository entityWriteRepository,
+                             GoalService goalService,
+                             DashboardService dashboardService,
+                             ChangeLogService changeLogService,
+                             EventStreamService eventStreamService) {
         this.transactionRepository = transactionRepository;
         this.institutionRepository = institutionRepository;
+        this.entityWriteRepository = entityWriteRepository;
         this.goalService = goalService;
+        this.dashboardService = dashboardService;
+        this.changeLogService = changeLogService;
+        this.eventStreamService = eventStreamService;
     }
 
     public TransactionResponse createTransaction(String userId, String institutionId, CreateTransactionRequest request) {
@@ -75,16 +92,25 @@ public class TransactionService {
             logger.info("Creating transaction for institution {} with type {} and amount {} at timestamp {}", 
                 institutionId, request.getType(), request.getAmount(), transactionDate);
             
-            transactionRepository.save(transaction);
-            
-            // Update institution's current balance
-            updateInstitutionBalance(institution, request.getType().getValue(), request.getAmount(), false);
+            // Write the transaction together with the institution's new balance
+            com.cpsc.backend.entity.Institution updated = writeWithBalance(institution, institutionId,
+                "create transaction", current -> {
+                    applyBalanceChange(current, signedAmount(transaction.getType(), transaction.getAmount()));
+                    EntityWrite write = new EntityWrite().putTransaction(transaction).putInstitution(current);
+                    changeLogService.recordTransaction(write, current, transaction);
+                    entityWriteRepository.write(write);
+                    return transaction;
+                }).institution();
+            dashboardService.recordTransaction(updated, transaction);
+            eventStreamService.publishBalanceChanged(updated);
             
             logger.info("Successfully created transaction {} for institution {}", 
                 transaction.getTransactionId(), institutionId);
 
             return mapToResponse(transaction);
             
+        } catch (InstitutionNotFoundException | ConcurrentUpdateException e) {
+            throw e;
         } catch (DynamoDbException e) {
             logger.error("DynamoDB error while creating transaction for institution {}: {}", 
                 institutionId, e.getMessage(), e);
@@ -96,6 +122,16 @@ public class TransactionService {
         }
     }
 
+    /**
+     * Check that the institution exists and belongs to the user
+     * @throws InstitutionNotFoundException if it does not
+     */
+    public void requireInstitution(String userId, String institutionId) {
+        if (institutionRepository.findByUserIdAndInstitutionId(userId, institutionId) == null) {
+            throw new InstitutionNotFoundException("Institution not found with ID: " + institutionId);
+        }
+    }
+
     public List<TransactionResponse> getInstitutionTransactions(String userId, String institutionId) {
         if (userId == null || userId.trim().isEmpty()) {
             throw new IllegalArgumentException("User ID cannot be null or empty");
@@ -106,7 +142,7 @@ public class TransactionService {
         }
         
         // Validate the institution exists and belongs to the user
-        institutionRepository.findByUserIdAndInstitutionId(userId, institutionId);
+        requireInstitution(userId, institutionId);
         
         try {
             logger.debug("Fetching transactions for institution {}", institutionId);
@@ -144,39 +180,30 @@ public class TransactionService {
         String institutionIdStr = institutionId.toString();
         
         // Validate the institution exists and belongs to the user
-        institutionRepository.findByUserIdAndInstitutionId(userId, institutionIdStr);
+        com.cpsc.backend.entity.Institution institution = 
+            institutionRepository.findByUserIdAndInstitutionId(userId, institutionIdStr);
         
         try {
-            logger.debug("Fetching transaction {} for institution {} to verify ownership", 
-                transactionId, institutionIdStr);
-            
-            // Get all transactions for this institution to find the one with matching transactionId
-            List<Transaction> transactions = transactionRepository.findAllByInstitutionId(institutionIdStr);
-            
-            Transaction transactionToDelete = transactions.stream()
-                    .filter(t -> transactionId.toString().equals(t.getTransactionId()))
-                    .findFirst()
-                    .orElseThrow(() -> new InstitutionNotFoundException(
-                        "Transaction not found with ID: " + transactionId));
-            
-            // Verify the transaction belongs to the user
-            if (!userId.equals(transactionToDelete.getUserId())) {
-                throw new InstitutionNotFoundException("Transaction not found with ID: " + transactionId);
-            }
-            
             logger.info("Deleting transaction {} for institution {}", transactionId, institutionIdStr);
             
-            // Get institution to update balance
-            com.cpsc.backend.entity.Institution institution = 
-                institutionRepository.findByUserIdAndInstitutionId(userId, institutionIdStr);
-            
-            // Update institution's current balance (reverse the transaction)
-            updateInstitutionBalance(institution, transactionToDelete.getType(), 
-                transactionToDelete.getAmount(), true);
-            
-            transactionRepository.delete(institutionIdStr, transactionToDelete.getCreatedAt());
-            
-        } catch (InstitutionNotFoundException e) {
+            // Delete the transaction and reverse it on the balance in one write; on a conflict both
+            // the institution and the transaction are read again
+            BalanceWrite deleted = writeWithBalance(institution, institutionIdStr, "delete transaction", current -> {
+                Transaction transactionToDelete = findTransaction(userId, institutionIdStr, transactionId);
+                applyBalanceChange(current,
+                    -signedAmount(transactionToDelete.getType(), transactionToDelete.getAmount()));
+                EntityWrite write = new EntityWrite()
+                    .deleteTransaction(transactionToDelete)
+                    .putInstitution(current);
+                changeLogService.removeTransaction(write, current, transactionToDelete.getTransactionId());
+                entityWriteRepository.write(write);
+                return transactionToDelete;
+            });
+            
+            dashboardService.removeTransaction(deleted.institution(), deleted.transaction().getTransactionId());
+            eventStreamService.publishBalanceChanged(deleted.institution());
+            
+        } catch (InstitutionNotFoundException | ConcurrentUpdateException e) {
             throw e;
         } catch (DynamoDbException e) {
             logger.error("DynamoDB error while deleting transaction {}: {}", 
@@ -207,81 +234,40 @@ public class TransactionService {
         com.cpsc.backend.entity.Institution institution = 
             institutionRepository.findByUserIdAndInstitutionId(userId, institutionIdStr);
         
+        if (request.getAmount() != null) {
+            validateAmount(request.getAmount());
+        }
+        
         try {
-            logger.debug("Fetching transaction {} for institution {} to update", 
-                transactionId, institutionIdStr);
-            
-            // Get all transactions for this institution to find the one with matching transactionId
-            List<Transaction> transactions = transactionRepository.findAllByInstitutionId(institutionIdStr);
-            
-            Transaction existingTransaction = transactions.stream()
-                    .filter(t -> transactionId.toString().equals(t.getTransactionId()))
-                    .findFirst()
-                    .orElseThrow(() -> new InstitutionNotFoundException(
-                        "Transaction not found with ID: " + transactionId));
-            
-            // Verify the transaction belongs to the user
-            if (!userId.equals(existingTransaction.getUserId())) {
-                throw new InstitutionNotFoundException("Transaction not found with ID: " + transactionId);
-            }
-            
             logger.info("Updating transaction {} for institution {}", transactionId, institutionIdStr);
             
-            // Store old values for balance recalculation
-            String oldType = existingTransaction.getType();
-            Double oldAmount = existingTransaction.getAmount();
-            
-            // Update fields if provided
-            boolean typeChanged = false;
-            boolean amountChanged = false;
-            
-            if (request.getType() != null) {
-                String newType = request.getType().getValue();
-                if (!newType.equals(oldType)) {
-                    existingTransaction.setType(newType);
-                    typeChanged = true;
-                }
-            }
-            
-            if (request.getAmount() != null) {
-                validateAmount(request.getAmount());
-                if (!request.getAmount().equals(oldAmount)) {
-                    existingTransaction.setAmount(request.getAmount());
-                    amountChanged = true;
-                }
-            }
-            
-            if (request.getDescription() != null) {
-                existingTransaction.setDescription(request.getDescription());
-            }
-            
-            if (request.getTags() != null) {
-                existingTransaction.setTags(request.getTags());
-            }
-            
-            if (request.getTransactionDate() != null) {
-                existingTransaction.setTransactionDate(request.getTransactionDate());
-            }
-            
-            // Update balance if type or amount changed
-            if (typeChanged || amountChanged) {
-                // First, reverse the old transaction
-                updateInstitutionBalance(institution, oldType, oldAmount, true);
-                
-                // Then apply the new transaction
-                updateInstitutionBalance(institution, existingTransaction.getType(), 
-                    existingTransaction.getAmount(), false);
-            }
-            
-            // Save the updated transaction
-            transactionRepository.save(existingTransaction);
+            // Write the updated transaction together with the net change to the balance (the new
+            // signed amount minus the old one); on a conflict both are read again and the change
+            // recomputed
+            BalanceWrite updated = writeWithBalance(institution, institutionIdStr, "update transaction", current -> {
+                Transaction existingTransaction = findTransaction(userId, institutionIdStr, transactionId);
+                double oldAmount = signedAmount(existingTransaction.getType(), existingTransaction.getAmount());
+                applyUpdate(existingTransaction, request);
+                applyBalanceChange(current,
+                    signedAmount(existingTransaction.getType(), existingTransaction.getAmount()) - oldAmount);
+                EntityWrite write = new EntityWrite()
+                    .putTransaction(existingTransaction)
+                    .putInstitution(current);
+                changeLogService.recordTransaction(write, current, existingTransaction);
+                entityWriteRepository.write(write);
+                return existingTransaction;
+            });
+            Transaction existingTransaction = updated.transaction();
+            
+            dashboardService.recordTransaction(updated.institution(), existingTransaction);
+            eventStreamService.publishBalanceChanged(updated.institution());
             
             logger.info("Successfully updated transaction {} for institution {}", 
                 transactionId, institutionIdStr);
             
             return mapToResponse(existingTransaction);
             
-        } catch (InstitutionNotFoundException e) {
+        } catch (InstitutionNotFoundException | ConcurrentUpdateException e) {
             throw e;
         } catch (DynamoDbException e) {
             logger.error("DynamoDB error while updating transaction {}: {}", 
@@ -295,39 +281,96 @@ public class TransactionService {
     }
 
     /**
-     * Update institution's current balance based on transaction type
-     * @param institution The institution to update
-     * @param transactionType DEPOSIT or WITHDRAWAL
-     * @param amount The transaction amount
-     * @param isReverse If true, reverse the transaction (for deletion)
+     * A transaction write and the institution it moved, as written
+     */
+    private record BalanceWrite(com.cpsc.backend.entity.Institution institution, Transaction transaction) {
+    }
+
+    /**
+     * Run a write that moves the institution's balance. The write puts the institution conditional
+     * on its version in the same transaction as the transaction row, so if another request changed
+     * the institution first nothing is written; the institution is re-read and the write run again.
+     * @param institution the institution as already read for this request, used on the first attempt
+     * @param write applies the change to the institution it is given, writes it and returns the transaction written
+     */
+    private BalanceWrite writeWithBalance(com.cpsc.backend.entity.Institution institution, String institutionId,
+                                          String operation,
+                                          Function<com.cpsc.backend.entity.Institution, Transaction> write) {
+        AtomicBoolean firstAttempt = new AtomicBoolean(true);
+        BalanceWrite written = OptimisticLocking.retryOnConflict(operation, () -> {
+            com.cpsc.backend.entity.Institution current = firstAttempt.getAndSet(false) ? institution
+                : institutionRepository.findByUserIdAndInstitutionId(institution.getUserId(), institutionId);
+            if (current == null) {
+                throw new InstitutionNotFoundException("Institution not found with ID: " + institutionId);
+            }
+            return new BalanceWrite(current, write.apply(current));
+        });
+        
+        // Update goal completion status for all linked goals
+        goalService.updateGoalCompletionForInstitution(written.institution().getUserId(), 
+            written.institution().getInstitutionId(), written.institution());
+        return written;
+    }
+
+    /**
+     * Find one of the institution's transactions
+     * @throws InstitutionNotFoundException if it does not exist or belongs to another user
+     */
+    private Transaction findTransaction(String userId, String institutionId, UUID transactionId) {
+        logger.debug("Fetching transaction {} for institution {}", transactionId, institutionId);
+        
+        // Get all transactions for this institution to find the one with matching transactionId
+        Transaction transaction = transactionRepository.findAllByInstitutionId(institutionId).stream()
+                .filter(t -> transactionId.toString().equals(t.getTransactionId()))
+                .findFirst()
+                .orElseThrow(() -> new InstitutionNotFoundException(
+                    "Transaction not found with ID: " + transactionId));
+        
+        // Verify the transaction belongs to the user
+        if (!userId.equals(transaction.getUserId())) {
+            throw new InstitutionNotFoundException("Transaction not found with ID: " + transactionId);
+        }
+        return transaction;
+    }
+
+    private void applyUpdate(Transaction transaction, UpdateTransactionRequest request) {
+        if (request.getType() != null) {
+            transaction.setType(request.getType().getValue());
+        }
+        if (request.getAmount() != null) {
+            transaction.setAmount(request.getAmount());
+        }
+        if (request.getDescription() != null) {
+            transaction.setDescription(request.getDescription());
+        }
+        if (request.getTags() != null) {
+            transaction.setTags(request.getTags());
+        }
+        if (request.getTransactionDate() != null) {
+            transaction.setTransactionDate(request.getTransactionDate());
+        }
+    }
+
+    /** The amount as it moves the balance: positive for a deposit, negative for a withdrawal */
+    private static double signedAmount(String transactionType, Double amount) {
+        return "WITHDRAWAL".equalsIgnoreCase(transactionType) ? -amount : amount;
+    }
+
+    /**
+     * Move the institution's current balance in memory; the caller writes it
      */
-    private void updateInstitutionBalance(com.cpsc.backend.entity.Institution institution, 
-                                         String transactionType, Double amount, boolean isReverse) {
+    private void applyBalanceChange(com.cpsc.backend.entity.Institution institution, double delta) {
         Double currentBalance = institution.getCurrentBalance();
         if (currentBalance == null) {
             currentBalance = institution.getStartingBalance();
         }
         
-        boolean isWithdrawal = "WITHDRAWAL".equalsIgnoreCase(transactionType);
-        
-        // For normal transactions: WITHDRAWAL decreases, DEPOSIT increases
-        // For reverse (deletion): opposite behavior
-        if (isReverse) {
-            isWithdrawal = !isWithdrawal;
-        }
-        
-        Double newBalance = isWithdrawal ? currentBalance - amount : currentBalance + amount;
+        Double newBalance = currentBalance + delta;
         
         institution.setCurrentBalance(newBalance);
         
-        logger.info("Updating institution {} balance from {} to {} (type={}, amount={}, reverse={})",
-            institution.getInstitutionId(), currentBalance, newBalance, transactionType, amount, isReverse);
-        
-        institutionRepository.save(institution);
-        
-        // Update goal completion status for all linked goals
-        goalService.updateGoalCompletionForInstitution(institution.getUserId(), 
-            institution.getInstitutionId(), institution);
+        logger.info("Updating institution {} balance from {} to {} (change={})",
+            institution.getInstitutionId(), currentBalance, newBalance, delta);
     }
     
     private void validateTransactionRequest(CreateTransactionRequest request) {
@@ -358,7 +401,7 @@ public class TransactionService {
         }
     }
 
-    private TransactionResponse mapToResponse(Transaction transaction) {
+    TransactionResponse mapToResponse(Transaction transaction) {
         try {
             TransactionResponse response = new TransactionResponse();
             response.setTransactionId(UUID.fromString(transaction.getTransactionId()));
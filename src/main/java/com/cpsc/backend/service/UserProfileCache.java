@@ -0,0 +1,190 @@
+package com.cpsc.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Node-local cache of the profile attributes {@code GET /api/secure/profile} returns ({@code sub},
+ * {@code email}, {@code preferred_username}), keyed by sub, so most profile loads need no Cognito
+ * {@code GetUser} call.
+ *
+ * Entries come from the claims of verified ID tokens, which carry the same attributes as of when
+ * the token was issued, or from a {@code GetUser} response. A screen name change invalidates the
+ * entry and records when it happened: ID tokens issued before that still carry the old name, so
+ * their claims are not accepted for that user any more. If the cache is full of pending
+ * invalidations and one has to go, its cutoff is kept node-wide instead: ID tokens issued before
+ * it are not cached for any user, which only costs {@code GetUser} calls.
+ *
+ * Other nodes keep their entry until {@code profile.cache.ttl} runs out, so after a change
+ * another node may show the old screen name for up to that long.
+ */
+@Component
+public class UserProfileCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserProfileCache.class);
+
+    static final String METRIC = "profile.cache.requests";
+
+    /** Longest ID token lifetime Cognito allows; an invalidation must outlive every token issued before it */
+    private static final Duration MAX_TOKEN_LIFETIME = Duration.ofDays(1);
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    /** Latest cutoff of an invalidation evicted while tokens issued before it could still be valid */
+    private final AtomicLong evictedNotBefore = new AtomicLong();
+    private final Duration ttl;
+    private final int maxSize;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param profile null once expired or invalidated
+     * @param notBefore ID tokens issued before this epoch second are not accepted
+     */
+    private record Entry(Map<String, String> profile, long expiresAtMillis, long notBefore) {
+    }
+
+    public UserProfileCache(@Value("${profile.cache.ttl:5m}") Duration ttl,
+                            @Value("${profile.cache.max-size:50000}") int maxSize,
+                            MeterRegistry meterRegistry) {
+        if (ttl == null || ttl.isNegative()) {
+            throw new IllegalArgumentException("Profile cache TTL cannot be negative");
+        }
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Profile cache size cannot be negative");
+        }
+
+        this.ttl = ttl;
+        this.maxSize = maxSize;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("profile.cache.size", entries, Map::size)
+            .description("Users with a cached profile or a pending invalidation on this node")
+            .register(meterRegistry);
+    }
+
+    /**
+     * The cached profile, or null if the user has none or it expired
+     */
+    public Map<String, String> get(String userId) {
+        Entry entry = entries.get(userId);
+        boolean hit = entry != null && entry.profile() != null && entry.expiresAtMillis() > System.currentTimeMillis();
+        count(hit ? "hit" : "miss");
+        return hit ? entry.profile() : null;
+    }
+
+    /**
+     * Remember the attributes of a verified ID token, unless the user changed their profile after
+     * it was issued or a profile is already cached
+     */
+    public void putFromIdToken(String userId, String email, String screenName, Instant issuedAt) {
+        if (userId == null || email == null || screenName == null || issuedAt == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        entries.compute(userId, (id, entry) -> {
+            long notBefore = Math.max(entry != null ? entry.notBefore() : 0L, evictedNotBefore.get());
+            if (issuedAt.getEpochSecond() < notBefore) {
+                return entry; // issued before the last change: its claims are out of date
+            }
+            if (entry != null && entry.profile() != null && entry.expiresAtMillis() > now) {
+                return entry;
+            }
+            return new Entry(profile(userId, email, screenName), now + ttl.toMillis(),
+                entry != null ? entry.notBefore() : 0L);
+        });
+        evictIfFull();
+    }
+
+    /**
+     * Remember the attributes of a {@code GetUser} response, which are current
+     */
+    public void put(String userId, Map<String, String> attributes) {
+        if (userId == null || attributes == null) {
+            return;
+        }
+
+        Map<String, String> profile = profile(userId, attributes.get("email"), attributes.get("preferred_username"));
+        long expiresAt = System.currentTimeMillis() + ttl.toMillis();
+        entries.compute(userId, (id, entry) -> new Entry(profile, expiresAt, entry != null ? entry.notBefore() : 0L));
+        evictIfFull();
+    }
+
+    /**
+     * Drop the user's profile after it changed, and stop accepting ID tokens issued up to now
+     */
+    public void invalidate(String userId) {
+        if (userId == null) {
+            return;
+        }
+
+        // Tokens issued within the current second may predate the change
+        long notBefore = Instant.now().getEpochSecond() + 1;
+        entries.put(userId, new Entry(null, 0L, notBefore));
+        logger.debug("Invalidated cached profile for user {}", userId);
+        evictIfFull();
+    }
+
+    private static Map<String, String> profile(String userId, String email, String screenName) {
+        Map<String, String> profile = new HashMap<>();
+        profile.put("sub", userId);
+        if (email != null) {
+            profile.put("email", email);
+        }
+        if (screenName != null) {
+            profile.put("preferred_username", screenName);
+        }
+        return Collections.unmodifiableMap(profile);
+    }
+
+    /**
+     * Drop expired entries once the cache is over its size, then profiles without a pending
+     * invalidation if it still is. Invalidations are kept as long as a token issued before them
+     * can still be valid; only a cache holding nothing else evicts them, moving their cutoff to
+     * {@link #evictedNotBefore}.
+     */
+    private void evictIfFull() {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long oldestLiveToken = Instant.now().minus(MAX_TOKEN_LIFETIME).getEpochSecond();
+        entries.values().removeIf(entry -> entry.expiresAtMillis() <= now && entry.notBefore() <= oldestLiveToken);
+
+        Iterator<Entry> unblocked = entries.values().iterator();
+        while (entries.size() > maxSize && unblocked.hasNext()) {
+            if (unblocked.next().notBefore() <= oldestLiveToken) {
+                unblocked.remove();
+            }
+        }
+
+        Iterator<Entry> blocked = entries.values().iterator();
+        while (entries.size() > maxSize && blocked.hasNext()) {
+            long notBefore = blocked.next().notBefore();
+            evictedNotBefore.accumulateAndGet(notBefore, Math::max);
+            blocked.remove();
+        }
+    }
+
+    private void count(String result) {
+        Counter.builder(METRIC)
+            .description("Profile lookups answered from the node-local cache (hit) or needing Cognito (miss)")
+            .tag("result", result)
+            .register(meterRegistry)
+            .increment();
+    }
+}
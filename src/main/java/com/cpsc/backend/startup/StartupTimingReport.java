@@ -0,0 +1,123 @@
+package com.cpsc.backend.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Logs where startup time went once the application is ready: JVM time before Spring started,
+ * time per startup phase, and the beans that took longest to create. Bean times are self times,
+ * excluding the dependencies created on their behalf, so the slow bean is blamed rather than
+ * whatever happened to need it first.
+ *
+ * Needs the application to record its startup steps with {@link BufferingApplicationStartup} (see
+ * {@code CpscBackendApiApplication}); without it there is nothing to report.
+ */
+@Component
+public class StartupTimingReport {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimingReport.class);
+
+    private static final String BEAN_STEP = "spring.beans.instantiate";
+
+    private final int slowestBeans;
+
+    /** One line of the report */
+    record Entry(String name, Duration duration) {
+    }
+
+    /** Total time per startup phase, and self time of the slowest beans */
+    record Report(Duration jvmStart, Map<String, Duration> phases, List<Entry> beans) {
+    }
+
+    public StartupTimingReport(@Value("${startup.report.slowest-beans:15}") int slowestBeans) {
+        this.slowestBeans = slowestBeans;
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (!(startup instanceof BufferingApplicationStartup buffering)) {
+            logger.debug("Startup steps were not recorded, no timing report");
+            return;
+        }
+
+        StartupTimeline timeline = buffering.getBufferedTimeline();
+        long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+        Report report = report(timeline.getEvents(),
+            Duration.ofMillis(Math.max(0L, timeline.getStartTime().toEpochMilli() - jvmStartMillis)));
+
+        StringBuilder text = new StringBuilder("Startup timing (ready ")
+            .append(event.getTimeTaken().toMillis()).append(" ms after launch, JVM start ")
+            .append(report.jvmStart().toMillis()).append(" ms before that)");
+        report.phases().forEach((phase, duration) ->
+            text.append(System.lineSeparator()).append(String.format("  %6d ms  %s", duration.toMillis(), phase)));
+        text.append(System.lineSeparator()).append("  slowest beans (self time):");
+        for (Entry bean : report.beans()) {
+            text.append(System.lineSeparator()).append(String.format("  %6d ms  %s", bean.duration().toMillis(), bean.name()));
+        }
+        logger.info(text.toString());
+    }
+
+    /**
+     * Sum each step's self time into its phase, and rank bean creation by self time
+     */
+    Report report(List<StartupTimeline.TimelineEvent> events, Duration jvmStart) {
+        Map<Long, Duration> childTime = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            Long parentId = event.getStartupStep().getParentId();
+            if (parentId != null) {
+                childTime.merge(parentId, event.getDuration(), Duration::plus);
+            }
+        }
+
+        Map<String, Duration> phases = new LinkedHashMap<>();
+        Map<String, Duration> beans = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            Duration self = event.getDuration().minus(childTime.getOrDefault(step.getId(), Duration.ZERO));
+            if (self.isNegative()) {
+                self = Duration.ZERO;
+            }
+            phases.merge(step.getName(), self, Duration::plus);
+            if (BEAN_STEP.equals(step.getName())) {
+                beans.merge(beanName(step), self, Duration::plus);
+            }
+        }
+
+        Map<String, Duration> sortedPhases = phases.entrySet().stream()
+            .sorted(Map.Entry.<String, Duration>comparingByValue().reversed())
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+        List<Entry> slowest = beans.entrySet().stream()
+            .map(bean -> new Entry(bean.getKey(), bean.getValue()))
+            .sorted(Comparator.comparing(Entry::duration).reversed())
+            .limit(slowestBeans)
+            .toList();
+        return new Report(jvmStart, sortedPhases, slowest);
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "(unnamed)";
+    }
+}
@@ -0,0 +1,223 @@
+package com.cpsc.backend.startup;
+
+import com.cpsc.backend.config.SecretsManagerConfig;
+import com.cpsc.backend.security.JwtValidator;
+import com.cpsc.backend.service.CognitoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Brings the AWS dependencies up in parallel once the context has started, and holds back
+ * readiness until they are: the secrets load, the JWKS download, and the first connections (with
+ * client creation and credential lookup) to Cognito and DynamoDB all run at the same time, each on
+ * its own virtual thread, instead of one after another during bean creation or on first requests.
+ *
+ * Until every task has finished, {@code /api/hello} answers {@code 503} and this health indicator
+ * reports {@code OUT_OF_SERVICE}, so the load balancer only routes to warm tasks. The secrets are
+ * required: if they cannot be loaded the indicator stays {@code DOWN}. The other tasks only save
+ * the first requests some latency, so their failures are logged and tolerated, and they are given
+ * up on after {@code startup.warmup.timeout}. Each task is timed in {@code startup.warmup}.
+ */
+@Component
+public class StartupWarmup implements HealthIndicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+
+    static final String METRIC = "startup.warmup";
+
+    enum State { STARTING, READY, FAILED }
+
+    /** Something to do before the application is ready */
+    @FunctionalInterface
+    interface Work {
+        void run() throws Exception;
+    }
+
+    record Task(String name, boolean required, Work work) {
+    }
+
+    private final List<Task> tasks;
+    private final boolean enabled;
+    private final Duration timeout;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, String> results = new ConcurrentHashMap<>();
+    private final Set<String> failedTasks = ConcurrentHashMap.newKeySet();
+    private volatile State state = State.STARTING;
+
+    @Autowired
+    public StartupWarmup(SecretsManagerConfig secretsManagerConfig,
+                         JwtValidator jwtValidator,
+                         CognitoService cognitoService,
+                         @Lazy DynamoDbClient dynamoDbClient,
+                         @Value("${dynamodb.table.name}") String institutionsTable,
+                         @Value("${dynamodb.transaction.table.name}") String transactionsTable,
+                         @Value("${dynamodb.goals.table.name}") String goalsTable,
+                         @Value("${dynamodb.summary.table.name}") String summariesTable,
+                         @Value("${dynamodb.changes.table.name}") String changesTable,
+                         @Value("${dynamodb.idempotency.table.name}") String idempotencyTable,
+                         @Value("${startup.warmup.enabled:true}") boolean enabled,
+                         @Value("${startup.warmup.timeout:30s}") Duration timeout,
+                         MeterRegistry meterRegistry) {
+        this(List.of(
+                new Task("secrets", true, secretsManagerConfig::awaitLoaded),
+                new Task("jwks", false, jwtValidator::warmUp),
+                new Task("cognito", false, cognitoService::warmUp),
+                new Task("dynamodb", false, () -> describeTables(dynamoDbClient, List.of(institutionsTable,
+                    transactionsTable, goalsTable, summariesTable, changesTable, idempotencyTable)))),
+            enabled, timeout, meterRegistry);
+    }
+
+    StartupWarmup(List<Task> tasks, boolean enabled, Duration timeout, MeterRegistry meterRegistry) {
+        if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Warm-up timeout must be positive");
+        }
+        this.tasks = tasks;
+        this.enabled = enabled;
+        this.timeout = timeout;
+        this.meterRegistry = meterRegistry;
+        tasks.forEach(task -> results.put(task.name(), "pending"));
+    }
+
+    /**
+     * Start every task; returns at once
+     * @return completes when all tasks have finished or been given up on
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public CompletableFuture<Void> start() {
+        if (!enabled) {
+            tasks.forEach(task -> results.put(task.name(), "skipped"));
+            state = State.READY;
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("warmup-", 0).factory());
+        CompletableFuture<?>[] running = tasks.stream()
+            .map(task -> run(task, executor))
+            .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(running).whenComplete((ignored, e) -> {
+            executor.shutdown();
+            boolean failed = tasks.stream().anyMatch(task -> task.required() && failedTasks.contains(task.name()));
+            state = failed ? State.FAILED : State.READY;
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (failed) {
+                logger.error("Warm-up failed after {} ms, not accepting traffic: {}", elapsed, new TreeMap<>(results));
+            } else {
+                logger.info("Warm-up finished in {} ms, ready {} ms after JVM start: {}", elapsed,
+                    ManagementFactory.getRuntimeMXBean().getUptime(), new TreeMap<>(results));
+            }
+        });
+    }
+
+    /**
+     * Whether every warm-up task has finished and none of the required ones failed
+     */
+    public boolean isReady() {
+        return state == State.READY;
+    }
+
+    State state() {
+        return state;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = switch (state) {
+            case READY -> Health.up();
+            case STARTING -> Health.outOfService();
+            case FAILED -> Health.down();
+        };
+        return health.withDetails(new TreeMap<>(results)).build();
+    }
+
+    private CompletableFuture<Void> run(Task task, ExecutorService executor) {
+        long start = System.nanoTime();
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+            try {
+                task.work().run();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+        if (!task.required()) {
+            future = future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        return future.handle((ignored, e) -> {
+            long nanos = System.nanoTime() - start;
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            String outcome = cause == null ? "success" : cause instanceof TimeoutException ? "timeout" : "failure";
+            Timer.builder(METRIC)
+                .description("Time taken by each startup warm-up task")
+                .tag("task", task.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+
+            long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+            if (cause != null) {
+                failedTasks.add(task.name());
+            }
+            if (cause == null) {
+                results.put(task.name(), millis + " ms");
+            } else if (cause instanceof TimeoutException) {
+                results.put(task.name(), "timed out after " + millis + " ms");
+                logger.warn("Warm-up task {} did not finish within {}", task.name(), timeout);
+            } else {
+                results.put(task.name(), "failed after " + millis + " ms: " + cause.getMessage());
+                if (task.required()) {
+                    logger.error("Warm-up task {} failed", task.name(), cause);
+                } else {
+                    logger.warn("Warm-up task {} failed, continuing: {}", task.name(), cause.getMessage());
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * A request per table makes the client resolve credentials and open a connection. Any answer
+     * will do; a table that does not exist is worth a warning, though.
+     */
+    private static void describeTables(DynamoDbClient dynamoDbClient, List<String> tables) {
+        for (String table : tables) {
+            try {
+                dynamoDbClient.describeTable(request -> request.tableName(table));
+            } catch (ResourceNotFoundException e) {
+                logger.warn("DynamoDB table {} does not exist", table);
+            } catch (DynamoDbException e) {
+                logger.debug("DescribeTable {} answered {}", table, e.getMessage());
+            }
+        }
+    }
+}
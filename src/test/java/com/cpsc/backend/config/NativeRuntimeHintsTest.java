@@ -0,0 +1,56 @@
+package com.cpsc.backend.config;
+
+import com.cpsc.backend.entity.Goal;
+import com.cpsc.backend.entity.Institution;
+import com.cpsc.backend.entity.Transaction;
+import com.cpsc.backend.entity.UserSummary;
+import com.cpsc.backend.model.BatchResponse;
+import com.cpsc.backend.model.CreateGoalRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setUp() {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registerHints_EntityAccessorsInvocable() throws NoSuchMethodException {
+        for (Class<?> entity : new Class<?>[] {Institution.class, Transaction.class, Goal.class, UserSummary.class,
+                UserSummary.InstitutionEntry.class, UserSummary.GoalEntry.class, UserSummary.TransactionEntry.class}) {
+            assertThat(RuntimeHintsPredicates.reflection().onType(entity)
+                .withMemberCategories(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS))
+                .as(entity.getName())
+                .accepts(hints);
+        }
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(Goal.class.getMethod("getIsCompleted"))).accepts(hints);
+    }
+
+    @Test
+    void registerHints_ModelsBindable() throws NoSuchMethodException {
+        assertThat(RuntimeHintsPredicates.reflection().onType(CreateGoalRequest.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(CreateGoalRequest.class.getMethod("getName")))
+            .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(BatchResponse.class)).accepts(hints);
+    }
+
+    @Test
+    void registerHints_JwtInternalsReflective() {
+        for (String jwtClass : NativeRuntimeHints.JWT_CLASSES) {
+            assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of(jwtClass))
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+                .as(jwtClass)
+                .accepts(hints);
+        }
+    }
+}
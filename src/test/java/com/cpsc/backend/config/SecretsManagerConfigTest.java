@@ -0,0 +1,174 @@
+package com.cpsc.backend.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SecretsManagerConfigTest {
+
+    private final AtomicReference<SecretsManagerConfig.Snapshot> current = new AtomicReference<>(
+        version("v1", "client-1", "secret-1"));
+    private final AtomicInteger fetches = new AtomicInteger();
+    private SecretsManagerConfig config;
+
+    @AfterEach
+    void tearDown() {
+        if (config != null) {
+            config.shutdown();
+        }
+    }
+
+    @Test
+    void getSecret_WaitsForInitialLoad() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        config = new SecretsManagerConfig(() -> {
+            await(release);
+            return current.get();
+        }, Duration.ZERO);
+        config.init();
+
+        Thread reader = Thread.ofVirtual().start(() -> assertThat(config.getCognitoClientSecret()).isEqualTo("secret-1"));
+        assertThat(reader.join(Duration.ofMillis(50))).isFalse();
+
+        release.countDown();
+        assertThat(reader.join(Duration.ofSeconds(2))).isTrue();
+    }
+
+    @Test
+    void awaitLoaded_LoadFailed_ThrowsCause() {
+        config = new SecretsManagerConfig(() -> {
+            throw new IllegalStateException("AccessDenied");
+        }, Duration.ZERO);
+        config.init();
+
+        assertThatThrownBy(config::awaitLoaded)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("AccessDenied");
+    }
+
+    @Test
+    void refresh_NewVersion_SwapsValuesAndRebuildsDerived() {
+        config = loaded();
+        Supplier<String> credentials = config.derived(
+            secrets -> secrets.get(SecretsManagerConfig.COGNITO_CLIENT_ID) + ":" + secrets.get(SecretsManagerConfig.COGNITO_CLIENT_SECRET),
+            SecretsManagerConfig.COGNITO_CLIENT_ID, SecretsManagerConfig.COGNITO_CLIENT_SECRET);
+        assertThat(credentials.get()).isEqualTo("client-1:secret-1");
+
+        current.set(version("v2", "client-1", "secret-2"));
+
+        assertThat(config.refresh()).isTrue();
+        assertThat(config.getCognitoClientSecret()).isEqualTo("secret-2");
+        assertThat(credentials.get()).isEqualTo("client-1:secret-2");
+    }
+
+    @Test
+    void refresh_SameVersion_KeepsSnapshot() {
+        config = loaded();
+        SecretsManagerConfig.Snapshot before = config.snapshot();
+
+        assertThat(config.refresh()).isFalse();
+
+        assertThat(config.snapshot()).isSameAs(before);
+        assertThat(fetches.get()).isEqualTo(2);
+    }
+
+    @Test
+    void refresh_UnrelatedSecretChanged_KeepsDerivedValue() {
+        config = loaded();
+        Supplier<Object> hash = config.derived(secrets -> new Object(), SecretsManagerConfig.COGNITO_CLIENT_SECRET);
+        Object before = hash.get();
+
+        current.set(version("v2", "client-2", "secret-1"));
+        config.refresh();
+
+        assertThat(hash.get()).isSameAs(before);
+    }
+
+    @Test
+    void refresh_DerivedNotYetUsed_StaysUnbuilt() {
+        config = loaded();
+        AtomicInteger builds = new AtomicInteger();
+        Supplier<Integer> value = config.derived(secrets -> builds.incrementAndGet(), SecretsManagerConfig.COGNITO_CLIENT_SECRET);
+
+        current.set(version("v2", "client-1", "secret-2"));
+        config.refresh();
+
+        assertThat(builds.get()).isZero();
+        assertThat(value.get()).isEqualTo(1);
+    }
+
+    @Test
+    void refresh_FetchFails_KeepsServingOldValues() {
+        config = loaded();
+        current.set(null);
+
+        assertThat(config.refresh()).isFalse();
+
+        assertThat(config.getCognitoClientSecret()).isEqualTo("secret-1");
+    }
+
+    @Test
+    void requestRefresh_Burst_RefreshesOnce() throws InterruptedException {
+        config = loaded();
+        current.set(version("v2", "client-1", "secret-2"));
+
+        for (int i = 0; i < 10; i++) {
+            config.requestRefresh();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!"secret-2".equals(config.getCognitoClientSecret()) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(config.getCognitoClientSecret()).isEqualTo("secret-2");
+        assertThat(fetches.get()).isEqualTo(2);
+    }
+
+    @Test
+    void getSecret_MissingKey_ThrowsException() {
+        config = new SecretsManagerConfig(Map.of("COGNITO_REGION", "us-east-1"));
+
+        assertThatThrownBy(config::getCognitoClientSecret)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Secret key 'COGNITO_CLIENT_SECRET' not found in Secrets Manager");
+    }
+
+    private SecretsManagerConfig loaded() {
+        SecretsManagerConfig loaded = new SecretsManagerConfig(() -> {
+            fetches.incrementAndGet();
+            SecretsManagerConfig.Snapshot snapshot = current.get();
+            if (snapshot == null) {
+                throw new IllegalStateException("Secrets Manager unavailable");
+            }
+            return snapshot;
+        }, Duration.ZERO);
+        loaded.init();
+        loaded.awaitLoaded();
+        return loaded;
+    }
+
+    private static SecretsManagerConfig.Snapshot version(String versionId, String clientId, String clientSecret) {
+        return new SecretsManagerConfig.Snapshot(Map.of(
+            SecretsManagerConfig.COGNITO_CLIENT_ID, clientId,
+            SecretsManagerConfig.COGNITO_CLIENT_SECRET, clientSecret), versionId, Instant.now());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.cpsc.backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SecurityConfigTest {
+
+    @Test
+    void publicPaths_ExposeHealthButNotMetrics() {
+        assertThat(SecurityConfig.PUBLIC_PATHS).contains("/actuator/health").doesNotContain(SecurityConfig.SCRAPE_PATH);
+    }
+
+    @Test
+    void scrapeRequests_SeparateManagementPort_MatchesOnlyThatPort() {
+        RequestMatcher matcher = SecurityConfig.scrapeRequests(8080, 8081);
+
+        assertThat(matcher.matches(request(8081, SecurityConfig.SCRAPE_PATH))).isTrue();
+        assertThat(matcher.matches(request(8080, SecurityConfig.SCRAPE_PATH))).isFalse();
+        assertThat(matcher.matches(request(8081, "/actuator/env"))).isFalse();
+    }
+
+    @Test
+    void scrapeRequests_SharedPort_MatchesNothing() {
+        assertThat(SecurityConfig.scrapeRequests(8080, 8080).matches(request(8080, SecurityConfig.SCRAPE_PATH)))
+            .isFalse();
+        assertThat(SecurityConfig.scrapeRequests(8080, -1).matches(request(8080, SecurityConfig.SCRAPE_PATH)))
+            .isFalse();
+    }
+
+    private static MockHttpServletRequest request(int localPort, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        request.setLocalPort(localPort);
+        return request;
+    }
+}
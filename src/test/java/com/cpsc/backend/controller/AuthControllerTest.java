@@ -1,5 +1,6 @@
 package com.cpsc.backend.controller;
 
+import com.cpsc.backend.exception.CognitoUnavailableException;
 import com.cpsc.backend.model.*;
 import com.cpsc.backend.service.CognitoService;
 import com.cpsc.backend.service.GoalService;
@@ -20,6 +21,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -239,6 +241,17 @@ class AuthControllerTest {
         verify(cognitoService).login("test@example.com", "Test@1234");
     }
 
+    @Test
+    void login_CognitoUnavailable_Propagates() {
+        // Arrange
+        when(cognitoService.login(anyString(), anyString()))
+                .thenThrow(new CognitoUnavailableException("Authentication service timed out. Please try again.", 1));
+
+        // Act & Assert
+        assertThatThrownBy(() -> authController.login(loginRequest))
+                .isInstanceOf(CognitoUnavailableException.class);
+    }
+
     @Test
     void login_Failure_UserNotConfirmed() {
         // Arrange
@@ -266,8 +279,9 @@ class AuthControllerTest {
             
             securityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
             when(securityContext.getAuthentication()).thenReturn(authentication);
+            when(authentication.getName()).thenReturn("test-user-id");
             when(authentication.getCredentials()).thenReturn(mockToken);
-            when(cognitoService.getUserProfile(mockToken)).thenReturn(profileResult);
+            when(cognitoService.getUserProfile("test-user-id", mockToken)).thenReturn(profileResult);
 
             // Act
             ResponseEntity<GetProfile200Response> response = authController.getProfile();
@@ -280,7 +294,7 @@ class AuthControllerTest {
             assertThat(response.getBody().getScreenName()).isEqualTo("TestUser123");
             assertThat(response.getBody().getAuthenticated()).isTrue();
             
-            verify(cognitoService).getUserProfile(mockToken);
+            verify(cognitoService).getUserProfile("test-user-id", mockToken);
         }
     }
 
@@ -439,8 +453,9 @@ class AuthControllerTest {
             
             securityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
             when(securityContext.getAuthentication()).thenReturn(authentication);
+            when(authentication.getName()).thenReturn("test-user-id");
             when(authentication.getCredentials()).thenReturn(mockToken);
-            when(cognitoService.updateScreenName(mockToken, "NewUsername123")).thenReturn(serviceResult);
+            when(cognitoService.updateScreenName("test-user-id", mockToken, "NewUsername123")).thenReturn(serviceResult);
 
             // Act
             ResponseEntity<UpdateScreenNameResponse> response = authController.updateScreenName(updateScreenNameRequest);
@@ -451,7 +466,7 @@ class AuthControllerTest {
             assertThat(response.getBody().getMessage()).isEqualTo("Screen name updated successfully");
             assertThat(response.getBody().getScreenName()).isEqualTo("NewUsername123");
             
-            verify(cognitoService).updateScreenName(mockToken, "NewUsername123");
+            verify(cognitoService).updateScreenName("test-user-id", mockToken, "NewUsername123");
         }
     }
 
@@ -463,8 +478,9 @@ class AuthControllerTest {
             
             securityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
             when(securityContext.getAuthentication()).thenReturn(authentication);
+            when(authentication.getName()).thenReturn("test-user-id");
             when(authentication.getCredentials()).thenReturn(mockToken);
-            when(cognitoService.updateScreenName(mockToken, "NewUsername123"))
+            when(cognitoService.updateScreenName("test-user-id", mockToken, "NewUsername123"))
                     .thenThrow(new RuntimeException("Invalid screen name format"));
 
             // Act
@@ -474,7 +490,7 @@ class AuthControllerTest {
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
             assertThat(response.getBody()).isNull();
             
-            verify(cognitoService).updateScreenName(mockToken, "NewUsername123");
+            verify(cognitoService).updateScreenName("test-user-id", mockToken, "NewUsername123");
         }
     }
 
@@ -486,8 +502,9 @@ class AuthControllerTest {
             
             securityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
             when(securityContext.getAuthentication()).thenReturn(authentication);
+            when(authentication.getName()).thenReturn("test-user-id");
             when(authentication.getCredentials()).thenReturn(mockToken);
-            when(cognitoService.updateScreenName(mockToken, "NewUsername123"))
+            when(cognitoService.updateScreenName("test-user-id", mockToken, "NewUsername123"))
                     .thenThrow(new RuntimeException("Error updating screen name: Service error"));
 
             // Act
@@ -497,7 +514,7 @@ class AuthControllerTest {
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
             assertThat(response.getBody()).isNull();
             
-            verify(cognitoService).updateScreenName(mockToken, "NewUsername123");
+            verify(cognitoService).updateScreenName("test-user-id", mockToken, "NewUsername123");
         }
     }
 
@@ -523,7 +540,7 @@ class AuthControllerTest {
             // Verify deletion order: goals first, then institutions, then Cognito user
             verify(goalService).deleteAllUserGoals(userId);
             verify(institutionService).deleteAllUserInstitutions(userId);
-            verify(cognitoService).deleteUser(mockToken);
+            verify(cognitoService).deleteUser(userId, mockToken);
         }
     }
 
@@ -552,7 +569,7 @@ class AuthControllerTest {
             verify(goalService).deleteAllUserGoals(userId);
             // Should not proceed to delete institutions or Cognito user
             verify(institutionService, never()).deleteAllUserInstitutions(anyString());
-            verify(cognitoService, never()).deleteUser(anyString());
+            verify(cognitoService, never()).deleteUser(anyString(), anyString());
         }
     }
 }
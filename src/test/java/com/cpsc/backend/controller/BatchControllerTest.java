@@ -0,0 +1,71 @@
+package com.cpsc.backend.controller;
+
+import com.cpsc.backend.model.BatchRequest;
+import com.cpsc.backend.model.BatchResponse;
+import com.cpsc.backend.service.BatchService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchControllerTest {
+
+    @Mock
+    private BatchService batchService;
+
+    @Mock
+    private Authentication authentication;
+
+    @Mock
+    private SecurityContext securityContext;
+
+    @InjectMocks
+    private BatchController batchController;
+
+    private static final String USER_ID = "550e8400-e29b-41d4-a716-446655440001";
+
+    @Test
+    void executeBatch_Success() {
+        BatchRequest request = new BatchRequest();
+        BatchResponse batchResponse = new BatchResponse();
+
+        try (MockedStatic<SecurityContextHolder> securityContextHolder = mockStatic(SecurityContextHolder.class)) {
+            securityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+            when(securityContext.getAuthentication()).thenReturn(authentication);
+            when(authentication.getName()).thenReturn(USER_ID);
+            when(batchService.execute(USER_ID, request)).thenReturn(batchResponse);
+
+            ResponseEntity<BatchResponse> response = batchController.executeBatch(request);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).isSameAs(batchResponse);
+        }
+    }
+
+    @Test
+    void executeBatch_NoAuthentication_ThrowsException() {
+        try (MockedStatic<SecurityContextHolder> securityContextHolder = mockStatic(SecurityContextHolder.class)) {
+            securityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+            when(securityContext.getAuthentication()).thenReturn(null);
+
+            assertThatThrownBy(() -> batchController.executeBatch(new BatchRequest()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("User not authenticated");
+            verifyNoInteractions(batchService);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.cpsc.backend.controller;
+
+import com.cpsc.backend.model.DashboardResponse;
+import com.cpsc.backend.service.DashboardService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardControllerTest {
+
+    @Mock
+    private DashboardService dashboardService;
+
+    @Mock
+    private Authentication authentication;
+
+    @Mock
+    private SecurityContext securityContext;
+
+    @InjectMocks
+    private DashboardController dashboardController;
+
+    private static final String USER_ID = "550e8400-e29b-41d4-a716-446655440001";
+
+    @Test
+    void getDashboard_Success() {
+        DashboardResponse dashboard = new DashboardResponse();
+        dashboard.setTotalBalance(1500.0);
+
+        try (MockedStatic<SecurityContextHolder> securityContextHolder = mockStatic(SecurityContextHolder.class)) {
+            securityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+            when(securityContext.getAuthentication()).thenReturn(authentication);
+            when(authentication.getName()).thenReturn(USER_ID);
+            when(dashboardService.getDashboard(USER_ID)).thenReturn(dashboard);
+
+            ResponseEntity<DashboardResponse> response = dashboardController.getDashboard();
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).isSameAs(dashboard);
+            verify(dashboardService).getDashboard(USER_ID);
+        }
+    }
+
+    @Test
+    void getDashboard_NoAuthentication_ThrowsException() {
+        try (MockedStatic<SecurityContextHolder> securityContextHolder = mockStatic(SecurityContextHolder.class)) {
+            securityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+            when(securityContext.getAuthentication()).thenReturn(null);
+
+            assertThatThrownBy(() -> dashboardController.getDashboard())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("User not authenticated");
+            verifyNoInteractions(dashboardService);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.cpsc.backend.controller;
+
+import com.cpsc.backend.service.EventStreamService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventControllerTest {
+
+    @Mock
+    private EventStreamService eventStreamService;
+
+    @Mock
+    private Authentication authentication;
+
+    @Mock
+    private SecurityContext securityContext;
+
+    @InjectMocks
+    private EventController eventController;
+
+    private static final String USER_ID = "550e8400-e29b-41d4-a716-446655440001";
+
+    @Test
+    void streamEvents_Success() {
+        SseEmitter emitter = new SseEmitter();
+
+        try (MockedStatic<SecurityContextHolder> securityContextHolder = mockStatic(SecurityContextHolder.class)) {
+            securityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+            when(securityContext.getAuthentication()).thenReturn(authentication);
+            when(authentication.getName()).thenReturn(USER_ID);
+            when(eventStreamService.subscribe(USER_ID)).thenReturn(emitter);
+
+            ResponseEntity<SseEmitter> response = eventController.streamEvents();
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).isSameAs(emitter);
+            assertThat(response.getHeaders().getCacheControl()).isEqualTo("no-store");
+        }
+    }
+
+    @Test
+    void streamEvents_NoAuthentication_ThrowsException() {
+        try (MockedStatic<SecurityContextHolder> securityContextHolder = mockStatic(SecurityContextHolder.class)) {
+            securityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+            when(securityContext.getAuthentication()).thenReturn(null);
+
+            assertThatThrownBy(() -> eventController.streamEvents())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("User not authenticated");
+            verifyNoInteractions(eventStreamService);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.cpsc.backend.controller;
 import com.cpsc.backend.model.CreateGoalRequest;
 import com.cpsc.backend.model.GetGoals200Response;
 import com.cpsc.backend.model.GoalResponse;
+import com.cpsc.backend.service.EntityTagService;
 import com.cpsc.backend.service.GoalService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,6 +28,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +37,9 @@ class GoalControllerTest {
     @Mock
     private GoalService goalService;
 
+    @Mock
+    private EntityTagService entityTagService;
+
     @Mock
     private Authentication authentication;
 
@@ -123,7 +128,7 @@ class GoalControllerTest {
             when(authentication.getName()).thenReturn(USER_ID);
             when(goalService.getUserGoals(USER_ID)).thenReturn(goals);
 
-            ResponseEntity<GetGoals200Response> response = goalController.getGoals();
+            ResponseEntity<GetGoals200Response> response = goalController.getGoals(null);
 
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
             assertThat(response.getBody()).isNotNull();
@@ -141,10 +146,44 @@ class GoalControllerTest {
             when(authentication.getName()).thenReturn(USER_ID);
             when(goalService.getUserGoals(USER_ID)).thenReturn(List.of());
 
-            goalController.getGoals();
+            goalController.getGoals(null);
 
             verify(authentication).getName();
             verify(goalService).getUserGoals(USER_ID);
         }
     }
+
+    @Test
+    void getGoals_ReturnsETag() {
+        try (MockedStatic<SecurityContextHolder> securityContextHolder = mockStatic(SecurityContextHolder.class)) {
+            securityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+            when(securityContext.getAuthentication()).thenReturn(authentication);
+            when(authentication.getName()).thenReturn(USER_ID);
+            when(entityTagService.listTag(USER_ID, "goals")).thenReturn("\"7-abc\"");
+            when(goalService.getUserGoals(USER_ID)).thenReturn(List.of());
+
+            ResponseEntity<GetGoals200Response> response = goalController.getGoals(null);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getHeaders().getETag()).isEqualTo("\"7-abc\"");
+        }
+    }
+
+    @Test
+    void getGoals_IfNoneMatchCurrent_ReturnsNotModifiedWithoutQuery() {
+        try (MockedStatic<SecurityContextHolder> securityContextHolder = mockStatic(SecurityContextHolder.class)) {
+            securityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+            when(securityContext.getAuthentication()).thenReturn(authentication);
+            when(authentication.getName()).thenReturn(USER_ID);
+            when(entityTagService.listTag(USER_ID, "goals")).thenReturn("\"7-abc\"");
+            when(entityTagService.matches("\"7-abc\"", "\"7-abc\"")).thenReturn(true);
+
+            ResponseEntity<GetGoals200Response> response = goalController.getGoals("\"7-abc\"");
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+            assertThat(response.getHeaders().getETag()).isEqualTo("\"7-abc\"");
+            assertThat(response.getBody()).isNull();
+            verifyNoInteractions(goalService);
+        }
+    }
 }
@@ -3,6 +3,7 @@ package com.cpsc.backend.controller;
 import com.cpsc.backend.model.CreateInstitutionRequest;
 import com.cpsc.backend.model.GetInstitutions200Response;
 import com.cpsc.backend.model.InstitutionResponse;
+import com.cpsc.backend.service.EntityTagService;
 import com.cpsc.backend.service.InstitutionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,6 +29,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +38,9 @@ class InstitutionControllerTest {
     @Mock
     private InstitutionService institutionService;
 
+    @Mock
+    private EntityTagService entityTagService;
+
     @Mock
     private Authentication authentication;
 
@@ -93,7 +98,7 @@ class InstitutionControllerTest {
             when(institutionService.getUserInstitutionsPaginated("550e8400-e29b-41d4-a716-446655440000", null, null))
                     .thenReturn(getResponse);
 
-            ResponseEntity<GetInstitutions200Response> response = institutionController.getInstitutions(null, null);
+            ResponseEntity<GetInstitutions200Response> response = institutionController.getInstitutions(null, null, null);
 
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
             assertThat(response.getBody()).isNotNull();
@@ -111,13 +116,32 @@ class InstitutionControllerTest {
                     .thenReturn(getResponse);
 
             ResponseEntity<GetInstitutions200Response> response = 
-                    institutionController.getInstitutions(10, "token-123");
+                    institutionController.getInstitutions(10, "token-123", null);
 
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
             assertThat(response.getBody()).isNotNull();
         }
     }
 
+    @Test
+    void getInstitutions_IfNoneMatchCurrent_ReturnsNotModifiedWithoutQuery() {
+        String userId = "550e8400-e29b-41d4-a716-446655440000";
+        try (MockedStatic<SecurityContextHolder> securityContextHolder = mockStatic(SecurityContextHolder.class)) {
+            securityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+            when(securityContext.getAuthentication()).thenReturn(authentication);
+            when(authentication.getName()).thenReturn(userId);
+            when(entityTagService.listTag(userId, "institutions", 10, "token-123")).thenReturn("\"3-1f\"");
+            when(entityTagService.matches("W/\"3-1f\"", "\"3-1f\"")).thenReturn(true);
+
+            ResponseEntity<GetInstitutions200Response> response =
+                    institutionController.getInstitutions(10, "token-123", "W/\"3-1f\"");
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+            assertThat(response.getHeaders().getETag()).isEqualTo("\"3-1f\"");
+            verifyNoInteractions(institutionService);
+        }
+    }
+
     @Test
     void deleteInstitution_Success() {
         try (MockedStatic<SecurityContextHolder> securityContextHolder = mockStatic(SecurityContextHolder.class)) {
@@ -0,0 +1,72 @@
+package com.cpsc.backend.controller;
+
+import com.cpsc.backend.model.SyncResponse;
+import com.cpsc.backend.service.SyncService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SyncControllerTest {
+
+    @Mock
+    private SyncService syncService;
+
+    @Mock
+    private Authentication authentication;
+
+    @Mock
+    private SecurityContext securityContext;
+
+    @InjectMocks
+    private SyncController syncController;
+
+    private static final String USER_ID = "550e8400-e29b-41d4-a716-446655440001";
+
+    @Test
+    void getChanges_Success() {
+        SyncResponse sync = new SyncResponse();
+        sync.setCursor("42");
+
+        try (MockedStatic<SecurityContextHolder> securityContextHolder = mockStatic(SecurityContextHolder.class)) {
+            securityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+            when(securityContext.getAuthentication()).thenReturn(authentication);
+            when(authentication.getName()).thenReturn(USER_ID);
+            when(syncService.getChanges(USER_ID, "40", 50)).thenReturn(sync);
+
+            ResponseEntity<SyncResponse> response = syncController.getChanges("40", 50);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).isSameAs(sync);
+            verify(syncService).getChanges(USER_ID, "40", 50);
+        }
+    }
+
+    @Test
+    void getChanges_NoAuthentication_ThrowsException() {
+        try (MockedStatic<SecurityContextHolder> securityContextHolder = mockStatic(SecurityContextHolder.class)) {
+            securityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+            when(securityContext.getAuthentication()).thenReturn(null);
+
+            assertThatThrownBy(() -> syncController.getChanges("40", 50))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("User not authenticated");
+            verifyNoInteractions(syncService);
+        }
+    }
+}
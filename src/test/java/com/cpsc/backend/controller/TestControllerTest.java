@@ -1,23 +1,31 @@
 package com.cpsc.backend.controller;
 
 import com.cpsc.backend.model.Hello200Response;
+import com.cpsc.backend.startup.StartupWarmup;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class TestControllerTest {
 
+    @Mock
+    private StartupWarmup startupWarmup;
+
     @InjectMocks
     private TestController testController;
 
     @Test
     void hello_ReturnsSuccessMessage() {
+        when(startupWarmup.isReady()).thenReturn(true);
+
         ResponseEntity<Hello200Response> response = testController.hello();
 
         // Assert
@@ -25,4 +33,16 @@ class TestControllerTest {
         assertThat(response.getBody()).isNotNull();
         assertThat(response.getBody().getMessage()).isEqualTo("Hello from CPSC Backend API!");
     }
+
+    @Test
+    void hello_WarmupNotFinished_ReturnsServiceUnavailable() {
+        when(startupWarmup.isReady()).thenReturn(false);
+
+        ResponseEntity<Hello200Response> response = testController.hello();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getStatus()).isEqualTo("starting");
+    }
 }
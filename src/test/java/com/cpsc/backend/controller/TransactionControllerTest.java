@@ -1,7 +1,12 @@
 package com.cpsc.backend.controller;
 
+import com.cpsc.backend.exception.InstitutionNotFoundException;
 import com.cpsc.backend.model.CreateTransactionRequest;
+import com.cpsc.backend.model.GetTransactions200Response;
 import com.cpsc.backend.model.TransactionResponse;
+import com.cpsc.backend.service.EntityTagService;
+import com.cpsc.backend.service.IdempotencyService;
+import com.cpsc.backend.service.TransactionFeedService;
 import com.cpsc.backend.service.TransactionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,10 +26,15 @@ import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +43,15 @@ class TransactionControllerTest {
     @Mock
     private TransactionService transactionService;
 
+    @Mock
+    private TransactionFeedService transactionFeedService;
+
+    @Mock
+    private EntityTagService entityTagService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
     @Mock
     private Authentication authentication;
 
@@ -74,7 +93,7 @@ class TransactionControllerTest {
             when(transactionService.createTransaction(eq(USER_ID), eq(INSTITUTION_ID.toString()), any(CreateTransactionRequest.class)))
                     .thenReturn(transactionResponse);
 
-            ResponseEntity<TransactionResponse> response = transactionController.createTransaction(INSTITUTION_ID, createRequest);
+            ResponseEntity<TransactionResponse> response = transactionController.createTransaction(INSTITUTION_ID, createRequest, null);
 
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
             assertThat(response.getBody()).isNotNull();
@@ -84,6 +103,25 @@ class TransactionControllerTest {
         }
     }
 
+    @Test
+    void createTransaction_WithIdempotencyKey_ReplayedResponseIsMarked() {
+        try (MockedStatic<SecurityContextHolder> securityContextHolder = mockStatic(SecurityContextHolder.class)) {
+            securityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+            when(securityContext.getAuthentication()).thenReturn(authentication);
+            when(authentication.getName()).thenReturn(USER_ID);
+            when(idempotencyService.execute(eq(USER_ID), eq("key-1"), eq("createTransaction " + INSTITUTION_ID),
+                    eq(createRequest), eq(201), eq(TransactionResponse.class), any()))
+                    .thenReturn(new IdempotencyService.Result<>(201, transactionResponse, true));
+
+            ResponseEntity<TransactionResponse> response = transactionController.createTransaction(INSTITUTION_ID, createRequest, "key-1");
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+            assertThat(response.getBody()).isSameAs(transactionResponse);
+            assertThat(response.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+            verifyNoInteractions(transactionService);
+        }
+    }
+
     @Test
     void getInstitutionTransactions_Success() {
         try (MockedStatic<SecurityContextHolder> securityContextHolder = mockStatic(SecurityContextHolder.class)) {
@@ -93,7 +131,7 @@ class TransactionControllerTest {
             when(transactionService.getInstitutionTransactions(USER_ID, INSTITUTION_ID.toString()))
                     .thenReturn(List.of(transactionResponse));
 
-            ResponseEntity<List<TransactionResponse>> response = transactionController.getInstitutionTransactions(INSTITUTION_ID);
+            ResponseEntity<List<TransactionResponse>> response = transactionController.getInstitutionTransactions(INSTITUTION_ID, null);
 
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
             assertThat(response.getBody()).isNotNull();
@@ -111,13 +149,46 @@ class TransactionControllerTest {
             when(transactionService.getInstitutionTransactions(USER_ID, INSTITUTION_ID.toString()))
                     .thenReturn(Collections.emptyList());
 
-            ResponseEntity<List<TransactionResponse>> response = transactionController.getInstitutionTransactions(INSTITUTION_ID);
+            ResponseEntity<List<TransactionResponse>> response = transactionController.getInstitutionTransactions(INSTITUTION_ID, null);
 
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
             assertThat(response.getBody()).isEmpty();
         }
     }
 
+    @Test
+    void getInstitutionTransactions_IfNoneMatchCurrent_ReturnsNotModifiedWithoutQuery() {
+        try (MockedStatic<SecurityContextHolder> securityContextHolder = mockStatic(SecurityContextHolder.class)) {
+            securityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+            when(securityContext.getAuthentication()).thenReturn(authentication);
+            when(authentication.getName()).thenReturn(USER_ID);
+            when(entityTagService.listTag(USER_ID, "institution-transactions", INSTITUTION_ID)).thenReturn("\"5-a\"");
+            when(entityTagService.matches("\"5-a\"", "\"5-a\"")).thenReturn(true);
+
+            ResponseEntity<List<TransactionResponse>> response =
+                    transactionController.getInstitutionTransactions(INSTITUTION_ID, "\"5-a\"");
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+            verify(transactionService).requireInstitution(USER_ID, INSTITUTION_ID.toString());
+            verify(transactionService, never()).getInstitutionTransactions(anyString(), anyString());
+        }
+    }
+
+    @Test
+    void getInstitutionTransactions_InstitutionNotOwned_ThrowsBeforeNotModified() {
+        try (MockedStatic<SecurityContextHolder> securityContextHolder = mockStatic(SecurityContextHolder.class)) {
+            securityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+            when(securityContext.getAuthentication()).thenReturn(authentication);
+            when(authentication.getName()).thenReturn(USER_ID);
+            doThrow(new InstitutionNotFoundException("Institution not found with ID: " + INSTITUTION_ID))
+                    .when(transactionService).requireInstitution(USER_ID, INSTITUTION_ID.toString());
+
+            assertThatThrownBy(() -> transactionController.getInstitutionTransactions(INSTITUTION_ID, "*"))
+                    .isInstanceOf(InstitutionNotFoundException.class);
+            verifyNoInteractions(entityTagService);
+        }
+    }
+
     @Test
     void deleteTransaction_Success() {
         UUID transactionId = UUID.randomUUID();
@@ -134,4 +205,44 @@ class TransactionControllerTest {
             verify(transactionService).deleteTransaction(USER_ID, INSTITUTION_ID, transactionId);
         }
     }
+
+    @Test
+    void getTransactions_Success() {
+        GetTransactions200Response feed = new GetTransactions200Response();
+        feed.setTransactions(List.of(transactionResponse));
+        feed.setNextToken("token-2");
+
+        try (MockedStatic<SecurityContextHolder> securityContextHolder = mockStatic(SecurityContextHolder.class)) {
+            securityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+            when(securityContext.getAuthentication()).thenReturn(authentication);
+            when(authentication.getName()).thenReturn(USER_ID);
+            when(transactionFeedService.getTransactions(USER_ID, 10, "token-1")).thenReturn(feed);
+
+            ResponseEntity<GetTransactions200Response> response = transactionController.getTransactions(10, "token-1", null);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).isSameAs(feed);
+            verify(transactionFeedService).getTransactions(USER_ID, 10, "token-1");
+        }
+    }
+
+    @Test
+    void getTransactions_IfNoneMatchStale_ReturnsFeedWithCurrentETag() {
+        GetTransactions200Response feed = new GetTransactions200Response();
+
+        try (MockedStatic<SecurityContextHolder> securityContextHolder = mockStatic(SecurityContextHolder.class)) {
+            securityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+            when(securityContext.getAuthentication()).thenReturn(authentication);
+            when(authentication.getName()).thenReturn(USER_ID);
+            when(entityTagService.listTag(USER_ID, "transactions", 10, null)).thenReturn("\"6-b\"");
+            when(entityTagService.matches("\"5-b\"", "\"6-b\"")).thenReturn(false);
+            when(transactionFeedService.getTransactions(USER_ID, 10, null)).thenReturn(feed);
+
+            ResponseEntity<GetTransactions200Response> response = transactionController.getTransactions(10, null, "\"5-b\"");
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getHeaders().getETag()).isEqualTo("\"6-b\"");
+            assertThat(response.getBody()).isSameAs(feed);
+        }
+    }
 }
@@ -1,6 +1,8 @@
 package com.cpsc.backend.exception;
 
 import com.cpsc.backend.model.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
@@ -21,10 +23,12 @@ import static org.mockito.Mockito.when;
 class GlobalExceptionHandlerTest {
 
     private GlobalExceptionHandler exceptionHandler;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
-        exceptionHandler = new GlobalExceptionHandler();
+        meterRegistry = new SimpleMeterRegistry();
+        exceptionHandler = new GlobalExceptionHandler(meterRegistry);
     }
 
     @Test
@@ -41,6 +45,66 @@ class GlobalExceptionHandlerTest {
         assertThat(response.getBody().getError()).isEqualTo("Institution not found");
     }
 
+    @Test
+    void handleConcurrentUpdate_ReturnsConflict() {
+        // Arrange
+        ConcurrentUpdateException exception = new ConcurrentUpdateException("Could not edit goal");
+
+        // Act
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleConcurrentUpdate(exception);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getError()).isEqualTo("Could not edit goal");
+    }
+
+    @Test
+    void handleIdempotencyKeyReused_ReturnsUnprocessableEntity() {
+        // Arrange
+        IdempotencyKeyReusedException exception =
+            new IdempotencyKeyReusedException("Idempotency-Key was already used for a different request");
+
+        // Act
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleIdempotencyKeyReused(exception);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getError()).isEqualTo("Idempotency-Key was already used for a different request");
+    }
+
+    @Test
+    void handleReadTimeout_ReturnsServiceUnavailable() {
+        // Arrange
+        ReadTimeoutException exception = new ReadTimeoutException("Timed out reading goals");
+
+        // Act
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleReadTimeout(exception);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getError()).isEqualTo("Timed out reading goals");
+    }
+
+    @Test
+    void handleCognitoUnavailable_ReturnsServiceUnavailableWithRetryAfter() {
+        // Arrange
+        CognitoUnavailableException exception = new CognitoUnavailableException(
+            "Authentication service is temporarily unavailable. Please try again later.", 25);
+
+        // Act
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleCognitoUnavailable(exception);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst("Retry-After")).isEqualTo("25");
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getError())
+            .isEqualTo("Authentication service is temporarily unavailable. Please try again later.");
+    }
+
     @Test
     void handleInvalidInstitutionData_ReturnsBadRequest() {
         // Arrange
@@ -180,4 +244,39 @@ class GlobalExceptionHandlerTest {
         assertThat(response.getBody()).isNotNull();
         assertThat(response.getBody().getError()).isEqualTo("Access denied");
     }
+
+    @Test
+    void handledErrors_AreCountedByExceptionTypeAndStatus() {
+        // Act
+        exceptionHandler.handleInstitutionNotFound(new InstitutionNotFoundException("missing"));
+        exceptionHandler.handleInstitutionNotFound(new InstitutionNotFoundException("missing again"));
+        exceptionHandler.handleGenericException(new RuntimeException("boom"));
+
+        // Assert
+        Counter notFound = meterRegistry.find(GlobalExceptionHandler.ERROR_METRIC)
+            .tags("exception", "InstitutionNotFoundException", "status", "404")
+            .counter();
+        Counter generic = meterRegistry.find(GlobalExceptionHandler.ERROR_METRIC)
+            .tags("exception", "RuntimeException", "status", "500")
+            .counter();
+        assertThat(notFound).isNotNull();
+        assertThat(notFound.count()).isEqualTo(2.0);
+        assertThat(generic).isNotNull();
+        assertThat(generic.count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void toResponse_MapsLikeTheMatchingHandler() {
+        // Act & Assert
+        assertThat(exceptionHandler.toResponse(new InstitutionNotFoundException("missing")).getStatusCode())
+            .isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(exceptionHandler.toResponse(new ConcurrentUpdateException("conflict")).getStatusCode())
+            .isEqualTo(HttpStatus.CONFLICT);
+        assertThat(exceptionHandler.toResponse(new IllegalArgumentException("bad")).getBody().getError())
+            .isEqualTo("bad");
+
+        ResponseEntity<ErrorResponse> generic = exceptionHandler.toResponse(new RuntimeException("boom"));
+        assertThat(generic.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(generic.getBody().getError()).isEqualTo("An unexpected error occurred. Please try again later.");
+    }
 }
@@ -0,0 +1,187 @@
+package com.cpsc.backend.local;
+
+import com.auth0.jwk.JwkProvider;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.cpsc.backend.config.CognitoConfig;
+import com.cpsc.backend.config.SecretsManagerConfig;
+import com.cpsc.backend.security.JwtValidator;
+import com.cpsc.backend.exception.CognitoUnavailableException;
+import com.cpsc.backend.service.CognitoCallGuard;
+import com.cpsc.backend.service.CognitoService;
+import com.cpsc.backend.service.UserProfileCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.InitiateAuthRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.NotAuthorizedException;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryCognitoIdentityProviderClientTest {
+
+    private static final String CODE = "000000";
+    private static final String EMAIL = "user@example.com";
+    private static final String PASSWORD = "Test@1234";
+
+    private LocalJwtSigner signer;
+    private InMemoryCognitoIdentityProviderClient client;
+    private SecretsManagerConfig secretsManagerConfig;
+    private CognitoService cognitoService;
+
+    @BeforeEach
+    void setUp() {
+        signer = new LocalJwtSigner("us-east-1", "us-east-1_local");
+        client = new InMemoryCognitoIdentityProviderClient(signer, "local-client", "local-secret", CODE);
+        secretsManagerConfig = new SecretsManagerConfig(Map.of(
+            "COGNITO_USER_POOL_ID", "us-east-1_local",
+            "COGNITO_CLIENT_ID", "local-client",
+            "COGNITO_CLIENT_SECRET", "local-secret",
+            "COGNITO_REGION", "us-east-1"));
+        cognitoService = new CognitoService(client, secretsManagerConfig,
+            new UserProfileCache(Duration.ofMinutes(5), 100, new SimpleMeterRegistry()), callGuard());
+    }
+
+    @Test
+    void signUpConfirmLogin_IssuesCognitoShapedTokens() {
+        cognitoService.signUp(EMAIL, PASSWORD, "JohnDoe123");
+        cognitoService.confirmSignUp(EMAIL, CODE);
+
+        Map<String, String> login = cognitoService.login(EMAIL, PASSWORD);
+
+        assertEquals("JohnDoe123", login.get("screenName"));
+        assertEquals(EMAIL, login.get("email"));
+        DecodedJWT idToken = JWT.decode(login.get("idToken"));
+        assertEquals("id", idToken.getClaim("token_use").asString());
+        assertEquals(signer.getIssuer(), idToken.getIssuer());
+        assertEquals("access", JWT.decode(login.get("accessToken")).getClaim("token_use").asString());
+        assertNotNull(login.get("refreshToken"));
+    }
+
+    @Test
+    void tokens_PassJwtValidatorThroughLocalJwkProvider() {
+        cognitoService.signUp(EMAIL, PASSWORD, "JohnDoe123");
+        cognitoService.confirmSignUp(EMAIL, CODE);
+        String idToken = cognitoService.login(EMAIL, PASSWORD).get("idToken");
+
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("localJwkProvider", signer.jwkProvider());
+        JwtValidator validator = new JwtValidator(new CognitoConfig(secretsManagerConfig),
+            beans.getBeanProvider(JwkProvider.class));
+
+        assertEquals(JWT.decode(idToken).getSubject(), validator.validateToken(idToken).getSubject());
+    }
+
+    @Test
+    void login_BeforeConfirmation_IsRejected() {
+        cognitoService.signUp(EMAIL, PASSWORD, "JohnDoe123");
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> cognitoService.login(EMAIL, PASSWORD));
+        assertTrue(exception.getMessage().contains("not confirmed"));
+    }
+
+    @Test
+    void confirmSignUp_WrongCode_IsRejected() {
+        cognitoService.signUp(EMAIL, PASSWORD, "JohnDoe123");
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> cognitoService.confirmSignUp(EMAIL, "999999"));
+        assertEquals("Invalid verification code", exception.getMessage());
+    }
+
+    @Test
+    void login_WrongPassword_IsRejected() {
+        cognitoService.signUp(EMAIL, PASSWORD, "JohnDoe123");
+        cognitoService.confirmSignUp(EMAIL, CODE);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> cognitoService.login(EMAIL, "Wrong@1234"));
+        assertEquals("Incorrect username or password", exception.getMessage());
+    }
+
+    @Test
+    void initiateAuth_WrongSecretHash_IsRejected() {
+        cognitoService.signUp(EMAIL, PASSWORD, "JohnDoe123");
+        cognitoService.confirmSignUp(EMAIL, CODE);
+
+        assertThrows(NotAuthorizedException.class, () -> client.initiateAuth(InitiateAuthRequest.builder()
+            .clientId("local-client")
+            .authFlow("USER_PASSWORD_AUTH")
+            .authParameters(Map.of("USERNAME", EMAIL, "PASSWORD", PASSWORD, "SECRET_HASH", "bogus"))
+            .build()));
+    }
+
+    @Test
+    void updateScreenName_IsVisibleInProfile() {
+        String userId = cognitoService.signUp(EMAIL, PASSWORD, "JohnDoe123").get("userSub");
+        cognitoService.confirmSignUp(EMAIL, CODE);
+        String accessToken = cognitoService.login(EMAIL, PASSWORD).get("accessToken");
+        assertEquals("JohnDoe123", cognitoService.getUserProfile(userId, accessToken).get("preferred_username"));
+
+        cognitoService.updateScreenName(userId, accessToken, "NewName");
+
+        assertEquals("NewName", cognitoService.getUserProfile(userId, accessToken).get("preferred_username"));
+        assertEquals("NewName", cognitoService.login(EMAIL, PASSWORD).get("screenName"));
+    }
+
+    @Test
+    void confirmForgotPassword_ChangesPassword() {
+        cognitoService.signUp(EMAIL, PASSWORD, "JohnDoe123");
+        cognitoService.confirmSignUp(EMAIL, CODE);
+
+        cognitoService.forgotPassword(EMAIL);
+        cognitoService.confirmForgotPassword(EMAIL, CODE, "NewTest@1234");
+
+        assertThrows(RuntimeException.class, () -> cognitoService.login(EMAIL, PASSWORD));
+        assertNotNull(cognitoService.login(EMAIL, "NewTest@1234").get("idToken"));
+    }
+
+    @Test
+    void deleteUser_RevokesAccessTokenAndAccount() {
+        String userId = cognitoService.signUp(EMAIL, PASSWORD, "JohnDoe123").get("userSub");
+        cognitoService.confirmSignUp(EMAIL, CODE);
+        String accessToken = cognitoService.login(EMAIL, PASSWORD).get("accessToken");
+
+        cognitoService.deleteUser(userId, accessToken);
+
+        assertThrows(RuntimeException.class, () -> cognitoService.getUserProfile(userId, accessToken));
+        assertThrows(RuntimeException.class, () -> cognitoService.login(EMAIL, PASSWORD));
+    }
+
+    @Test
+    void injectedFailures_OpenCognitoCircuit() {
+        InMemoryCognitoIdentityProviderClient failing = new InMemoryCognitoIdentityProviderClient(
+            signer, "local-client", "local-secret", CODE, Duration.ZERO, 1.0);
+        CognitoService service = new CognitoService(failing, secretsManagerConfig,
+            new UserProfileCache(Duration.ofMinutes(5), 100, new SimpleMeterRegistry()), callGuard());
+
+        for (int i = 0; i < 4; i++) {
+            RuntimeException e = assertThrows(RuntimeException.class, () -> service.login(EMAIL, PASSWORD));
+            assertTrue(e.getMessage().startsWith("Error during login"));
+        }
+
+        assertThrows(CognitoUnavailableException.class, () -> service.login(EMAIL, PASSWORD));
+    }
+
+    @Test
+    void injectedLatency_TimesOutCognitoCall() {
+        InMemoryCognitoIdentityProviderClient slow = new InMemoryCognitoIdentityProviderClient(
+            signer, "local-client", "local-secret", CODE, Duration.ofMillis(500), 0.0);
+        CognitoCallGuard guard = new CognitoCallGuard(20, Duration.ofMillis(100), 50, 4, Duration.ofMinutes(1), 1,
+            Duration.ofMillis(50), Duration.ofMillis(100), new SimpleMeterRegistry());
+        CognitoService service = new CognitoService(slow, secretsManagerConfig,
+            new UserProfileCache(Duration.ofMinutes(5), 100, new SimpleMeterRegistry()), guard);
+
+        assertThrows(CognitoUnavailableException.class, () -> service.signUp(EMAIL, PASSWORD, "JohnDoe123"));
+    }
+
+    private static CognitoCallGuard callGuard() {
+        return new CognitoCallGuard(20, Duration.ofMillis(100), 50, 4, Duration.ofMinutes(1), 1,
+            Duration.ofSeconds(1), Duration.ofSeconds(5), new SimpleMeterRegistry());
+    }
+}
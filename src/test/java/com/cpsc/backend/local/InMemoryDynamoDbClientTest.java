@@ -0,0 +1,364 @@
+package com.cpsc.backend.local;
+
+import com.cpsc.backend.entity.Institution;
+import com.cpsc.backend.entity.Transaction;
+import com.cpsc.backend.entity.UserSummary;
+import com.cpsc.backend.repository.InstitutionRepository;
+import com.cpsc.backend.repository.TransactionRepository;
+import com.cpsc.backend.repository.UserSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryDynamoDbClientTest {
+
+    private static final String INSTITUTIONS = "Institutions-test";
+    private static final String TRANSACTIONS = "Transactions-test";
+    private static final String SUMMARIES = "UserSummaries-test";
+
+    private InMemoryDynamoDbClient client;
+    private InstitutionRepository institutionRepository;
+    private TransactionRepository transactionRepository;
+    private UserSummaryRepository userSummaryRepository;
+
+    @BeforeEach
+    void setUp() {
+        client = new InMemoryDynamoDbClient();
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder().dynamoDbClient(client).build();
+        enhancedClient.table(INSTITUTIONS, TableSchema.fromBean(Institution.class)).createTable();
+        enhancedClient.table(TRANSACTIONS, TableSchema.fromBean(Transaction.class)).createTable();
+        enhancedClient.table(SUMMARIES, TableSchema.fromBean(UserSummary.class)).createTable();
+        institutionRepository = new InstitutionRepository(enhancedClient, INSTITUTIONS);
+        transactionRepository = new TransactionRepository(enhancedClient, TRANSACTIONS);
+        userSummaryRepository = new UserSummaryRepository(enhancedClient, SUMMARIES);
+    }
+
+    @Test
+    void repositoryRoundTrip_SavesFindsAndDeletes() {
+        institutionRepository.save(institution("user-1", "inst-1"));
+
+        Institution found = institutionRepository.findByUserIdAndInstitutionId("user-1", "inst-1");
+        assertNotNull(found);
+        assertEquals("Checking", found.getInstitutionName());
+        assertEquals(100.0, found.getCurrentBalance());
+
+        institutionRepository.delete("user-1", "inst-1");
+        assertNull(institutionRepository.findByUserIdAndInstitutionId("user-1", "inst-1"));
+    }
+
+    @Test
+    void query_PagesInSortKeyOrderWithinPartition() {
+        List.of("inst-c", "inst-a", "inst-e", "inst-b").forEach(id -> institutionRepository.save(institution("user-1", id)));
+        institutionRepository.save(institution("user-2", "inst-d"));
+
+        InstitutionRepository.PaginatedResult<Institution> first =
+            institutionRepository.findAllByUserIdPaginated("user-1", 2, null);
+        assertEquals(List.of("inst-a", "inst-b"), ids(first.getItems()));
+        assertTrue(first.hasMore());
+
+        // Limit reached exactly at the end still yields a LastEvaluatedKey, as in DynamoDB
+        InstitutionRepository.PaginatedResult<Institution> second =
+            institutionRepository.findAllByUserIdPaginated("user-1", 2, first.getLastEvaluatedKey());
+        assertEquals(List.of("inst-c", "inst-e"), ids(second.getItems()));
+        assertTrue(second.hasMore());
+
+        InstitutionRepository.PaginatedResult<Institution> third =
+            institutionRepository.findAllByUserIdPaginated("user-1", 2, second.getLastEvaluatedKey());
+        assertTrue(third.getItems().isEmpty());
+        assertFalse(third.hasMore());
+    }
+
+    @Test
+    void query_OrdersNumericSortKeysNumericallyAndHonoursDescendingScan() {
+        for (long createdAt : new long[] {9L, 100L, 10L}) {
+            transactionRepository.save(transaction("inst-1", createdAt));
+        }
+
+        List<Long> createdAt = transactionRepository.findAllByInstitutionId("inst-1").stream()
+            .map(Transaction::getCreatedAt)
+            .toList();
+
+        assertEquals(List.of(100L, 10L, 9L), createdAt);
+    }
+
+    @Test
+    void deleteAllByInstitutionId_SplitsIntoBatchesOf25() {
+        IntStream.rangeClosed(1, 60).forEach(i -> transactionRepository.save(transaction("inst-1", i)));
+        transactionRepository.save(transaction("inst-2", 1));
+
+        transactionRepository.deleteAllByInstitutionId("inst-1");
+
+        assertTrue(transactionRepository.findAllByInstitutionId("inst-1").isEmpty());
+        assertEquals(1, transactionRepository.findAllByInstitutionId("inst-2").size());
+    }
+
+    @Test
+    void putItem_WithFailingCondition_ThrowsConditionalCheckFailed() {
+        Map<String, AttributeValue> item = institutionItem("user-1", "inst-1");
+        client.putItem(r -> r.tableName(INSTITUTIONS).item(item));
+
+        assertThrows(ConditionalCheckFailedException.class, () -> client.putItem(r -> r
+            .tableName(INSTITUTIONS)
+            .item(item)
+            .conditionExpression("attribute_not_exists(#pk)")
+            .expressionAttributeNames(Map.of("#pk", "userId"))));
+    }
+
+    @Test
+    void versionedSave_RejectsWriteFromStaleRead() {
+        institutionRepository.save(institution("user-1", "inst-1"));
+        Institution first = institutionRepository.findByUserIdAndInstitutionId("user-1", "inst-1");
+        Institution second = institutionRepository.findByUserIdAndInstitutionId("user-1", "inst-1");
+        assertEquals(1L, first.getVersion());
+
+        first.setCurrentBalance(150.0);
+        institutionRepository.save(first);
+        second.setCurrentBalance(50.0);
+
+        assertThrows(ConditionalCheckFailedException.class, () -> institutionRepository.save(second));
+        Institution stored = institutionRepository.findByUserIdAndInstitutionId("user-1", "inst-1");
+        assertEquals(150.0, stored.getCurrentBalance());
+        assertEquals(2L, stored.getVersion());
+        // The writer's own copy tracks the stored version, so it can be saved again
+        assertEquals(2L, first.getVersion());
+        institutionRepository.save(first);
+    }
+
+    @Test
+    void versionedSave_AcceptsItemWrittenBeforeVersioning() {
+        client.putItem(r -> r.tableName(INSTITUTIONS).item(institutionItem("user-1", "inst-1")));
+        Institution legacy = institutionRepository.findByUserIdAndInstitutionId("user-1", "inst-1");
+        assertNull(legacy.getVersion());
+
+        institutionRepository.save(legacy);
+
+        assertEquals(1L, institutionRepository.findByUserIdAndInstitutionId("user-1", "inst-1").getVersion());
+    }
+
+    @Test
+    void userSummary_RoundTripsNestedEntriesAsEditableLists() {
+        UserSummary summary = new UserSummary();
+        summary.setUserId("user-1");
+        summary.setTotalBalance(100.0);
+        UserSummary.InstitutionEntry institution = new UserSummary.InstitutionEntry();
+        institution.setInstitutionId("inst-1");
+        institution.setCurrentBalance(100.0);
+        institution.setAllocatedPercent(40);
+        summary.getInstitutions().add(institution);
+        UserSummary.GoalEntry goal = new UserSummary.GoalEntry();
+        goal.setGoalId("goal-1");
+        goal.setLinkedInstitutions(new HashMap<>(Map.of("inst-1", 40)));
+        summary.getGoals().add(goal);
+        userSummaryRepository.save(summary);
+
+        UserSummary stored = userSummaryRepository.findByUserId("user-1");
+        assertEquals(1L, stored.getVersion());
+        assertEquals(40, stored.getInstitutions().get(0).getAllocatedPercent());
+        assertEquals(Map.of("inst-1", 40), stored.getGoals().get(0).getLinkedInstitutions());
+        assertTrue(stored.getRecentTransactions().isEmpty());
+
+        // Incremental maintenance edits the loaded lists in place
+        stored.getGoals().get(0).getLinkedInstitutions().remove("inst-1");
+        stored.getInstitutions().clear();
+        stored.getRecentTransactions().add(new UserSummary.TransactionEntry());
+        userSummaryRepository.save(stored);
+        assertThrows(ConditionalCheckFailedException.class, () -> userSummaryRepository.save(summary));
+    }
+
+    @Test
+    void putItem_ReturnsOldItemAndConsumedCapacityWhenRequested() {
+        client.putItem(r -> r.tableName(INSTITUTIONS).item(institutionItem("user-1", "inst-1")));
+
+        PutItemResponse response = client.putItem(r -> r
+            .tableName(INSTITUTIONS)
+            .item(institutionItem("user-1", "inst-1"))
+            .returnValues(ReturnValue.ALL_OLD)
+            .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL));
+
+        assertEquals("inst-1", response.attributes().get("institutionId").s());
+        assertEquals(1.0, response.consumedCapacity().writeCapacityUnits());
+    }
+
+    @Test
+    void updateItem_AppliesArithmeticAndIfNotExists() {
+        client.putItem(r -> r.tableName(INSTITUTIONS).item(institutionItem("user-1", "inst-1")));
+
+        UpdateItemResponse response = client.updateItem(r -> r
+            .tableName(INSTITUTIONS)
+            .key(key("user-1", "inst-1"))
+            .updateExpression("SET currentBalance = currentBalance + :amount, version = if_not_exists(version, :zero) + :one")
+            .conditionExpression("currentBalance >= :min")
+            .expressionAttributeValues(Map.of(
+                ":amount", AttributeValue.fromN("25.5"),
+                ":zero", AttributeValue.fromN("0"),
+                ":one", AttributeValue.fromN("1"),
+                ":min", AttributeValue.fromN("50")))
+            .returnValues(ReturnValue.ALL_NEW));
+
+        assertEquals("125.5", response.attributes().get("currentBalance").n());
+        assertEquals("1", response.attributes().get("version").n());
+    }
+
+    @Test
+    void updateItem_RejectsKeyAttributeUpdates() {
+        client.putItem(r -> r.tableName(INSTITUTIONS).item(institutionItem("user-1", "inst-1")));
+
+        assertThrows(DynamoDbException.class, () -> client.updateItem(r -> r
+            .tableName(INSTITUTIONS)
+            .key(key("user-1", "inst-1"))
+            .updateExpression("SET institutionId = :id")
+            .expressionAttributeValues(Map.of(":id", AttributeValue.fromS("other")))));
+    }
+
+    @Test
+    void batchWriteItem_RejectsMoreThan25ItemsAndDuplicateKeys() {
+        List<WriteRequest> tooMany = new ArrayList<>();
+        for (int i = 0; i < 26; i++) {
+            Map<String, AttributeValue> item = institutionItem("user-1", "inst-" + i);
+            tooMany.add(WriteRequest.builder().putRequest(p -> p.item(item)).build());
+        }
+        assertThrows(DynamoDbException.class, () -> client.batchWriteItem(r -> r.requestItems(Map.of(INSTITUTIONS, tooMany))));
+
+        WriteRequest put = WriteRequest.builder().putRequest(p -> p.item(institutionItem("user-1", "inst-1"))).build();
+        assertThrows(DynamoDbException.class, () -> client.batchWriteItem(r -> r.requestItems(Map.of(INSTITUTIONS, List.of(put, put)))));
+        assertNull(institutionRepository.findByUserIdAndInstitutionId("user-1", "inst-1"));
+    }
+
+    @Test
+    void batchGetItem_ReturnsOnlyExistingItems() {
+        client.putItem(r -> r.tableName(INSTITUTIONS).item(institutionItem("user-1", "inst-1")));
+
+        BatchGetItemResponse response = client.batchGetItem(r -> r.requestItems(Map.of(INSTITUTIONS,
+            KeysAndAttributes.builder().keys(key("user-1", "inst-1"), key("user-1", "missing")).build())));
+
+        assertEquals(1, response.responses().get(INSTITUTIONS).size());
+        assertTrue(response.unprocessedKeys().isEmpty());
+    }
+
+    @Test
+    void transactWriteItems_IsAllOrNothing() {
+        TransactWriteItem put = TransactWriteItem.builder()
+            .put(p -> p.tableName(INSTITUTIONS).item(institutionItem("user-1", "inst-1"))).build();
+        TransactWriteItem failingCheck = TransactWriteItem.builder()
+            .conditionCheck(c -> c.tableName(INSTITUTIONS).key(key("user-1", "inst-2"))
+                .conditionExpression("attribute_exists(userId)"))
+            .build();
+
+        TransactionCanceledException exception = assertThrows(TransactionCanceledException.class,
+            () -> client.transactWriteItems(r -> r.transactItems(put, failingCheck)));
+
+        assertEquals(List.of("None", "ConditionalCheckFailed"),
+            exception.cancellationReasons().stream().map(reason -> reason.code()).toList());
+        assertNull(institutionRepository.findByUserIdAndInstitutionId("user-1", "inst-1"));
+    }
+
+    @Test
+    void transactWriteItems_ReplayWithSameTokenIsNotReapplied() {
+        client.putItem(r -> r.tableName(INSTITUTIONS).item(institutionItem("user-1", "inst-1")));
+        TransactWriteItem increment = TransactWriteItem.builder()
+            .update(u -> u.tableName(INSTITUTIONS).key(key("user-1", "inst-1"))
+                .updateExpression("SET currentBalance = currentBalance + :amount")
+                .expressionAttributeValues(Map.of(":amount", AttributeValue.fromN("10"))))
+            .build();
+
+        client.transactWriteItems(r -> r.transactItems(increment).clientRequestToken("token-1"));
+        client.transactWriteItems(r -> r.transactItems(increment).clientRequestToken("token-1"));
+
+        GetItemResponse item = client.getItem(r -> r.tableName(INSTITUTIONS).key(key("user-1", "inst-1")));
+        assertEquals("110", item.item().get("currentBalance").n());
+    }
+
+    @Test
+    void throttling_FailsSingleItemCallsAndFullyThrottledBatches() {
+        InMemoryDynamoDbClient throttled = new InMemoryDynamoDbClient(Duration.ZERO, Duration.ZERO, 1.0);
+        DynamoDbEnhancedClient.builder().dynamoDbClient(throttled).build()
+            .table(INSTITUTIONS, TableSchema.fromBean(Institution.class)).createTable();
+
+        assertThrows(ProvisionedThroughputExceededException.class,
+            () -> throttled.getItem(r -> r.tableName(INSTITUTIONS).key(key("user-1", "inst-1"))));
+        WriteRequest put = WriteRequest.builder().putRequest(p -> p.item(institutionItem("user-1", "inst-1"))).build();
+        assertThrows(ProvisionedThroughputExceededException.class,
+            () -> throttled.batchWriteItem(r -> r.requestItems(Map.of(INSTITUTIONS, List.of(put)))));
+    }
+
+    @Test
+    void latency_IsInjectedIntoDataPlaneCalls() {
+        InMemoryDynamoDbClient slow = new InMemoryDynamoDbClient(Duration.ofMillis(20), Duration.ZERO, 0.0);
+        DynamoDbEnhancedClient.builder().dynamoDbClient(slow).build()
+            .table(INSTITUTIONS, TableSchema.fromBean(Institution.class)).createTable();
+
+        long start = System.nanoTime();
+        slow.getItem(r -> r.tableName(INSTITUTIONS).key(key("user-1", "inst-1")));
+
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(20).toNanos());
+    }
+
+    @Test
+    void unknownTable_ThrowsResourceNotFound() {
+        assertThrows(ResourceNotFoundException.class,
+            () -> client.getItem(r -> r.tableName("missing").key(key("user-1", "inst-1"))));
+    }
+
+    private static List<String> ids(List<Institution> institutions) {
+        return institutions.stream().map(Institution::getInstitutionId).toList();
+    }
+
+    private static Institution institution(String userId, String institutionId) {
+        Institution institution = new Institution();
+        institution.setUserId(userId);
+        institution.setInstitutionId(institutionId);
+        institution.setInstitutionName("Checking");
+        institution.setStartingBalance(100.0);
+        institution.setCurrentBalance(100.0);
+        institution.setCreatedAt(1L);
+        return institution;
+    }
+
+    private static Transaction transaction(String institutionId, long createdAt) {
+        Transaction transaction = new Transaction();
+        transaction.setUserId("user-1");
+        transaction.setInstitutionId(institutionId);
+        transaction.setTransactionId("txn-" + createdAt);
+        transaction.setType("DEPOSIT");
+        transaction.setAmount(10.0);
+        transaction.setCreatedAt(createdAt);
+        return transaction;
+    }
+
+    private static Map<String, AttributeValue> key(String userId, String institutionId) {
+        return Map.of("userId", AttributeValue.fromS(userId), "institutionId", AttributeValue.fromS(institutionId));
+    }
+
+    private static Map<String, AttributeValue> institutionItem(String userId, String institutionId) {
+        return Map.of(
+            "userId", AttributeValue.fromS(userId),
+            "institutionId", AttributeValue.fromS(institutionId),
+            "institutionName", AttributeValue.fromS("Checking"),
+            "currentBalance", AttributeValue.fromN("100"));
+    }
+}
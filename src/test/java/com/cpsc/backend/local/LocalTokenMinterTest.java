@@ -0,0 +1,33 @@
+package com.cpsc.backend.local;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LocalTokenMinterTest {
+
+    private final LocalJwtSigner signer = new LocalJwtSigner("us-east-1", "us-east-1_local");
+
+    @Test
+    void mint_IssuesVerifiableTokensPerUser() {
+        List<LocalTokenMinter.Tokens> tokens = LocalTokenMinter.mint(signer, "local-client", "load-user", 3,
+            Instant.now(), Duration.ofMinutes(30));
+
+        assertEquals(3, tokens.size());
+        assertEquals("load-user-2", tokens.get(1).sub());
+        assertEquals("load-user-2", signer.verify(tokens.get(1).idToken()).getSubject());
+        assertEquals("load-user-2@example.com", signer.verify(tokens.get(1).idToken()).getClaim("email").asString());
+        assertEquals("access", signer.verify(tokens.get(1).accessToken()).getClaim("token_use").asString());
+    }
+
+    @Test
+    void mint_NoUsers_IsRejected() {
+        assertThrows(IllegalArgumentException.class,
+            () -> LocalTokenMinter.mint(signer, "local-client", "load-user", 0, Instant.now(), Duration.ofMinutes(30)));
+    }
+}
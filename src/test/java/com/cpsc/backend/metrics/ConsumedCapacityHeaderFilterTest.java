@@ -0,0 +1,66 @@
+package com.cpsc.backend.metrics;
+
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsumedCapacityHeaderFilterTest {
+
+    @Test
+    void doFilter_Enabled_WritesSummaryHeaderAndBody() throws ServletException, IOException {
+        ConsumedCapacityHeaderFilter filter = new ConsumedCapacityHeaderFilter(true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/goals");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            ConsumedCapacitySummary summary =
+                (ConsumedCapacitySummary) req.getAttribute(ConsumedCapacitySummary.REQUEST_ATTRIBUTE);
+            summary.record(0.5, 0.0, 1_000_000L);
+            res.getWriter().write("{\"goals\":[]}");
+        });
+
+        assertThat(response.getHeader(ConsumedCapacityHeaderFilter.HEADER_NAME))
+            .isEqualTo("calls=1;rcu=0.5;wcu=0.0;time-ms=1.0");
+        assertThat(response.getContentAsString()).isEqualTo("{\"goals\":[]}");
+    }
+
+    @Test
+    void doFilter_NoDynamoDbCalls_OmitsHeader() throws ServletException, IOException {
+        ConsumedCapacityHeaderFilter filter = new ConsumedCapacityHeaderFilter(true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/hello");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> res.getWriter().write("ok"));
+
+        assertThat(response.getHeader(ConsumedCapacityHeaderFilter.HEADER_NAME)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo("ok");
+    }
+
+    @Test
+    void doFilter_Disabled_DoesNotTrackRequest() throws ServletException, IOException {
+        ConsumedCapacityHeaderFilter filter = new ConsumedCapacityHeaderFilter(false);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/goals");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> { });
+
+        assertThat(request.getAttribute(ConsumedCapacitySummary.REQUEST_ATTRIBUTE)).isNull();
+        assertThat(response.getHeader(ConsumedCapacityHeaderFilter.HEADER_NAME)).isNull();
+    }
+
+    @Test
+    void doFilter_EventStream_DoesNotBufferResponse() throws ServletException, IOException {
+        ConsumedCapacityHeaderFilter filter = new ConsumedCapacityHeaderFilter(true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> assertThat(res).isSameAs(response));
+
+        assertThat(request.getAttribute(ConsumedCapacitySummary.REQUEST_ATTRIBUTE)).isNull();
+    }
+}
@@ -0,0 +1,164 @@
+package com.cpsc.backend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DynamoDbMetricsInterceptorTest {
+
+    @Mock
+    private Context.ModifyRequest modifyRequestContext;
+
+    @Mock
+    private Context.BeforeExecution beforeExecutionContext;
+
+    @Mock
+    private Context.AfterExecution afterExecutionContext;
+
+    @Mock
+    private Context.FailedExecution failedExecutionContext;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DynamoDbMetricsInterceptor interceptor;
+    private ExecutionAttributes executionAttributes;
+
+    private static final String TABLE_NAME = "Institutions-test";
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new DynamoDbMetricsInterceptor(meterRegistry);
+        executionAttributes = new ExecutionAttributes();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void modifyRequest_RequestsTotalConsumedCapacity() {
+        GetItemRequest request = GetItemRequest.builder().tableName(TABLE_NAME).build();
+        when(modifyRequestContext.request()).thenReturn(request);
+
+        SdkRequest modified = interceptor.modifyRequest(modifyRequestContext, executionAttributes);
+
+        assertThat(modified).isInstanceOf(GetItemRequest.class);
+        assertThat(((GetItemRequest) modified).returnConsumedCapacity()).isEqualTo(ReturnConsumedCapacity.TOTAL);
+    }
+
+    @Test
+    void modifyRequest_KeepsExplicitSetting() {
+        PutItemRequest request = PutItemRequest.builder()
+                .tableName(TABLE_NAME)
+                .returnConsumedCapacity(ReturnConsumedCapacity.INDEXES)
+                .build();
+        when(modifyRequestContext.request()).thenReturn(request);
+
+        SdkRequest modified = interceptor.modifyRequest(modifyRequestContext, executionAttributes);
+
+        assertThat(modified).isSameAs(request);
+    }
+
+    @Test
+    void afterExecution_RecordsLatencyAndReadCapacity() {
+        executionAttributes.putAttribute(SdkExecutionAttribute.OPERATION_NAME, "GetItem");
+        interceptor.beforeExecution(beforeExecutionContext, executionAttributes);
+        when(afterExecutionContext.response()).thenReturn(GetItemResponse.builder()
+                .consumedCapacity(ConsumedCapacity.builder().tableName(TABLE_NAME).capacityUnits(0.5).build())
+                .build());
+
+        interceptor.afterExecution(afterExecutionContext, executionAttributes);
+
+        Timer timer = meterRegistry.find(DynamoDbMetricsInterceptor.LATENCY_METRIC)
+                .tags("table", TABLE_NAME, "operation", "GetItem", "outcome", "success", "endpoint", "none")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+
+        DistributionSummary read = meterRegistry.find(DynamoDbMetricsInterceptor.CAPACITY_METRIC)
+                .tags("table", TABLE_NAME, "operation", "GetItem", "type", "read")
+                .summary();
+        assertThat(read).isNotNull();
+        assertThat(read.totalAmount()).isEqualTo(0.5);
+        assertThat(meterRegistry.find(DynamoDbMetricsInterceptor.CAPACITY_METRIC).tag("type", "write").summary())
+                .isNull();
+    }
+
+    @Test
+    void afterExecution_TagsEndpointAndUpdatesRequestSummary() {
+        MockHttpServletRequest httpRequest = new MockHttpServletRequest("POST", "/api/institutions/abc/transactions");
+        httpRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                "/api/institutions/{institutionId}/transactions");
+        ConsumedCapacitySummary summary = new ConsumedCapacitySummary();
+        httpRequest.setAttribute(ConsumedCapacitySummary.REQUEST_ATTRIBUTE, summary);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(httpRequest));
+
+        executionAttributes.putAttribute(SdkExecutionAttribute.OPERATION_NAME, "PutItem");
+        interceptor.beforeExecution(beforeExecutionContext, executionAttributes);
+        when(afterExecutionContext.response()).thenReturn(PutItemResponse.builder()
+                .consumedCapacity(ConsumedCapacity.builder().tableName(TABLE_NAME).capacityUnits(2.0).build())
+                .build());
+
+        interceptor.afterExecution(afterExecutionContext, executionAttributes);
+
+        DistributionSummary write = meterRegistry.find(DynamoDbMetricsInterceptor.CAPACITY_METRIC)
+                .tags("endpoint", "POST /api/institutions/{institutionId}/transactions", "type", "write")
+                .summary();
+        assertThat(write).isNotNull();
+        assertThat(write.totalAmount()).isEqualTo(2.0);
+        assertThat(summary.getCalls()).isEqualTo(1);
+        assertThat(summary.getWriteCapacityUnits()).isEqualTo(2.0);
+        assertThat(summary.getReadCapacityUnits()).isEqualTo(0.0);
+    }
+
+    @Test
+    void onExecutionFailure_RecordsOutcomeWithRequestTable() {
+        executionAttributes.putAttribute(SdkExecutionAttribute.OPERATION_NAME, "PutItem");
+        interceptor.beforeExecution(beforeExecutionContext, executionAttributes);
+        when(failedExecutionContext.request()).thenReturn(PutItemRequest.builder().tableName(TABLE_NAME).build());
+        when(failedExecutionContext.exception()).thenReturn(ResourceNotFoundException.builder().message("missing").build());
+
+        interceptor.onExecutionFailure(failedExecutionContext, executionAttributes);
+
+        Timer timer = meterRegistry.find(DynamoDbMetricsInterceptor.LATENCY_METRIC)
+                .tags("table", TABLE_NAME, "outcome", "ResourceNotFoundException")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    void summary_FormatsHeaderValue() {
+        ConsumedCapacitySummary summary = new ConsumedCapacitySummary();
+        summary.record(1.0, 0.0, 2_000_000L);
+        summary.record(0.5, 1.0, 1_000_000L);
+
+        assertThat(summary.toHeaderValue()).isEqualTo("calls=2;rcu=1.5;wcu=1.0;time-ms=3.0");
+    }
+}
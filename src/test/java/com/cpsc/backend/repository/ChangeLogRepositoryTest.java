@@ -0,0 +1,136 @@
+package com.cpsc.backend.repository;
+
+import com.cpsc.backend.entity.ChangeRecord;
+import com.cpsc.backend.local.InMemoryDynamoDbClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.TransactWriteItemsEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs against the in-memory DynamoDB so the head row's version condition is enforced
+ */
+class ChangeLogRepositoryTest {
+
+    private static final String TABLE_NAME = "Changes-test";
+    private static final String USER_ID = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
+    private static final String OTHER_USER_ID = "4d036e81-7e9e-4f6a-8e3d-3e97a6f1c039";
+
+    private DynamoDbEnhancedClient enhancedClient;
+    private ChangeLogRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        enhancedClient = DynamoDbEnhancedClient.builder()
+            .dynamoDbClient(new InMemoryDynamoDbClient())
+            .build();
+        enhancedClient.table(TABLE_NAME, TableSchema.fromBean(ChangeRecord.class)).createTable();
+        repository = new ChangeLogRepository(enhancedClient, TABLE_NAME);
+    }
+
+    @Test
+    void constructor_NullClient_ThrowsException() {
+        assertThatThrownBy(() -> new ChangeLogRepository(null, TABLE_NAME))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("DynamoDbEnhancedClient cannot be null");
+    }
+
+    @Test
+    void appendTo_NumbersEntriesContiguouslyPerUser() {
+        append(USER_ID, entries(2));
+        append(OTHER_USER_ID, entries(1));
+        append(USER_ID, entries(3));
+
+        assertThat(repository.findLastSequence(USER_ID)).isEqualTo(5L);
+        assertThat(repository.findLastSequence(OTHER_USER_ID)).isEqualTo(1L);
+        assertThat(repository.findPageAfter(USER_ID, 0, 10).getItems())
+                .extracting(ChangeRecord::getSequence)
+                .containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void appendTo_ReusedEntries_GetFreshSequences() {
+        List<ChangeRecord> entries = entries(2);
+        append(USER_ID, entries);
+
+        // A retry hands the same objects back in; they must not collide with what was written
+        append(USER_ID, entries);
+
+        assertThat(entries).extracting(ChangeRecord::getSequence).containsExactly(3L, 4L);
+        assertThat(repository.findLastSequence(USER_ID)).isEqualTo(4L);
+    }
+
+    @Test
+    void appendTo_HeadChangedSinceRead_CancelsTransaction() {
+        TransactWriteItemsEnhancedRequest.Builder stale = TransactWriteItemsEnhancedRequest.builder();
+        repository.appendTo(stale, USER_ID, entries(1));
+        append(USER_ID, entries(1));
+
+        assertThatThrownBy(() -> enhancedClient.transactWriteItems(stale.build()))
+                .isInstanceOf(TransactionCanceledException.class);
+        assertThat(repository.findLastSequence(USER_ID)).isEqualTo(1L);
+    }
+
+    @Test
+    void appendTo_NoEntries_ThrowsException() {
+        assertThatThrownBy(() -> append(USER_ID, List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Entries cannot be null or empty");
+    }
+
+    @Test
+    void findPageAfter_ReadsOldestFirstFromCursor() {
+        append(USER_ID, entries(5));
+
+        InstitutionRepository.PaginatedResult<ChangeRecord> page = repository.findPageAfter(USER_ID, 2, 2);
+
+        assertThat(page.getItems()).extracting(ChangeRecord::getSequence).containsExactly(3L, 4L);
+        assertThat(page.hasMore()).isTrue();
+    }
+
+    @Test
+    void findLastSequence_NothingLogged_ReturnsZero() {
+        assertThat(repository.findLastSequence(USER_ID)).isZero();
+        assertThat(repository.findPageAfter(USER_ID, 0, 10).getItems()).isEmpty();
+    }
+
+    @Test
+    void deleteAllByUserId_RemovesEntriesAndHead() {
+        append(USER_ID, entries(30));
+        append(OTHER_USER_ID, entries(1));
+
+        repository.deleteAllByUserId(USER_ID);
+
+        assertThat(repository.findLastSequence(USER_ID)).isZero();
+        assertThat(repository.findPageAfter(USER_ID, 0, 100).getItems()).isEmpty();
+        assertThat(repository.findLastSequence(OTHER_USER_ID)).isEqualTo(1L);
+    }
+
+    private void append(String userId, List<ChangeRecord> entries) {
+        TransactWriteItemsEnhancedRequest.Builder request = TransactWriteItemsEnhancedRequest.builder();
+        repository.appendTo(request, userId, entries);
+        enhancedClient.transactWriteItems(request.build());
+    }
+
+    private static List<ChangeRecord> entries(int count) {
+        List<ChangeRecord> entries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ChangeRecord entry = new ChangeRecord();
+            entry.setEntityType(ChangeRecord.GOAL);
+            entry.setEntityId(UUID.randomUUID().toString());
+            entry.setOperation(ChangeRecord.UPSERT);
+            entry.setChangedAt(1735041600L);
+            entries.add(entry);
+        }
+        return entries;
+    }
+}
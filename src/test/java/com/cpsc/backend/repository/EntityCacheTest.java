@@ -0,0 +1,171 @@
+package com.cpsc.backend.repository;
+
+import com.cpsc.backend.entity.Institution;
+import com.cpsc.backend.local.InMemoryDynamoDbClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the real repositories against {@link InMemoryDynamoDbClient}, counting the reads that
+ * reach the client
+ */
+class EntityCacheTest {
+
+    private static final String INSTITUTIONS = "Institutions-test";
+    private static final String USER_ID = "user-1";
+
+    private final AtomicInteger reads = new AtomicInteger();
+    private InstitutionRepository institutionRepository;
+    private EntityCache cache;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryDynamoDbClient client = new InMemoryDynamoDbClient() {
+            @Override
+            public GetItemResponse getItem(GetItemRequest request) {
+                reads.incrementAndGet();
+                return super.getItem(request);
+            }
+
+            @Override
+            public BatchGetItemResponse batchGetItem(BatchGetItemRequest request) {
+                reads.incrementAndGet();
+                return super.batchGetItem(request);
+            }
+        };
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder().dynamoDbClient(client).build();
+        enhancedClient.table(INSTITUTIONS, TableSchema.fromBean(Institution.class)).createTable();
+        institutionRepository = new InstitutionRepository(enhancedClient, INSTITUTIONS);
+        institutionRepository.save(institution("inst-1"));
+        institutionRepository.save(institution("inst-2"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (cache != null) {
+            cache.close();
+        }
+    }
+
+    @Test
+    void find_RepeatedWhileOpen_ReadsOnce() {
+        cache = EntityCache.open();
+
+        institutionRepository.findByUserIdAndInstitutionId(USER_ID, "inst-1");
+        Institution found = institutionRepository.findByUserIdAndInstitutionId(USER_ID, "inst-1");
+
+        assertThat(found.getInstitutionName()).isEqualTo("Checking");
+        assertThat(reads).hasValue(1);
+        assertThat(cache.getLookups()).isEqualTo(2);
+        assertThat(cache.getHits()).isEqualTo(1);
+    }
+
+    @Test
+    void find_NoCacheOpen_ReadsEveryTime() {
+        institutionRepository.findByUserIdAndInstitutionId(USER_ID, "inst-1");
+        institutionRepository.findByUserIdAndInstitutionId(USER_ID, "inst-1");
+
+        assertThat(reads).hasValue(2);
+    }
+
+    @Test
+    void find_ReturnsCopy() {
+        cache = EntityCache.open();
+        Institution first = institutionRepository.findByUserIdAndInstitutionId(USER_ID, "inst-1");
+        first.setCurrentBalance(999.0); // modified but never saved
+
+        Institution second = institutionRepository.findByUserIdAndInstitutionId(USER_ID, "inst-1");
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getCurrentBalance()).isEqualTo(100.0);
+    }
+
+    @Test
+    void save_ServesWrittenStateWithVersion() {
+        cache = EntityCache.open();
+        Institution institution = institutionRepository.findByUserIdAndInstitutionId(USER_ID, "inst-1");
+        institution.setCurrentBalance(250.0);
+        institutionRepository.save(institution);
+
+        Institution found = institutionRepository.findByUserIdAndInstitutionId(USER_ID, "inst-1");
+        found.setCurrentBalance(300.0);
+        institutionRepository.save(found); // would fail its version condition if the cached copy were stale
+
+        assertThat(reads).hasValue(1);
+        assertThat(found.getVersion()).isEqualTo(institution.getVersion() + 1);
+    }
+
+    @Test
+    void save_Fails_EvictsSoNextFindReadsStore() {
+        Institution concurrent = institutionRepository.findByUserIdAndInstitutionId(USER_ID, "inst-1");
+        cache = EntityCache.open();
+        Institution stale = institutionRepository.findByUserIdAndInstitutionId(USER_ID, "inst-1");
+        concurrent.setCurrentBalance(500.0);
+        institutionRepository.save(concurrent); // another writer, not seen by the cache
+        stale.setCurrentBalance(250.0);
+
+        assertThatThrownBy(() -> institutionRepository.save(stale))
+            .isInstanceOf(ConditionalCheckFailedException.class);
+
+        assertThat(institutionRepository.findByUserIdAndInstitutionId(USER_ID, "inst-1").getCurrentBalance())
+            .isEqualTo(500.0);
+    }
+
+    @Test
+    void delete_Evicts() {
+        cache = EntityCache.open();
+        institutionRepository.findByUserIdAndInstitutionId(USER_ID, "inst-1");
+
+        institutionRepository.delete(USER_ID, "inst-1");
+
+        assertThat(institutionRepository.findByUserIdAndInstitutionId(USER_ID, "inst-1")).isNull();
+    }
+
+    @Test
+    void findAllByIds_FetchesOnlyUncached() {
+        cache = EntityCache.open();
+        institutionRepository.findByUserIdAndInstitutionId(USER_ID, "inst-1");
+        institutionRepository.findByUserIdAndInstitutionId(USER_ID, "inst-2");
+
+        Map<String, Institution> found =
+            institutionRepository.findAllByUserIdAndInstitutionIds(USER_ID, List.of("inst-1", "inst-2"));
+
+        assertThat(found).containsOnlyKeys("inst-1", "inst-2");
+        assertThat(reads).hasValue(2);
+    }
+
+    @Test
+    void open_AlreadyOpen_ThrowsException() {
+        cache = EntityCache.open();
+
+        assertThatThrownBy(EntityCache::open)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("An entity cache is already open on this thread");
+    }
+
+    private static Institution institution(String institutionId) {
+        Institution institution = new Institution();
+        institution.setUserId(USER_ID);
+        institution.setInstitutionId(institutionId);
+        institution.setInstitutionName("Checking");
+        institution.setStartingBalance(100.0);
+        institution.setCurrentBalance(100.0);
+        institution.setCreatedAt(1L);
+        return institution;
+    }
+}
@@ -0,0 +1,189 @@
+package com.cpsc.backend.repository;
+
+import com.cpsc.backend.entity.ChangeRecord;
+import com.cpsc.backend.entity.Goal;
+import com.cpsc.backend.entity.IdempotencyRecord;
+import com.cpsc.backend.entity.Institution;
+import com.cpsc.backend.entity.Transaction;
+import com.cpsc.backend.entity.UserSummary;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The reflective schema used in a native image must map every entity exactly like the bean schema
+ */
+class EntityTableSchemasTest {
+
+    @Test
+    void of_OnJvm_UsesBeanSchema() {
+        assertThat(EntityTableSchemas.of(Goal.class)).isNotInstanceOf(StaticTableSchema.class);
+    }
+
+    @Test
+    void reflective_Goal_MatchesBeanSchema() {
+        Goal goal = new Goal();
+        goal.setUserId("user-1");
+        goal.setGoalId("goal-1");
+        goal.setName("Vacation");
+        goal.setLinkedInstitutions(Map.of("inst-1", 60, "inst-2", 40));
+        goal.setTargetAmount(2500.0);
+        goal.setIsCompleted(false);
+        goal.setCreatedAt(1700000000000L);
+        goal.setVersion(3L);
+
+        Map<String, AttributeValue> item = assertSameMapping(Goal.class, goal);
+
+        assertThat(item).containsEntry("isCompleted", AttributeValue.fromBool(false));
+        Goal read = EntityTableSchemas.reflective(Goal.class).mapToItem(item);
+        assertThat(read.getLinkedInstitutions()).containsEntry("inst-1", 60);
+        assertThat(read.getIsCompleted()).isFalse();
+        assertThat(read.getVersion()).isEqualTo(3L);
+    }
+
+    @Test
+    void reflective_Institution_MatchesBeanSchema() {
+        Institution institution = new Institution();
+        institution.setUserId("user-1");
+        institution.setInstitutionId("inst-1");
+        institution.setInstitutionName("Checking");
+        institution.setStartingBalance(100.0);
+        institution.setCurrentBalance(150.5);
+        institution.setCreatedAt(1700000000000L);
+        institution.setAllocatedPercent(60);
+        institution.setLinkedGoals(List.of("goal-1"));
+        institution.setVersion(1L);
+
+        assertSameMapping(Institution.class, institution);
+    }
+
+    @Test
+    void reflective_Transaction_MatchesBeanSchema() {
+        Transaction transaction = new Transaction();
+        transaction.setInstitutionId("inst-1");
+        transaction.setCreatedAt(1700000000000L);
+        transaction.setTransactionId("txn-1");
+        transaction.setUserId("user-1");
+        transaction.setType("WITHDRAWAL");
+        transaction.setAmount(12.75);
+        transaction.setTags(List.of("food", "coffee"));
+        transaction.setTransactionDate(1699990000000L);
+
+        assertSameMapping(Transaction.class, transaction);
+    }
+
+    @Test
+    void reflective_UserSummary_MapsNestedEntriesAsDocuments() {
+        UserSummary.InstitutionEntry institution = new UserSummary.InstitutionEntry();
+        institution.setInstitutionId("inst-1");
+        institution.setInstitutionName("Checking");
+        institution.setCurrentBalance(150.5);
+        institution.setAllocatedPercent(60);
+        institution.setSourceVersion(4L);
+        UserSummary.GoalEntry goal = new UserSummary.GoalEntry();
+        goal.setGoalId("goal-1");
+        goal.setLinkedInstitutions(Map.of("inst-1", 60));
+        goal.setSourceVersion(2L);
+        UserSummary.TransactionEntry transaction = new UserSummary.TransactionEntry();
+        transaction.setTransactionId("txn-1");
+        transaction.setTags(List.of("food"));
+        UserSummary summary = new UserSummary();
+        summary.setUserId("user-1");
+        summary.setTotalBalance(150.5);
+        summary.setInstitutions(List.of(institution));
+        summary.setGoals(List.of(goal));
+        summary.setRecentTransactions(List.of(transaction));
+        summary.setUpdatedAt(1700000000000L);
+        summary.setVersion(7L);
+
+        Map<String, AttributeValue> item = assertSameMapping(UserSummary.class, summary);
+
+        UserSummary read = EntityTableSchemas.reflective(UserSummary.class).mapToItem(item);
+        assertThat(read.getInstitutions()).singleElement()
+            .satisfies(entry -> {
+                assertThat(entry.getInstitutionName()).isEqualTo("Checking");
+                assertThat(entry.getSourceVersion()).isEqualTo(4L);
+            });
+        assertThat(read.getGoals().get(0).getLinkedInstitutions()).containsEntry("inst-1", 60);
+        assertThat(read.getRecentTransactions().get(0).getTags()).containsExactly("food");
+    }
+
+    @Test
+    void reflective_ChangeAndIdempotencyRecords_MatchBeanSchema() {
+        ChangeRecord change = new ChangeRecord();
+        change.setUserId("user-1");
+        change.setSequence(42L);
+        change.setEntityType("GOAL");
+        change.setPayload("{}");
+        change.setVersion(1L);
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setUserId("user-1");
+        record.setIdempotencyKey("key-1");
+        record.setResponseStatus(201);
+        record.setVersion(2L);
+
+        assertSameMapping(ChangeRecord.class, change);
+        assertSameMapping(IdempotencyRecord.class, record);
+    }
+
+    @Test
+    void reflective_UnsupportedAnnotation_ThrowsException() {
+        assertThatThrownBy(() -> EntityTableSchemas.reflective(Indexed.class))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("@DynamoDbSecondaryPartitionKey");
+    }
+
+    @Test
+    void reflective_NotABean_ThrowsException() {
+        assertThatThrownBy(() -> EntityTableSchemas.reflective(String.class))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("java.lang.String is not annotated with @DynamoDbBean");
+    }
+
+    /**
+     * Checks both schemas write the same item, read it back the same, and agree on keys and the
+     * version attribute
+     */
+    private static <T> Map<String, AttributeValue> assertSameMapping(Class<T> beanClass, T bean) {
+        TableSchema<T> expected = TableSchema.fromBean(beanClass);
+        TableSchema<T> actual = EntityTableSchemas.reflective(beanClass);
+
+        Map<String, AttributeValue> item = actual.itemToMap(bean, false);
+        assertThat(item).isEqualTo(expected.itemToMap(bean, false));
+        assertThat(actual.itemToMap(bean, true)).isEqualTo(expected.itemToMap(bean, true));
+        assertThat(expected.itemToMap(actual.mapToItem(item), false)).isEqualTo(item);
+
+        assertThat(actual.attributeNames()).containsExactlyInAnyOrderElementsOf(expected.attributeNames());
+        TableMetadata expectedMetadata = expected.tableMetadata();
+        TableMetadata actualMetadata = actual.tableMetadata();
+        assertThat(actualMetadata.primaryPartitionKey()).isEqualTo(expectedMetadata.primaryPartitionKey());
+        assertThat(actualMetadata.primarySortKey()).isEqualTo(expectedMetadata.primarySortKey());
+        assertThat(actualMetadata.customMetadata()).isEqualTo(expectedMetadata.customMetadata());
+        return item;
+    }
+
+    @DynamoDbBean
+    public static class Indexed {
+
+        private String owner;
+
+        @DynamoDbSecondaryPartitionKey(indexNames = "byOwner")
+        public String getOwner() {
+            return owner;
+        }
+
+        public void setOwner(String owner) {
+            this.owner = owner;
+        }
+    }
+}
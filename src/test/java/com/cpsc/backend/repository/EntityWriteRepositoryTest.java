@@ -0,0 +1,276 @@
+package com.cpsc.backend.repository;
+
+import com.cpsc.backend.entity.ChangeRecord;
+import com.cpsc.backend.entity.Goal;
+import com.cpsc.backend.entity.Institution;
+import com.cpsc.backend.entity.Transaction;
+import com.cpsc.backend.local.InMemoryDynamoDbClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class EntityWriteRepositoryTest {
+
+    private static final String USER_ID = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
+    private static final String INSTITUTION_ID = "550e8400-e29b-41d4-a716-446655440000";
+    private static final String GOAL_ID = "770e8400-e29b-41d4-a716-446655440000";
+
+    private InstitutionRepository institutionRepository;
+    private GoalRepository goalRepository;
+    private TransactionRepository transactionRepository;
+    private ChangeLogRepository changeLogRepository;
+    private EntityWriteRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder()
+            .dynamoDbClient(new InMemoryDynamoDbClient())
+            .build();
+        enhancedClient.table("Institutions-test", TableSchema.fromBean(Institution.class)).createTable();
+        enhancedClient.table("Goals-test", TableSchema.fromBean(Goal.class)).createTable();
+        enhancedClient.table("Transactions-test", TableSchema.fromBean(Transaction.class)).createTable();
+        enhancedClient.table("Changes-test", TableSchema.fromBean(ChangeRecord.class)).createTable();
+        institutionRepository = new InstitutionRepository(enhancedClient, "Institutions-test");
+        goalRepository = new GoalRepository(enhancedClient, "Goals-test");
+        transactionRepository = new TransactionRepository(enhancedClient, "Transactions-test");
+        changeLogRepository = new ChangeLogRepository(enhancedClient, "Changes-test");
+        repository = new EntityWriteRepository(enhancedClient, institutionRepository, goalRepository,
+            transactionRepository, changeLogRepository);
+    }
+
+    @Test
+    void constructor_NullClient_ThrowsException() {
+        assertThatThrownBy(() -> new EntityWriteRepository(null, null, null, null, null))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("DynamoDbEnhancedClient cannot be null");
+    }
+
+    @Test
+    void write_PutsTransactionAndInstitutionTogether() {
+        Institution institution = createInstitution(1000.0);
+        institutionRepository.save(institution);
+        institution.setCurrentBalance(1100.0);
+
+        repository.write(new EntityWrite().putTransaction(createTransaction(1L)).putInstitution(institution));
+
+        assertThat(transactionRepository.findAllByInstitutionId(INSTITUTION_ID)).hasSize(1);
+        assertThat(institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID).getCurrentBalance())
+            .isEqualTo(1100.0);
+        assertThat(institution.getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    void write_StaleInstitution_WritesNothing() {
+        Institution institution = createInstitution(1000.0);
+        institutionRepository.save(institution);
+        Institution stale = institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID);
+        institution.setCurrentBalance(900.0);
+        institutionRepository.save(institution);
+        stale.setCurrentBalance(1100.0);
+
+        assertThatThrownBy(() -> repository.write(
+            new EntityWrite().putTransaction(createTransaction(1L)).putInstitution(stale)))
+            .isInstanceOf(TransactionCanceledException.class);
+
+        // The transaction row is not left behind without its balance
+        assertThat(transactionRepository.findAllByInstitutionId(INSTITUTION_ID)).isEmpty();
+        assertThat(institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID).getCurrentBalance())
+            .isEqualTo(900.0);
+    }
+
+    @Test
+    void write_StaleInstitution_LogsNothing() {
+        Institution institution = createInstitution(1000.0);
+        institutionRepository.save(institution);
+        Institution stale = institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID);
+        institutionRepository.save(institution);
+
+        assertThatThrownBy(() -> repository.write(new EntityWrite()
+            .putInstitution(stale)
+            .logChange(change(ChangeRecord.INSTITUTION, INSTITUTION_ID))))
+            .isInstanceOf(TransactionCanceledException.class);
+
+        // No entry describes a write that was not stored, and no sequence was used up
+        assertThat(changeLogRepository.findLastSequence(USER_ID)).isZero();
+        assertThat(changeLogRepository.findPageAfter(USER_ID, 0, 10).getItems()).isEmpty();
+    }
+
+    @Test
+    void write_GoalWithInstitutionAndChanges_WritesAllTogether() {
+        Institution institution = createInstitution(1000.0);
+        institutionRepository.save(institution);
+        institution.setAllocatedPercent(50);
+        Goal goal = createGoal();
+
+        repository.write(new EntityWrite()
+            .putGoal(goal)
+            .putInstitution(institution)
+            .logChange(change(ChangeRecord.GOAL, GOAL_ID))
+            .logChange(change(ChangeRecord.INSTITUTION, INSTITUTION_ID)));
+
+        assertThat(goalRepository.findByUserIdAndGoalId(USER_ID, GOAL_ID)).isNotNull();
+        assertThat(goal.getVersion()).isEqualTo(1L);
+        assertThat(institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID).getAllocatedPercent())
+            .isEqualTo(50);
+        assertThat(changeLogRepository.findPageAfter(USER_ID, 0, 10).getItems())
+            .extracting(ChangeRecord::getSequence, ChangeRecord::getEntityType)
+            .containsExactly(
+                tuple(1L, ChangeRecord.GOAL),
+                tuple(2L, ChangeRecord.INSTITUTION));
+    }
+
+    @Test
+    void write_DeletesGoalAndInstitutionWithTombstones() {
+        Institution institution = createInstitution(1000.0);
+        institutionRepository.save(institution);
+        Goal goal = createGoal();
+        goalRepository.save(goal);
+
+        repository.write(new EntityWrite()
+            .deleteGoal(goal)
+            .deleteInstitution(institution)
+            .logChange(change(ChangeRecord.GOAL, GOAL_ID))
+            .logChange(change(ChangeRecord.INSTITUTION, INSTITUTION_ID)));
+
+        assertThat(goalRepository.findByUserIdAndGoalId(USER_ID, GOAL_ID)).isNull();
+        assertThat(institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID)).isNull();
+        assertThat(changeLogRepository.findLastSequence(USER_ID)).isEqualTo(2L);
+    }
+
+    @Test
+    void write_StaleGoalDelete_WritesNothing() {
+        Institution institution = createInstitution(1000.0);
+        institutionRepository.save(institution);
+        Goal goal = createGoal();
+        goalRepository.save(goal);
+        Goal stale = goalRepository.findByUserIdAndGoalId(USER_ID, GOAL_ID);
+        goal.setName("Edited concurrently");
+        goalRepository.save(goal);
+        institution.setAllocatedPercent(0);
+
+        assertThatThrownBy(() -> repository.write(new EntityWrite()
+            .deleteGoal(stale)
+            .putInstitution(institution)
+            .logChange(change(ChangeRecord.GOAL, GOAL_ID))))
+            .isInstanceOf(TransactionCanceledException.class);
+
+        assertThat(goalRepository.findByUserIdAndGoalId(USER_ID, GOAL_ID).getName()).isEqualTo("Edited concurrently");
+        assertThat(institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID).getAllocatedPercent())
+            .isNull();
+        assertThat(changeLogRepository.findLastSequence(USER_ID)).isZero();
+    }
+
+    @Test
+    void write_ChangesForTwoUsers_ThrowsException() {
+        ChangeRecord other = change(ChangeRecord.GOAL, GOAL_ID);
+        other.setUserId("4d036e81-7e9e-4f6a-8e3d-3e97a6f1c039");
+
+        assertThatThrownBy(() -> repository.write(new EntityWrite()
+            .logChange(change(ChangeRecord.INSTITUTION, INSTITUTION_ID))
+            .logChange(other)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Cannot log changes for more than one user in a write");
+    }
+
+    @Test
+    void write_DeletesTransactionWithBalance() {
+        Institution institution = createInstitution(1000.0);
+        institutionRepository.save(institution);
+        Transaction transaction = createTransaction(1L);
+        transactionRepository.save(transaction);
+        institution.setCurrentBalance(900.0);
+
+        repository.write(new EntityWrite().deleteTransaction(transaction).putInstitution(institution));
+
+        assertThat(transactionRepository.findAllByInstitutionId(INSTITUTION_ID)).isEmpty();
+        assertThat(institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID).getCurrentBalance())
+            .isEqualTo(900.0);
+    }
+
+    @Test
+    void write_InvalidTransaction_ThrowsBeforeWriting() {
+        Institution institution = createInstitution(1000.0);
+        Transaction transaction = createTransaction(1L);
+        transaction.setAmount(null);
+
+        assertThatThrownBy(() -> repository.write(
+            new EntityWrite().putTransaction(transaction).putInstitution(institution)))
+            .hasMessage("Transaction amount cannot be null");
+        assertThat(institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID)).isNull();
+    }
+
+    @Test
+    void write_InvalidGoal_ThrowsBeforeWriting() {
+        Goal goal = createGoal();
+        goal.setName(" ");
+
+        assertThatThrownBy(() -> repository.write(new EntityWrite().putGoal(goal)
+            .logChange(change(ChangeRecord.GOAL, GOAL_ID))))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Goal name cannot be null or empty");
+        assertThat(changeLogRepository.findLastSequence(USER_ID)).isZero();
+    }
+
+    @Test
+    void write_EmptyOrTooLarge_ThrowsException() {
+        EntityWrite tooLarge = new EntityWrite();
+        for (long i = 0; i <= EntityWriteRepository.MAX_ITEMS_PER_WRITE; i++) {
+            tooLarge.putTransaction(createTransaction(i));
+        }
+
+        assertThatThrownBy(() -> repository.write(new EntityWrite()))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Write cannot be null or empty");
+        assertThatThrownBy(() -> repository.write(tooLarge))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Cannot write more than 100 items at once");
+    }
+
+    private static Institution createInstitution(double balance) {
+        Institution institution = new Institution();
+        institution.setUserId(USER_ID);
+        institution.setInstitutionId(INSTITUTION_ID);
+        institution.setInstitutionName("Test Bank");
+        institution.setStartingBalance(1000.0);
+        institution.setCurrentBalance(balance);
+        return institution;
+    }
+
+    private static Goal createGoal() {
+        Goal goal = new Goal();
+        goal.setUserId(USER_ID);
+        goal.setGoalId(GOAL_ID);
+        goal.setName("Emergency Fund");
+        goal.setTargetAmount(1000.0);
+        goal.setLinkedInstitutions(Map.of(INSTITUTION_ID, 50));
+        return goal;
+    }
+
+    private static ChangeRecord change(String entityType, String entityId) {
+        ChangeRecord change = new ChangeRecord();
+        change.setUserId(USER_ID);
+        change.setEntityType(entityType);
+        change.setEntityId(entityId);
+        change.setOperation(ChangeRecord.UPSERT);
+        return change;
+    }
+
+    private static Transaction createTransaction(long createdAt) {
+        Transaction transaction = new Transaction();
+        transaction.setInstitutionId(INSTITUTION_ID);
+        transaction.setUserId(USER_ID);
+        transaction.setTransactionId("txn-" + createdAt);
+        transaction.setType("DEPOSIT");
+        transaction.setAmount(100.0);
+        transaction.setCreatedAt(createdAt);
+        return transaction;
+    }
+}
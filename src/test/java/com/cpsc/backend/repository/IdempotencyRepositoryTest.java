@@ -0,0 +1,116 @@
+package com.cpsc.backend.repository;
+
+import com.cpsc.backend.entity.IdempotencyRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.DeleteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyRepositoryTest {
+
+    @Mock
+    private DynamoDbEnhancedClient enhancedClient;
+
+    @Mock
+    private DynamoDbTable<IdempotencyRecord> idempotencyTable;
+
+    private IdempotencyRepository repository;
+
+    private static final String TABLE_NAME = "test-idempotency";
+    private static final String USER_ID = "user-123";
+    private static final String KEY = "key-456";
+
+    @BeforeEach
+    void setUp() {
+        when(enhancedClient.table(eq(TABLE_NAME), any(TableSchema.class))).thenReturn(idempotencyTable);
+        repository = new IdempotencyRepository(enhancedClient, TABLE_NAME);
+    }
+
+    @Test
+    void constructor_NullClient_ThrowsException() {
+        assertThatThrownBy(() -> new IdempotencyRepository(null, TABLE_NAME))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("DynamoDbEnhancedClient cannot be null");
+    }
+
+    @Test
+    void find_ReadsConsistently() {
+        IdempotencyRecord record = createRecord();
+        when(idempotencyTable.getItem(any(GetItemEnhancedRequest.class))).thenReturn(record);
+
+        assertThat(repository.find(USER_ID, KEY)).isSameAs(record);
+
+        ArgumentCaptor<GetItemEnhancedRequest> captor = ArgumentCaptor.forClass(GetItemEnhancedRequest.class);
+        verify(idempotencyTable).getItem(captor.capture());
+        assertThat(captor.getValue().consistentRead()).isTrue();
+        assertThat(captor.getValue().key().sortKeyValue()).hasValueSatisfying(value -> assertThat(value.s()).isEqualTo(KEY));
+    }
+
+    @Test
+    void save_AdvancesVersion() {
+        IdempotencyRecord record = createRecord();
+
+        repository.save(record);
+        repository.save(record);
+
+        assertThat(record.getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    void save_Conflict_KeepsVersion() {
+        IdempotencyRecord record = createRecord();
+        doThrow(ConditionalCheckFailedException.builder().message("exists").build())
+                .when(idempotencyTable).putItem(record);
+
+        assertThatThrownBy(() -> repository.save(record)).isInstanceOf(ConditionalCheckFailedException.class);
+        assertThat(record.getVersion()).isNull();
+    }
+
+    @Test
+    void save_NullKey_ThrowsException() {
+        IdempotencyRecord record = createRecord();
+        record.setIdempotencyKey(null);
+
+        assertThatThrownBy(() -> repository.save(record))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Idempotency key cannot be null or empty");
+    }
+
+    @Test
+    void delete_ConditionalOnVersion() {
+        IdempotencyRecord record = createRecord();
+        record.setVersion(3L);
+
+        repository.delete(record);
+
+        ArgumentCaptor<DeleteItemEnhancedRequest> captor = ArgumentCaptor.forClass(DeleteItemEnhancedRequest.class);
+        verify(idempotencyTable).deleteItem(captor.capture());
+        assertThat(captor.getValue().conditionExpression().expression()).isEqualTo("#version = :version");
+        assertThat(captor.getValue().conditionExpression().expressionValues().get(":version").n()).isEqualTo("3");
+    }
+
+    private static IdempotencyRecord createRecord() {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setUserId(USER_ID);
+        record.setIdempotencyKey(KEY);
+        record.setStatus(IdempotencyRecord.IN_PROGRESS);
+        return record;
+    }
+}
@@ -11,12 +11,15 @@ import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetResultPageIterable;
 import software.amazon.awssdk.enhanced.dynamodb.model.Page;
 import software.amazon.awssdk.enhanced.dynamodb.model.PageIterable;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -268,6 +271,66 @@ class InstitutionRepositoryTest {
                 .hasMessage("Institution ID cannot be null or empty");
     }
 
+    @Test
+    void findAllByUserIdAndInstitutionIds_ReturnsFoundInstitutionsKeyedById() {
+        stubTableMetadata();
+        Institution institution = createTestInstitution();
+        BatchGetResultPageIterable results = mock(BatchGetResultPageIterable.class);
+        when(enhancedClient.batchGetItem(any(BatchGetItemEnhancedRequest.class))).thenReturn(results);
+        when(results.resultsForTable(institutionTable)).thenReturn(() -> List.of(institution).iterator());
+
+        Map<String, Institution> found = repository.findAllByUserIdAndInstitutionIds(USER_ID,
+                List.of(INSTITUTION_ID, "missing-inst", INSTITUTION_ID));
+
+        assertThat(found).containsOnlyKeys(INSTITUTION_ID);
+        assertThat(found.get(INSTITUTION_ID)).isSameAs(institution);
+        verify(enhancedClient, times(1)).batchGetItem(any(BatchGetItemEnhancedRequest.class));
+        verify(institutionTable, never()).getItem(any(Key.class));
+    }
+
+    @Test
+    void findAllByUserIdAndInstitutionIds_MoreThanOneHundredIds_SplitsIntoBatches() {
+        stubTableMetadata();
+        BatchGetResultPageIterable results = mock(BatchGetResultPageIterable.class);
+        when(enhancedClient.batchGetItem(any(BatchGetItemEnhancedRequest.class))).thenReturn(results);
+        when(results.resultsForTable(institutionTable)).thenReturn(() -> List.<Institution>of().iterator());
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            ids.add("inst-" + i);
+        }
+
+        Map<String, Institution> found = repository.findAllByUserIdAndInstitutionIds(USER_ID, ids);
+
+        assertThat(found).isEmpty();
+        verify(enhancedClient, times(2)).batchGetItem(any(BatchGetItemEnhancedRequest.class));
+    }
+
+    @Test
+    void findAllByUserIdAndInstitutionIds_NoIds_SkipsRequest() {
+        assertThat(repository.findAllByUserIdAndInstitutionIds(USER_ID, List.of())).isEmpty();
+        verify(enhancedClient, never()).batchGetItem(any(BatchGetItemEnhancedRequest.class));
+    }
+
+    @Test
+    void findAllByUserIdAndInstitutionIds_NullUserId_ThrowsException() {
+        assertThatThrownBy(() -> repository.findAllByUserIdAndInstitutionIds(null, List.of(INSTITUTION_ID)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("User ID cannot be null or empty");
+    }
+
+    @Test
+    void findAllByUserIdAndInstitutionIds_NullIds_ThrowsException() {
+        assertThatThrownBy(() -> repository.findAllByUserIdAndInstitutionIds(USER_ID, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Institution IDs cannot be null");
+    }
+
+    // ReadBatch resolves keys against the table's schema when it is built
+    private void stubTableMetadata() {
+        when(institutionTable.tableName()).thenReturn(TABLE_NAME);
+        when(institutionTable.tableSchema()).thenReturn(TableSchema.fromBean(Institution.class));
+    }
+
     private Institution createTestInstitution() {
         Institution institution = new Institution();
         institution.setUserId(USER_ID);
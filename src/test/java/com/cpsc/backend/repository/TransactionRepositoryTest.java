@@ -16,10 +16,12 @@ import software.amazon.awssdk.enhanced.dynamodb.model.Page;
 import software.amazon.awssdk.enhanced.dynamodb.model.PageIterable;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
 import software.amazon.awssdk.core.pagination.sync.SdkIterable;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -230,6 +232,33 @@ class TransactionRepositoryTest {
         assertThat(requestCaptor.getValue()).isNotNull();
     }
 
+    @Test
+    void findPageByInstitutionId_WithCreatedBefore_QueriesBelowItNewestFirst() {
+        String institutionId = "550e8400-e29b-41d4-a716-446655440001";
+        Transaction transaction = createValidTransaction();
+        PageIterable<Transaction> pageIterable = mock(PageIterable.class);
+        Map<String, AttributeValue> lastKey = Map.of("institutionId", AttributeValue.fromS(institutionId));
+        when(pageIterable.stream()).thenReturn(Stream.of(Page.create(List.of(transaction), lastKey)));
+        when(transactionTable.query(any(QueryEnhancedRequest.class))).thenReturn(pageIterable);
+
+        InstitutionRepository.PaginatedResult<Transaction> result =
+                repository.findPageByInstitutionId(institutionId, 1735449600L, 5);
+
+        assertThat(result.getItems()).containsExactly(transaction);
+        assertThat(result.hasMore()).isTrue();
+        ArgumentCaptor<QueryEnhancedRequest> captor = ArgumentCaptor.forClass(QueryEnhancedRequest.class);
+        verify(transactionTable).query(captor.capture());
+        assertThat(captor.getValue().limit()).isEqualTo(5);
+        assertThat(captor.getValue().scanIndexForward()).isFalse();
+    }
+
+    @Test
+    void findPageByInstitutionId_NonPositiveLimit_ThrowsException() {
+        assertThatThrownBy(() -> repository.findPageByInstitutionId("inst-1", null, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Limit must be positive");
+    }
+
     @Test
     void delete_ValidParameters_Success() {
         String institutionId = "550e8400-e29b-41d4-a716-446655440001";
@@ -0,0 +1,110 @@
+package com.cpsc.backend.repository;
+
+import com.cpsc.backend.entity.UserSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserSummaryRepositoryTest {
+
+    @Mock
+    private DynamoDbEnhancedClient enhancedClient;
+
+    @Mock
+    private DynamoDbTable<UserSummary> summaryTable;
+
+    private UserSummaryRepository repository;
+
+    private static final String TABLE_NAME = "test-summaries";
+    private static final String USER_ID = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
+
+    @BeforeEach
+    void setUp() {
+        when(enhancedClient.table(eq(TABLE_NAME), any(TableSchema.class))).thenReturn(summaryTable);
+        repository = new UserSummaryRepository(enhancedClient, TABLE_NAME);
+    }
+
+    @Test
+    void constructor_NullClient_ThrowsException() {
+        assertThatThrownBy(() -> new UserSummaryRepository(null, TABLE_NAME))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("DynamoDbEnhancedClient cannot be null");
+    }
+
+    @Test
+    void constructor_EmptyTableName_ThrowsException() {
+        assertThatThrownBy(() -> new UserSummaryRepository(enhancedClient, ""))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Table name cannot be null or empty");
+    }
+
+    @Test
+    void save_TracksStoredVersion() {
+        UserSummary summary = new UserSummary();
+        summary.setUserId(USER_ID);
+
+        repository.save(summary);
+        assertThat(summary.getVersion()).isEqualTo(1L);
+
+        repository.save(summary);
+        assertThat(summary.getVersion()).isEqualTo(2L);
+        verify(summaryTable, times(2)).putItem(summary);
+    }
+
+    @Test
+    void save_ConditionFails_KeepsVersionAndPropagates() {
+        UserSummary summary = new UserSummary();
+        summary.setUserId(USER_ID);
+        summary.setVersion(4L);
+        doThrow(ConditionalCheckFailedException.builder().message("stale").build())
+                .when(summaryTable).putItem(summary);
+
+        assertThatThrownBy(() -> repository.save(summary))
+                .isInstanceOf(ConditionalCheckFailedException.class);
+        assertThat(summary.getVersion()).isEqualTo(4L);
+    }
+
+    @Test
+    void save_NullUserId_ThrowsException() {
+        assertThatThrownBy(() -> repository.save(new UserSummary()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("User ID cannot be null or empty");
+    }
+
+    @Test
+    void findByUserId_ReturnsItem() {
+        UserSummary summary = new UserSummary();
+        summary.setUserId(USER_ID);
+        when(summaryTable.getItem(any(Key.class))).thenReturn(summary);
+
+        assertThat(repository.findByUserId(USER_ID)).isSameAs(summary);
+    }
+
+    @Test
+    void findByUserId_NullUserId_ThrowsException() {
+        assertThatThrownBy(() -> repository.findByUserId(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("User ID cannot be null or empty");
+    }
+
+    @Test
+    void delete_DeletesByKey() {
+        repository.delete(USER_ID);
+
+        verify(summaryTable).deleteItem(any(Key.class));
+    }
+}
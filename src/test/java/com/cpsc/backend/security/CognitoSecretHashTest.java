@@ -0,0 +1,82 @@
+package com.cpsc.backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CognitoSecretHashTest {
+
+    private static final String CLIENT_ID = "test-client-id";
+    private static final String CLIENT_SECRET = "test-secret";
+
+    private final CognitoSecretHash secretHash = new CognitoSecretHash(CLIENT_ID, CLIENT_SECRET);
+
+    @Test
+    void compute_MatchesCognitoDefinition() throws Exception {
+        assertThat(secretHash.compute("test@example.com")).isEqualTo(reference("test@example.com"));
+    }
+
+    @Test
+    void compute_RepeatedCalls_ReuseEngineConsistently() throws Exception {
+        assertThat(secretHash.compute("a@example.com")).isEqualTo(reference("a@example.com"));
+        assertThat(secretHash.compute("b@example.com")).isEqualTo(reference("b@example.com"));
+        assertThat(secretHash.compute("a@example.com")).isEqualTo(reference("a@example.com"));
+    }
+
+    @Test
+    void compute_NonAsciiUsername_EncodesUtf8() throws Exception {
+        assertThat(secretHash.compute("zoë@exämple.com")).isEqualTo(reference("zoë@exämple.com"));
+    }
+
+    @Test
+    void compute_UsernameLongerThanBuffer_GrowsBuffer() throws Exception {
+        String username = "a".repeat(300) + "@example.com";
+
+        assertThat(secretHash.compute(username)).isEqualTo(reference(username));
+        assertThat(secretHash.compute("short@example.com")).isEqualTo(reference("short@example.com"));
+    }
+
+    @Test
+    void compute_ConcurrentCallers_GetCorrectHashes() throws Exception {
+        CognitoSecretHash pooled = new CognitoSecretHash(CLIENT_ID, CLIENT_SECRET, 2);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String username = "user" + i + "@example.com";
+                results.add(executor.submit(() -> pooled.compute(username).equals(reference(username))));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void constructor_MissingSecret_ThrowsException() {
+        assertThatThrownBy(() -> new CognitoSecretHash(CLIENT_ID, ""))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Client ID and client secret are required");
+    }
+
+    /** The computation CognitoService made before the engine existed */
+    private static String reference(String username) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(CLIENT_SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        mac.update(username.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(mac.doFinal(CLIENT_ID.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -1,6 +1,9 @@
 package com.cpsc.backend.security;
 
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.cpsc.backend.service.UserProfileCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,11 +14,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.Date;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -39,11 +46,17 @@ class JwtAuthenticationFilterTest {
     @Mock
     private DecodedJWT decodedJWT;
 
+    private UserProfileCache userProfileCache;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private JwtAuthenticationFilter filter;
 
     @BeforeEach
     void setUp() {
-        filter = new JwtAuthenticationFilter(jwtValidator);
+        userProfileCache = new UserProfileCache(Duration.ofMinutes(5), 100, new SimpleMeterRegistry());
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new JwtAuthenticationFilter(jwtValidator, userProfileCache, meterRegistry);
         SecurityContextHolder.clearContext();
     }
 
@@ -71,10 +84,33 @@ class JwtAuthenticationFilterTest {
         verify(jwtValidator).getUserId(decodedJWT);
     }
 
+    @Test
+    void doFilterInternal_ValidIdToken_CachesProfileClaims() throws ServletException, IOException {
+        String token = "valid.id.token";
+        String userId = "user-123";
+        
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(request.getRequestURI()).thenReturn("/api/institutions");
+        when(request.getMethod()).thenReturn("GET");
+        when(jwtValidator.validateToken(token)).thenReturn(decodedJWT);
+        when(jwtValidator.getUserId(decodedJWT)).thenReturn(userId);
+        when(jwtValidator.isIdToken(decodedJWT)).thenReturn(true);
+        when(jwtValidator.getEmail(decodedJWT)).thenReturn("test@example.com");
+        when(jwtValidator.getScreenName(decodedJWT)).thenReturn("TestUser123");
+        when(decodedJWT.getIssuedAt()).thenReturn(new Date());
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        assertThat(userProfileCache.get(userId))
+            .containsEntry("email", "test@example.com")
+            .containsEntry("preferred_username", "TestUser123");
+        verify(filterChain).doFilter(request, response);
+    }
+
     @Test
     void doFilterInternal_NoAuthHeader_ContinuesWithoutAuthentication() throws ServletException, IOException {
         when(request.getHeader("Authorization")).thenReturn(null);
-        when(request.getRequestURI()).thenReturn("/api/hello");
+        when(request.getRequestURI()).thenReturn("/api/secure/profile");
         when(request.getMethod()).thenReturn("GET");
 
         filter.doFilterInternal(request, response, filterChain);
@@ -84,6 +120,7 @@ class JwtAuthenticationFilterTest {
 
         verify(filterChain).doFilter(request, response);
         verify(jwtValidator, never()).validateToken(anyString());
+        assertThat(count("no_token")).isEqualTo(1.0);
     }
 
     @Test
@@ -159,8 +196,7 @@ class JwtAuthenticationFilterTest {
     }
 
     @Test
-    void doFilterInternal_PublicEndpoint_NoAuthenticationRequired() throws ServletException, IOException {
-        when(request.getHeader("Authorization")).thenReturn(null);
+    void doFilterInternal_PublicEndpoint_SkipsTokenValidation() throws ServletException, IOException {
         when(request.getRequestURI()).thenReturn("/api/hello");
         when(request.getMethod()).thenReturn("GET");
 
@@ -169,8 +205,77 @@ class JwtAuthenticationFilterTest {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         assertThat(authentication).isNull();
 
+        verify(filterChain).doFilter(request, response);
+        verify(request, never()).getHeader("Authorization");
+        verify(jwtValidator, never()).validateToken(anyString());
+        assertThat(count("public")).isEqualTo(1.0);
+    }
+
+    @Test
+    void doFilterInternal_PublicWildcardPath_SkipsTokenValidation() throws ServletException, IOException {
+        when(request.getRequestURI()).thenReturn("/swagger-ui/index.html");
+        when(request.getMethod()).thenReturn("GET");
+
+        filter.doFilterInternal(request, response, filterChain);
+
         verify(filterChain).doFilter(request, response);
         verify(jwtValidator, never()).validateToken(anyString());
+        assertThat(count("public")).isEqualTo(1.0);
+    }
+
+    @Test
+    void doFilterInternal_CorsPreflight_SkipsTokenValidation() throws ServletException, IOException {
+        when(request.getRequestURI()).thenReturn("/api/secure/profile");
+        when(request.getMethod()).thenReturn("OPTIONS");
+        when(request.getHeader("Origin")).thenReturn("http://localhost:4200");
+        when(request.getHeader("Access-Control-Request-Method")).thenReturn("GET");
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        verify(request, never()).getHeader("Authorization");
+        verify(jwtValidator, never()).validateToken(anyString());
+        assertThat(count("preflight")).isEqualTo(1.0);
+    }
+
+    @Test
+    void doFilter_ErrorDispatch_ReusesValidationResult() throws ServletException, IOException {
+        String token = "valid.jwt.token";
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/secure/profile");
+        servletRequest.addHeader("Authorization", "Bearer " + token);
+        when(jwtValidator.validateToken(token)).thenReturn(decodedJWT);
+        when(jwtValidator.getUserId(decodedJWT)).thenReturn("user-123");
+
+        filter.doFilter(servletRequest, new MockHttpServletResponse(), filterChain);
+        SecurityContextHolder.clearContext();
+
+        servletRequest.setDispatcherType(DispatcherType.ERROR);
+        servletRequest.setRequestURI("/error");
+        filter.doFilter(servletRequest, new MockHttpServletResponse(), filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("user-123");
+        verify(jwtValidator, times(1)).validateToken(token);
+        assertThat(count("authenticated")).isEqualTo(1.0);
+        assertThat(count("reused")).isEqualTo(1.0);
+    }
+
+    @Test
+    void doFilter_ErrorDispatchAfterInvalidToken_DoesNotValidateAgain() throws ServletException, IOException {
+        String token = "invalid.jwt.token";
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/secure/profile");
+        servletRequest.addHeader("Authorization", "Bearer " + token);
+        when(jwtValidator.validateToken(token)).thenReturn(null);
+
+        filter.doFilter(servletRequest, new MockHttpServletResponse(), filterChain);
+
+        servletRequest.setDispatcherType(DispatcherType.ERROR);
+        servletRequest.setRequestURI("/error");
+        filter.doFilter(servletRequest, new MockHttpServletResponse(), filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(jwtValidator, times(1)).validateToken(token);
+        assertThat(count("invalid")).isEqualTo(1.0);
+        assertThat(count("reused")).isEqualTo(1.0);
     }
 
     @Test
@@ -201,4 +306,8 @@ class JwtAuthenticationFilterTest {
         Authentication auth2 = SecurityContextHolder.getContext().getAuthentication();
         assertThat(auth2).isNull();
     }
+
+    private double count(String outcome) {
+        return meterRegistry.get(JwtAuthenticationFilter.METRIC).tag("outcome", outcome).counter().count();
+    }
 }
@@ -1,14 +1,15 @@
 package com.cpsc.backend.security;
 
+import com.auth0.jwk.JwkProvider;
+import com.auth0.jwk.SigningKeyNotFoundException;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.cpsc.backend.config.CognitoConfig;
+import com.cpsc.backend.config.SecretsManagerConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
 
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
@@ -16,23 +17,28 @@ import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
 import java.time.Instant;
 import java.util.Date;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 
-@ExtendWith(MockitoExtension.class)
 class JwtValidatorTest {
 
-    @Mock
+    private SecretsManagerConfig secretsManagerConfig;
+
     private CognitoConfig cognitoConfig;
 
     private JwtValidator jwtValidator;
 
     @BeforeEach
     void setUp() {
-        when(cognitoConfig.getUserPoolId()).thenReturn("us-east-1_test");
-        when(cognitoConfig.getRegion()).thenReturn("us-east-1");
+        secretsManagerConfig = spy(new SecretsManagerConfig(Map.of(
+            "COGNITO_USER_POOL_ID", "us-east-1_test",
+            "COGNITO_REGION", "us-east-1")));
+        cognitoConfig = new CognitoConfig(secretsManagerConfig);
         jwtValidator = new JwtValidator(cognitoConfig);
     }
 
@@ -41,6 +47,24 @@ class JwtValidatorTest {
         assertThat(jwtValidator).isNotNull();
     }
 
+    @Test
+    void constructor_DoesNotReadUserPoolUntilFirstUse() {
+        verify(secretsManagerConfig, never()).snapshot();
+    }
+
+    @Test
+    void warmUp_LocalKeySource_DownloadsNothing() throws Exception {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("localJwkProvider", (JwkProvider) keyId -> {
+            throw new SigningKeyNotFoundException("No key " + keyId, null);
+        });
+        JwtValidator local = new JwtValidator(cognitoConfig, beans.getBeanProvider(JwkProvider.class));
+
+        local.warmUp();
+
+        assertThat(local.validateToken(JWT.create().withKeyId("kid").sign(Algorithm.HMAC256("secret")))).isNull();
+    }
+
     @Test
     void constructor_NullCognitoConfig_ThrowsException() {
         assertThatThrownBy(() -> new JwtValidator(null))
@@ -287,4 +311,17 @@ class JwtValidatorTest {
         
         assertThat(userId).isNull();
     }
+
+    @Test
+    void isIdToken_ChecksTokenUseClaim() {
+        Algorithm algorithm = Algorithm.HMAC256("test-secret");
+        DecodedJWT idToken = JWT.decode(JWT.create().withClaim("token_use", "id").sign(algorithm));
+        DecodedJWT accessToken = JWT.decode(JWT.create().withClaim("token_use", "access").sign(algorithm));
+        DecodedJWT noClaim = JWT.decode(JWT.create().withSubject("user-123").sign(algorithm));
+
+        assertThat(jwtValidator.isIdToken(idToken)).isTrue();
+        assertThat(jwtValidator.isIdToken(accessToken)).isFalse();
+        assertThat(jwtValidator.isIdToken(noClaim)).isFalse();
+        assertThat(jwtValidator.isIdToken(null)).isFalse();
+    }
 }
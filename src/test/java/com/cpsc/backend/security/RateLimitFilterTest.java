@@ -0,0 +1,167 @@
+package com.cpsc.backend.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimitFilterTest {
+
+    private static final String[] ROUTES = {
+        "POST /api/auth/login=2/1m",
+        "POST /api/institutions/{institutionId}/transactions=1/1m"
+    };
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+    private AtomicInteger passed;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(true, "3/1m", ROUTES, 1000, meterRegistry);
+        passed = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_OverRouteBudget_Returns429WithRetryAfter() throws ServletException, IOException {
+        assertThat(send("POST", "/api/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(send("POST", "/api/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse response = send("POST", "/api/auth/login", "10.0.0.1");
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(Long.parseLong(response.getHeader("Retry-After"))).isBetween(1L, 30L);
+        assertThat(response.getContentType()).isEqualTo("application/json");
+        assertThat(response.getContentAsString()).contains("Too many requests. Please try again later.");
+        assertThat(passed.get()).isEqualTo(2);
+        assertThat(meterRegistry.get(RateLimitFilter.METRIC)
+            .tag("budget", "POST /api/auth/login")
+            .tag("client", "ip")
+            .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void doFilter_UnmatchedRoute_UsesDefaultBudget() throws ServletException, IOException {
+        for (int i = 0; i < 3; i++) {
+            assertThat(send("GET", "/api/goals", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+
+        assertThat(send("GET", "/api/goals", "10.0.0.1").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void doFilter_PatternRoute_MatchesPathVariables() throws ServletException, IOException {
+        authenticate("user-1");
+
+        assertThat(send("POST", "/api/institutions/inst-1/transactions", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(send("POST", "/api/institutions/inst-2/transactions", "10.0.0.1").getStatus()).isEqualTo(429);
+        assertThat(send("GET", "/api/institutions/inst-1/transactions", "10.0.0.1").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void tryAcquire_SharesBudgetWithTheEndpoint() throws ServletException, IOException {
+        authenticate("user-1");
+        assertThat(filter.tryAcquire("user-1", HttpMethod.POST, "/api/institutions/inst-1/transactions")).isZero();
+
+        // A batch operation used the endpoint's only token, so the request itself is rejected
+        assertThat(send("POST", "/api/institutions/inst-1/transactions", "10.0.0.1").getStatus()).isEqualTo(429);
+        assertThat(filter.tryAcquire("user-1", HttpMethod.POST, "/api/institutions/inst-2/transactions")).isPositive();
+        assertThat(meterRegistry.get(RateLimitFilter.METRIC)
+            .tag("budget", "POST /api/institutions/{institutionId}/transactions")
+            .tag("client", "user")
+            .counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void tryAcquire_Disabled_AlwaysAllows() {
+        filter = new RateLimitFilter(false, "3/1m", ROUTES, 1000, meterRegistry);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(filter.tryAcquire("user-1", HttpMethod.POST, "/api/institutions/inst-1/transactions")).isZero();
+        }
+    }
+
+    @Test
+    void doFilter_AuthenticatedUsers_LimitedByUserNotIp() throws ServletException, IOException {
+        authenticate("user-1");
+        for (int i = 0; i < 3; i++) {
+            send("GET", "/api/goals", "10.0.0.1");
+        }
+        assertThat(send("GET", "/api/goals", "10.0.0.1").getStatus()).isEqualTo(429);
+
+        authenticate("user-2");
+        assertThat(send("GET", "/api/goals", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get(RateLimitFilter.METRIC).tag("client", "user").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void doFilter_Anonymous_LimitedByIp() throws ServletException, IOException {
+        for (int i = 0; i < 3; i++) {
+            send("GET", "/api/hello", "10.0.0.1");
+        }
+
+        assertThat(send("GET", "/api/hello", "10.0.0.1").getStatus()).isEqualTo(429);
+        assertThat(send("GET", "/api/hello", "10.0.0.2").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_PreflightAndNonApiRequests_NotLimited() throws ServletException, IOException {
+        for (int i = 0; i < 10; i++) {
+            assertThat(send("OPTIONS", "/api/goals", "10.0.0.1").getStatus()).isEqualTo(200);
+            assertThat(send("GET", "/actuator/health", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+
+        assertThat(passed.get()).isEqualTo(20);
+    }
+
+    @Test
+    void doFilter_Disabled_PassesEverything() throws ServletException, IOException {
+        filter = new RateLimitFilter(false, "1/1m", ROUTES, 1000, meterRegistry);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(send("POST", "/api/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void constructor_MalformedRoute_ThrowsException() {
+        assertThatThrownBy(() -> new RateLimitFilter(true, "3/1m", new String[] {"/api/auth/login=2/1m"}, 1000, meterRegistry))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("METHOD /path=requests/period");
+        assertThatThrownBy(() -> new RateLimitFilter(true, "3 per minute", new String[0], 1000, meterRegistry))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("requests/period");
+    }
+
+    private MockHttpServletResponse send(String method, String uri, String remoteAddr) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> passed.incrementAndGet());
+        return response;
+    }
+
+    private static void authenticate(String sub) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(sub, "token", Collections.emptyList()));
+    }
+}
@@ -0,0 +1,111 @@
+package com.cpsc.backend.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketLimiterTest {
+
+    private AtomicLong clock;
+    private TokenBucketLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(1_000_000L);
+        limiter = new TokenBucketLimiter(3, Duration.ofSeconds(3), 1000, clock::get);
+    }
+
+    @Test
+    void tryAcquire_WithinCapacity_Allows() {
+        assertThat(limiter.tryAcquire("user-1")).isZero();
+        assertThat(limiter.tryAcquire("user-1")).isZero();
+        assertThat(limiter.tryAcquire("user-1")).isZero();
+    }
+
+    @Test
+    void tryAcquire_BucketEmpty_ReturnsTimeUntilNextToken() {
+        drain("user-1");
+
+        assertThat(limiter.tryAcquire("user-1")).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(400));
+        assertThat(limiter.tryAcquire("user-1")).isEqualTo(TimeUnit.MILLISECONDS.toNanos(600));
+    }
+
+    @Test
+    void tryAcquire_AfterRefill_AllowsAgain() {
+        drain("user-1");
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(limiter.tryAcquire("user-1")).isZero();
+        assertThat(limiter.tryAcquire("user-1")).isPositive();
+    }
+
+    @Test
+    void tryAcquire_LongIdle_RefillsOnlyToCapacity() {
+        drain("user-1");
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(10));
+
+        drain("user-1");
+        assertThat(limiter.tryAcquire("user-1")).isPositive();
+    }
+
+    @Test
+    void tryAcquire_SeparateKeys_HaveSeparateBuckets() {
+        drain("user-1");
+
+        assertThat(limiter.tryAcquire("user-1")).isPositive();
+        assertThat(limiter.tryAcquire("user-2")).isZero();
+    }
+
+    @Test
+    void tryAcquire_TooManyKeys_EvictsToStayBounded() {
+        limiter = new TokenBucketLimiter(3, Duration.ofSeconds(3), 64, clock::get);
+
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("10.0.0." + i);
+        }
+
+        assertThat(limiter.size()).isLessThanOrEqualTo(64);
+    }
+
+    @Test
+    void tryAcquire_EvictedKeyWasFull_StartsWithFullBucket() {
+        limiter = new TokenBucketLimiter(3, Duration.ofSeconds(3), 1, clock::get);
+        limiter.tryAcquire("user-1");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(3));
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("other-" + i);
+        }
+
+        drain("user-1");
+    }
+
+    @Test
+    void constructor_InvalidArguments_ThrowException() {
+        assertThatThrownBy(() -> new TokenBucketLimiter(0, Duration.ofMinutes(1), 10))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Rate limit capacity must be positive");
+        assertThatThrownBy(() -> new TokenBucketLimiter(10, Duration.ZERO, 10))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Rate limit period must be positive");
+        assertThatThrownBy(() -> new TokenBucketLimiter(10, Duration.ofMinutes(1), 0))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Rate limit key count must be positive");
+    }
+
+    private void drain(String key) {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(key)).isZero();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.exception.ConcurrentUpdateException;
+import com.cpsc.backend.exception.GlobalExceptionHandler;
+import com.cpsc.backend.exception.InstitutionNotFoundException;
+import com.cpsc.backend.model.BatchOperation;
+import com.cpsc.backend.model.BatchOperation.OperationEnum;
+import com.cpsc.backend.model.BatchOperationResult;
+import com.cpsc.backend.model.BatchRequest;
+import com.cpsc.backend.model.BatchResponse;
+import com.cpsc.backend.model.CreateInstitutionRequest;
+import com.cpsc.backend.model.CreateTransactionRequest;
+import com.cpsc.backend.model.EditGoalRequest;
+import com.cpsc.backend.model.InstitutionResponse;
+import com.cpsc.backend.model.TransactionResponse;
+import com.cpsc.backend.security.RateLimitFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchServiceTest {
+
+    private static final String USER_ID = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
+    private static final UUID INSTITUTION_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+    private static final UUID TRANSACTION_ID = UUID.fromString("660e8400-e29b-41d4-a716-446655440000");
+    private static final UUID GOAL_ID = UUID.fromString("770e8400-e29b-41d4-a716-446655440000");
+
+    @Mock
+    private InstitutionService institutionService;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private GoalService goalService;
+
+    private BatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        batchService = new BatchService(institutionService, transactionService, goalService,
+            new GlobalExceptionHandler(new SimpleMeterRegistry()), Jackson2ObjectMapperBuilder.json().build(),
+            Validation.buildDefaultValidatorFactory().getValidator(), rateLimitFilter(false));
+    }
+
+    @Test
+    void execute_RunsOperationsInOrderWithEndpointStatuses() {
+        InstitutionResponse institution = new InstitutionResponse();
+        TransactionResponse transaction = new TransactionResponse();
+        when(institutionService.createInstitution(eq(USER_ID), any(CreateInstitutionRequest.class)))
+            .thenReturn(institution);
+        when(transactionService.createTransaction(eq(USER_ID), eq(INSTITUTION_ID.toString()),
+            any(CreateTransactionRequest.class))).thenReturn(transaction);
+
+        BatchResponse response = batchService.execute(USER_ID, request(false,
+            operation(OperationEnum.CREATE_INSTITUTION, Map.of("institutionName", "Chase Bank", "startingBalance", 100.0)),
+            operation(OperationEnum.CREATE_TRANSACTION, Map.of("type", "DEPOSIT", "amount", 25.0)).institutionId(INSTITUTION_ID),
+            operation(OperationEnum.DELETE_GOAL, null).goalId(GOAL_ID)));
+
+        assertThat(response.getResults()).extracting(BatchOperationResult::getIndex).containsExactly(0, 1, 2);
+        assertThat(response.getResults()).extracting(BatchOperationResult::getStatus).containsExactly(201, 201, 204);
+        assertThat(response.getResults().get(0).getBody()).isSameAs(institution);
+        assertThat(response.getResults().get(1).getBody()).isSameAs(transaction);
+        assertThat(response.getResults().get(2).getBody()).isNull();
+
+        InOrder order = inOrder(institutionService, transactionService, goalService);
+        ArgumentCaptor<CreateInstitutionRequest> created = ArgumentCaptor.forClass(CreateInstitutionRequest.class);
+        order.verify(institutionService).createInstitution(eq(USER_ID), created.capture());
+        order.verify(transactionService).createTransaction(eq(USER_ID), eq(INSTITUTION_ID.toString()),
+            any(CreateTransactionRequest.class));
+        order.verify(goalService).deleteGoal(USER_ID, GOAL_ID.toString());
+        assertThat(created.getValue().getInstitutionName()).isEqualTo("Chase Bank");
+        assertThat(created.getValue().getStartingBalance()).isEqualTo(100.0);
+    }
+
+    @Test
+    void execute_OperationFails_ReportsMappedErrorAndContinues() {
+        when(institutionService.editInstitution(anyString(), anyString(), any()))
+            .thenThrow(new InstitutionNotFoundException("Institution not found"));
+        when(goalService.editGoal(eq(USER_ID), eq(GOAL_ID.toString()), any(EditGoalRequest.class)))
+            .thenThrow(new ConcurrentUpdateException("Could not edit goal"));
+
+        BatchResponse response = batchService.execute(USER_ID, request(false,
+            operation(OperationEnum.EDIT_INSTITUTION, Map.of("institutionName", "Renamed")).institutionId(INSTITUTION_ID),
+            operation(OperationEnum.EDIT_GOAL, Map.of("name", "Vacation")).goalId(GOAL_ID),
+            operation(OperationEnum.DELETE_TRANSACTION, null).institutionId(INSTITUTION_ID).transactionId(TRANSACTION_ID)));
+
+        assertThat(response.getResults()).extracting(BatchOperationResult::getStatus).containsExactly(404, 409, 204);
+        assertThat(response.getResults()).extracting(BatchOperationResult::getError)
+            .containsExactly("Institution not found", "Could not edit goal", null);
+        verify(transactionService).deleteTransaction(USER_ID, INSTITUTION_ID, TRANSACTION_ID);
+    }
+
+    @Test
+    void execute_StopOnError_SkipsRemainingOperations() {
+        BatchResponse response = batchService.execute(USER_ID, request(true,
+            operation(OperationEnum.DELETE_INSTITUTION, null), // no institutionId
+            operation(OperationEnum.DELETE_GOAL, null).goalId(GOAL_ID)));
+
+        assertThat(response.getResults()).extracting(BatchOperationResult::getStatus).containsExactly(400, 424);
+        assertThat(response.getResults().get(0).getError()).isEqualTo("Institution ID is required");
+        assertThat(response.getResults().get(1).getError()).isEqualTo("Skipped after an earlier operation failed");
+        verify(goalService, never()).deleteGoal(anyString(), anyString());
+    }
+
+    @Test
+    void execute_MissingOrInvalidBody_ReturnsBadRequest() {
+        BatchResponse response = batchService.execute(USER_ID, request(false,
+            operation(OperationEnum.CREATE_GOAL, null),
+            operation(OperationEnum.CREATE_INSTITUTION, Map.of("startingBalance", "not a number"))));
+
+        assertThat(response.getResults()).extracting(BatchOperationResult::getStatus).containsExactly(400, 400);
+        assertThat(response.getResults().get(0).getError()).isEqualTo("Request body is required for CREATE_GOAL");
+        assertThat(response.getResults().get(1).getError()).isEqualTo("Invalid request body for CREATE_INSTITUTION");
+        verifyNoInteractions(goalService, institutionService);
+    }
+
+    @Test
+    void execute_BodyViolatesConstraints_ReturnsBadRequest() {
+        BatchResponse response = batchService.execute(USER_ID, request(false,
+            operation(OperationEnum.CREATE_TRANSACTION,
+                Map.of("type", "DEPOSIT", "amount", 25.0, "description", "x".repeat(501), "extra", true))
+                .institutionId(INSTITUTION_ID),
+            operation(OperationEnum.CREATE_TRANSACTION, Map.of("type", "DEPOSIT")).institutionId(INSTITUTION_ID)));
+
+        assertThat(response.getResults()).extracting(BatchOperationResult::getStatus).containsExactly(400, 400);
+        assertThat(response.getResults().get(0).getError()).isEqualTo("description: size must be between 0 and 500");
+        assertThat(response.getResults().get(1).getError()).isEqualTo("amount: must not be null");
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    void execute_TooManyOperations_ThrowsException() {
+        BatchOperation[] operations = new BatchOperation[BatchService.MAX_OPERATIONS + 1];
+        for (int i = 0; i < operations.length; i++) {
+            operations[i] = operation(OperationEnum.DELETE_GOAL, null).goalId(GOAL_ID);
+        }
+
+        assertThatThrownBy(() -> batchService.execute(USER_ID, request(false, operations)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Batch cannot contain more than 25 operations");
+        verifyNoInteractions(goalService);
+    }
+
+    @Test
+    void execute_NoOperations_ThrowsException() {
+        assertThatThrownBy(() -> batchService.execute(USER_ID, request(false)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Batch must contain at least one operation");
+    }
+
+    @Test
+    void execute_NullUserId_ThrowsException() {
+        assertThatThrownBy(() -> batchService.execute(null, request(false,
+            operation(OperationEnum.DELETE_GOAL, null).goalId(GOAL_ID))))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("User ID cannot be null or empty");
+    }
+
+    @Test
+    void execute_OperationsOverEndpointBudget_AreRejectedWith429() {
+        batchService = new BatchService(institutionService, transactionService, goalService,
+            new GlobalExceptionHandler(new SimpleMeterRegistry()), Jackson2ObjectMapperBuilder.json().build(),
+            Validation.buildDefaultValidatorFactory().getValidator(), rateLimitFilter(true));
+        when(transactionService.createTransaction(eq(USER_ID), eq(INSTITUTION_ID.toString()),
+            any(CreateTransactionRequest.class))).thenReturn(new TransactionResponse());
+        BatchOperation[] operations = new BatchOperation[5];
+        for (int i = 0; i < operations.length; i++) {
+            operations[i] = operation(OperationEnum.CREATE_TRANSACTION, Map.of("type", "DEPOSIT", "amount", 25.0))
+                .institutionId(INSTITUTION_ID);
+        }
+
+        BatchResponse response = batchService.execute(USER_ID, request(false, operations));
+
+        // The transaction budget allows 2, whether sent on their own or in a batch
+        assertThat(response.getResults()).extracting(BatchOperationResult::getStatus)
+            .containsExactly(201, 201, 429, 429, 429);
+        assertThat(response.getResults().get(2).getError()).isEqualTo("Too many requests. Please try again later.");
+        verify(transactionService, times(2)).createTransaction(eq(USER_ID), eq(INSTITUTION_ID.toString()),
+            any(CreateTransactionRequest.class));
+    }
+
+    private static RateLimitFilter rateLimitFilter(boolean enabled) {
+        return new RateLimitFilter(enabled, "300/1m",
+            new String[] {"POST /api/institutions/*/transactions=2/1m", "POST /api/batch=20/1m"},
+            1000, new SimpleMeterRegistry());
+    }
+
+    private static BatchRequest request(boolean stopOnError, BatchOperation... operations) {
+        BatchRequest request = new BatchRequest();
+        request.setStopOnError(stopOnError);
+        request.setOperations(new ArrayList<>(List.of(operations)));
+        return request;
+    }
+
+    private static BatchOperation operation(OperationEnum type, Object body) {
+        BatchOperation operation = new BatchOperation();
+        operation.setOperation(type);
+        operation.setBody(body);
+        return operation;
+    }
+}
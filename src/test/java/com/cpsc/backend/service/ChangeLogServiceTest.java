@@ -0,0 +1,112 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.entity.ChangeRecord;
+import com.cpsc.backend.entity.Goal;
+import com.cpsc.backend.entity.Institution;
+import com.cpsc.backend.entity.Transaction;
+import com.cpsc.backend.repository.ChangeLogRepository;
+import com.cpsc.backend.repository.EntityWrite;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeLogServiceTest {
+
+    private static final String USER_ID = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
+    private static final String INSTITUTION_ID = "550e8400-e29b-41d4-a716-446655440000";
+
+    @Mock
+    private ChangeLogRepository changeLogRepository;
+
+    private ChangeLogService changeLogService;
+
+    @BeforeEach
+    void setUp() {
+        changeLogService = new ChangeLogService(changeLogRepository, Duration.ofDays(30));
+    }
+
+    @Test
+    void recordTransaction_LogsInstitutionAndTransactionInTheWrite() {
+        Institution institution = createInstitution(INSTITUTION_ID);
+        Transaction transaction = new Transaction();
+        transaction.setInstitutionId(INSTITUTION_ID);
+        transaction.setTransactionId(UUID.randomUUID().toString());
+        transaction.setAmount(25.0);
+        EntityWrite write = new EntityWrite();
+
+        changeLogService.recordTransaction(write, institution, transaction);
+
+        List<ChangeRecord> entries = write.getChanges();
+        assertThat(entries).extracting(ChangeRecord::getEntityType)
+            .containsExactly(ChangeRecord.INSTITUTION, ChangeRecord.TRANSACTION);
+        assertThat(entries).extracting(ChangeRecord::getUserId).containsOnly(USER_ID);
+        ChangeRecord logged = entries.get(1);
+        assertThat(logged.getOperation()).isEqualTo(ChangeRecord.UPSERT);
+        assertThat(logged.getInstitutionId()).isEqualTo(INSTITUTION_ID);
+        assertThat(logged.getPayload()).contains("\"amount\":25.0");
+        assertThat(logged.getSequence()).isNull(); // numbered when the write is committed
+        assertThat(logged.getExpiresAt() - logged.getChangedAt()).isEqualTo(Duration.ofDays(30).toSeconds());
+        verifyNoInteractions(changeLogRepository);
+    }
+
+    @Test
+    void removeGoal_LogsTombstoneWithoutPayload() {
+        String goalId = UUID.randomUUID().toString();
+        EntityWrite write = new EntityWrite();
+
+        changeLogService.removeGoal(write, USER_ID, goalId);
+
+        assertThat(write.getChanges()).singleElement().satisfies(entry -> {
+            assertThat(entry.getEntityId()).isEqualTo(goalId);
+            assertThat(entry.getOperation()).isEqualTo(ChangeRecord.DELETE);
+            assertThat(entry.getPayload()).isNull();
+        });
+        assertThat(write.size()).isEqualTo(2); // the entry and the log head
+    }
+
+    @Test
+    void recordGoal_LogsGoalFollowedByItsInstitutions() {
+        Goal goal = new Goal();
+        goal.setUserId(USER_ID);
+        goal.setGoalId(UUID.randomUUID().toString());
+        EntityWrite write = new EntityWrite();
+
+        changeLogService.recordGoal(write, goal, List.of(createInstitution(INSTITUTION_ID)));
+
+        assertThat(write.getChanges()).extracting(ChangeRecord::getEntityType)
+            .containsExactly(ChangeRecord.GOAL, ChangeRecord.INSTITUTION);
+        assertThat(write.getChanges().get(1).getOperation()).isEqualTo(ChangeRecord.UPSERT);
+    }
+
+    @Test
+    void deleteLog_Fails_DoesNotThrow() {
+        doThrow(ResourceNotFoundException.builder().message("no table").build())
+            .when(changeLogRepository).deleteAllByUserId(USER_ID);
+
+        changeLogService.deleteLog(USER_ID);
+
+        verify(changeLogRepository).deleteAllByUserId(USER_ID);
+    }
+
+    private static Institution createInstitution(String institutionId) {
+        Institution institution = new Institution();
+        institution.setUserId(USER_ID);
+        institution.setInstitutionId(institutionId);
+        institution.setInstitutionName("Bank");
+        institution.setCurrentBalance(100.0);
+        return institution;
+    }
+}
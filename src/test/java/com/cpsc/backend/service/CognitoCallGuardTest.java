@@ -0,0 +1,232 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.exception.CognitoUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.InternalErrorException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.NotAuthorizedException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.TooManyRequestsException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CognitoCallGuardTest {
+
+    private static final String OPERATION = "initiateAuth";
+
+    private SimpleMeterRegistry meterRegistry;
+    private CognitoCallGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        guard = guard(2, Duration.ofMillis(200), Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        guard.shutdown();
+    }
+
+    @Test
+    void call_Success_ReturnsResult() {
+        assertThat(guard.call(OPERATION, () -> "tokens")).isEqualTo("tokens");
+
+        assertThat(count("success")).isEqualTo(1.0);
+        assertThat(guard.state(OPERATION)).isEqualTo(CognitoCallGuard.State.CLOSED);
+    }
+
+    @Test
+    void call_ClientError_PropagatesWithoutOpeningCircuit() {
+        for (int i = 0; i < 8; i++) {
+            assertThatThrownBy(() -> guard.call(OPERATION, () -> {
+                throw NotAuthorizedException.builder().message("Incorrect username or password").statusCode(400).build();
+            })).isInstanceOf(NotAuthorizedException.class);
+        }
+
+        assertThat(guard.state(OPERATION)).isEqualTo(CognitoCallGuard.State.CLOSED);
+        assertThat(count("client_error")).isEqualTo(8.0);
+    }
+
+    @Test
+    void call_ServerErrors_OpenCircuitAndShortCircuit() {
+        failTimes(4);
+
+        AtomicInteger calls = new AtomicInteger();
+        assertThatThrownBy(() -> guard.call(OPERATION, calls::incrementAndGet))
+            .isInstanceOf(CognitoUnavailableException.class)
+            .satisfies(e -> assertThat(((CognitoUnavailableException) e).getRetryAfterSeconds()).isBetween(1L, 60L));
+
+        assertThat(calls.get()).isZero();
+        assertThat(guard.state(OPERATION)).isEqualTo(CognitoCallGuard.State.OPEN);
+        assertThat(count("failure")).isEqualTo(4.0);
+        assertThat(count("short_circuited")).isEqualTo(1.0);
+    }
+
+    @Test
+    void call_Throttling_CountsAsFailure() {
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> guard.call(OPERATION, () -> {
+                throw TooManyRequestsException.builder().message("Rate exceeded").statusCode(429).build();
+            })).isInstanceOf(TooManyRequestsException.class);
+        }
+
+        assertThat(guard.state(OPERATION)).isEqualTo(CognitoCallGuard.State.OPEN);
+    }
+
+    @Test
+    void call_FailuresBelowThreshold_KeepCircuitClosed() {
+        failTimes(1);
+        guard.call(OPERATION, () -> "ok");
+        guard.call(OPERATION, () -> "ok");
+        guard.call(OPERATION, () -> "ok");
+
+        assertThat(guard.state(OPERATION)).isEqualTo(CognitoCallGuard.State.CLOSED);
+    }
+
+    @Test
+    void call_OtherOperation_UnaffectedByOpenCircuit() {
+        failTimes(4);
+
+        assertThat(guard.call("getUser", () -> "profile")).isEqualTo("profile");
+    }
+
+    @Test
+    void call_AfterOpenDuration_SuccessfulProbesCloseCircuit() throws InterruptedException {
+        guard = guard(2, Duration.ofMillis(200), Duration.ofMillis(50));
+        failTimes(4);
+        Thread.sleep(80);
+
+        assertThat(guard.state(OPERATION)).isEqualTo(CognitoCallGuard.State.HALF_OPEN);
+        guard.call(OPERATION, () -> "probe 1");
+        guard.call(OPERATION, () -> "probe 2");
+
+        assertThat(guard.state(OPERATION)).isEqualTo(CognitoCallGuard.State.CLOSED);
+    }
+
+    @Test
+    void call_AfterOpenDuration_FailedProbeReopensCircuit() throws InterruptedException {
+        guard = guard(2, Duration.ofMillis(200), Duration.ofMillis(50));
+        failTimes(4);
+        Thread.sleep(80);
+
+        failTimes(1);
+
+        assertThat(guard.state(OPERATION)).isEqualTo(CognitoCallGuard.State.OPEN);
+        assertThatThrownBy(() -> guard.call(OPERATION, () -> "ok")).isInstanceOf(CognitoUnavailableException.class);
+    }
+
+    @Test
+    void call_SlowerThanTimeout_ThrowsAndInterruptsCall() throws InterruptedException {
+        guard = guard(2, Duration.ofMillis(100), Duration.ofSeconds(1));
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        assertThatThrownBy(() -> guard.call(OPERATION, () -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "late";
+        })).isInstanceOf(CognitoUnavailableException.class)
+            .hasMessage("Authentication service timed out. Please try again.");
+
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(count("timeout")).isEqualTo(1.0);
+    }
+
+    @Test
+    void timeout_AdaptsToObservedLatency() {
+        guard = new CognitoCallGuard(2, Duration.ofMillis(10), 50, 4, Duration.ofSeconds(1), 2,
+            Duration.ofMillis(20), Duration.ofSeconds(5), meterRegistry);
+        assertThat(guard.timeout(OPERATION)).isEqualTo(Duration.ofSeconds(5));
+
+        for (int i = 0; i < 10; i++) {
+            guard.call(OPERATION, () -> "fast");
+        }
+
+        assertThat(guard.timeout(OPERATION)).isEqualTo(Duration.ofMillis(20));
+    }
+
+    @Test
+    void call_BulkheadFull_RejectsWithoutCalling() throws Exception {
+        guard = guard(2, Duration.ofSeconds(5), Duration.ofSeconds(1));
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = callers.submit(() -> guard.call(OPERATION, () -> block(started, release)));
+            Future<?> second = callers.submit(() -> guard.call(OPERATION, () -> block(started, release)));
+            assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+            AtomicInteger calls = new AtomicInteger();
+            assertThatThrownBy(() -> guard.call(OPERATION, calls::incrementAndGet))
+                .isInstanceOf(CognitoUnavailableException.class)
+                .hasMessage("Too many authentication requests in progress. Please try again.");
+            assertThat(calls.get()).isZero();
+            assertThat(count("rejected")).isEqualTo(1.0);
+            assertThat(meterRegistry.get("cognito.bulkhead.in-flight").tag("operation", OPERATION).gauge().value())
+                .isEqualTo(2.0);
+
+            release.countDown();
+            first.get(1, TimeUnit.SECONDS);
+            second.get(1, TimeUnit.SECONDS);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void constructor_InvalidThreshold_ThrowsException() {
+        assertThatThrownBy(() -> new CognitoCallGuard(2, Duration.ofMillis(10), 0, 4, Duration.ofSeconds(1), 2,
+            Duration.ofMillis(20), Duration.ofSeconds(5), meterRegistry))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Failure rate threshold must be between 1 and 100");
+    }
+
+    /** 50% of a 4-call window opens the breaker, and 2 successful probes close it */
+    private CognitoCallGuard guard(int maxConcurrent, Duration maxTimeout, Duration openDuration) {
+        if (guard != null) {
+            guard.shutdown();
+        }
+        meterRegistry = new SimpleMeterRegistry();
+        return new CognitoCallGuard(maxConcurrent, Duration.ofMillis(10), 50, 4, openDuration, 2,
+            Duration.ofMillis(10), maxTimeout, meterRegistry);
+    }
+
+    private void failTimes(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThatThrownBy(() -> guard.call(OPERATION, () -> {
+                throw InternalErrorException.builder().message("Internal error").statusCode(500).build();
+            })).isInstanceOf(InternalErrorException.class);
+        }
+    }
+
+    private static String block(CountDownLatch started, CountDownLatch release) {
+        started.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get(CognitoCallGuard.CALL_METRIC)
+            .tag("operation", OPERATION)
+            .tag("outcome", outcome)
+            .counter()
+            .count();
+    }
+}
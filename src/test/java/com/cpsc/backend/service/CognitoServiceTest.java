@@ -1,6 +1,8 @@
 package com.cpsc.backend.service;
 
 import com.cpsc.backend.config.SecretsManagerConfig;
+import com.cpsc.backend.exception.CognitoUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,33 +12,44 @@ import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityPr
 import software.amazon.awssdk.services.cognitoidentityprovider.model.*;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Base64;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class CognitoServiceTest {
 
+    private static final String USER_ID = "04b8b408-3011-70f9-5a38-7a897cf03438";
+
     @Mock
     private CognitoIdentityProviderClient cognitoClient;
 
-    @Mock
     private SecretsManagerConfig secretsManagerConfig;
 
+    private UserProfileCache userProfileCache;
+
     private CognitoService cognitoService;
 
     @BeforeEach
     void setUp() {
-        when(secretsManagerConfig.getCognitoUserPoolId()).thenReturn("us-east-1_test");
-        when(secretsManagerConfig.getCognitoClientId()).thenReturn("test-client-id");
-        when(secretsManagerConfig.getCognitoClientSecret()).thenReturn("test-secret");
-
-        cognitoService = new CognitoService(cognitoClient, secretsManagerConfig);
+        secretsManagerConfig = spy(new SecretsManagerConfig(Map.of(
+                "COGNITO_CLIENT_ID", "test-client-id",
+                "COGNITO_CLIENT_SECRET", "test-secret")));
+
+        userProfileCache = new UserProfileCache(Duration.ofMinutes(5), 100, new SimpleMeterRegistry());
+        CognitoCallGuard callGuard = new CognitoCallGuard(20, Duration.ofMillis(100), 50, 4, Duration.ofMinutes(1), 1,
+                Duration.ofSeconds(1), Duration.ofSeconds(5), new SimpleMeterRegistry());
+        cognitoService = new CognitoService(cognitoClient, secretsManagerConfig, userProfileCache, callGuard);
     }
 
     @Test
@@ -233,7 +246,7 @@ class CognitoServiceTest {
         when(cognitoClient.getUser(any(GetUserRequest.class))).thenReturn(getUserResponse);
 
         // Act
-        Map<String, String> result = cognitoService.getUserProfile(accessToken);
+        Map<String, String> result = cognitoService.getUserProfile(USER_ID, accessToken);
 
         // Assert
         assertThat(result).isNotNull();
@@ -253,13 +266,43 @@ class CognitoServiceTest {
                 .thenThrow(CognitoIdentityProviderException.builder().message("Invalid token").build());
 
         // Act & Assert
-        assertThatThrownBy(() -> cognitoService.getUserProfile(invalidToken))
+        assertThatThrownBy(() -> cognitoService.getUserProfile(USER_ID, invalidToken))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Error getting user profile");
 
         verify(cognitoClient).getUser(any(GetUserRequest.class));
     }
 
+    @Test
+    void getUserProfile_CognitoFailing_OpensCircuit() {
+        // Arrange
+        when(cognitoClient.getUser(any(GetUserRequest.class)))
+                .thenThrow(InternalErrorException.builder().message("Internal error").statusCode(500).build());
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> cognitoService.getUserProfile(USER_ID, "valid-access-token"))
+                    .hasMessageContaining("Error getting user profile");
+        }
+
+        // Act & Assert
+        assertThatThrownBy(() -> cognitoService.getUserProfile(USER_ID, "valid-access-token"))
+                .isInstanceOf(CognitoUnavailableException.class);
+        verify(cognitoClient, times(4)).getUser(any(GetUserRequest.class));
+    }
+
+    @Test
+    void login_ClientErrors_DoNotOpenCircuit() {
+        // Arrange
+        when(cognitoClient.initiateAuth(any(InitiateAuthRequest.class)))
+                .thenThrow(NotAuthorizedException.builder().message("Incorrect username or password").statusCode(400).build());
+
+        // Act & Assert
+        for (int i = 0; i < 6; i++) {
+            assertThatThrownBy(() -> cognitoService.login("test@example.com", "wrong-password"))
+                    .hasMessage("Incorrect username or password");
+        }
+        verify(cognitoClient, times(6)).initiateAuth(any(InitiateAuthRequest.class));
+    }
+
     @Test
     void updateScreenName_Success() {
         // Arrange
@@ -271,7 +314,7 @@ class CognitoServiceTest {
                 .thenReturn(mockResponse);
 
         // Act
-        Map<String, String> result = cognitoService.updateScreenName(accessToken, newScreenName);
+        Map<String, String> result = cognitoService.updateScreenName(USER_ID, accessToken, newScreenName);
 
         // Assert
         assertThat(result).isNotNull();
@@ -291,7 +334,7 @@ class CognitoServiceTest {
                 .thenThrow(InvalidParameterException.builder().message("Invalid parameter").build());
 
         // Act & Assert
-        assertThatThrownBy(() -> cognitoService.updateScreenName(accessToken, invalidScreenName))
+        assertThatThrownBy(() -> cognitoService.updateScreenName(USER_ID, accessToken, invalidScreenName))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("Invalid screen name format");
 
@@ -308,13 +351,73 @@ class CognitoServiceTest {
                 .thenThrow(CognitoIdentityProviderException.builder().message("Service error").build());
 
         // Act & Assert
-        assertThatThrownBy(() -> cognitoService.updateScreenName(accessToken, newScreenName))
+        assertThatThrownBy(() -> cognitoService.updateScreenName(USER_ID, accessToken, newScreenName))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Error updating screen name");
 
         verify(cognitoClient).updateUserAttributes(any(UpdateUserAttributesRequest.class));
     }
 
+    @Test
+    void getUserProfile_CachedProfile_SkipsGetUser() {
+        // Arrange
+        userProfileCache.putFromIdToken(USER_ID, "test@example.com", "TestUser123", Instant.now());
+
+        // Act
+        Map<String, String> result = cognitoService.getUserProfile(USER_ID, "valid-access-token");
+
+        // Assert
+        assertThat(result.get("email")).isEqualTo("test@example.com");
+        assertThat(result.get("preferred_username")).isEqualTo("TestUser123");
+        verify(cognitoClient, never()).getUser(any(GetUserRequest.class));
+    }
+
+    @Test
+    void getUserProfile_SecondCall_ServedFromCache() {
+        // Arrange
+        when(cognitoClient.getUser(any(GetUserRequest.class))).thenReturn(GetUserResponse.builder()
+                .username(USER_ID)
+                .userAttributes(
+                        AttributeType.builder().name("email").value("test@example.com").build(),
+                        AttributeType.builder().name("preferred_username").value("TestUser123").build())
+                .build());
+
+        // Act
+        cognitoService.getUserProfile(USER_ID, "valid-access-token");
+        Map<String, String> result = cognitoService.getUserProfile(USER_ID, "valid-access-token");
+
+        // Assert
+        assertThat(result.get("preferred_username")).isEqualTo("TestUser123");
+        verify(cognitoClient).getUser(any(GetUserRequest.class));
+    }
+
+    @Test
+    void updateScreenName_Success_InvalidatesCachedProfile() {
+        // Arrange
+        userProfileCache.putFromIdToken(USER_ID, "test@example.com", "OldName", Instant.now());
+        when(cognitoClient.updateUserAttributes(any(UpdateUserAttributesRequest.class)))
+                .thenReturn(UpdateUserAttributesResponse.builder().build());
+
+        // Act
+        cognitoService.updateScreenName(USER_ID, "valid-access-token", "NewUsername123");
+
+        // Assert
+        assertThat(userProfileCache.get(USER_ID)).isNull();
+    }
+
+    @Test
+    void updateScreenName_Failure_KeepsCachedProfile() {
+        // Arrange
+        userProfileCache.putFromIdToken(USER_ID, "test@example.com", "OldName", Instant.now());
+        when(cognitoClient.updateUserAttributes(any(UpdateUserAttributesRequest.class)))
+                .thenThrow(CognitoIdentityProviderException.builder().message("Service error").build());
+
+        // Act & Assert
+        assertThatThrownBy(() -> cognitoService.updateScreenName(USER_ID, "valid-access-token", "NewUsername123"))
+                .isInstanceOf(RuntimeException.class);
+        assertThat(userProfileCache.get(USER_ID).get("preferred_username")).isEqualTo("OldName");
+    }
+
     @Test
     void forgotPassword_Success() {
         // Arrange
@@ -485,7 +588,7 @@ class CognitoServiceTest {
         when(cognitoClient.deleteUser(any(DeleteUserRequest.class))).thenReturn(mockResponse);
 
         // Act
-        cognitoService.deleteUser(accessToken);
+        cognitoService.deleteUser(USER_ID, accessToken);
 
         // Assert
         verify(cognitoClient).deleteUser(any(DeleteUserRequest.class));
@@ -502,7 +605,7 @@ class CognitoServiceTest {
                         .build());
 
         // Act & Assert
-        assertThatThrownBy(() -> cognitoService.deleteUser(accessToken))
+        assertThatThrownBy(() -> cognitoService.deleteUser(USER_ID, accessToken))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("Not authorized to delete this user");
 
@@ -520,7 +623,7 @@ class CognitoServiceTest {
                         .build());
 
         // Act & Assert
-        assertThatThrownBy(() -> cognitoService.deleteUser(accessToken))
+        assertThatThrownBy(() -> cognitoService.deleteUser(USER_ID, accessToken))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Error deleting user account");
 
@@ -538,4 +641,44 @@ class CognitoServiceTest {
                 .encodeToString(payload.getBytes(StandardCharsets.UTF_8));
         return encodedHeader + "." + encodedPayload + ".mock_signature";
     }
+
+    @Test
+    void constructor_DoesNotReadSecretsUntilFirstUse() {
+        verify(secretsManagerConfig, never()).snapshot();
+    }
+
+    @Test
+    void warmUp_PreparesSecretHashAndOpensConnection() {
+        when(cognitoClient.getUser(any(GetUserRequest.class)))
+                .thenThrow(NotAuthorizedException.builder().message("Invalid Access Token").build());
+
+        cognitoService.warmUp();
+
+        verify(secretsManagerConfig).snapshot();
+        verify(cognitoClient).getUser(any(GetUserRequest.class));
+    }
+
+    @Test
+    void login_SecretHashRejected_RequestsSecretsRefresh() {
+        when(cognitoClient.initiateAuth(any(InitiateAuthRequest.class)))
+                .thenThrow(NotAuthorizedException.builder()
+                        .message("Unable to verify secret hash for client test-client-id").build());
+
+        assertThatThrownBy(() -> cognitoService.login("test@example.com", "Test@1234"))
+                .isInstanceOf(RuntimeException.class);
+
+        verify(secretsManagerConfig).requestRefresh();
+    }
+
+    @Test
+    void login_WrongPassword_DoesNotRefreshSecrets() {
+        when(cognitoClient.initiateAuth(any(InitiateAuthRequest.class)))
+                .thenThrow(NotAuthorizedException.builder().message("Incorrect username or password.").build());
+
+        assertThatThrownBy(() -> cognitoService.login("test@example.com", "wrong"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Incorrect username or password");
+
+        verify(secretsManagerConfig, never()).requestRefresh();
+    }
 }
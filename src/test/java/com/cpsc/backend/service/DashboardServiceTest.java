@@ -0,0 +1,425 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.entity.Goal;
+import com.cpsc.backend.entity.Institution;
+import com.cpsc.backend.entity.Transaction;
+import com.cpsc.backend.entity.UserSummary;
+import com.cpsc.backend.exception.ReadTimeoutException;
+import com.cpsc.backend.model.DashboardGoal;
+import com.cpsc.backend.model.DashboardResponse;
+import com.cpsc.backend.repository.ChangeLogRepository;
+import com.cpsc.backend.repository.GoalRepository;
+import com.cpsc.backend.repository.InstitutionRepository;
+import com.cpsc.backend.repository.TransactionRepository;
+import com.cpsc.backend.repository.UserSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+
+    @Mock
+    private UserSummaryRepository userSummaryRepository;
+
+    @Mock
+    private InstitutionRepository institutionRepository;
+
+    @Mock
+    private GoalRepository goalRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private ChangeLogRepository changeLogRepository;
+
+    private DashboardService dashboardService;
+
+    private static final String USER_ID = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
+    private static final String INSTITUTION_ID = "550e8400-e29b-41d4-a716-446655440000";
+    private static final String GOAL_ID = "660e8400-e29b-41d4-a716-446655440000";
+
+    @BeforeEach
+    void setUp() {
+        dashboardService = new DashboardService(userSummaryRepository, institutionRepository,
+            goalRepository, transactionRepository, changeLogRepository, Duration.ofSeconds(2));
+    }
+
+    @Test
+    void getDashboard_SummaryExists_ServesItWithoutTouchingSourceTables() {
+        UserSummary summary = summary(institution(INSTITUTION_ID, 1000.0, 50));
+        summary.getGoals().add(goalEntry(GOAL_ID, 1000.0, Map.of(INSTITUTION_ID, 50)));
+        when(userSummaryRepository.findByUserId(USER_ID)).thenReturn(summary);
+
+        DashboardResponse response = dashboardService.getDashboard(USER_ID);
+
+        assertThat(response.getTotalBalance()).isEqualTo(1000.0);
+        assertThat(response.getInstitutions()).hasSize(1);
+        DashboardGoal goal = response.getGoals().get(0);
+        assertThat(goal.getAllocatedAmount()).isEqualTo(500.0);
+        assertThat(goal.getProgressPercent()).isEqualTo(50.0);
+        assertThat(goal.getIsCompleted()).isFalse();
+        verifyNoInteractions(institutionRepository, goalRepository, transactionRepository);
+        verify(userSummaryRepository, never()).save(any());
+    }
+
+    @Test
+    void getDashboard_NoSummary_RebuildsFromSourceTablesAndStoresIt() {
+        Institution institution = institution(INSTITUTION_ID, 200.0, 100);
+        Goal goal = new Goal();
+        goal.setUserId(USER_ID);
+        goal.setGoalId(GOAL_ID);
+        goal.setName("Car");
+        goal.setTargetAmount(100.0);
+        goal.setLinkedInstitutions(Map.of(INSTITUTION_ID, 100));
+        when(userSummaryRepository.findByUserId(USER_ID)).thenReturn(null);
+        when(institutionRepository.findAllByUserId(USER_ID)).thenReturn(List.of(institution));
+        when(goalRepository.findAllByUserId(USER_ID)).thenReturn(List.of(goal));
+        when(transactionRepository.findRecentByInstitutionId(INSTITUTION_ID, DashboardService.RECENT_TRANSACTIONS))
+            .thenReturn(List.of(transaction(UUID.randomUUID().toString(), 20L), transaction(UUID.randomUUID().toString(), 10L)));
+
+        DashboardResponse response = dashboardService.getDashboard(USER_ID);
+
+        assertThat(response.getTotalBalance()).isEqualTo(200.0);
+        assertThat(response.getGoals().get(0).getIsCompleted()).isTrue();
+        assertThat(response.getGoals().get(0).getProgressPercent()).isEqualTo(100.0);
+        assertThat(response.getRecentTransactions()).extracting("createdAt").containsExactly(20L, 10L);
+        verify(userSummaryRepository).save(any(UserSummary.class));
+    }
+
+    @Test
+    void getDashboard_RebuildRacesAnotherRebuild_StillServesResult() {
+        when(userSummaryRepository.findByUserId(USER_ID)).thenReturn(null);
+        when(institutionRepository.findAllByUserId(USER_ID)).thenReturn(List.of());
+        when(goalRepository.findAllByUserId(USER_ID)).thenReturn(List.of());
+        doThrow(ConditionalCheckFailedException.builder().message("exists").build())
+            .when(userSummaryRepository).save(any(UserSummary.class));
+
+        DashboardResponse response = dashboardService.getDashboard(USER_ID);
+
+        assertThat(response.getTotalBalance()).isEqualTo(0.0);
+        assertThat(response.getInstitutions()).isEmpty();
+    }
+
+    @Test
+    void getDashboard_WriteDuringRebuild_DropsStoredSummaryAndRebuilds() {
+        when(userSummaryRepository.findByUserId(USER_ID)).thenReturn(null);
+        when(institutionRepository.findAllByUserId(USER_ID))
+            .thenReturn(List.of())
+            .thenReturn(List.of(institution(INSTITUTION_ID, 75.0, 0)));
+        when(goalRepository.findAllByUserId(USER_ID)).thenReturn(List.of());
+        // The first attempt's head moves from 4 to 5 across the save; the second sees 5 both times
+        when(changeLogRepository.findLastSequence(USER_ID)).thenReturn(4L, 5L, 5L, 5L);
+
+        DashboardResponse response = dashboardService.getDashboard(USER_ID);
+
+        assertThat(response.getTotalBalance()).isEqualTo(75.0);
+        verify(userSummaryRepository).delete(USER_ID);
+        assertThat(savedSummary(2).getInstitutions()).hasSize(1);
+    }
+
+    @Test
+    void getDashboard_WritesKeepRacingRebuild_ServesLastResultWithoutKeepingIt() {
+        when(userSummaryRepository.findByUserId(USER_ID)).thenReturn(null);
+        when(institutionRepository.findAllByUserId(USER_ID)).thenReturn(List.of(institution(INSTITUTION_ID, 75.0, 0)));
+        when(goalRepository.findAllByUserId(USER_ID)).thenReturn(List.of());
+        long[] head = {0L};
+        when(changeLogRepository.findLastSequence(USER_ID)).thenAnswer(invocation -> head[0]++);
+
+        DashboardResponse response = dashboardService.getDashboard(USER_ID);
+
+        assertThat(response.getTotalBalance()).isEqualTo(75.0);
+        verify(userSummaryRepository, times(DashboardService.REBUILD_ATTEMPTS)).save(any(UserSummary.class));
+        verify(userSummaryRepository, times(DashboardService.REBUILD_ATTEMPTS)).delete(USER_ID);
+    }
+
+    @Test
+    void getDashboard_RebuildReadTimesOut_ThrowsReadTimeout() {
+        dashboardService = new DashboardService(userSummaryRepository, institutionRepository,
+            goalRepository, transactionRepository, changeLogRepository, Duration.ofMillis(50));
+        when(userSummaryRepository.findByUserId(USER_ID)).thenReturn(null);
+        when(institutionRepository.findAllByUserId(USER_ID)).thenReturn(List.of());
+        when(goalRepository.findAllByUserId(USER_ID)).thenAnswer(invocation -> {
+            Thread.sleep(Duration.ofSeconds(10));
+            return List.of();
+        });
+
+        assertThatThrownBy(() -> dashboardService.getDashboard(USER_ID))
+            .isInstanceOf(ReadTimeoutException.class)
+            .hasMessage("Timed out reading goals. Please try again.");
+        verify(userSummaryRepository, never()).save(any());
+    }
+
+    @Test
+    void getDashboard_NullUserId_ThrowsException() {
+        assertThatThrownBy(() -> dashboardService.getDashboard(null))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("User ID cannot be null or empty");
+    }
+
+    @Test
+    void recordTransaction_UpdatesBalanceAndKeepsNewestTransactions() {
+        UserSummary summary = summary(institution(INSTITUTION_ID, 100.0, 0));
+        for (long createdAt = 1; createdAt <= DashboardService.RECENT_TRANSACTIONS; createdAt++) {
+            summary.getRecentTransactions().add(0, transactionEntry(UUID.randomUUID().toString(), createdAt));
+        }
+        when(userSummaryRepository.findByUserId(USER_ID)).thenReturn(summary);
+
+        String transactionId = UUID.randomUUID().toString();
+        dashboardService.recordTransaction(institution(INSTITUTION_ID, 150.0, 0), transaction(transactionId, 100L));
+
+        UserSummary saved = savedSummary();
+        assertThat(saved.getTotalBalance()).isEqualTo(150.0);
+        assertThat(saved.getRecentTransactions()).hasSize(DashboardService.RECENT_TRANSACTIONS);
+        assertThat(saved.getRecentTransactions().get(0).getTransactionId()).isEqualTo(transactionId);
+        assertThat(saved.getRecentTransactions()).extracting(UserSummary.TransactionEntry::getCreatedAt)
+            .doesNotContain(1L);
+    }
+
+    @Test
+    void recordTransaction_NoSummary_LeavesItForTheNextRead() {
+        when(userSummaryRepository.findByUserId(USER_ID)).thenReturn(null);
+
+        dashboardService.recordTransaction(institution(INSTITUTION_ID, 150.0, 0),
+            transaction(UUID.randomUUID().toString(), 100L));
+
+        verify(userSummaryRepository, never()).save(any());
+        verify(userSummaryRepository, never()).delete(anyString());
+    }
+
+    @Test
+    void recordInstitutions_OlderVersionThanStored_KeepsNewerBalance() {
+        UserSummary summary = summary(institution(INSTITUTION_ID, 300.0, 0));
+        summary.getInstitutions().get(0).setSourceVersion(5L);
+        when(userSummaryRepository.findByUserId(USER_ID)).thenReturn(summary);
+        Institution stale = institution(INSTITUTION_ID, 100.0, 0);
+        stale.setVersion(4L);
+
+        dashboardService.recordInstitutions(USER_ID, List.of(stale));
+
+        UserSummary saved = savedSummary();
+        assertThat(saved.getInstitutions().get(0).getCurrentBalance()).isEqualTo(300.0);
+        assertThat(saved.getInstitutions().get(0).getSourceVersion()).isEqualTo(5L);
+        assertThat(saved.getTotalBalance()).isEqualTo(300.0);
+    }
+
+    @Test
+    void recordInstitutions_NewerVersion_ReplacesEntryAndKeepsVersion() {
+        UserSummary summary = summary(institution(INSTITUTION_ID, 300.0, 0));
+        summary.getInstitutions().get(0).setSourceVersion(5L);
+        when(userSummaryRepository.findByUserId(USER_ID)).thenReturn(summary);
+        Institution newer = institution(INSTITUTION_ID, 100.0, 0);
+        newer.setVersion(6L);
+
+        dashboardService.recordInstitutions(USER_ID, List.of(newer));
+
+        UserSummary saved = savedSummary();
+        assertThat(saved.getInstitutions().get(0).getCurrentBalance()).isEqualTo(100.0);
+        assertThat(saved.getInstitutions().get(0).getSourceVersion()).isEqualTo(6L);
+    }
+
+    @Test
+    void recordGoal_OlderVersionThanStored_KeepsNewerGoal() {
+        UserSummary summary = summary(institution(INSTITUTION_ID, 100.0, 30));
+        UserSummary.GoalEntry stored = goalEntry(GOAL_ID, 300.0, Map.of(INSTITUTION_ID, 30));
+        stored.setSourceVersion(3L);
+        summary.getGoals().add(stored);
+        when(userSummaryRepository.findByUserId(USER_ID)).thenReturn(summary);
+        Goal stale = new Goal();
+        stale.setUserId(USER_ID);
+        stale.setGoalId(GOAL_ID);
+        stale.setName("Old name");
+        stale.setTargetAmount(100.0);
+        stale.setVersion(2L);
+
+        dashboardService.recordGoal(stale, List.of());
+
+        UserSummary saved = savedSummary();
+        assertThat(saved.getGoals()).singleElement().satisfies(goal -> {
+            assertThat(goal.getTargetAmount()).isEqualTo(300.0);
+            assertThat(goal.getSourceVersion()).isEqualTo(3L);
+        });
+    }
+
+    @Test
+    void removeTransaction_FromPartialList_UpdatesInPlace() {
+        String transactionId = UUID.randomUUID().toString();
+        UserSummary summary = summary(institution(INSTITUTION_ID, 100.0, 0));
+        summary.getRecentTransactions().add(transactionEntry(transactionId, 5L));
+        when(userSummaryRepository.findByUserId(USER_ID)).thenReturn(summary);
+
+        dashboardService.removeTransaction(institution(INSTITUTION_ID, 50.0, 0), transactionId);
+
+        UserSummary saved = savedSummary();
+        assertThat(saved.getRecentTransactions()).isEmpty();
+        assertThat(saved.getTotalBalance()).isEqualTo(50.0);
+    }
+
+    @Test
+    void removeTransaction_FromFullList_InvalidatesSummary() {
+        UserSummary summary = summary(institution(INSTITUTION_ID, 100.0, 0));
+        for (long createdAt = DashboardService.RECENT_TRANSACTIONS; createdAt > 0; createdAt--) {
+            summary.getRecentTransactions().add(transactionEntry(UUID.randomUUID().toString(), createdAt));
+        }
+        String transactionId = summary.getRecentTransactions().get(3).getTransactionId();
+        when(userSummaryRepository.findByUserId(USER_ID)).thenReturn(summary);
+
+        dashboardService.removeTransaction(institution(INSTITUTION_ID, 50.0, 0), transactionId);
+
+        verify(userSummaryRepository).delete(USER_ID);
+        verify(userSummaryRepository, never()).save(any());
+    }
+
+    @Test
+    void removeInstitution_DropsEntryGoalLinksAndTransactions() {
+        String otherId = UUID.randomUUID().toString();
+        UserSummary summary = summary(institution(INSTITUTION_ID, 100.0, 50), institution(otherId, 40.0, 0));
+        summary.getGoals().add(goalEntry(GOAL_ID, 500.0, Map.of(INSTITUTION_ID, 50)));
+        summary.getRecentTransactions().add(transactionEntry(UUID.randomUUID().toString(), 1L));
+        when(userSummaryRepository.findByUserId(USER_ID)).thenReturn(summary);
+
+        dashboardService.removeInstitution(USER_ID, INSTITUTION_ID);
+
+        UserSummary saved = savedSummary();
+        assertThat(saved.getInstitutions()).extracting(UserSummary.InstitutionEntry::getInstitutionId)
+            .containsExactly(otherId);
+        assertThat(saved.getGoals().get(0).getLinkedInstitutions()).isEmpty();
+        assertThat(saved.getRecentTransactions()).isEmpty();
+        assertThat(saved.getTotalBalance()).isEqualTo(40.0);
+    }
+
+    @Test
+    void recordGoal_ConflictOnce_RereadsAndRetries() {
+        when(userSummaryRepository.findByUserId(USER_ID))
+            .thenReturn(summary(institution(INSTITUTION_ID, 100.0, 0)))
+            .thenReturn(summary(institution(INSTITUTION_ID, 100.0, 0)));
+        doThrow(ConditionalCheckFailedException.builder().message("stale").build())
+            .doNothing()
+            .when(userSummaryRepository).save(any(UserSummary.class));
+        Goal goal = new Goal();
+        goal.setUserId(USER_ID);
+        goal.setGoalId(GOAL_ID);
+        goal.setName("Trip");
+        goal.setTargetAmount(300.0);
+        goal.setLinkedInstitutions(Map.of(INSTITUTION_ID, 30));
+
+        dashboardService.recordGoal(goal, List.of(institution(INSTITUTION_ID, 100.0, 30)));
+
+        verify(userSummaryRepository, times(2)).findByUserId(USER_ID);
+        UserSummary saved = savedSummary(2);
+        assertThat(saved.getGoals()).extracting(UserSummary.GoalEntry::getGoalId).containsExactly(GOAL_ID);
+        assertThat(saved.getInstitutions().get(0).getAllocatedPercent()).isEqualTo(30);
+        verify(userSummaryRepository, never()).delete(anyString());
+    }
+
+    @Test
+    void removeGoal_StoreFails_InvalidatesSummaryWithoutFailingCaller() {
+        UserSummary summary = summary(institution(INSTITUTION_ID, 100.0, 30));
+        summary.getGoals().add(goalEntry(GOAL_ID, 300.0, Map.of(INSTITUTION_ID, 30)));
+        when(userSummaryRepository.findByUserId(USER_ID)).thenReturn(summary);
+        doThrow(new RuntimeException("boom")).when(userSummaryRepository).save(any(UserSummary.class));
+
+        dashboardService.removeGoal(USER_ID, GOAL_ID, List.of(institution(INSTITUTION_ID, 100.0, 0)));
+
+        verify(userSummaryRepository).delete(USER_ID);
+    }
+
+    @Test
+    void deleteSummary_DeleteFails_DoesNotThrow() {
+        doThrow(new RuntimeException("boom")).when(userSummaryRepository).delete(USER_ID);
+
+        dashboardService.deleteSummary(USER_ID);
+
+        verify(userSummaryRepository).delete(USER_ID);
+    }
+
+    private UserSummary savedSummary() {
+        return savedSummary(1);
+    }
+
+    private UserSummary savedSummary(int times) {
+        ArgumentCaptor<UserSummary> captor = ArgumentCaptor.forClass(UserSummary.class);
+        verify(userSummaryRepository, times(times)).save(captor.capture());
+        return captor.getValue();
+    }
+
+    private UserSummary summary(Institution... institutions) {
+        UserSummary summary = new UserSummary();
+        summary.setUserId(USER_ID);
+        summary.setVersion(3L);
+        double total = 0.0;
+        for (Institution institution : institutions) {
+            UserSummary.InstitutionEntry entry = new UserSummary.InstitutionEntry();
+            entry.setInstitutionId(institution.getInstitutionId());
+            entry.setInstitutionName(institution.getInstitutionName());
+            entry.setCurrentBalance(institution.getCurrentBalance());
+            entry.setAllocatedPercent(institution.getAllocatedPercent());
+            summary.getInstitutions().add(entry);
+            total += institution.getCurrentBalance();
+        }
+        summary.setTotalBalance(total);
+        return summary;
+    }
+
+    private Institution institution(String institutionId, double balance, int allocatedPercent) {
+        Institution institution = new Institution();
+        institution.setUserId(USER_ID);
+        institution.setInstitutionId(institutionId);
+        institution.setInstitutionName("Bank");
+        institution.setStartingBalance(balance);
+        institution.setCurrentBalance(balance);
+        institution.setAllocatedPercent(allocatedPercent);
+        return institution;
+    }
+
+    private UserSummary.GoalEntry goalEntry(String goalId, double targetAmount, Map<String, Integer> links) {
+        UserSummary.GoalEntry entry = new UserSummary.GoalEntry();
+        entry.setGoalId(goalId);
+        entry.setName("Goal");
+        entry.setTargetAmount(targetAmount);
+        entry.setLinkedInstitutions(new HashMap<>(links));
+        return entry;
+    }
+
+    private Transaction transaction(String transactionId, long createdAt) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(transactionId);
+        transaction.setInstitutionId(INSTITUTION_ID);
+        transaction.setUserId(USER_ID);
+        transaction.setType("DEPOSIT");
+        transaction.setAmount(10.0);
+        transaction.setTags(new ArrayList<>());
+        transaction.setTransactionDate(createdAt);
+        transaction.setCreatedAt(createdAt);
+        return transaction;
+    }
+
+    private UserSummary.TransactionEntry transactionEntry(String transactionId, long createdAt) {
+        UserSummary.TransactionEntry entry = new UserSummary.TransactionEntry();
+        entry.setTransactionId(transactionId);
+        entry.setInstitutionId(INSTITUTION_ID);
+        entry.setType("DEPOSIT");
+        entry.setAmount(10.0);
+        entry.setTransactionDate(createdAt);
+        entry.setCreatedAt(createdAt);
+        return entry;
+    }
+}
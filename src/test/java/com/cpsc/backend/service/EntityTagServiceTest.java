@@ -0,0 +1,84 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.repository.ChangeLogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EntityTagServiceTest {
+
+    private static final String USER_ID = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
+
+    @Mock
+    private ChangeLogRepository changeLogRepository;
+
+    private EntityTagService entityTagService;
+
+    @BeforeEach
+    void setUp() {
+        entityTagService = new EntityTagService(changeLogRepository);
+    }
+
+    @Test
+    void listTag_ChangesWithVersion() {
+        when(changeLogRepository.findLastSequence(USER_ID)).thenReturn(4L, 5L);
+
+        String before = entityTagService.listTag(USER_ID, "goals");
+        String after = entityTagService.listTag(USER_ID, "goals");
+
+        assertThat(before).startsWith("\"4-").endsWith("\"");
+        assertThat(after).startsWith("\"5-");
+        assertThat(after).isNotEqualTo(before);
+    }
+
+    @Test
+    void listTag_DiffersPerListAndParameters() {
+        when(changeLogRepository.findLastSequence(USER_ID)).thenReturn(4L);
+
+        String firstPage = entityTagService.listTag(USER_ID, "institutions", 10, null);
+
+        assertThat(entityTagService.listTag(USER_ID, "institutions", 10, null)).isEqualTo(firstPage);
+        assertThat(entityTagService.listTag(USER_ID, "institutions", 10, "token-1")).isNotEqualTo(firstPage);
+        assertThat(entityTagService.listTag(USER_ID, "transactions", 10, null)).isNotEqualTo(firstPage);
+    }
+
+    @Test
+    void listTag_VersionReadFails_ReturnsNull() {
+        when(changeLogRepository.findLastSequence(USER_ID))
+            .thenThrow(ResourceNotFoundException.builder().message("no table").build());
+
+        assertThat(entityTagService.listTag(USER_ID, "goals")).isNull();
+    }
+
+    @Test
+    void listTag_NullUserId_ThrowsException() {
+        assertThatThrownBy(() -> entityTagService.listTag(null, "goals"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("User ID cannot be null or empty");
+    }
+
+    @Test
+    void matches_ComparesWeaklyAgainstEveryListedTag() {
+        String tag = "\"5-1a2b\"";
+
+        assertThat(entityTagService.matches(tag, tag)).isTrue();
+        assertThat(entityTagService.matches("W/" + tag, tag)).isTrue();
+        assertThat(entityTagService.matches("\"4-1a2b\", " + tag, tag)).isTrue();
+        assertThat(entityTagService.matches("*", tag)).isTrue();
+        assertThat(entityTagService.matches("\"4-1a2b\"", tag)).isFalse();
+    }
+
+    @Test
+    void matches_MissingHeaderOrTag_ReturnsFalse() {
+        assertThat(entityTagService.matches(null, "\"5-1a2b\"")).isFalse();
+        assertThat(entityTagService.matches("*", null)).isFalse();
+    }
+}
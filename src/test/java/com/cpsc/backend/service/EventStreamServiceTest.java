@@ -0,0 +1,244 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.entity.Goal;
+import com.cpsc.backend.entity.Institution;
+import com.cpsc.backend.model.BalanceChangedEvent;
+import com.cpsc.backend.model.GoalCompletedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Streams are {@link RecordingEmitter}s, which keep what would have been written to the response
+ */
+class EventStreamServiceTest {
+
+    private static final String USER_ID = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
+    private static final String OTHER_USER_ID = "4d036e81-7e9e-4f6a-8e3d-3e97a6f1c039";
+    private static final String INSTITUTION_ID = "550e8400-e29b-41d4-a716-446655440000";
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    private EventStreamService eventStreamService;
+
+    @AfterEach
+    void tearDown() {
+        if (eventStreamService != null) {
+            eventStreamService.shutdown();
+        }
+    }
+
+    @Test
+    void publishBalanceChanged_DeliversToEveryStreamOfUser() throws InterruptedException {
+        eventStreamService = createService(HOUR);
+        RecordingEmitter first = subscribe(USER_ID);
+        RecordingEmitter second = subscribe(USER_ID);
+        RecordingEmitter other = subscribe(OTHER_USER_ID);
+
+        eventStreamService.publishBalanceChanged(createInstitution(150.0));
+
+        for (RecordingEmitter emitter : List.of(first, second)) {
+            assertThat(emitter.awaitSends(2)).isTrue();
+            assertThat(emitter.data(1)).isInstanceOf(BalanceChangedEvent.class);
+            assertThat(((BalanceChangedEvent) emitter.data(1)).getCurrentBalance()).isEqualTo(150.0);
+            assertThat(emitter.text(1)).startsWith("event:" + EventStreamService.BALANCE_CHANGED);
+        }
+        assertThat(other.awaitSends(1)).isTrue();
+        assertThat(other.sent).hasSize(1); // only the connected comment
+    }
+
+    @Test
+    void publishGoalCompleted_SendsGoal() throws InterruptedException {
+        eventStreamService = createService(HOUR);
+        RecordingEmitter emitter = subscribe(USER_ID);
+        Goal goal = new Goal();
+        goal.setUserId(USER_ID);
+        goal.setGoalId("770e8400-e29b-41d4-a716-446655440000");
+        goal.setName("Emergency Fund");
+        goal.setTargetAmount(1000.0);
+
+        eventStreamService.publishGoalCompleted(goal);
+
+        assertThat(emitter.awaitSends(2)).isTrue();
+        assertThat(emitter.text(1)).startsWith("event:" + EventStreamService.GOAL_COMPLETED);
+        assertThat(((GoalCompletedEvent) emitter.data(1)).getName()).isEqualTo("Emergency Fund");
+    }
+
+    @Test
+    void publish_DeliversInPublishOrder() throws InterruptedException {
+        eventStreamService = createService(HOUR);
+        RecordingEmitter emitter = subscribe(USER_ID);
+
+        for (int i = 0; i < 20; i++) {
+            eventStreamService.publishBalanceChanged(createInstitution(i));
+        }
+
+        assertThat(emitter.awaitSends(21)).isTrue();
+        List<Double> balances = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            balances.add(((BalanceChangedEvent) emitter.data(i)).getCurrentBalance());
+        }
+        assertThat(balances).isSorted().hasSize(20);
+    }
+
+    @Test
+    void publish_NoStreams_DoesNothing() {
+        eventStreamService = createService(HOUR);
+        Institution institution = createInstitution(100.0);
+        institution.setInstitutionId(null); // would fail if an event were built
+
+        eventStreamService.publishBalanceChanged(institution);
+
+        assertThat(eventStreamService.streamCount(USER_ID)).isZero();
+    }
+
+    @Test
+    void publish_ClientGone_ClosesStream() throws InterruptedException {
+        eventStreamService = createService(HOUR);
+        RecordingEmitter emitter = subscribe(USER_ID);
+        assertThat(emitter.awaitSends(1)).isTrue();
+        emitter.failure = new IOException("Broken pipe");
+
+        eventStreamService.publishBalanceChanged(createInstitution(100.0));
+
+        assertThat(awaitStreamCount(USER_ID, 0)).isTrue();
+    }
+
+    @Test
+    void publish_StreamTooFarBehind_ClosesStream() throws InterruptedException {
+        eventStreamService = createService(HOUR);
+        RecordingEmitter emitter = subscribe(USER_ID);
+        emitter.blocked = new CountDownLatch(1);
+
+        for (int i = 0; i <= EventStreamService.MAX_PENDING_EVENTS + 1; i++) {
+            eventStreamService.publishBalanceChanged(createInstitution(i));
+        }
+
+        assertThat(eventStreamService.streamCount(USER_ID)).isZero();
+        assertThat(emitter.completed).isTrue();
+        emitter.blocked.countDown();
+    }
+
+    @Test
+    void heartbeat_SentToIdleStreams() throws InterruptedException {
+        eventStreamService = createService(Duration.ofMillis(20));
+        RecordingEmitter emitter = subscribe(USER_ID);
+
+        assertThat(emitter.awaitSends(2)).isTrue();
+        assertThat(emitter.text(1)).isEqualTo(":keep-alive\n\n");
+    }
+
+    @Test
+    void subscribe_NullUserId_ThrowsException() {
+        eventStreamService = createService(HOUR);
+
+        assertThatThrownBy(() -> eventStreamService.subscribe(null))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("User ID cannot be null or empty");
+    }
+
+    private EventStreamService createService(Duration heartbeatInterval) {
+        return new EventStreamService(HOUR, heartbeatInterval, new SimpleMeterRegistry()) {
+            @Override
+            SseEmitter createEmitter(long timeoutMillis) {
+                return new RecordingEmitter();
+            }
+        };
+    }
+
+    private RecordingEmitter subscribe(String userId) {
+        return (RecordingEmitter) eventStreamService.subscribe(userId);
+    }
+
+    private boolean awaitStreamCount(String userId, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (eventStreamService.streamCount(userId) != count) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    private static Institution createInstitution(double balance) {
+        Institution institution = new Institution();
+        institution.setUserId(USER_ID);
+        institution.setInstitutionId(INSTITUTION_ID);
+        institution.setInstitutionName("Chase Bank");
+        institution.setCurrentBalance(balance);
+        return institution;
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<List<DataWithMediaType>> sent = new CopyOnWriteArrayList<>();
+        private volatile IOException failure;
+        private volatile CountDownLatch blocked;
+        private volatile boolean completed;
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            if (failure != null) {
+                throw failure;
+            }
+            if (blocked != null) {
+                try {
+                    blocked.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sent.add(List.copyOf(items));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        boolean awaitSends(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (sent.size() < count) {
+                if (System.nanoTime() > deadline) {
+                    return false;
+                }
+                Thread.sleep(5);
+            }
+            return true;
+        }
+
+        /** The event's text parts, concatenated */
+        String text(int index) {
+            StringBuilder text = new StringBuilder();
+            for (DataWithMediaType item : sent.get(index)) {
+                if (item.getData() instanceof String part) {
+                    text.append(part);
+                }
+            }
+            return text.toString();
+        }
+
+        /** The event's data object */
+        Object data(int index) {
+            return sent.get(index).stream()
+                .map(DataWithMediaType::getData)
+                .filter(data -> !(data instanceof String))
+                .findFirst()
+                .orElse(null);
+        }
+    }
+}
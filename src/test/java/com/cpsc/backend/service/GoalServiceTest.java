@@ -2,10 +2,13 @@ package com.cpsc.backend.service;
 
 import com.cpsc.backend.entity.Goal;
 import com.cpsc.backend.entity.Institution;
+import com.cpsc.backend.exception.ConcurrentUpdateException;
 import com.cpsc.backend.exception.InvalidInstitutionDataException;
 import com.cpsc.backend.model.CreateGoalRequest;
 import com.cpsc.backend.model.EditGoalRequest;
 import com.cpsc.backend.model.GoalResponse;
+import com.cpsc.backend.repository.EntityWrite;
+import com.cpsc.backend.repository.EntityWriteRepository;
 import com.cpsc.backend.repository.GoalRepository;
 import com.cpsc.backend.repository.InstitutionRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,15 +17,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -36,13 +44,26 @@ class GoalServiceTest {
     @Mock
     private InstitutionRepository institutionRepository;
 
+    @Mock
+    private EntityWriteRepository entityWriteRepository;
+
+    @Mock
+    private DashboardService dashboardService;
+
+    @Mock
+    private ChangeLogService changeLogService;
+
+    @Mock
+    private EventStreamService eventStreamService;
+
     private GoalService goalService;
 
     private CreateGoalRequest validRequest;
 
     @BeforeEach
     void setUp() {
-        goalService = new GoalService(goalRepository, institutionRepository);
+        goalService = new GoalService(goalRepository, institutionRepository, entityWriteRepository, dashboardService,
+            changeLogService, eventStreamService);
         
         validRequest = new CreateGoalRequest();
         validRequest.setName("Emergency Fund");
@@ -58,9 +79,7 @@ class GoalServiceTest {
         String userId = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
         Institution institution = createInstitution("550e8400-e29b-41d4-a716-446655440000", 0);
         
-        when(institutionRepository.findByUserIdAndInstitutionId(userId, "550e8400-e29b-41d4-a716-446655440000")).thenReturn(institution);
-        doNothing().when(institutionRepository).save(any(Institution.class));
-        doNothing().when(goalRepository).save(any(Goal.class));
+        stubInstitutions(userId, institution);
 
         GoalResponse response = goalService.createGoal(userId, validRequest);
 
@@ -70,8 +89,7 @@ class GoalServiceTest {
         assertThat(response.getDescription()).isEqualTo("Save 6 months of expenses");
         assertThat(response.getLinkedInstitutions()).containsEntry("550e8400-e29b-41d4-a716-446655440000", 50);
         
-        verify(institutionRepository).save(any(Institution.class));
-        verify(goalRepository).save(any(Goal.class));
+        assertThat(savedInstitutions()).hasSize(1);
     }
 
     @Test
@@ -79,16 +97,11 @@ class GoalServiceTest {
         String userId = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
         Institution institution = createInstitution("550e8400-e29b-41d4-a716-446655440000", 25);
         
-        when(institutionRepository.findByUserIdAndInstitutionId(userId, "550e8400-e29b-41d4-a716-446655440000")).thenReturn(institution);
-        doNothing().when(institutionRepository).save(any(Institution.class));
-        doNothing().when(goalRepository).save(any(Goal.class));
+        stubInstitutions(userId, institution);
 
         goalService.createGoal(userId, validRequest);
 
-        ArgumentCaptor<Institution> institutionCaptor = ArgumentCaptor.forClass(Institution.class);
-        verify(institutionRepository).save(institutionCaptor.capture());
-        
-        Institution savedInstitution = institutionCaptor.getValue();
+        Institution savedInstitution = savedInstitutions().get(0);
         assertThat(savedInstitution.getAllocatedPercent()).isEqualTo(75); // 25 + 50
     }
 
@@ -103,15 +116,11 @@ class GoalServiceTest {
         Institution institution1 = createInstitution("550e8400-e29b-41d4-a716-446655440001", 10);
         Institution institution2 = createInstitution("550e8400-e29b-41d4-a716-446655440002", 20);
         
-        when(institutionRepository.findByUserIdAndInstitutionId(userId, "550e8400-e29b-41d4-a716-446655440001")).thenReturn(institution1);
-        when(institutionRepository.findByUserIdAndInstitutionId(userId, "550e8400-e29b-41d4-a716-446655440002")).thenReturn(institution2);
-        doNothing().when(institutionRepository).save(any(Institution.class));
-        doNothing().when(goalRepository).save(any(Goal.class));
+        stubInstitutions(userId, institution1, institution2);
 
         goalService.createGoal(userId, validRequest);
 
-        verify(institutionRepository, times(2)).save(any(Institution.class));
-        verify(goalRepository).save(any(Goal.class));
+        assertThat(savedInstitutions()).hasSize(2);
     }
 
     @Test
@@ -208,7 +217,7 @@ class GoalServiceTest {
     void createGoal_InstitutionNotFound_ThrowsException() {
         String userId = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
         
-        when(institutionRepository.findByUserIdAndInstitutionId(userId, "550e8400-e29b-41d4-a716-446655440000")).thenReturn(null);
+        stubInstitutions(userId);
 
         assertThatThrownBy(() -> goalService.createGoal(userId, validRequest))
                 .isInstanceOf(com.cpsc.backend.exception.InstitutionNotFoundException.class)
@@ -220,7 +229,7 @@ class GoalServiceTest {
         String userId = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
         
         // Repository returns null when institution doesn't belong to user
-        when(institutionRepository.findByUserIdAndInstitutionId(userId, "550e8400-e29b-41d4-a716-446655440000")).thenReturn(null);
+        stubInstitutions(userId);
 
         assertThatThrownBy(() -> goalService.createGoal(userId, validRequest))
                 .isInstanceOf(com.cpsc.backend.exception.InstitutionNotFoundException.class)
@@ -233,7 +242,7 @@ class GoalServiceTest {
         Institution institution = createInstitution("550e8400-e29b-41d4-a716-446655440000", 60); // Already has 60%
         
         // Request tries to allocate 50% more (total would be 110%)
-        when(institutionRepository.findByUserIdAndInstitutionId(userId, "550e8400-e29b-41d4-a716-446655440000")).thenReturn(institution);
+        stubInstitutions(userId, institution);
 
         assertThatThrownBy(() -> goalService.createGoal(userId, validRequest))
                 .isInstanceOf(InvalidInstitutionDataException.class)
@@ -248,17 +257,13 @@ class GoalServiceTest {
         String userId = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
         Institution institution = createInstitution("550e8400-e29b-41d4-a716-446655440000", 50);
         
-        when(institutionRepository.findByUserIdAndInstitutionId(userId, "550e8400-e29b-41d4-a716-446655440000")).thenReturn(institution);
-        doNothing().when(institutionRepository).save(any(Institution.class));
-        doNothing().when(goalRepository).save(any(Goal.class));
+        stubInstitutions(userId, institution);
 
         GoalResponse response = goalService.createGoal(userId, validRequest);
 
         assertThat(response).isNotNull();
         
-        ArgumentCaptor<Institution> captor = ArgumentCaptor.forClass(Institution.class);
-        verify(institutionRepository).save(captor.capture());
-        assertThat(captor.getValue().getAllocatedPercent()).isEqualTo(100); // 50 + 50
+        assertThat(savedInstitutions().get(0).getAllocatedPercent()).isEqualTo(100); // 50 + 50
     }
 
     @Test
@@ -290,6 +295,218 @@ class GoalServiceTest {
                 .hasMessage("User ID cannot be null or empty");
     }
 
+    @Test
+    void createGoal_ReadsInstitutionsInOneBatchAndWritesOnce() {
+        String userId = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
+        Map<String, Integer> linkedInstitutions = new HashMap<>();
+        for (int i = 0; i < 5; i++) {
+            linkedInstitutions.put("550e8400-e29b-41d4-a716-44665544000" + i, 10);
+        }
+        validRequest.setLinkedInstitutions(linkedInstitutions);
+        Institution[] institutions = linkedInstitutions.keySet().stream()
+            .map(id -> createInstitution(id, 0))
+            .toArray(Institution[]::new);
+        stubInstitutions(userId, institutions);
+
+        goalService.createGoal(userId, validRequest);
+
+        verify(institutionRepository).findAllByUserIdAndInstitutionIds(eq(userId), anyCollection());
+        verify(institutionRepository, never()).findByUserIdAndInstitutionId(anyString(), anyString());
+        verify(institutionRepository, never()).save(any(Institution.class));
+        verify(goalRepository, never()).save(any(Goal.class));
+        assertThat(savedInstitutions()).hasSize(5);
+    }
+
+    @Test
+    void createGoal_TransactionCanceled_Propagates() {
+        String userId = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
+        stubInstitutions(userId, createInstitution("550e8400-e29b-41d4-a716-446655440000", 0));
+        doThrow(TransactionCanceledException.builder().message("Transaction cancelled").build())
+            .when(entityWriteRepository).write(any(EntityWrite.class));
+
+        assertThatThrownBy(() -> goalService.createGoal(userId, validRequest))
+                .isInstanceOf(TransactionCanceledException.class);
+    }
+
+    @Test
+    void createGoal_VersionConflict_RevalidatesAgainstFreshInstitutions() {
+        String userId = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
+        String institutionId = "550e8400-e29b-41d4-a716-446655440000";
+        Institution stale = createInstitution(institutionId, 0);
+        // Another goal took 30% between our read and our write
+        Institution fresh = createInstitution(institutionId, 30);
+        when(institutionRepository.findAllByUserIdAndInstitutionIds(eq(userId), anyCollection()))
+            .thenReturn(Map.of(institutionId, stale), Map.of(institutionId, fresh));
+        doThrow(conflict())
+            .doNothing()
+            .when(entityWriteRepository).write(any(EntityWrite.class));
+
+        goalService.createGoal(userId, validRequest);
+
+        Institution written = writes(2).get(1).getInstitutions().get(0);
+        assertThat(written).isSameAs(fresh);
+        assertThat(written.getAllocatedPercent()).isEqualTo(80);
+    }
+
+    @Test
+    void createGoal_VersionConflict_FailsValidationIfAllocationNoLongerFits() {
+        String userId = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
+        String institutionId = "550e8400-e29b-41d4-a716-446655440000";
+        when(institutionRepository.findAllByUserIdAndInstitutionIds(eq(userId), anyCollection()))
+            .thenReturn(Map.of(institutionId, createInstitution(institutionId, 0)),
+                Map.of(institutionId, createInstitution(institutionId, 70)));
+        doThrow(conflict())
+            .when(entityWriteRepository).write(any(EntityWrite.class));
+
+        assertThatThrownBy(() -> goalService.createGoal(userId, validRequest))
+                .isInstanceOf(InvalidInstitutionDataException.class)
+                .hasMessageContaining("insufficient allocation");
+    }
+
+    @Test
+    void editGoal_PersistentConflict_ThrowsConcurrentUpdateException() {
+        String userId = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
+        String goalId = "770e8400-e29b-41d4-a716-446655440000";
+        when(goalRepository.findByUserIdAndGoalId(userId, goalId))
+            .thenAnswer(invocation -> createGoal(goalId, "Original Goal"));
+        doThrow(conflict())
+            .when(entityWriteRepository).write(any(EntityWrite.class));
+
+        EditGoalRequest editRequest = new EditGoalRequest();
+        editRequest.setName("Renamed Goal");
+        editRequest.setLinkedInstitutions(null);
+
+        assertThatThrownBy(() -> goalService.editGoal(userId, goalId, editRequest))
+                .isInstanceOf(ConcurrentUpdateException.class);
+        verify(goalRepository, times(OptimisticLocking.MAX_ATTEMPTS)).findByUserIdAndGoalId(userId, goalId);
+    }
+
+    @Test
+    void updateGoalCompletionForInstitution_GoalConflict_RereadsGoal() {
+        String userId = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
+        String goalId = "770e8400-e29b-41d4-a716-446655440000";
+        String institutionId = "550e8400-e29b-41d4-a716-446655440001";
+        Institution institution = createInstitution(institutionId, 50);
+        institution.setCurrentBalance(30000.0);
+        institution.setLinkedGoals(List.of(goalId));
+        Goal stale = createGoal(goalId, "Goal");
+        stale.setTargetAmount(10000.0);
+        Goal fresh = createGoal(goalId, "Renamed Goal");
+        fresh.setTargetAmount(10000.0);
+        when(goalRepository.findByUserIdAndGoalId(userId, goalId)).thenReturn(stale, fresh);
+        doThrow(conflict())
+            .doNothing()
+            .when(entityWriteRepository).write(any(EntityWrite.class));
+
+        goalService.updateGoalCompletionForInstitution(userId, institutionId, institution);
+
+        List<EntityWrite> writes = writes(2);
+        assertThat(writes.get(0).getGoals()).containsExactly(stale);
+        assertThat(writes.get(1).getGoals()).containsExactly(fresh);
+        verify(changeLogService).recordGoal(writes.get(1), fresh, List.of());
+        verify(eventStreamService).publishGoalCompleted(fresh);
+        verify(eventStreamService, never()).publishGoalCompleted(stale);
+        assertThat(fresh.getIsCompleted()).isTrue();
+        assertThat(fresh.getName()).isEqualTo("Renamed Goal");
+    }
+
+    @Test
+    void createGoal_TooManyInstitutions_ThrowsException() {
+        Map<String, Integer> linkedInstitutions = new HashMap<>();
+        for (int i = 0; i <= GoalService.MAX_INSTITUTIONS_PER_WRITE; i++) {
+            linkedInstitutions.put("inst-" + i, 0);
+        }
+        validRequest.setLinkedInstitutions(linkedInstitutions);
+
+        assertThatThrownBy(() -> goalService.createGoal("3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28", validRequest))
+                .isInstanceOf(InvalidInstitutionDataException.class)
+                .hasMessageContaining("cannot be linked to more than");
+        verifyNoInteractions(institutionRepository, entityWriteRepository);
+    }
+
+    @Test
+    void editGoal_NameOnly_SavesGoalWithoutTouchingInstitutions() {
+        String userId = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
+        String goalId = "770e8400-e29b-41d4-a716-446655440000";
+        Goal existingGoal = createGoal(goalId, "Original Goal");
+        existingGoal.setTargetAmount(10000.0);
+        when(goalRepository.findByUserIdAndGoalId(userId, goalId)).thenReturn(existingGoal);
+
+        EditGoalRequest editRequest = new EditGoalRequest();
+        editRequest.setName("Renamed Goal");
+        editRequest.setLinkedInstitutions(null);
+        goalService.editGoal(userId, goalId, editRequest);
+
+        EntityWrite write = writes(1).get(0);
+        assertThat(write.getGoals()).containsExactly(existingGoal);
+        assertThat(write.getInstitutions()).isEmpty();
+        verify(changeLogService).recordGoal(write, existingGoal, List.of());
+        verifyNoInteractions(institutionRepository);
+    }
+
+    @Test
+    void editGoal_AllocationOutOfRange_WritesNothing() {
+        String userId = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
+        String goalId = "770e8400-e29b-41d4-a716-446655440000";
+        
+        // Goal moves from inst-1 to inst-2, but inst-2 is already 90% allocated
+        Goal existingGoal = createGoal(goalId, "Original Goal");
+        existingGoal.setTargetAmount(10000.0);
+        existingGoal.setLinkedInstitutions(new HashMap<>(Map.of("550e8400-e29b-41d4-a716-446655440000", 50)));
+        Institution inst1 = createInstitution("550e8400-e29b-41d4-a716-446655440000", 50);
+        inst1.setLinkedGoals(new ArrayList<>(List.of(goalId)));
+        Institution inst2 = createInstitution("660e8400-e29b-41d4-a716-446655440000", 90);
+        
+        EditGoalRequest editRequest = new EditGoalRequest();
+        editRequest.setLinkedInstitutions(Map.of("660e8400-e29b-41d4-a716-446655440000", 20));
+        
+        when(goalRepository.findByUserIdAndGoalId(userId, goalId)).thenReturn(existingGoal);
+        stubInstitutions(userId, inst1, inst2);
+
+        assertThatThrownBy(() -> goalService.editGoal(userId, goalId, editRequest))
+                .isInstanceOf(InvalidInstitutionDataException.class)
+                .hasMessageContaining("exceeds the allowed range");
+        
+        // The allocation already released from inst-1 must not have been persisted
+        verify(institutionRepository, never()).save(any(Institution.class));
+        verify(goalRepository, never()).save(any(Goal.class));
+        verifyNoInteractions(entityWriteRepository);
+    }
+
+    private void stubInstitutions(String userId, Institution... institutions) {
+        Map<String, Institution> found = new HashMap<>();
+        for (Institution institution : institutions) {
+            found.put(institution.getInstitutionId(), institution);
+        }
+        when(institutionRepository.findAllByUserIdAndInstitutionIds(eq(userId), anyCollection())).thenReturn(found);
+    }
+
+    private List<Institution> savedInstitutions() {
+        EntityWrite write = writes(1).get(0);
+        assertThat(write.getGoals()).hasSize(1);
+        return write.getInstitutions();
+    }
+
+    /** The writes handed to the repository, in order */
+    private List<EntityWrite> writes(int count) {
+        ArgumentCaptor<EntityWrite> captor = ArgumentCaptor.forClass(EntityWrite.class);
+        verify(entityWriteRepository, times(count)).write(captor.capture());
+        return captor.getAllValues();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<Collection<Institution>> institutionsCaptor() {
+        return ArgumentCaptor.forClass(Collection.class);
+    }
+
+    private static TransactionCanceledException conflict() {
+        return TransactionCanceledException.builder()
+            .message("Transaction cancelled")
+            .cancellationReasons(CancellationReason.builder().code("None").build(),
+                CancellationReason.builder().code("ConditionalCheckFailed").build())
+            .build();
+    }
+
     private Institution createInstitution(String institutionId, Integer allocatedPercent) {
         Institution institution = new Institution();
         institution.setUserId("3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28");
@@ -349,17 +566,13 @@ class GoalServiceTest {
         editRequest.setLinkedInstitutions(newLinkedInstitutions);
         
         when(goalRepository.findByUserIdAndGoalId(userId, goalId)).thenReturn(existingGoal);
-        when(institutionRepository.findByUserIdAndInstitutionId(userId, "550e8400-e29b-41d4-a716-446655440000")).thenReturn(inst1);
-        when(institutionRepository.findByUserIdAndInstitutionId(userId, "660e8400-e29b-41d4-a716-446655440000")).thenReturn(inst2);
+        stubInstitutions(userId, inst1, inst2);
         
         // Act
         goalService.editGoal(userId, goalId, editRequest);
         
         // Assert - inst-2 should have allocation reduced and goal removed
-        ArgumentCaptor<Institution> institutionCaptor = ArgumentCaptor.forClass(Institution.class);
-        verify(institutionRepository, atLeastOnce()).save(institutionCaptor.capture());
-        
-        List<Institution> savedInstitutions = institutionCaptor.getAllValues();
+        List<Institution> savedInstitutions = savedInstitutions();
         Institution savedInst2 = savedInstitutions.stream()
             .filter(i -> i.getInstitutionId().equals("660e8400-e29b-41d4-a716-446655440000"))
             .findFirst()
@@ -402,17 +615,13 @@ class GoalServiceTest {
         editRequest.setLinkedInstitutions(newLinkedInstitutions);
         
         when(goalRepository.findByUserIdAndGoalId(userId, goalId)).thenReturn(existingGoal);
-        when(institutionRepository.findByUserIdAndInstitutionId(userId, "550e8400-e29b-41d4-a716-446655440000")).thenReturn(inst1);
-        when(institutionRepository.findByUserIdAndInstitutionId(userId, "660e8400-e29b-41d4-a716-446655440000")).thenReturn(inst2);
+        stubInstitutions(userId, inst1, inst2);
         
         // Act
         goalService.editGoal(userId, goalId, editRequest);
         
         // Assert - inst-2 should have allocation increased and goal added
-        ArgumentCaptor<Institution> institutionCaptor = ArgumentCaptor.forClass(Institution.class);
-        verify(institutionRepository, atLeastOnce()).save(institutionCaptor.capture());
-        
-        List<Institution> savedInstitutions = institutionCaptor.getAllValues();
+        List<Institution> savedInstitutions = savedInstitutions();
         Institution savedInst2 = savedInstitutions.stream()
             .filter(i -> i.getInstitutionId().equals("660e8400-e29b-41d4-a716-446655440000"))
             .findFirst()
@@ -450,16 +659,13 @@ class GoalServiceTest {
         editRequest.setLinkedInstitutions(newLinkedInstitutions);
         
         when(goalRepository.findByUserIdAndGoalId(userId, goalId)).thenReturn(existingGoal);
-        when(institutionRepository.findByUserIdAndInstitutionId(userId, "550e8400-e29b-41d4-a716-446655440000")).thenReturn(inst1);
+        stubInstitutions(userId, inst1);
         
         // Act
         goalService.editGoal(userId, goalId, editRequest);
         
         // Assert - inst-1 should have allocation increased by 25 (75 - 50)
-        ArgumentCaptor<Institution> institutionCaptor = ArgumentCaptor.forClass(Institution.class);
-        verify(institutionRepository, atLeastOnce()).save(institutionCaptor.capture());
-        
-        List<Institution> savedInstitutions = institutionCaptor.getAllValues();
+        List<Institution> savedInstitutions = savedInstitutions();
         Institution savedInst1 = savedInstitutions.stream()
             .filter(i -> i.getInstitutionId().equals("550e8400-e29b-41d4-a716-446655440000"))
             .findFirst()
@@ -501,17 +707,13 @@ class GoalServiceTest {
         editRequest.setLinkedInstitutions(newLinkedInstitutions);
         
         when(goalRepository.findByUserIdAndGoalId(userId, goalId)).thenReturn(existingGoal);
-        when(institutionRepository.findByUserIdAndInstitutionId(userId, "550e8400-e29b-41d4-a716-446655440000")).thenReturn(inst1);
-        when(institutionRepository.findByUserIdAndInstitutionId(userId, "660e8400-e29b-41d4-a716-446655440000")).thenReturn(inst2);
+        stubInstitutions(userId, inst1, inst2);
         
         // Act
         goalService.editGoal(userId, goalId, editRequest);
         
         // Assert - both institutions should be updated
-        ArgumentCaptor<Institution> institutionCaptor = ArgumentCaptor.forClass(Institution.class);
-        verify(institutionRepository, atLeastOnce()).save(institutionCaptor.capture());
-        
-        List<Institution> savedInstitutions = institutionCaptor.getAllValues();
+        List<Institution> savedInstitutions = savedInstitutions();
         
         // inst-1 should have allocation removed and goal removed
         Institution savedInst1 = savedInstitutions.stream()
@@ -557,17 +759,14 @@ class GoalServiceTest {
         inst2.setLinkedGoals(new ArrayList<>(List.of(goalId)));
         
         when(goalRepository.findByUserIdAndGoalId(userId, goalId)).thenReturn(goal);
-        when(institutionRepository.findByUserIdAndInstitutionId(userId, "550e8400-e29b-41d4-a716-446655440000")).thenReturn(inst1);
-        when(institutionRepository.findByUserIdAndInstitutionId(userId, "660e8400-e29b-41d4-a716-446655440000")).thenReturn(inst2);
+        stubInstitutions(userId, inst1, inst2);
         
         // Act
         goalService.deleteGoal(userId, goalId);
         
-        // Assert - both institutions should have allocations reduced and goal removed
-        ArgumentCaptor<Institution> institutionCaptor = ArgumentCaptor.forClass(Institution.class);
-        verify(institutionRepository, times(2)).save(institutionCaptor.capture());
-        
-        List<Institution> savedInstitutions = institutionCaptor.getAllValues();
+        // Assert - both institutions should have allocations reduced and goal removed, in the goal's write
+        EntityWrite write = writes(1).get(0);
+        List<Institution> savedInstitutions = write.getInstitutions();
         
         // inst1 should have allocation reduced to 0 and goal removed
         Institution savedInst1 = savedInstitutions.stream()
@@ -587,8 +786,14 @@ class GoalServiceTest {
         assertThat(savedInst2.getAllocatedPercent()).isEqualTo(0); // 30 - 30 = 0
         assertThat(savedInst2.getLinkedGoals()).doesNotContain(goalId);
         
-        // Verify goal was deleted
-        verify(goalRepository).delete(userId, goalId);
+        // Verify goal was deleted together with its tombstone
+        assertThat(write.getDeletedGoals()).containsExactly(goal);
+        verify(changeLogService).removeGoal(write, userId, goalId);
+        verify(changeLogService).recordInstitutions(write, savedInstitutions);
+        verify(goalRepository, never()).delete(anyString(), anyString());
+        ArgumentCaptor<Collection<Institution>> releasedCaptor = institutionsCaptor();
+        verify(dashboardService).removeGoal(eq(userId), eq(goalId), releasedCaptor.capture());
+        assertThat(releasedCaptor.getValue()).containsExactlyInAnyOrder(inst1, inst2);
     }
 
     @Test
@@ -613,21 +818,69 @@ class GoalServiceTest {
         inst1.setLinkedGoals(new ArrayList<>(List.of(goalId, otherGoalId)));
         
         when(goalRepository.findByUserIdAndGoalId(userId, goalId)).thenReturn(goal);
-        when(institutionRepository.findByUserIdAndInstitutionId(userId, "550e8400-e29b-41d4-a716-446655440000")).thenReturn(inst1);
+        stubInstitutions(userId, inst1);
         
         // Act
         goalService.deleteGoal(userId, goalId);
         
         // Assert - institution should have allocation reduced by 40 (70 - 40 = 30)
-        ArgumentCaptor<Institution> institutionCaptor = ArgumentCaptor.forClass(Institution.class);
-        verify(institutionRepository).save(institutionCaptor.capture());
-        
-        Institution savedInst = institutionCaptor.getValue();
+        EntityWrite write = writes(1).get(0);
+        Institution savedInst = write.getInstitutions().get(0);
         assertThat(savedInst.getAllocatedPercent()).isEqualTo(30); // 70 - 40 = 30
         assertThat(savedInst.getLinkedGoals()).doesNotContain(goalId);
         assertThat(savedInst.getLinkedGoals()).contains(otherGoalId); // Other goal still linked
         
         // Verify goal was deleted
-        verify(goalRepository).delete(userId, goalId);
+        assertThat(write.getDeletedGoals()).containsExactly(goal);
+    }
+
+    @Test
+    void deleteGoal_VersionConflict_RereadsGoalAndReleasesNewLinks() {
+        String userId = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
+        String goalId = "770e8400-e29b-41d4-a716-446655440000";
+        String firstId = "550e8400-e29b-41d4-a716-446655440000";
+        String addedId = "660e8400-e29b-41d4-a716-446655440000";
+        Goal stale = createGoal(goalId, "Goal");
+        stale.setLinkedInstitutions(new HashMap<>(Map.of(firstId, 50)));
+        // A concurrent edit linked a second institution before our delete was written
+        Goal fresh = createGoal(goalId, "Goal");
+        fresh.setLinkedInstitutions(new HashMap<>(Map.of(firstId, 50, addedId, 20)));
+        when(goalRepository.findByUserIdAndGoalId(userId, goalId)).thenReturn(stale, fresh);
+        when(institutionRepository.findAllByUserIdAndInstitutionIds(eq(userId), anyCollection()))
+            .thenAnswer(invocation -> Map.of(
+                firstId, linked(createInstitution(firstId, 50), goalId),
+                addedId, linked(createInstitution(addedId, 20), goalId)));
+        doThrow(conflict())
+            .doNothing()
+            .when(entityWriteRepository).write(any(EntityWrite.class));
+
+        goalService.deleteGoal(userId, goalId);
+
+        EntityWrite write = writes(2).get(1);
+        assertThat(write.getDeletedGoals()).containsExactly(fresh);
+        assertThat(write.getInstitutions())
+            .extracting(Institution::getInstitutionId, Institution::getAllocatedPercent)
+            .containsExactlyInAnyOrder(tuple(firstId, 0), tuple(addedId, 0));
+        verify(dashboardService).removeGoal(eq(userId), eq(goalId), eq(write.getInstitutions()));
+    }
+
+    @Test
+    void deleteGoal_PersistentConflict_ThrowsConcurrentUpdateException() {
+        String userId = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
+        String goalId = "770e8400-e29b-41d4-a716-446655440000";
+        when(goalRepository.findByUserIdAndGoalId(userId, goalId))
+            .thenAnswer(invocation -> createGoal(goalId, "Goal"));
+        doThrow(conflict())
+            .when(entityWriteRepository).write(any(EntityWrite.class));
+
+        assertThatThrownBy(() -> goalService.deleteGoal(userId, goalId))
+                .isInstanceOf(ConcurrentUpdateException.class);
+        verify(goalRepository, times(OptimisticLocking.MAX_ATTEMPTS)).findByUserIdAndGoalId(userId, goalId);
+        verifyNoInteractions(dashboardService);
+    }
+
+    private static Institution linked(Institution institution, String goalId) {
+        institution.setLinkedGoals(new ArrayList<>(List.of(goalId)));
+        return institution;
     }
 }
@@ -0,0 +1,371 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.entity.IdempotencyRecord;
+import com.cpsc.backend.exception.ConcurrentUpdateException;
+import com.cpsc.backend.exception.IdempotencyKeyReusedException;
+import com.cpsc.backend.exception.InstitutionNotFoundException;
+import com.cpsc.backend.exception.InvalidTransactionDataException;
+import com.cpsc.backend.local.InMemoryDynamoDbClient;
+import com.cpsc.backend.model.CreateTransactionRequest;
+import com.cpsc.backend.model.TransactionResponse;
+import com.cpsc.backend.repository.IdempotencyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs against the in-memory DynamoDB; a second service on the same table stands in for another
+ * node, which shares the table but not the in-memory state
+ */
+class IdempotencyServiceTest {
+
+    private static final String USER_ID = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
+    private static final String KEY = "0f8fad5b-d9cb-469f-a165-70867728950e";
+    private static final String OPERATION = "createTransaction 550e8400-e29b-41d4-a716-446655440000";
+
+    private final AtomicInteger tableReads = new AtomicInteger();
+    private final AtomicInteger executions = new AtomicInteger();
+    private IdempotencyRepository idempotencyRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryDynamoDbClient client = new InMemoryDynamoDbClient() {
+            @Override
+            public GetItemResponse getItem(GetItemRequest request) {
+                tableReads.incrementAndGet();
+                return super.getItem(request);
+            }
+        };
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder().dynamoDbClient(client).build();
+        enhancedClient.table("IdempotencyKeys-test", TableSchema.fromBean(IdempotencyRecord.class)).createTable();
+        idempotencyRepository = new IdempotencyRepository(enhancedClient, "IdempotencyKeys-test");
+        meterRegistry = new SimpleMeterRegistry();
+        idempotencyService = createService(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void execute_NewKey_RunsAndStoresResponse() {
+        IdempotencyService.Result<TransactionResponse> result = execute(idempotencyService, request(25.0));
+
+        assertThat(result.replayed()).isFalse();
+        assertThat(result.status()).isEqualTo(201);
+        assertThat(executions).hasValue(1);
+        IdempotencyRecord record = idempotencyRepository.find(USER_ID, KEY);
+        assertThat(record.getStatus()).isEqualTo(IdempotencyRecord.COMPLETED);
+        assertThat(record.getResponseStatus()).isEqualTo(201);
+        assertThat(record.getExpiresAt()).isGreaterThan(Instant.now().plus(Duration.ofHours(23)).getEpochSecond());
+    }
+
+    @Test
+    void execute_RetryOnOtherNode_ReplaysStoredResponse() {
+        IdempotencyService.Result<TransactionResponse> first = execute(idempotencyService, request(25.0));
+
+        IdempotencyService.Result<TransactionResponse> retry = execute(createService(Duration.ofSeconds(5)), request(25.0));
+
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.status()).isEqualTo(201);
+        assertThat(retry.body().getTransactionId()).isEqualTo(first.body().getTransactionId());
+        assertThat(retry.body().getAmount()).isEqualTo(25.0);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void execute_RetryOnSameNode_AnsweredWithoutTableRead() {
+        execute(idempotencyService, request(25.0));
+        int readsAfterFirst = tableReads.get();
+
+        IdempotencyService.Result<TransactionResponse> retry = execute(idempotencyService, request(25.0));
+
+        assertThat(retry.replayed()).isTrue();
+        assertThat(tableReads).hasValue(readsAfterFirst);
+        assertThat(meterRegistry.find(IdempotencyService.METRIC).tag("outcome", "replayed").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void execute_KeyReusedForDifferentRequest_ThrowsException() {
+        execute(idempotencyService, request(25.0));
+
+        assertThatThrownBy(() -> execute(idempotencyService, request(30.0)))
+            .isInstanceOf(IdempotencyKeyReusedException.class)
+            .hasMessage("Idempotency-Key was already used for a different request");
+        assertThatThrownBy(() -> execute(createService(Duration.ofSeconds(5)), request(30.0)))
+            .isInstanceOf(IdempotencyKeyReusedException.class);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void execute_OperationFails_ReleasesKey() {
+        assertThatThrownBy(() -> idempotencyService.execute(USER_ID, KEY, OPERATION, request(25.0), 201,
+            TransactionResponse.class, () -> {
+                throw new IllegalArgumentException("Institution not found");
+            }))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(idempotencyRepository.find(USER_ID, KEY)).isNull();
+        assertThat(execute(idempotencyService, request(25.0)).replayed()).isFalse();
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void execute_OperationFailsWithUnknownOutcome_KeepsKeyAndDoesNotRunAgain() {
+        assertThatThrownBy(() -> idempotencyService.execute(USER_ID, KEY, OPERATION, request(25.0), 201,
+            TransactionResponse.class, () -> {
+                executions.incrementAndGet();
+                throw new RuntimeException("Failed to create transaction",
+                    SdkClientException.create("Unable to execute HTTP request: Read timed out"));
+            }))
+            .isInstanceOf(RuntimeException.class);
+
+        assertThat(idempotencyRepository.find(USER_ID, KEY).getStatus()).isEqualTo(IdempotencyRecord.FAILED);
+        assertThatThrownBy(() -> execute(idempotencyService, request(25.0)))
+            .isInstanceOf(IdempotencyKeyReusedException.class)
+            .hasMessageContaining("may have been applied");
+        assertThatThrownBy(() -> execute(createService(Duration.ofSeconds(5)), request(25.0)))
+            .isInstanceOf(IdempotencyKeyReusedException.class);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void execute_WriteCancelled_ReleasesKey() {
+        assertThatThrownBy(() -> idempotencyService.execute(USER_ID, KEY, OPERATION, request(25.0), 201,
+            TransactionResponse.class, () -> {
+                throw new ConcurrentUpdateException("Could not create transaction due to concurrent updates");
+            }))
+            .isInstanceOf(ConcurrentUpdateException.class);
+
+        assertThat(idempotencyRepository.find(USER_ID, KEY)).isNull();
+    }
+
+    @Test
+    void wroteNothing_ClassifiesFailures() {
+        assertThat(IdempotencyService.wroteNothing(new InstitutionNotFoundException("missing"))).isTrue();
+        assertThat(IdempotencyService.wroteNothing(new RuntimeException("wrapped",
+            new InvalidTransactionDataException("bad amount")))).isTrue();
+        assertThat(IdempotencyService.wroteNothing(ConditionalCheckFailedException.builder().message("stale").build()))
+            .isTrue();
+        assertThat(IdempotencyService.wroteNothing(SdkClientException.create("timed out"))).isFalse();
+        assertThat(IdempotencyService.wroteNothing(new RuntimeException("boom"))).isFalse();
+    }
+
+    @Test
+    void execute_OperationOutlivesInProgressTimeout_RenewsClaimSoItIsNotTakenOver() throws Exception {
+        IdempotencyService slowNode = createService(Duration.ofMillis(300), Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<IdempotencyService.Result<TransactionResponse>> first = executor.submit(() ->
+                slowNode.execute(USER_ID, KEY, OPERATION, request(25.0), 201, TransactionResponse.class, () -> {
+                    started.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return create(25.0);
+                }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(900); // three times the original lease
+
+            assertThat(idempotencyRepository.find(USER_ID, KEY).getLockedUntil()).isGreaterThan(System.currentTimeMillis());
+            assertThatThrownBy(() -> execute(createService(Duration.ofMillis(300), Duration.ofMillis(100)), request(25.0)))
+                .isInstanceOf(ConcurrentUpdateException.class);
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS).replayed()).isFalse();
+            assertThat(executions).hasValue(1);
+            assertThat(idempotencyRepository.find(USER_ID, KEY).getStatus()).isEqualTo(IdempotencyRecord.COMPLETED);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+            slowNode.shutdown();
+        }
+    }
+
+    @Test
+    void execute_ConcurrentDuplicates_RunOnce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<TransactionResponse> slowCreate = () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return create(25.0);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<IdempotencyService.Result<TransactionResponse>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> idempotencyService.execute(USER_ID, KEY, OPERATION, request(25.0),
+                    201, TransactionResponse.class, slowCreate)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            List<IdempotencyService.Result<TransactionResponse>> done = new ArrayList<>();
+            for (Future<IdempotencyService.Result<TransactionResponse>> result : results) {
+                done.add(result.get(5, TimeUnit.SECONDS));
+            }
+
+            assertThat(executions).hasValue(1);
+            assertThat(done).filteredOn(result -> !result.replayed()).hasSize(1);
+            assertThat(done).extracting(result -> result.body().getTransactionId()).containsOnly(
+                done.get(0).body().getTransactionId());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_KeyHeldByOtherNode_WaitsForItsResponse() throws Exception {
+        IdempotencyService otherNode = createService(Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<IdempotencyService.Result<TransactionResponse>> first = executor.submit(() ->
+                otherNode.execute(USER_ID, KEY, OPERATION, request(25.0), 201, TransactionResponse.class, () -> {
+                    started.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return create(25.0);
+                }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            executor.submit(() -> {
+                Thread.sleep(150);
+                release.countDown();
+                return null;
+            });
+            IdempotencyService.Result<TransactionResponse> duplicate = execute(idempotencyService, request(25.0));
+
+            assertThat(duplicate.replayed()).isTrue();
+            assertThat(duplicate.body().getTransactionId()).isEqualTo(first.get(5, TimeUnit.SECONDS).body().getTransactionId());
+            assertThat(executions).hasValue(1);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_KeyStillHeldAfterWaitTimeout_ThrowsException() {
+        idempotencyRepository.save(claim(System.currentTimeMillis() + 60_000));
+
+        assertThatThrownBy(() -> execute(createService(Duration.ofMillis(100)), request(25.0)))
+            .isInstanceOf(ConcurrentUpdateException.class)
+            .hasMessage("A request with this Idempotency-Key is still being processed");
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    void execute_AbandonedClaim_IsTakenOver() {
+        idempotencyRepository.save(claim(System.currentTimeMillis() - 1));
+
+        IdempotencyService.Result<TransactionResponse> result = execute(idempotencyService, request(25.0));
+
+        assertThat(result.replayed()).isFalse();
+        assertThat(executions).hasValue(1);
+        assertThat(idempotencyRepository.find(USER_ID, KEY).getStatus()).isEqualTo(IdempotencyRecord.COMPLETED);
+    }
+
+    @Test
+    void execute_ExpiredRecord_RunsAgain() {
+        IdempotencyRecord expired = claim(System.currentTimeMillis() + 60_000);
+        expired.setStatus(IdempotencyRecord.COMPLETED);
+        expired.setRequestHash("something else");
+        expired.setExpiresAt(Instant.now().minusSeconds(1).getEpochSecond());
+        idempotencyRepository.save(expired); // past its TTL but not yet removed
+
+        IdempotencyService.Result<TransactionResponse> result = execute(idempotencyService, request(25.0));
+
+        assertThat(result.replayed()).isFalse();
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void execute_KeyTooLong_ThrowsException() {
+        String key = "k".repeat(IdempotencyService.MAX_KEY_LENGTH + 1);
+
+        assertThatThrownBy(() -> idempotencyService.execute(USER_ID, key, OPERATION, request(25.0), 201,
+            TransactionResponse.class, () -> create(25.0)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Idempotency-Key cannot be longer than 255 characters");
+        assertThat(executions).hasValue(0);
+    }
+
+    private IdempotencyService createService(Duration waitTimeout) {
+        return createService(Duration.ofSeconds(30), waitTimeout);
+    }
+
+    private IdempotencyService createService(Duration inProgressTimeout, Duration waitTimeout) {
+        return new IdempotencyService(idempotencyRepository, Duration.ofHours(24), inProgressTimeout,
+            waitTimeout, 100, meterRegistry);
+    }
+
+    private IdempotencyService.Result<TransactionResponse> execute(IdempotencyService service,
+                                                                   CreateTransactionRequest request) {
+        return service.execute(USER_ID, KEY, OPERATION, request, 201, TransactionResponse.class,
+            () -> create(request.getAmount()));
+    }
+
+    private TransactionResponse create(double amount) {
+        executions.incrementAndGet();
+        TransactionResponse response = new TransactionResponse();
+        response.setTransactionId(UUID.randomUUID());
+        response.setType(TransactionResponse.TypeEnum.DEPOSIT);
+        response.setAmount(amount);
+        return response;
+    }
+
+    private static CreateTransactionRequest request(double amount) {
+        CreateTransactionRequest request = new CreateTransactionRequest();
+        request.setType(CreateTransactionRequest.TypeEnum.DEPOSIT);
+        request.setAmount(amount);
+        return request;
+    }
+
+    /** An in-progress claim of the same request, as another node would have left it */
+    private IdempotencyRecord claim(long lockedUntil) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setUserId(USER_ID);
+        record.setIdempotencyKey(KEY);
+        record.setRequestHash(idempotencyService.fingerprint(OPERATION, request(25.0)));
+        record.setStatus(IdempotencyRecord.IN_PROGRESS);
+        record.setLockedUntil(lockedUntil);
+        record.setExpiresAt(Instant.now().plus(Duration.ofHours(24)).getEpochSecond());
+        return record;
+    }
+}
@@ -1,20 +1,26 @@
 package com.cpsc.backend.service;
 
 import com.cpsc.backend.entity.Institution;
+import com.cpsc.backend.exception.ConcurrentUpdateException;
 import com.cpsc.backend.exception.InvalidInstitutionDataException;
 import com.cpsc.backend.model.CreateInstitutionRequest;
 import com.cpsc.backend.model.GetInstitutions200Response;
 import com.cpsc.backend.model.InstitutionResponse;
+import com.cpsc.backend.repository.EntityWrite;
+import com.cpsc.backend.repository.EntityWriteRepository;
 import com.cpsc.backend.repository.InstitutionRepository;
 import com.cpsc.backend.repository.TransactionRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
 import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
 
 import java.time.Instant;
 import java.time.OffsetDateTime;
@@ -32,7 +38,10 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,17 +52,30 @@ class InstitutionServiceTest {
 
     @Mock
     private TransactionRepository transactionRepository;
+
+    @Mock
+    private EntityWriteRepository entityWriteRepository;
     
     @Mock
     private GoalService goalService;
 
+    @Mock
+    private DashboardService dashboardService;
+
+    @Mock
+    private ChangeLogService changeLogService;
+
+    @Mock
+    private EventStreamService eventStreamService;
+
     private InstitutionService institutionService;
 
     private CreateInstitutionRequest validRequest;
 
     @BeforeEach
     void setUp() {
-        institutionService = new InstitutionService(institutionRepository, transactionRepository, goalService);
+        institutionService = new InstitutionService(institutionRepository, transactionRepository, entityWriteRepository,
+            goalService, dashboardService, changeLogService, eventStreamService);
         validRequest = new CreateInstitutionRequest();
         validRequest.setInstitutionName("Test Bank");
         validRequest.setStartingBalance(1000.0);
@@ -61,7 +83,7 @@ class InstitutionServiceTest {
 
     @Test
     void createInstitution_Success() {
-        doNothing().when(institutionRepository).save(any(Institution.class));
+        doNothing().when(entityWriteRepository).write(any(EntityWrite.class));
 
         InstitutionResponse response = institutionService.createInstitution("3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28", validRequest);
 
@@ -71,12 +93,12 @@ class InstitutionServiceTest {
         assertThat(response.getStartingBalance()).isEqualTo(1000.0);
         assertThat(response.getCurrentBalance()).isEqualTo(1000.0); // currentBalance should equal startingBalance
         assertThat(response.getAllocatedPercent()).isEqualTo(0); // allocatedPercent should default to 0
-        verify(institutionRepository).save(any(Institution.class));
+        verify(entityWriteRepository).write(any(EntityWrite.class));
     }
 
     @Test
     void createInstitution_CurrentBalanceEqualsStartingBalance() {
-        doNothing().when(institutionRepository).save(any(Institution.class));
+        doNothing().when(entityWriteRepository).write(any(EntityWrite.class));
 
         validRequest.setStartingBalance(2500.75);
         InstitutionResponse response = institutionService.createInstitution("3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28", validRequest);
@@ -240,7 +262,7 @@ class InstitutionServiceTest {
     @Test
     void createInstitution_DynamoDbException_ThrowsException() {
         doThrow(DynamoDbException.builder().message("DynamoDB error").build())
-                .when(institutionRepository).save(any(Institution.class));
+                .when(entityWriteRepository).write(any(EntityWrite.class));
 
         assertThatThrownBy(() -> institutionService.createInstitution("user-123", validRequest))
                 .isInstanceOf(DynamoDbException.class);
@@ -249,7 +271,7 @@ class InstitutionServiceTest {
     @Test
     void createInstitution_GenericException_ThrowsRuntimeException() {
         doThrow(new RuntimeException("Unexpected error"))
-                .when(institutionRepository).save(any(Institution.class));
+                .when(entityWriteRepository).write(any(EntityWrite.class));
 
         assertThatThrownBy(() -> institutionService.createInstitution("user-123", validRequest))
                 .isInstanceOf(RuntimeException.class)
@@ -428,13 +450,15 @@ class InstitutionServiceTest {
 
         when(institutionRepository.findByUserIdAndInstitutionId("user-123", "inst-123")).thenReturn(institution);
         doNothing().when(transactionRepository).deleteAllByInstitutionId("inst-123");
-        doNothing().when(institutionRepository).delete("user-123", "inst-123");
 
         institutionService.deleteInstitution("user-123", "inst-123");
 
         verify(institutionRepository).findByUserIdAndInstitutionId("user-123", "inst-123");
         verify(transactionRepository).deleteAllByInstitutionId("inst-123");
-        verify(institutionRepository).delete("user-123", "inst-123");
+        EntityWrite write = written();
+        assertThat(write.getDeletedInstitutions()).containsExactly(institution);
+        verify(changeLogService).removeInstitution(write, "user-123", "inst-123");
+        verify(dashboardService).removeInstitution("user-123", "inst-123");
     }
 
     @Test
@@ -500,7 +524,7 @@ class InstitutionServiceTest {
         institution.setCreatedAt(System.currentTimeMillis() / 1000L);
         
         when(institutionRepository.findByUserIdAndInstitutionId(userId, institutionId)).thenReturn(institution);
-        doNothing().when(institutionRepository).save(any(Institution.class));
+        doNothing().when(entityWriteRepository).write(any(EntityWrite.class));
         
         com.cpsc.backend.model.EditInstitutionRequest request = new com.cpsc.backend.model.EditInstitutionRequest();
         request.setInstitutionName("New Bank Name");
@@ -510,7 +534,8 @@ class InstitutionServiceTest {
         assertThat(response.getInstitutionName()).isEqualTo("New Bank Name");
         assertThat(response.getStartingBalance()).isEqualTo(1000.0);
         assertThat(response.getCurrentBalance()).isEqualTo(1200.0); // Should not change
-        verify(institutionRepository).save(institution);
+        assertThat(written().getInstitutions()).containsExactly(institution);
+        verify(eventStreamService, never()).publishBalanceChanged(any());
     }
     
     @Test
@@ -527,7 +552,7 @@ class InstitutionServiceTest {
         institution.setCreatedAt(System.currentTimeMillis() / 1000L);
         
         when(institutionRepository.findByUserIdAndInstitutionId(userId, institutionId)).thenReturn(institution);
-        doNothing().when(institutionRepository).save(any(Institution.class));
+        doNothing().when(entityWriteRepository).write(any(EntityWrite.class));
         
         com.cpsc.backend.model.EditInstitutionRequest request = new com.cpsc.backend.model.EditInstitutionRequest();
         request.setStartingBalance(800.0); // Decrease by 200
@@ -536,7 +561,8 @@ class InstitutionServiceTest {
         
         assertThat(response.getStartingBalance()).isEqualTo(800.0);
         assertThat(response.getCurrentBalance()).isEqualTo(1300.0); // 1500 - 200
-        verify(institutionRepository).save(institution);
+        assertThat(written().getInstitutions()).containsExactly(institution);
+        verify(eventStreamService).publishBalanceChanged(institution);
     }
     
     @Test
@@ -553,7 +579,7 @@ class InstitutionServiceTest {
         institution.setCreatedAt(System.currentTimeMillis() / 1000L);
         
         when(institutionRepository.findByUserIdAndInstitutionId(userId, institutionId)).thenReturn(institution);
-        doNothing().when(institutionRepository).save(any(Institution.class));
+        doNothing().when(entityWriteRepository).write(any(EntityWrite.class));
         
         com.cpsc.backend.model.EditInstitutionRequest request = new com.cpsc.backend.model.EditInstitutionRequest();
         request.setStartingBalance(700.0); // Increase by 200
@@ -562,7 +588,7 @@ class InstitutionServiceTest {
         
         assertThat(response.getStartingBalance()).isEqualTo(700.0);
         assertThat(response.getCurrentBalance()).isEqualTo(950.0); // 750 + 200
-        verify(institutionRepository).save(institution);
+        assertThat(written().getInstitutions()).containsExactly(institution);
     }
     
     @Test
@@ -579,7 +605,7 @@ class InstitutionServiceTest {
         institution.setCreatedAt(System.currentTimeMillis() / 1000L);
         
         when(institutionRepository.findByUserIdAndInstitutionId(userId, institutionId)).thenReturn(institution);
-        doNothing().when(institutionRepository).save(any(Institution.class));
+        doNothing().when(entityWriteRepository).write(any(EntityWrite.class));
         
         com.cpsc.backend.model.EditInstitutionRequest request = new com.cpsc.backend.model.EditInstitutionRequest();
         request.setInstitutionName("New Name");
@@ -590,7 +616,7 @@ class InstitutionServiceTest {
         assertThat(response.getInstitutionName()).isEqualTo("New Name");
         assertThat(response.getStartingBalance()).isEqualTo(950.0);
         assertThat(response.getCurrentBalance()).isEqualTo(1150.0); // 1200 - 50
-        verify(institutionRepository).save(institution);
+        assertThat(written().getInstitutions()).containsExactly(institution);
     }
     
     @Test
@@ -607,7 +633,7 @@ class InstitutionServiceTest {
         institution.setCreatedAt(System.currentTimeMillis() / 1000L);
         
         when(institutionRepository.findByUserIdAndInstitutionId(userId, institutionId)).thenReturn(institution);
-        doNothing().when(institutionRepository).save(any(Institution.class));
+        doNothing().when(entityWriteRepository).write(any(EntityWrite.class));
         
         com.cpsc.backend.model.EditInstitutionRequest request = new com.cpsc.backend.model.EditInstitutionRequest();
         request.setStartingBalance(1100.0); // Increase by 100
@@ -616,7 +642,7 @@ class InstitutionServiceTest {
         
         assertThat(response.getStartingBalance()).isEqualTo(1100.0);
         assertThat(response.getCurrentBalance()).isEqualTo(1100.0); // 1000 (old starting) + 100
-        verify(institutionRepository).save(institution);
+        assertThat(written().getInstitutions()).containsExactly(institution);
     }
     
     @Test
@@ -746,7 +772,7 @@ class InstitutionServiceTest {
         institution.setAllocatedPercent(0);
         
         when(institutionRepository.findByUserIdAndInstitutionId(userId, institutionId)).thenReturn(institution);
-        doNothing().when(institutionRepository).save(any(Institution.class));
+        doNothing().when(entityWriteRepository).write(any(EntityWrite.class));
         
         com.cpsc.backend.model.EditInstitutionRequest request = new com.cpsc.backend.model.EditInstitutionRequest();
         request.setAllocatedPercent(50);
@@ -754,7 +780,7 @@ class InstitutionServiceTest {
         InstitutionResponse response = institutionService.editInstitution(userId, institutionId, request);
         
         assertThat(response.getAllocatedPercent()).isEqualTo(50);
-        verify(institutionRepository).save(any(Institution.class));
+        verify(entityWriteRepository).write(any(EntityWrite.class));
     }
 
     @Test
@@ -772,7 +798,7 @@ class InstitutionServiceTest {
         institution.setAllocatedPercent(0);
         
         when(institutionRepository.findByUserIdAndInstitutionId(userId, institutionId)).thenReturn(institution);
-        doNothing().when(institutionRepository).save(any(Institution.class));
+        doNothing().when(entityWriteRepository).write(any(EntityWrite.class));
         
         com.cpsc.backend.model.EditInstitutionRequest request = new com.cpsc.backend.model.EditInstitutionRequest();
         request.setAllocatedPercent(100);
@@ -797,7 +823,7 @@ class InstitutionServiceTest {
         institution.setAllocatedPercent(50);
         
         when(institutionRepository.findByUserIdAndInstitutionId(userId, institutionId)).thenReturn(institution);
-        doNothing().when(institutionRepository).save(any(Institution.class));
+        doNothing().when(entityWriteRepository).write(any(EntityWrite.class));
         
         com.cpsc.backend.model.EditInstitutionRequest request = new com.cpsc.backend.model.EditInstitutionRequest();
         request.setAllocatedPercent(0);
@@ -854,4 +880,83 @@ class InstitutionServiceTest {
                 .isInstanceOf(InvalidInstitutionDataException.class)
                 .hasMessage("Allocated percent must be between 0 and 100");
     }
+
+    @Test
+    void editInstitution_VersionConflict_RereadsAndReappliesEdit() {
+        String userId = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
+        String institutionId = UUID.randomUUID().toString();
+        
+        Institution stale = new Institution();
+        stale.setUserId(userId);
+        stale.setInstitutionId(institutionId);
+        stale.setInstitutionName("Old Bank Name");
+        stale.setStartingBalance(1000.0);
+        stale.setCurrentBalance(1200.0);
+        stale.setVersion(1L);
+        
+        // A transaction landed in between: balance moved and the version advanced
+        Institution fresh = new Institution();
+        fresh.setUserId(userId);
+        fresh.setInstitutionId(institutionId);
+        fresh.setInstitutionName("Old Bank Name");
+        fresh.setStartingBalance(1000.0);
+        fresh.setCurrentBalance(1300.0);
+        fresh.setVersion(2L);
+        
+        when(institutionRepository.findByUserIdAndInstitutionId(userId, institutionId)).thenReturn(stale, fresh);
+        doThrow(conflict())
+            .doNothing()
+            .when(entityWriteRepository).write(any(EntityWrite.class));
+        
+        com.cpsc.backend.model.EditInstitutionRequest request = new com.cpsc.backend.model.EditInstitutionRequest();
+        request.setStartingBalance(1100.0);
+        
+        InstitutionResponse response = institutionService.editInstitution(userId, institutionId, request);
+        
+        // The +100 starting balance adjustment is applied on top of the concurrent deposit
+        assertThat(response.getCurrentBalance()).isEqualTo(1400.0);
+        ArgumentCaptor<EntityWrite> writes = ArgumentCaptor.forClass(EntityWrite.class);
+        verify(entityWriteRepository, times(2)).write(writes.capture());
+        assertThat(writes.getAllValues().get(1).getInstitutions()).containsExactly(fresh);
+        verify(changeLogService).recordInstitutions(writes.getAllValues().get(1), List.of(fresh));
+        verify(goalService).updateGoalCompletionForInstitution(userId, institutionId, fresh);
+    }
+    
+    @Test
+    void editInstitution_PersistentConflict_ThrowsConcurrentUpdateException() {
+        String userId = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
+        String institutionId = UUID.randomUUID().toString();
+        
+        Institution institution = new Institution();
+        institution.setUserId(userId);
+        institution.setInstitutionId(institutionId);
+        institution.setInstitutionName("Old Bank Name");
+        institution.setStartingBalance(1000.0);
+        institution.setCurrentBalance(1000.0);
+        
+        when(institutionRepository.findByUserIdAndInstitutionId(userId, institutionId)).thenReturn(institution);
+        doThrow(conflict())
+            .when(entityWriteRepository).write(any(EntityWrite.class));
+        
+        com.cpsc.backend.model.EditInstitutionRequest request = new com.cpsc.backend.model.EditInstitutionRequest();
+        request.setInstitutionName("New Bank Name");
+        
+        assertThatThrownBy(() -> institutionService.editInstitution(userId, institutionId, request))
+            .isInstanceOf(ConcurrentUpdateException.class);
+        verify(entityWriteRepository, times(OptimisticLocking.MAX_ATTEMPTS)).write(any(EntityWrite.class));
+        verifyNoInteractions(goalService);
+    }
+
+    private EntityWrite written() {
+        ArgumentCaptor<EntityWrite> captor = ArgumentCaptor.forClass(EntityWrite.class);
+        verify(entityWriteRepository).write(captor.capture());
+        return captor.getValue();
+    }
+
+    private static TransactionCanceledException conflict() {
+        return TransactionCanceledException.builder()
+            .message("Transaction cancelled")
+            .cancellationReasons(CancellationReason.builder().code("ConditionalCheckFailed").build())
+            .build();
+    }
 }
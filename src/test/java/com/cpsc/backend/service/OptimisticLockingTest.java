@@ -0,0 +1,74 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.exception.ConcurrentUpdateException;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OptimisticLockingTest {
+
+    @Test
+    void retryOnConflict_RerunsSectionUntilItSucceeds() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = OptimisticLocking.retryOnConflict("test", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw ConditionalCheckFailedException.builder().message("stale").build();
+            }
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void retryOnConflict_GivesUpAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> OptimisticLocking.retryOnConflict("edit goal", () -> {
+            attempts.incrementAndGet();
+            throw ConditionalCheckFailedException.builder().message("stale").build();
+        }))
+            .isInstanceOf(ConcurrentUpdateException.class)
+            .hasMessageContaining("edit goal");
+        assertThat(attempts).hasValue(OptimisticLocking.MAX_ATTEMPTS);
+    }
+
+    @Test
+    void retryOnConflict_OtherFailuresAreNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> OptimisticLocking.retryOnConflict("test", () -> {
+            attempts.incrementAndGet();
+            throw ProvisionedThroughputExceededException.builder().message("slow down").build();
+        })).isInstanceOf(ProvisionedThroughputExceededException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void isConflict_RecognisesConditionAndTransactionConflictCancellations() {
+        assertThat(OptimisticLocking.isConflict(canceled("None", "ConditionalCheckFailed"))).isTrue();
+        assertThat(OptimisticLocking.isConflict(canceled("TransactionConflict", "None"))).isTrue();
+        assertThat(OptimisticLocking.isConflict(canceled("ValidationError"))).isFalse();
+        assertThat(OptimisticLocking.isConflict(
+            TransactionCanceledException.builder().message("no reasons").build())).isFalse();
+    }
+
+    private static TransactionCanceledException canceled(String... codes) {
+        return TransactionCanceledException.builder()
+            .message("Transaction cancelled")
+            .cancellationReasons(Arrays.stream(codes)
+                .map(code -> CancellationReason.builder().code(code).build())
+                .toList())
+            .build();
+    }
+}
@@ -0,0 +1,195 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.exception.ReadTimeoutException;
+import com.cpsc.backend.metrics.ConsumedCapacitySummary;
+import com.cpsc.backend.metrics.DynamoDbMetricsInterceptor;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ParallelReadsTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void join_RunsReadsConcurrently() {
+        // Each read waits for the other two, so this only completes if all three run at once
+        CyclicBarrier barrier = new CyclicBarrier(3);
+
+        try (ParallelReads reads = ParallelReads.open(TIMEOUT)) {
+            ParallelReads.Read<String> first = reads.fork("first", () -> await(barrier, "a"));
+            ParallelReads.Read<String> second = reads.fork("second", () -> await(barrier, "b"));
+            ParallelReads.Read<String> third = reads.fork("third", () -> await(barrier, "c"));
+
+            reads.join();
+
+            assertThat(first.get() + second.get() + third.get()).isEqualTo("abc");
+        }
+    }
+
+    @Test
+    void join_ReadFails_CancelsOthersAndRethrows() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("boom");
+
+        try (ParallelReads reads = ParallelReads.open(TIMEOUT)) {
+            reads.fork("slow", () -> {
+                started.countDown();
+                return blockUntilInterrupted(interrupted);
+            });
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            reads.fork("failing", () -> {
+                throw failure;
+            });
+
+            assertThatThrownBy(reads::join).isSameAs(failure);
+        }
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void join_ReadPassesItsTimeout_CancelsAndThrows() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        try (ParallelReads reads = ParallelReads.open(TIMEOUT)) {
+            reads.fork("fast", () -> "done");
+            reads.fork("goals", Duration.ofMillis(50), () -> blockUntilInterrupted(interrupted));
+
+            long start = System.nanoTime();
+            assertThatThrownBy(reads::join)
+                .isInstanceOf(ReadTimeoutException.class)
+                .hasMessage("Timed out reading goals. Please try again.");
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(TIMEOUT);
+        }
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void join_SecondRound_CanUseFirstRoundResults() {
+        try (ParallelReads reads = ParallelReads.open(TIMEOUT)) {
+            ParallelReads.Read<Integer> count = reads.fork("count", () -> 2);
+            reads.join();
+
+            ParallelReads.Read<Integer> doubled = reads.fork("doubled", () -> count.get() * 2);
+            reads.join();
+
+            assertThat(doubled.get()).isEqualTo(4);
+        }
+    }
+
+    @Test
+    void join_ReadRunsWithCallerRequestAttributes_TagsEndpoint() {
+        MockHttpServletRequest httpRequest = new MockHttpServletRequest("GET", "/api/dashboard");
+        httpRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/dashboard");
+        ConsumedCapacitySummary summary = new ConsumedCapacitySummary();
+        httpRequest.setAttribute(ConsumedCapacitySummary.REQUEST_ATTRIBUTE, summary);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(httpRequest));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DynamoDbMetricsInterceptor interceptor = new DynamoDbMetricsInterceptor(meterRegistry);
+        Context.AfterExecution afterExecution = mock(Context.AfterExecution.class);
+        when(afterExecution.response()).thenReturn(QueryResponse.builder()
+            .consumedCapacity(ConsumedCapacity.builder().tableName("Goals-test").capacityUnits(1.5).build())
+            .build());
+
+        try (ParallelReads reads = ParallelReads.open(TIMEOUT)) {
+            ParallelReads.Read<Boolean> attached = reads.fork("goals", () -> {
+                ExecutionAttributes executionAttributes = new ExecutionAttributes();
+                executionAttributes.putAttribute(SdkExecutionAttribute.OPERATION_NAME, "Query");
+                interceptor.beforeExecution(mock(Context.BeforeExecution.class), executionAttributes);
+                interceptor.afterExecution(afterExecution, executionAttributes);
+                return RequestContextHolder.getRequestAttributes() != null;
+            });
+            reads.join();
+
+            assertThat(attached.get()).isTrue();
+        }
+
+        Timer timer = meterRegistry.find(DynamoDbMetricsInterceptor.LATENCY_METRIC)
+            .tags("table", "Goals-test", "operation", "Query", "endpoint", "GET /api/dashboard")
+            .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(summary.getCalls()).isEqualTo(1);
+        assertThat(summary.getReadCapacityUnits()).isEqualTo(1.5);
+    }
+
+    @Test
+    void get_BeforeJoin_ThrowsException() {
+        try (ParallelReads reads = ParallelReads.open(TIMEOUT)) {
+            ParallelReads.Read<String> read = reads.fork("institutions", () -> "value");
+
+            assertThatThrownBy(read::get)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Read 'institutions' has not completed; call join() first");
+        }
+    }
+
+    @Test
+    void close_CancelsUnjoinedReads() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        try (ParallelReads reads = ParallelReads.open(TIMEOUT)) {
+            reads.fork("abandoned", () -> {
+                started.countDown();
+                return blockUntilInterrupted(interrupted);
+            });
+            // Cancelling a read that has not started yet just drops it; only a running one is interrupted
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void open_NonPositiveTimeout_ThrowsException() {
+        assertThatThrownBy(() -> ParallelReads.open(Duration.ZERO))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Read timeout must be positive");
+    }
+
+    private static String await(CyclicBarrier barrier, String value) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+            return value;
+        } catch (Exception e) {
+            throw new IllegalStateException("Reads did not run concurrently", e);
+        }
+    }
+
+    private static String blockUntilInterrupted(CountDownLatch interrupted) {
+        try {
+            Thread.sleep(Duration.ofMinutes(1));
+            return "never";
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.entity.ChangeRecord;
+import com.cpsc.backend.entity.Goal;
+import com.cpsc.backend.entity.Institution;
+import com.cpsc.backend.entity.Transaction;
+import com.cpsc.backend.local.InMemoryDynamoDbClient;
+import com.cpsc.backend.model.SyncChange;
+import com.cpsc.backend.model.SyncResponse;
+import com.cpsc.backend.repository.ChangeLogRepository;
+import com.cpsc.backend.repository.EntityWrite;
+import com.cpsc.backend.repository.EntityWriteRepository;
+import com.cpsc.backend.repository.GoalRepository;
+import com.cpsc.backend.repository.InstitutionRepository;
+import com.cpsc.backend.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Writes through {@link ChangeLogService} and {@link EntityWriteRepository} and reads back through
+ * the in-memory DynamoDB, so the sequences and payloads are the ones the write paths produce
+ */
+class SyncServiceTest {
+
+    private static final String USER_ID = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
+    private static final String INSTITUTION_ID = "550e8400-e29b-41d4-a716-446655440000";
+    private static final String GOAL_ID = "770e8400-e29b-41d4-a716-446655440000";
+
+    private DynamoDbTable<ChangeRecord> changeTable;
+    private EntityWriteRepository entityWriteRepository;
+    private ChangeLogService changeLogService;
+    private SyncService syncService;
+
+    @BeforeEach
+    void setUp() {
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder()
+            .dynamoDbClient(new InMemoryDynamoDbClient())
+            .build();
+        changeTable = enhancedClient.table("Changes-test", TableSchema.fromBean(ChangeRecord.class));
+        changeTable.createTable();
+        ChangeLogRepository changeLogRepository = new ChangeLogRepository(enhancedClient, "Changes-test");
+        // The tests only log changes, so the entity tables are never created
+        entityWriteRepository = new EntityWriteRepository(enhancedClient,
+            new InstitutionRepository(enhancedClient, "Institutions-test"),
+            new GoalRepository(enhancedClient, "Goals-test"),
+            new TransactionRepository(enhancedClient, "Transactions-test"),
+            changeLogRepository);
+        changeLogService = new ChangeLogService(changeLogRepository, Duration.ofDays(30));
+
+        GoalService goalService = new GoalService(null, null, null, null, null, null);
+        syncService = new SyncService(changeLogRepository,
+            new InstitutionService(null, null, null, goalService, null, null, null),
+            goalService,
+            new TransactionService(null, null, null, goalService, null, null, null));
+    }
+
+    @Test
+    void getChanges_NoCursor_AsksForFullResyncFromCurrentHead() {
+        log(write -> changeLogService.recordInstitutions(write, List.of(createInstitution(100.0))));
+
+        SyncResponse response = syncService.getChanges(USER_ID, null, null);
+
+        assertThat(response.getFullResync()).isTrue();
+        assertThat(response.getCursor()).isEqualTo("1");
+        assertThat(response.getChanges()).isEmpty();
+    }
+
+    @Test
+    void getChanges_ReturnsLatestChangePerEntityWithTombstones() {
+        Institution institution = createInstitution(100.0);
+        log(write -> changeLogService.recordInstitutions(write, List.of(institution)));
+        SyncResponse first = syncService.getChanges(USER_ID, null, null);
+
+        Transaction transaction = createTransaction();
+        institution.setCurrentBalance(150.0);
+        log(write -> changeLogService.recordTransaction(write, institution, transaction));
+        log(write -> changeLogService.recordGoal(write, createGoal(), List.of()));
+        log(write -> changeLogService.removeGoal(write, USER_ID, GOAL_ID));
+
+        SyncResponse response = syncService.getChanges(USER_ID, first.getCursor(), null);
+
+        assertThat(response.getFullResync()).isFalse();
+        assertThat(response.getHasMore()).isFalse();
+        assertThat(response.getCursor()).isEqualTo("5");
+        assertThat(response.getChanges()).extracting(SyncChange::getSequence).containsExactly(2L, 3L, 5L);
+
+        SyncChange institutionChange = response.getChanges().get(0);
+        assertThat(institutionChange.getEntityType()).isEqualTo(SyncChange.EntityTypeEnum.INSTITUTION);
+        assertThat(institutionChange.getInstitution().getCurrentBalance()).isEqualTo(150.0);
+
+        SyncChange transactionChange = response.getChanges().get(1);
+        assertThat(transactionChange.getTransaction().getTransactionId())
+            .isEqualTo(UUID.fromString(transaction.getTransactionId()));
+        assertThat(transactionChange.getInstitutionId()).isEqualTo(UUID.fromString(INSTITUTION_ID));
+
+        SyncChange goalTombstone = response.getChanges().get(2);
+        assertThat(goalTombstone.getOperation()).isEqualTo(SyncChange.OperationEnum.DELETE);
+        assertThat(goalTombstone.getEntityId()).isEqualTo(UUID.fromString(GOAL_ID));
+        assertThat(goalTombstone.getGoal()).isNull();
+    }
+
+    @Test
+    void getChanges_PagesThroughLogWithCursor() {
+        for (int i = 0; i < 5; i++) {
+            double balance = i;
+            log(write -> changeLogService.recordInstitutions(write, List.of(createInstitution(balance))));
+        }
+
+        SyncResponse first = syncService.getChanges(USER_ID, "0", 3);
+        SyncResponse second = syncService.getChanges(USER_ID, first.getCursor(), 3);
+
+        assertThat(first.getCursor()).isEqualTo("3");
+        assertThat(first.getHasMore()).isTrue();
+        assertThat(first.getChanges()).hasSize(1); // three upserts of one institution
+        assertThat(first.getChanges().get(0).getInstitution().getCurrentBalance()).isEqualTo(2.0);
+        assertThat(second.getCursor()).isEqualTo("5");
+        assertThat(second.getHasMore()).isFalse();
+        assertThat(second.getChanges().get(0).getInstitution().getCurrentBalance()).isEqualTo(4.0);
+    }
+
+    @Test
+    void getChanges_UpToDate_ReturnsNoChanges() {
+        log(write -> changeLogService.recordInstitutions(write, List.of(createInstitution(100.0))));
+
+        SyncResponse response = syncService.getChanges(USER_ID, "1", null);
+
+        assertThat(response.getFullResync()).isFalse();
+        assertThat(response.getCursor()).isEqualTo("1");
+        assertThat(response.getChanges()).isEmpty();
+    }
+
+    @Test
+    void getChanges_ExpiredSequence_AsksForFullResync() {
+        log(write -> changeLogService.recordInstitutions(write, List.of(createInstitution(100.0))));
+        log(write -> changeLogService.recordInstitutions(write, List.of(createInstitution(150.0))));
+        log(write -> changeLogService.recordInstitutions(write, List.of(createInstitution(200.0))));
+        // What TTL does once an entry is past its expiresAt
+        changeTable.deleteItem(Key.builder().partitionValue(USER_ID).sortValue(2).build());
+
+        SyncResponse response = syncService.getChanges(USER_ID, "1", null);
+
+        assertThat(response.getFullResync()).isTrue();
+        assertThat(response.getCursor()).isEqualTo("3");
+    }
+
+    @Test
+    void getChanges_CursorFromDeletedLog_AsksForFullResync() {
+        log(write -> changeLogService.recordInstitutions(write, List.of(createInstitution(100.0))));
+        changeLogService.deleteLog(USER_ID);
+
+        SyncResponse response = syncService.getChanges(USER_ID, "1", null);
+
+        assertThat(response.getFullResync()).isTrue();
+        assertThat(response.getCursor()).isEqualTo("0");
+    }
+
+    @Test
+    void getChanges_MalformedCursor_ThrowsException() {
+        assertThatThrownBy(() -> syncService.getChanges(USER_ID, "abc", null))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Invalid sync cursor");
+        assertThatThrownBy(() -> syncService.getChanges(USER_ID, "-1", null))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Invalid sync cursor");
+    }
+
+    @Test
+    void getChanges_NullUserId_ThrowsException() {
+        assertThatThrownBy(() -> syncService.getChanges(null, "1", null))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("User ID cannot be null or empty");
+    }
+
+    private void log(Consumer<EntityWrite> changes) {
+        EntityWrite write = new EntityWrite();
+        changes.accept(write);
+        entityWriteRepository.write(write);
+    }
+
+    private static Institution createInstitution(double balance) {
+        Institution institution = new Institution();
+        institution.setUserId(USER_ID);
+        institution.setInstitutionId(INSTITUTION_ID);
+        institution.setInstitutionName("Chase Bank");
+        institution.setStartingBalance(100.0);
+        institution.setCurrentBalance(balance);
+        institution.setCreatedAt(1735041600L);
+        return institution;
+    }
+
+    private static Transaction createTransaction() {
+        Transaction transaction = new Transaction();
+        transaction.setUserId(USER_ID);
+        transaction.setInstitutionId(INSTITUTION_ID);
+        transaction.setTransactionId(UUID.randomUUID().toString());
+        transaction.setType("DEPOSIT");
+        transaction.setAmount(50.0);
+        transaction.setTransactionDate(1735041600L);
+        transaction.setCreatedAt(1735041600L);
+        return transaction;
+    }
+
+    private static Goal createGoal() {
+        Goal goal = new Goal();
+        goal.setUserId(USER_ID);
+        goal.setGoalId(GOAL_ID);
+        goal.setName("Emergency Fund");
+        goal.setTargetAmount(1000.0);
+        goal.setLinkedInstitutions(Map.of(INSTITUTION_ID, 50));
+        goal.setCreatedAt(1735041600L);
+        return goal;
+    }
+}
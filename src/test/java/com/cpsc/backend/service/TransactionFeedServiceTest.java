@@ -0,0 +1,208 @@
+package com.cpsc.backend.service;
+
+import com.cpsc.backend.entity.Institution;
+import com.cpsc.backend.entity.Transaction;
+import com.cpsc.backend.exception.InvalidTransactionDataException;
+import com.cpsc.backend.local.InMemoryDynamoDbClient;
+import com.cpsc.backend.model.GetTransactions200Response;
+import com.cpsc.backend.model.TransactionResponse;
+import com.cpsc.backend.repository.InstitutionRepository;
+import com.cpsc.backend.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+/**
+ * Runs the merge against the in-memory DynamoDB so partition paging behaves as it does in DynamoDB
+ */
+class TransactionFeedServiceTest {
+
+    private static final String USER_ID = "3c925d70-6d8d-4e59-9d2c-2d86a5f0bf28";
+    private static final String OTHER_USER_ID = "4d036e81-7e9e-4f6a-8e3d-3e97a6f1c039";
+    private static final String BANK_A = "10000000-0000-0000-0000-000000000000";
+    private static final String BANK_B = "20000000-0000-0000-0000-000000000000";
+    private static final String BANK_C = "30000000-0000-0000-0000-000000000000";
+
+    private InstitutionRepository institutionRepository;
+    private TransactionRepository transactionRepository;
+    private TransactionFeedService feedService;
+    private final AtomicInteger itemsRead = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder()
+            .dynamoDbClient(new InMemoryDynamoDbClient())
+            .build();
+        enhancedClient.table("Institutions-test", TableSchema.fromBean(Institution.class)).createTable();
+        enhancedClient.table("Transactions-test", TableSchema.fromBean(Transaction.class)).createTable();
+        institutionRepository = new InstitutionRepository(enhancedClient, "Institutions-test");
+        transactionRepository = spy(new TransactionRepository(enhancedClient, "Transactions-test"));
+        doAnswer(invocation -> {
+            InstitutionRepository.PaginatedResult<?> page =
+                (InstitutionRepository.PaginatedResult<?>) invocation.callRealMethod();
+            itemsRead.addAndGet(page.getItems().size());
+            return page;
+        }).when(transactionRepository).findPageByInstitutionId(anyString(), any(), anyInt());
+
+        TransactionService transactionService = new TransactionService(transactionRepository, institutionRepository,
+            null, null, null, null, null);
+        feedService = new TransactionFeedService(transactionRepository, institutionRepository, transactionService,
+            Duration.ofSeconds(5));
+    }
+
+    @Test
+    void getTransactions_PagesThroughAllInstitutionsNewestFirst() {
+        List<Transaction> all = new ArrayList<>();
+        all.addAll(seed(USER_ID, BANK_A, 100, 97, 90, 80, 50));
+        all.addAll(seed(USER_ID, BANK_B, 99, 97, 96, 10));
+        all.addAll(seed(USER_ID, BANK_C, 97, 95));
+        all.sort(Comparator.comparing(Transaction::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(Transaction::getInstitutionId));
+
+        List<TransactionResponse> feed = new ArrayList<>();
+        String token = null;
+        int pages = 0;
+        do {
+            GetTransactions200Response page = feedService.getTransactions(USER_ID, 3, token);
+            assertThat(page.getTransactions()).hasSizeLessThanOrEqualTo(3);
+            feed.addAll(page.getTransactions());
+            token = page.getNextToken();
+            pages++;
+        } while (token != null);
+
+        assertThat(feed).extracting(response -> response.getTransactionId().toString())
+            .containsExactlyElementsOf(all.stream().map(Transaction::getTransactionId).toList());
+        assertThat(pages).isEqualTo(4);
+    }
+
+    @Test
+    void getTransactions_ReadsAboutOnePageOfItemsPerPartitionSet() {
+        seed(USER_ID, BANK_A, range(1000, 60));
+        seed(USER_ID, BANK_B, range(2000, 60));
+        seed(USER_ID, BANK_C, range(3000, 60));
+
+        GetTransactions200Response first = feedService.getTransactions(USER_ID, 12, null);
+        assertThat(first.getTransactions()).hasSize(12);
+        assertThat(itemsRead.get()).isLessThanOrEqualTo(2 * 12);
+
+        itemsRead.set(0);
+        GetTransactions200Response second = feedService.getTransactions(USER_ID, 12, first.getNextToken());
+        assertThat(second.getTransactions()).hasSize(12);
+        assertThat(second.getTransactions().get(0).getCreatedAt())
+            .isLessThan(first.getTransactions().get(11).getCreatedAt());
+        assertThat(itemsRead.get()).isLessThanOrEqualTo(2 * 12);
+    }
+
+    @Test
+    void getTransactions_LastPageExactlyFull_OmitsExhaustedInstitutionsFromToken() {
+        seed(USER_ID, BANK_A, 10, 9);
+        seed(USER_ID, BANK_B, 8);
+
+        GetTransactions200Response page = feedService.getTransactions(USER_ID, 3, null);
+
+        assertThat(page.getTransactions()).hasSize(3);
+        assertThat(page.getNextToken()).isNull();
+    }
+
+    @Test
+    void getTransactions_TokenNamingAnotherUsersInstitution_SkipsIt() {
+        seed(USER_ID, BANK_A, 10);
+        seed(OTHER_USER_ID, BANK_B, 20);
+
+        String forged = Base64.getUrlEncoder().encodeToString(
+            ("{\"" + BANK_A + "\":11,\"" + BANK_B + "\":21}").getBytes(StandardCharsets.UTF_8));
+        GetTransactions200Response page = feedService.getTransactions(USER_ID, 5, forged);
+
+        assertThat(page.getTransactions()).extracting(TransactionResponse::getInstitutionId)
+            .containsExactly(UUID.fromString(BANK_A));
+    }
+
+    @Test
+    void getTransactions_InstitutionCreatedAfterFirstPage_IsNotMergedIntoLaterPages() {
+        seed(USER_ID, BANK_A, 10, 9, 8);
+
+        GetTransactions200Response first = feedService.getTransactions(USER_ID, 1, null);
+        seed(USER_ID, BANK_B, 50);
+        GetTransactions200Response second = feedService.getTransactions(USER_ID, 5, first.getNextToken());
+
+        assertThat(second.getTransactions()).extracting(TransactionResponse::getCreatedAt).containsExactly(9L, 8L);
+        assertThat(second.getNextToken()).isNull();
+    }
+
+    @Test
+    void getTransactions_NoInstitutions_ReturnsEmptyPage() {
+        GetTransactions200Response page = feedService.getTransactions(USER_ID, null, null);
+
+        assertThat(page.getTransactions()).isEmpty();
+        assertThat(page.getNextToken()).isNull();
+    }
+
+    @Test
+    void getTransactions_MalformedToken_ThrowsException() {
+        assertThatThrownBy(() -> feedService.getTransactions(USER_ID, 5, "not-a-token"))
+            .isInstanceOf(InvalidTransactionDataException.class)
+            .hasMessage("Invalid pagination token");
+    }
+
+    @Test
+    void getTransactions_NullUserId_ThrowsException() {
+        assertThatThrownBy(() -> feedService.getTransactions(null, 5, null))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("User ID cannot be null or empty");
+    }
+
+    private List<Transaction> seed(String userId, String institutionId, long... createdAts) {
+        if (institutionRepository.findAllByUserId(userId).stream()
+                .noneMatch(existing -> existing.getInstitutionId().equals(institutionId))) {
+            Institution institution = new Institution();
+            institution.setUserId(userId);
+            institution.setInstitutionId(institutionId);
+            institution.setInstitutionName("Bank");
+            institution.setStartingBalance(0.0);
+            institution.setCurrentBalance(0.0);
+            institution.setCreatedAt(1L);
+            institutionRepository.save(institution);
+        }
+
+        List<Transaction> seeded = new ArrayList<>();
+        for (long createdAt : createdAts) {
+            Transaction transaction = new Transaction();
+            transaction.setUserId(userId);
+            transaction.setInstitutionId(institutionId);
+            transaction.setTransactionId(UUID.randomUUID().toString());
+            transaction.setType("DEPOSIT");
+            transaction.setAmount(1.0);
+            transaction.setTransactionDate(createdAt);
+            transaction.setCreatedAt(createdAt);
+            transactionRepository.save(transaction);
+            seeded.add(transaction);
+        }
+        return seeded;
+    }
+
+    private static long[] range(long start, int count) {
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = start + i;
+        }
+        return values;
+    }
+}
@@ -2,19 +2,26 @@ package com.cpsc.backend.service;
 
 import com.cpsc.backend.entity.Institution;
 import com.cpsc.backend.entity.Transaction;
+import com.cpsc.backend.exception.ConcurrentUpdateException;
 import com.cpsc.backend.exception.InstitutionNotFoundException;
 import com.cpsc.backend.exception.InvalidTransactionDataException;
 import com.cpsc.backend.model.CreateTransactionRequest;
 import com.cpsc.backend.model.TransactionResponse;
+import com.cpsc.backend.model.UpdateTransactionRequest;
+import com.cpsc.backend.repository.EntityWrite;
+import com.cpsc.backend.repository.EntityWriteRepository;
 import com.cpsc.backend.repository.InstitutionRepository;
 import com.cpsc.backend.repository.TransactionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
 import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
 
 import java.util.Collections;
 import java.util.List;
@@ -23,8 +30,11 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,10 +46,22 @@ class TransactionServiceTest {
 
     @Mock
     private InstitutionRepository institutionRepository;
+
+    @Mock
+    private EntityWriteRepository entityWriteRepository;
     
     @Mock
     private GoalService goalService;
 
+    @Mock
+    private DashboardService dashboardService;
+
+    @Mock
+    private ChangeLogService changeLogService;
+
+    @Mock
+    private EventStreamService eventStreamService;
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -69,8 +91,6 @@ class TransactionServiceTest {
     void createTransaction_Success() {
         when(institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID))
                 .thenReturn(validInstitution);
-        doNothing().when(transactionRepository).save(any(Transaction.class));
-        doNothing().when(institutionRepository).save(any(Institution.class));
 
         TransactionResponse response = transactionService.createTransaction(USER_ID, INSTITUTION_ID, validRequest);
 
@@ -81,8 +101,18 @@ class TransactionServiceTest {
         assertThat(response.getAmount()).isEqualTo(100.50);
         assertThat(response.getTags()).containsExactly("grocery", "food");
         assertThat(response.getDescription()).isEqualTo("Weekly groceries");
-        verify(transactionRepository).save(any(Transaction.class));
-        verify(institutionRepository).save(validInstitution); // Should update institution balance
+        // The transaction and the institution's new balance are written together
+        EntityWrite write = written();
+        assertThat(write.getTransactions()).singleElement()
+                .satisfies(transaction -> assertThat(transaction.getAmount()).isEqualTo(100.50));
+        assertThat(write.getInstitutions()).containsExactly(validInstitution);
+        assertThat(validInstitution.getCurrentBalance()).isEqualTo(1100.50);
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(institutionRepository, never()).save(any(Institution.class));
+        verify(dashboardService).recordTransaction(eq(validInstitution), any(Transaction.class));
+        // ...with the change log entries recording them
+        verify(changeLogService).recordTransaction(eq(write), eq(validInstitution), any(Transaction.class));
+        verify(eventStreamService).publishBalanceChanged(validInstitution);
     }
 
     @Test
@@ -90,8 +120,6 @@ class TransactionServiceTest {
         validInstitution.setCurrentBalance(1000.0);
         when(institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID))
                 .thenReturn(validInstitution);
-        doNothing().when(transactionRepository).save(any(Transaction.class));
-        doNothing().when(institutionRepository).save(any(Institution.class));
 
         validRequest.setType(CreateTransactionRequest.TypeEnum.DEPOSIT);
         validRequest.setAmount(250.50);
@@ -99,7 +127,7 @@ class TransactionServiceTest {
         transactionService.createTransaction(USER_ID, INSTITUTION_ID, validRequest);
 
         assertThat(validInstitution.getCurrentBalance()).isEqualTo(1250.50);
-        verify(institutionRepository).save(validInstitution);
+        assertThat(written().getInstitutions()).containsExactly(validInstitution);
     }
 
     @Test
@@ -107,8 +135,6 @@ class TransactionServiceTest {
         validInstitution.setCurrentBalance(1000.0);
         when(institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID))
                 .thenReturn(validInstitution);
-        doNothing().when(transactionRepository).save(any(Transaction.class));
-        doNothing().when(institutionRepository).save(any(Institution.class));
 
         validRequest.setType(CreateTransactionRequest.TypeEnum.WITHDRAWAL);
         validRequest.setAmount(350.75);
@@ -116,7 +142,7 @@ class TransactionServiceTest {
         transactionService.createTransaction(USER_ID, INSTITUTION_ID, validRequest);
 
         assertThat(validInstitution.getCurrentBalance()).isEqualTo(649.25);
-        verify(institutionRepository).save(validInstitution);
+        assertThat(written().getInstitutions()).containsExactly(validInstitution);
     }
 
     @Test
@@ -125,8 +151,6 @@ class TransactionServiceTest {
         validInstitution.setCurrentBalance(null);
         when(institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID))
                 .thenReturn(validInstitution);
-        doNothing().when(transactionRepository).save(any(Transaction.class));
-        doNothing().when(institutionRepository).save(any(Institution.class));
 
         validRequest.setType(CreateTransactionRequest.TypeEnum.DEPOSIT);
         validRequest.setAmount(100.0);
@@ -141,8 +165,6 @@ class TransactionServiceTest {
         validRequest.setType(CreateTransactionRequest.TypeEnum.WITHDRAWAL);
         when(institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID))
                 .thenReturn(validInstitution);
-        doNothing().when(transactionRepository).save(any(Transaction.class));
-        doNothing().when(institutionRepository).save(any(Institution.class));
 
         TransactionResponse response = transactionService.createTransaction(USER_ID, INSTITUTION_ID, validRequest);
 
@@ -155,8 +177,6 @@ class TransactionServiceTest {
         validRequest.setDescription(null);
         when(institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID))
                 .thenReturn(validInstitution);
-        doNothing().when(transactionRepository).save(any(Transaction.class));
-        doNothing().when(institutionRepository).save(any(Institution.class));
 
         TransactionResponse response = transactionService.createTransaction(USER_ID, INSTITUTION_ID, validRequest);
 
@@ -260,7 +280,7 @@ class TransactionServiceTest {
         when(institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID))
                 .thenReturn(validInstitution);
         doThrow(DynamoDbException.builder().message("DynamoDB error").build())
-                .when(transactionRepository).save(any(Transaction.class));
+                .when(entityWriteRepository).write(any(EntityWrite.class));
 
         assertThatThrownBy(() -> transactionService.createTransaction(USER_ID, INSTITUTION_ID, validRequest))
                 .isInstanceOf(DynamoDbException.class);
@@ -271,13 +291,62 @@ class TransactionServiceTest {
         when(institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID))
                 .thenReturn(validInstitution);
         doThrow(new RuntimeException("Unexpected error"))
-                .when(transactionRepository).save(any(Transaction.class));
+                .when(entityWriteRepository).write(any(EntityWrite.class));
 
         assertThatThrownBy(() -> transactionService.createTransaction(USER_ID, INSTITUTION_ID, validRequest))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("Failed to create transaction");
     }
 
+    @Test
+    void createTransaction_BalanceVersionConflict_ReappliesDeltaToFreshInstitution() {
+        validInstitution.setVersion(3L);
+        Institution fresh = new Institution();
+        fresh.setUserId(USER_ID);
+        fresh.setInstitutionId(INSTITUTION_ID);
+        fresh.setInstitutionName("Test Bank");
+        fresh.setStartingBalance(1000.0);
+        fresh.setCurrentBalance(1500.0);
+        fresh.setVersion(4L);
+        
+        when(institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID))
+                .thenReturn(validInstitution, fresh);
+        doThrow(conflict()).doNothing().when(entityWriteRepository).write(any(EntityWrite.class));
+
+        transactionService.createTransaction(USER_ID, INSTITUTION_ID, validRequest);
+
+        // The deposit lands on the concurrently updated balance instead of overwriting it, and the
+        // transaction is written with it (the cancelled attempt wrote neither)
+        List<EntityWrite> writes = writes(2);
+        assertThat(fresh.getCurrentBalance()).isEqualTo(1600.50);
+        assertThat(writes.get(1).getInstitutions()).containsExactly(fresh);
+        assertThat(writes.get(1).getTransactions()).isEqualTo(writes.get(0).getTransactions());
+        verify(goalService).updateGoalCompletionForInstitution(USER_ID, INSTITUTION_ID, fresh);
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    void createTransaction_PersistentBalanceConflict_ThrowsConcurrentUpdateException() {
+        when(institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID))
+                .thenReturn(validInstitution);
+        doThrow(conflict()).when(entityWriteRepository).write(any(EntityWrite.class));
+
+        assertThatThrownBy(() -> transactionService.createTransaction(USER_ID, INSTITUTION_ID, validRequest))
+                .isInstanceOf(ConcurrentUpdateException.class);
+        verify(entityWriteRepository, times(OptimisticLocking.MAX_ATTEMPTS)).write(any(EntityWrite.class));
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(dashboardService, never()).recordTransaction(any(), any());
+    }
+
+    @Test
+    void createTransaction_InstitutionNotFound_WritesNothing() {
+        when(institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID)).thenReturn(null);
+
+        assertThatThrownBy(() -> transactionService.createTransaction(USER_ID, INSTITUTION_ID, validRequest))
+                .isInstanceOf(InstitutionNotFoundException.class);
+        verify(entityWriteRepository, never()).write(any(EntityWrite.class));
+    }
+
     @Test
     void getInstitutionTransactions_ReturnsTransactions() {
         Transaction transaction = new Transaction();
@@ -315,6 +384,16 @@ class TransactionServiceTest {
         assertThat(responses).isEmpty();
     }
 
+    @Test
+    void getInstitutionTransactions_InstitutionNotOwned_ThrowsNotFound() {
+        when(institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID)).thenReturn(null);
+
+        assertThatThrownBy(() -> transactionService.getInstitutionTransactions(USER_ID, INSTITUTION_ID))
+                .isInstanceOf(InstitutionNotFoundException.class)
+                .hasMessage("Institution not found with ID: " + INSTITUTION_ID);
+        verify(transactionRepository, never()).findAllByInstitutionId(any());
+    }
+
     @Test
     void getInstitutionTransactions_NullUserId_ThrowsException() {
         assertThatThrownBy(() -> transactionService.getInstitutionTransactions(null, INSTITUTION_ID))
@@ -352,6 +431,76 @@ class TransactionServiceTest {
                 .hasMessage("Failed to fetch transactions");
     }
 
+    // ===== UPDATE TRANSACTION TESTS =====
+
+    @Test
+    void updateTransaction_AmountAndTypeChanged_AppliesNetChangeInOneWrite() {
+        Transaction transaction = createTransaction("DEPOSIT", 200.0);
+        validInstitution.setCurrentBalance(1500.0);
+        when(institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID))
+                .thenReturn(validInstitution);
+        when(transactionRepository.findAllByInstitutionId(INSTITUTION_ID)).thenReturn(List.of(transaction));
+        UpdateTransactionRequest request = new UpdateTransactionRequest();
+        request.setType(UpdateTransactionRequest.TypeEnum.WITHDRAWAL);
+        request.setAmount(50.0);
+
+        TransactionResponse response = transactionService.updateTransaction(USER_ID,
+                UUID.fromString(INSTITUTION_ID), UUID.fromString(transaction.getTransactionId()), request);
+
+        // -200 to take back the deposit, -50 for the withdrawal
+        assertThat(validInstitution.getCurrentBalance()).isEqualTo(1250.0);
+        assertThat(response.getAmount()).isEqualTo(50.0);
+        EntityWrite write = written();
+        assertThat(write.getTransactions()).containsExactly(transaction);
+        assertThat(write.getInstitutions()).containsExactly(validInstitution);
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(changeLogService).recordTransaction(write, validInstitution, transaction);
+    }
+
+    @Test
+    void updateTransaction_Conflict_RereadsTransactionAndInstitution() {
+        Transaction stale = createTransaction("DEPOSIT", 200.0);
+        Transaction fresh = createTransaction("DEPOSIT", 300.0);
+        fresh.setTransactionId(stale.getTransactionId());
+        Institution freshInstitution = new Institution();
+        freshInstitution.setUserId(USER_ID);
+        freshInstitution.setInstitutionId(INSTITUTION_ID);
+        freshInstitution.setStartingBalance(1000.0);
+        freshInstitution.setCurrentBalance(1300.0);
+        when(institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID))
+                .thenReturn(validInstitution, freshInstitution);
+        when(transactionRepository.findAllByInstitutionId(INSTITUTION_ID))
+                .thenReturn(List.of(stale), List.of(fresh));
+        doThrow(conflict()).doNothing().when(entityWriteRepository).write(any(EntityWrite.class));
+        UpdateTransactionRequest request = new UpdateTransactionRequest();
+        request.setAmount(250.0);
+
+        transactionService.updateTransaction(USER_ID, UUID.fromString(INSTITUTION_ID),
+                UUID.fromString(stale.getTransactionId()), request);
+
+        // The change is computed from the transaction as another request left it: 300 -> 250
+        assertThat(freshInstitution.getCurrentBalance()).isEqualTo(1250.0);
+        assertThat(writes(2).get(1).getTransactions()).containsExactly(fresh);
+        assertThat(fresh.getAmount()).isEqualTo(250.0);
+    }
+
+    @Test
+    void updateTransaction_PersistentConflict_ThrowsConcurrentUpdateException() {
+        Transaction transaction = createTransaction("DEPOSIT", 200.0);
+        when(institutionRepository.findByUserIdAndInstitutionId(USER_ID, INSTITUTION_ID))
+                .thenReturn(validInstitution);
+        when(transactionRepository.findAllByInstitutionId(INSTITUTION_ID)).thenReturn(List.of(transaction));
+        doThrow(conflict()).when(entityWriteRepository).write(any(EntityWrite.class));
+        UpdateTransactionRequest request = new UpdateTransactionRequest();
+        request.setAmount(250.0);
+
+        assertThatThrownBy(() -> transactionService.updateTransaction(USER_ID, UUID.fromString(INSTITUTION_ID),
+                UUID.fromString(transaction.getTransactionId()), request))
+                .isInstanceOf(ConcurrentUpdateException.class);
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(institutionRepository, never()).save(any(Institution.class));
+    }
+
     // ===== DELETE TRANSACTION TESTS =====
 
     @Test
@@ -372,12 +521,14 @@ class TransactionServiceTest {
                 .thenReturn(validInstitution);
         when(transactionRepository.findAllByInstitutionId(INSTITUTION_ID))
                 .thenReturn(List.of(transaction));
-        doNothing().when(institutionRepository).save(any(Institution.class));
 
         transactionService.deleteTransaction(USER_ID, institutionId, transactionId);
 
-        verify(transactionRepository).delete(INSTITUTION_ID, createdAt);
-        verify(institutionRepository).save(validInstitution);
+        // The row is deleted in the same write that reverses it on the balance
+        EntityWrite write = written();
+        assertThat(write.getDeletedTransactions()).containsExactly(transaction);
+        assertThat(write.getInstitutions()).containsExactly(validInstitution);
+        verify(transactionRepository, never()).delete(INSTITUTION_ID, createdAt);
     }
 
     @Test
@@ -400,12 +551,11 @@ class TransactionServiceTest {
                 .thenReturn(validInstitution);
         when(transactionRepository.findAllByInstitutionId(INSTITUTION_ID))
                 .thenReturn(List.of(transaction));
-        doNothing().when(institutionRepository).save(any(Institution.class));
 
         transactionService.deleteTransaction(USER_ID, institutionId, transactionId);
 
         assertThat(validInstitution.getCurrentBalance()).isEqualTo(1300.0);
-        verify(institutionRepository).save(validInstitution);
+        assertThat(written().getInstitutions()).containsExactly(validInstitution);
     }
 
     @Test
@@ -428,12 +578,11 @@ class TransactionServiceTest {
                 .thenReturn(validInstitution);
         when(transactionRepository.findAllByInstitutionId(INSTITUTION_ID))
                 .thenReturn(List.of(transaction));
-        doNothing().when(institutionRepository).save(any(Institution.class));
 
         transactionService.deleteTransaction(USER_ID, institutionId, transactionId);
 
         assertThat(validInstitution.getCurrentBalance()).isEqualTo(950.0);
-        verify(institutionRepository).save(validInstitution);
+        assertThat(written().getInstitutions()).containsExactly(validInstitution);
     }
 
     @Test
@@ -525,4 +674,31 @@ class TransactionServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("Transaction ID cannot be null");
     }
+
+    private EntityWrite written() {
+        return writes(1).get(0);
+    }
+
+    private List<EntityWrite> writes(int count) {
+        ArgumentCaptor<EntityWrite> captor = ArgumentCaptor.forClass(EntityWrite.class);
+        verify(entityWriteRepository, times(count)).write(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static TransactionCanceledException conflict() {
+        return TransactionCanceledException.builder()
+                .cancellationReasons(CancellationReason.builder().code("ConditionalCheckFailed").build())
+                .build();
+    }
+
+    private static Transaction createTransaction(String type, double amount) {
+        Transaction transaction = new Transaction();
+        transaction.setInstitutionId(INSTITUTION_ID);
+        transaction.setUserId(USER_ID);
+        transaction.setTransactionId(UUID.randomUUID().toString());
+        transaction.setCreatedAt(1735363200L);
+        transaction.setType(type);
+        transaction.setAmount(amount);
+        return transaction;
+    }
 }
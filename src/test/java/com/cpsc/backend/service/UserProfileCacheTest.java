@@ -0,0 +1,174 @@
+package com.cpsc.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserProfileCacheTest {
+
+    private static final String USER_ID = "user-123";
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserProfileCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserProfileCache(Duration.ofMinutes(5), 100, meterRegistry);
+    }
+
+    @Test
+    void putFromIdToken_ThenGet_ReturnsProfile() {
+        cache.putFromIdToken(USER_ID, "test@example.com", "TestUser123", Instant.now());
+
+        Map<String, String> profile = cache.get(USER_ID);
+
+        assertThat(profile)
+            .containsEntry("sub", USER_ID)
+            .containsEntry("email", "test@example.com")
+            .containsEntry("preferred_username", "TestUser123");
+    }
+
+    @Test
+    void get_UnknownUser_ReturnsNull() {
+        assertThat(cache.get(USER_ID)).isNull();
+    }
+
+    @Test
+    void put_FromGetUser_ReturnsProfile() {
+        cache.put(USER_ID, Map.of("username", USER_ID, "email", "test@example.com",
+            "preferred_username", "TestUser123", "email_verified", "true"));
+
+        assertThat(cache.get(USER_ID))
+            .containsOnlyKeys("sub", "email", "preferred_username")
+            .containsEntry("preferred_username", "TestUser123");
+    }
+
+    @Test
+    void invalidate_DropsProfile() {
+        cache.putFromIdToken(USER_ID, "test@example.com", "OldName", Instant.now());
+
+        cache.invalidate(USER_ID);
+
+        assertThat(cache.get(USER_ID)).isNull();
+    }
+
+    @Test
+    void putFromIdToken_IssuedBeforeInvalidation_IsIgnored() {
+        Instant issuedAt = Instant.now();
+        cache.invalidate(USER_ID);
+
+        cache.putFromIdToken(USER_ID, "test@example.com", "OldName", issuedAt);
+
+        assertThat(cache.get(USER_ID)).isNull();
+    }
+
+    @Test
+    void putFromIdToken_IssuedAfterInvalidation_IsAccepted() {
+        cache.invalidate(USER_ID);
+
+        cache.putFromIdToken(USER_ID, "test@example.com", "NewName", Instant.now().plusSeconds(5));
+
+        assertThat(cache.get(USER_ID)).containsEntry("preferred_username", "NewName");
+    }
+
+    @Test
+    void put_AfterInvalidation_KeepsRejectingOlderTokens() {
+        Instant issuedAt = Instant.now();
+        cache.invalidate(USER_ID);
+        cache.put(USER_ID, Map.of("email", "test@example.com", "preferred_username", "NewName"));
+
+        cache.invalidate(USER_ID);
+        cache.putFromIdToken(USER_ID, "test@example.com", "OldName", issuedAt);
+
+        assertThat(cache.get(USER_ID)).isNull();
+    }
+
+    @Test
+    void putFromIdToken_FreshEntry_IsNotReplaced() {
+        cache.put(USER_ID, Map.of("email", "test@example.com", "preferred_username", "Current"));
+
+        cache.putFromIdToken(USER_ID, "test@example.com", "Other", Instant.now());
+
+        assertThat(cache.get(USER_ID)).containsEntry("preferred_username", "Current");
+    }
+
+    @Test
+    void get_ZeroTtl_AlwaysMisses() {
+        cache = new UserProfileCache(Duration.ZERO, 100, meterRegistry);
+
+        cache.putFromIdToken(USER_ID, "test@example.com", "TestUser123", Instant.now());
+
+        assertThat(cache.get(USER_ID)).isNull();
+    }
+
+    @Test
+    void put_OverMaxSize_EvictsEntries() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserProfileCache(Duration.ofMinutes(5), 2, meterRegistry);
+
+        for (int i = 0; i < 5; i++) {
+            cache.putFromIdToken("user-" + i, "user" + i + "@example.com", "User" + i, Instant.now());
+        }
+
+        assertThat(meterRegistry.get("profile.cache.size").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void putFromIdToken_InvalidationInFullCache_StillBlocksOlderToken() {
+        cache = new UserProfileCache(Duration.ofMinutes(5), 2, meterRegistry);
+        Instant issuedAt = Instant.now();
+        cache.invalidate(USER_ID);
+
+        for (int i = 0; i < 5; i++) {
+            cache.putFromIdToken("user-" + i, "user" + i + "@example.com", "User" + i, Instant.now());
+        }
+        cache.putFromIdToken(USER_ID, "test@example.com", "OldName", issuedAt);
+
+        assertThat(cache.get(USER_ID)).isNull();
+    }
+
+    @Test
+    void putFromIdToken_InvalidationsOverflowCache_OlderTokensStillBlocked() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserProfileCache(Duration.ofMinutes(5), 2, meterRegistry);
+        Instant issuedAt = Instant.now();
+
+        for (int i = 0; i < 5; i++) {
+            cache.invalidate("user-" + i);
+        }
+        for (int i = 0; i < 5; i++) {
+            cache.putFromIdToken("user-" + i, "user" + i + "@example.com", "OldName", issuedAt);
+        }
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(cache.get("user-" + i)).isNull();
+        }
+        assertThat(meterRegistry.get("profile.cache.size").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void get_CountsHitsAndMisses() {
+        cache.get(USER_ID);
+        cache.putFromIdToken(USER_ID, "test@example.com", "TestUser123", Instant.now());
+        cache.get(USER_ID);
+        cache.get(USER_ID);
+
+        assertThat(meterRegistry.get(UserProfileCache.METRIC).tag("result", "hit").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get(UserProfileCache.METRIC).tag("result", "miss").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void constructor_NegativeTtl_ThrowsException() {
+        assertThatThrownBy(() -> new UserProfileCache(Duration.ofSeconds(-1), 100, meterRegistry))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Profile cache TTL cannot be negative");
+    }
+}
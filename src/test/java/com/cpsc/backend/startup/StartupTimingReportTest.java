@@ -0,0 +1,63 @@
+package com.cpsc.backend.startup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StartupTimingReportTest {
+
+    private final BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+
+    @Test
+    void report_RanksBeansBySelfTime() throws InterruptedException {
+        // The controller needs the slow client, which is created while the controller waits for it
+        StartupStep controller = bean("testController");
+        StartupStep client = bean("dynamoDbClient");
+        Thread.sleep(100);
+        client.end();
+        controller.end();
+        bean("jwtValidator").end();
+
+        StartupTimingReport.Report report = new StartupTimingReport(2)
+            .report(startup.getBufferedTimeline().getEvents(), Duration.ofMillis(300));
+
+        assertThat(report.jvmStart()).isEqualTo(Duration.ofMillis(300));
+        assertThat(report.beans()).hasSize(2);
+        assertThat(report.beans().get(0).name()).isEqualTo("dynamoDbClient");
+        assertThat(report.beans().get(0).duration()).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+        assertThat(report.beans().get(1).duration()).isLessThan(Duration.ofMillis(100));
+    }
+
+    @Test
+    void report_SumsSelfTimePerPhase() throws InterruptedException {
+        StartupStep refresh = startup.start("spring.context.refresh");
+        StartupStep client = bean("dynamoDbClient");
+        Thread.sleep(50);
+        client.end();
+        refresh.end();
+
+        StartupTimingReport.Report report = new StartupTimingReport(15)
+            .report(startup.getBufferedTimeline().getEvents(), Duration.ZERO);
+
+        assertThat(report.phases()).containsOnlyKeys("spring.beans.instantiate", "spring.context.refresh");
+        assertThat(report.phases().keySet()).first().isEqualTo("spring.beans.instantiate");
+        assertThat(report.phases().get("spring.beans.instantiate")).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+    }
+
+    @Test
+    void report_NoEvents_IsEmpty() {
+        StartupTimingReport.Report report = new StartupTimingReport(15).report(List.of(), Duration.ZERO);
+
+        assertThat(report.phases()).isEmpty();
+        assertThat(report.beans()).isEmpty();
+    }
+
+    private StartupStep bean(String name) {
+        return startup.start("spring.beans.instantiate").tag("beanName", name);
+    }
+}
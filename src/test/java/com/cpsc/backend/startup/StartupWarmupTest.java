@@ -0,0 +1,136 @@
+package com.cpsc.backend.startup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StartupWarmupTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void start_RunsTasksInParallel() throws Exception {
+        // Each task waits for the other, so they only finish if they run at the same time
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        StartupWarmup.Work work = () -> {
+            bothStarted.countDown();
+            if (!bothStarted.await(2, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Tasks ran one after another");
+            }
+        };
+        StartupWarmup warmup = warmup(Duration.ofSeconds(5),
+            new StartupWarmup.Task("cognito", false, work),
+            new StartupWarmup.Task("dynamodb", false, work));
+
+        warmup.start().get(5, TimeUnit.SECONDS);
+
+        assertThat(warmup.isReady()).isTrue();
+        assertThat(warmup.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(warmup.health().getDetails()).containsOnlyKeys("cognito", "dynamodb");
+        assertThat(timerCount("cognito", "success")).isEqualTo(1);
+    }
+
+    @Test
+    void start_ReturnsBeforeTasksFinish() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        StartupWarmup warmup = warmup(Duration.ofSeconds(5),
+            new StartupWarmup.Task("secrets", true, () -> release.await(5, TimeUnit.SECONDS)));
+
+        CompletableFuture<Void> finished = warmup.start();
+
+        assertThat(warmup.state()).isEqualTo(StartupWarmup.State.STARTING);
+        assertThat(warmup.isReady()).isFalse();
+        assertThat(warmup.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        assertThat(warmup.health().getDetails()).containsEntry("secrets", "pending");
+
+        release.countDown();
+        finished.get(5, TimeUnit.SECONDS);
+        assertThat(warmup.isReady()).isTrue();
+    }
+
+    @Test
+    void start_OptionalTaskFails_StillReady() throws Exception {
+        StartupWarmup warmup = warmup(Duration.ofSeconds(5),
+            new StartupWarmup.Task("secrets", true, () -> { }),
+            new StartupWarmup.Task("jwks", false, () -> {
+                throw new IOException("Connection refused");
+            }));
+
+        warmup.start().get(5, TimeUnit.SECONDS);
+
+        assertThat(warmup.isReady()).isTrue();
+        assertThat((String) warmup.health().getDetails().get("jwks")).contains("Connection refused");
+        assertThat(timerCount("jwks", "failure")).isEqualTo(1);
+    }
+
+    @Test
+    void start_RequiredTaskFails_ReportsDown() throws Exception {
+        StartupWarmup warmup = warmup(Duration.ofSeconds(5),
+            new StartupWarmup.Task("secrets", true, () -> {
+                throw new IllegalStateException("Secret not found");
+            }));
+
+        warmup.start().get(5, TimeUnit.SECONDS);
+
+        assertThat(warmup.state()).isEqualTo(StartupWarmup.State.FAILED);
+        assertThat(warmup.isReady()).isFalse();
+        assertThat(warmup.health().getStatus()).isEqualTo(Status.DOWN);
+    }
+
+    @Test
+    void start_OptionalTaskTooSlow_GivenUpOn() throws Exception {
+        CountDownLatch never = new CountDownLatch(1);
+        StartupWarmup warmup = warmup(Duration.ofMillis(50),
+            new StartupWarmup.Task("cognito", false, () -> never.await(5, TimeUnit.SECONDS)));
+
+        warmup.start().get(2, TimeUnit.SECONDS);
+
+        assertThat(warmup.isReady()).isTrue();
+        assertThat((String) warmup.health().getDetails().get("cognito")).startsWith("timed out");
+        assertThat(timerCount("cognito", "timeout")).isEqualTo(1);
+        never.countDown();
+    }
+
+    @Test
+    void start_Disabled_ReadyWithoutRunningTasks() throws Exception {
+        StartupWarmup warmup = new StartupWarmup(List.of(new StartupWarmup.Task("secrets", true, () -> {
+            throw new IllegalStateException("Should not run");
+        })), false, Duration.ofSeconds(5), meterRegistry);
+
+        warmup.start().get(1, TimeUnit.SECONDS);
+
+        assertThat(warmup.isReady()).isTrue();
+        assertThat(warmup.health().getDetails()).containsEntry("secrets", "skipped");
+    }
+
+    @Test
+    void constructor_NonPositiveTimeout_ThrowsException() {
+        assertThatThrownBy(() -> new StartupWarmup(List.of(), true, Duration.ZERO, meterRegistry))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Warm-up timeout must be positive");
+    }
+
+    private StartupWarmup warmup(Duration timeout, StartupWarmup.Task... tasks) {
+        return new StartupWarmup(List.of(tasks), true, timeout, meterRegistry);
+    }
+
+    private long timerCount(String task, String outcome) {
+        return meterRegistry.get(StartupWarmup.METRIC).tag("task", task).tag("outcome", outcome).timer().count();
+    }
+}